@@ -169,6 +169,9 @@
 -keep public class info.blockchain.wallet.prices.data.** { *; }
 -keep public class com.blockchain.nabu.api.** { *; }
 -keep public class com.blockchain.nabu.models.** { *; }
+# Locally stored XLM history, read back with reflective Moshi
+-keep class com.blockchain.sunriver.XlmHistory { *; }
+-keep class com.blockchain.sunriver.StoredXlmTransaction { *; }
 -keepclasseswithmembernames class androidx.drawerlayout.widget.DrawerLayout { *; }
 
 # Javapoet
@@ -1,6 +1,8 @@
 package com.blockchain.koin.modules
 
 import android.os.Build
+import com.blockchain.network.cache.HttpCacheConfig
+import com.blockchain.network.cache.HttpResponseCache
 import com.blockchain.network.modules.OkHttpInterceptors
 import com.chuckerteam.chucker.api.ChuckerInterceptor
 import com.facebook.stetho.okhttp3.StethoInterceptor
@@ -13,6 +15,7 @@ import piuk.blockchain.androidcore.data.api.interceptors.ApiInterceptor
 import piuk.blockchain.androidcore.data.api.interceptors.DeviceIdInterceptor
 import piuk.blockchain.androidcore.data.api.interceptors.UserAgentInterceptor
 import piuk.blockchain.androidcore.utils.PersistentPrefs
+import java.io.File
 
 val apiInterceptorsModule = module {
 
@@ -44,4 +47,10 @@ val apiInterceptorsModule = module {
                 )
             })
     }
+
+    single {
+        HttpResponseCache(
+            HttpCacheConfig(directory = File(androidContext().cacheDir, "http"))
+        )
+    }
 }
@@ -144,7 +144,8 @@ val applicationModule = module {
             context = get(),
             payloadManager = get(),
             accessState = get(),
-            prefs = get()
+            prefs = get(),
+            httpResponseCache = get()
         )
     }
 
@@ -210,7 +211,8 @@ val applicationModule = module {
                 bchDataManager = get(),
                 metadataManager = get(),
                 walletOptionsState = get(),
-                nabuDataManager = get()
+                nabuDataManager = get(),
+                httpResponseCache = get()
             )
         }
 
@@ -221,6 +223,7 @@ val applicationModule = module {
                 credentialsWiper = get(),
                 payloadDataManager = get(),
                 exchangeRateFactory = get(),
+                coincore = get(),
                 qrProcessor = get(),
                 kycStatusHelper = get(),
                 deepLinkProcessor = get(),
@@ -450,6 +453,7 @@ val applicationModule = module {
                 exchangeRates = get(),
                 currencyPrefs = get(),
                 custodialWalletManager = get(),
+                custodialBalances = get(),
                 simpleBuyPrefs = get(),
                 analytics = get(),
                 crashLogger = get(),
@@ -77,6 +77,10 @@ interface CryptoAccount : SingleAccount {
 
     val hasStaticAddress: Boolean
         get() = true
+
+    // False until the balance has first been read, before which isFunded is false either way
+    val isBalanceKnown: Boolean
+        get() = true
 }
 
 interface FiatAccount : SingleAccount {
@@ -14,8 +14,13 @@ import info.blockchain.balance.FiatValue
 import info.blockchain.balance.Money
 import io.reactivex.Completable
 import io.reactivex.Observable
+import io.reactivex.Scheduler
 import io.reactivex.Single
+import io.reactivex.disposables.Disposable
+import io.reactivex.schedulers.Schedulers
 import io.reactivex.subjects.BehaviorSubject
+import io.reactivex.subjects.CompletableSubject
+import io.reactivex.subjects.PublishSubject
 import org.koin.core.KoinComponent
 import org.koin.core.inject
 import piuk.blockchain.android.ui.linkbank.BankPaymentApproval
@@ -23,6 +28,7 @@ import piuk.blockchain.androidcore.data.exchangerate.ExchangeRateDataManager
 import piuk.blockchain.androidcore.utils.extensions.emptySubscribe
 import piuk.blockchain.androidcore.utils.helperfunctions.unsafeLazy
 import timber.log.Timber
+import java.util.concurrent.TimeUnit
 
 open class TransferError(msg: String) : Exception(msg)
 
@@ -48,6 +54,11 @@ enum class ValidationState {
 class TxValidationFailure(val state: ValidationState) : TransferError("Invalid Send Tx: $state")
 class NeedsApprovalException(val bankPaymentData: BankPaymentApproval) : Throwable()
 
+// An amount or fee level update kept being overtaken by other updates to the pendingTx, and gave up.
+// The newer pendingTx has been published and the change is kept for the next update, so callers
+// shouldn't treat this as the transaction failing.
+class StalePendingTxException : Exception()
+
 enum class FeeLevel {
     None,
     Regular,
@@ -81,7 +92,9 @@ data class PendingTx(
     val minLimit: Money? = null,
     val maxLimit: Money? = null,
     val validationState: ValidationState = ValidationState.UNINITIALISED,
-    val engineState: Map<String, Any> = emptyMap()
+    val engineState: Map<String, Any> = emptyMap(),
+    // Set by the TransactionProcessor, and increased every time it publishes an update
+    val version: Long = 0
 ) {
     fun hasOption(confirmation: TxConfirmation): Boolean =
         confirmations.find { it.confirmation == confirmation } != null
@@ -311,7 +324,9 @@ class TransactionProcessor(
     sourceAccount: BlockchainAccount,
     txTarget: TransactionTarget,
     exchangeRates: ExchangeRateDataManager,
-    private val engine: TxEngine
+    private val engine: TxEngine,
+    private val inputDebounceMillis: Long = 0,
+    private val debounceScheduler: Scheduler = Schedulers.computation()
 ) : TxEngine.RefreshTrigger {
 
     init {
@@ -332,8 +347,28 @@ class TransactionProcessor(
 
     private val txObservable: BehaviorSubject<PendingTx> = BehaviorSubject.create()
 
-    private fun updatePendingTx(pendingTx: PendingTx) =
-        txObservable.onNext(pendingTx)
+    private val publishLock = Any()
+    private var publishedVersion = 0L
+
+    private fun updatePendingTx(pendingTx: PendingTx) {
+        synchronized(publishLock) {
+            publishedVersion++
+            txObservable.onNext(pendingTx.copy(version = publishedVersion))
+        }
+    }
+
+    // Amount and fee level changes which have not yet made it into a published pendingTx, and the
+    // caller waiting on the latest of them. They are applied together, and an update still running
+    // when another change comes in is abandoned, so only the newest request completes.
+    private data class FeeInput(val level: FeeLevel, val customFeeAmount: Long)
+
+    private val inputLock = Any()
+    private var unappliedAmount: Money? = null
+    private var unappliedFee: FeeInput? = null
+    private var awaitingUpdate: CompletableSubject? = null
+
+    private val inputChanges = PublishSubject.create<Unit>().toSerialized()
+    private var inputPipeline: Disposable? = null
 
     private fun getPendingTx(): PendingTx =
         txObservable.value ?: throw IllegalStateException("TransactionProcessor not initialised")
@@ -368,27 +403,12 @@ class TransactionProcessor(
 
     fun updateAmount(amount: Money): Completable {
         Timber.d("!TRANSACTION!> in UpdateAmount")
-        val pendingTx = getPendingTx()
+        // Fails if the processor hasn't been initialised
+        getPendingTx()
         if (!canTransactFiat && amount is FiatValue)
             throw IllegalArgumentException("The processor does not support fiat values")
 
-        return engine.doUpdateAmount(amount, pendingTx)
-            .flatMap {
-                val isFreshTx = it.validationState == ValidationState.UNINITIALISED
-                engine.doValidateAmount(it)
-                    .map { pendingTx ->
-                        // Remove initial "insufficient funds' warning
-                        if (amount.isZero && isFreshTx) {
-                            pendingTx.copy(validationState = ValidationState.UNINITIALISED)
-                        } else {
-                            pendingTx
-                        }
-                    }
-            }
-            .doOnSuccess {
-                updatePendingTx(it)
-            }
-            .ignoreElement()
+        return submitInput { unappliedAmount = amount }
     }
 
     // Check that the fee level is supported, then call into the engine to set the fee and validate balances etc
@@ -400,10 +420,101 @@ class TransactionProcessor(
             "Fee Level $level not supported by engine ${engine::class.java.name}"
         }
 
-        return engine.doUpdateFeeLevel(pendingTx, level, customFeeAmount ?: -1L)
-            .flatMap { engine.doValidateAmount(it) }
-            .doOnSuccess { updatePendingTx(it) }
-            .ignoreElement()
+        return submitInput { unappliedFee = FeeInput(level, customFeeAmount ?: -1L) }
+    }
+
+    // Records the change and completes once it has been published. If a later change arrives first,
+    // this completes straight away and the later one carries both.
+    private fun submitInput(record: () -> Unit): Completable =
+        Completable.defer {
+            val awaiting = CompletableSubject.create()
+            val superseded = synchronized(inputLock) {
+                record()
+                awaitingUpdate.also { awaitingUpdate = awaiting }
+            }
+            superseded?.onComplete()
+            startInputPipeline()
+            inputChanges.onNext(Unit)
+            awaiting
+        }
+
+    private fun startInputPipeline() {
+        synchronized(inputLock) {
+            if (inputPipeline == null) {
+                val changes = if (inputDebounceMillis > 0) {
+                    inputChanges.debounce(inputDebounceMillis, TimeUnit.MILLISECONDS, debounceScheduler)
+                } else {
+                    inputChanges
+                }
+                inputPipeline = changes
+                    .switchMapCompletable { applyUnappliedInputs() }
+                    .emptySubscribe()
+            }
+        }
+    }
+
+    private fun applyUnappliedInputs(): Completable =
+        Completable.defer {
+            val (amount, fee, awaiting) = synchronized(inputLock) {
+                Triple(unappliedAmount, unappliedFee, awaitingUpdate)
+            }
+
+            Completable.defer { applyAndPublish(amount, fee) }
+                .retry(MAX_REBASES) { it is StalePendingTxException }
+                .doOnEvent { e ->
+                    synchronized(inputLock) {
+                        // Changes that were overtaken too often are kept, so the next one carries them
+                        if (e !is StalePendingTxException) {
+                            if (unappliedAmount === amount) unappliedAmount = null
+                            if (unappliedFee === fee) unappliedFee = null
+                        }
+                        if (awaitingUpdate === awaiting) awaitingUpdate = null
+                    }
+                }
+                .doOnComplete { awaiting?.onComplete() }
+                .doOnError { awaiting?.onError(it) }
+                .onErrorComplete()
+        }
+
+    private fun applyAndPublish(amount: Money?, fee: FeeInput?): Completable {
+        val base = getPendingTx()
+        return applyInputs(base, amount, fee)
+            .doOnSuccess { pendingTx ->
+                synchronized(publishLock) {
+                    // Something else, such as an option change, was published while we worked;
+                    // start again from that
+                    if (getPendingTx().version != base.version) throw StalePendingTxException()
+                    updatePendingTx(pendingTx)
+                }
+            }.ignoreElement()
+    }
+
+    private fun applyInputs(base: PendingTx, amount: Money?, fee: FeeInput?): Single<PendingTx> {
+        val withFee = fee?.let {
+            engine.doUpdateFeeLevel(base, it.level, it.customFeeAmount)
+        } ?: Single.just(base)
+
+        return withFee.flatMap { pTx ->
+            if (amount != null) {
+                engine.doUpdateAmount(amount, pTx)
+                    .flatMap { validateAmount(amount, it) }
+            } else {
+                engine.doValidateAmount(pTx)
+            }
+        }
+    }
+
+    private fun validateAmount(amount: Money, pendingTx: PendingTx): Single<PendingTx> {
+        val isFreshTx = pendingTx.validationState == ValidationState.UNINITIALISED
+        return engine.doValidateAmount(pendingTx)
+            .map {
+                // Remove initial "insufficient funds' warning
+                if (amount.isZero && isFreshTx) {
+                    it.copy(validationState = ValidationState.UNINITIALISED)
+                } else {
+                    it
+                }
+            }
     }
 
     // Return a stream of the exchange rate between the source asset and the user's selected
@@ -490,12 +601,20 @@ class TransactionProcessor(
     }
 
     fun reset() {
+        synchronized(inputLock) {
+            inputPipeline?.dispose()
+            inputPipeline = null
+        }
         // if initialise tx fails then getPendingTx will crash
         try {
             engine.stop(getPendingTx())
         } catch (e: IllegalStateException) {
         }
     }
+
+    companion object {
+        private const val MAX_REBASES = 3L
+    }
 }
 
 fun Completable.updateTxValidity(pendingTx: PendingTx): Single<PendingTx> =
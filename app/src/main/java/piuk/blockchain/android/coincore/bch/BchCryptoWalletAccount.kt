@@ -27,7 +27,7 @@ import piuk.blockchain.androidcore.data.payload.PayloadDataManager
 import piuk.blockchain.androidcore.data.payments.SendDataManager
 import piuk.blockchain.androidcore.utils.extensions.mapList
 import piuk.blockchain.androidcore.utils.extensions.then
-import java.util.concurrent.atomic.AtomicBoolean
+import java.util.concurrent.atomic.AtomicReference
 
 internal class BchCryptoWalletAccount private constructor(
     payloadManager: PayloadDataManager,
@@ -44,7 +44,7 @@ internal class BchCryptoWalletAccount private constructor(
     identity: UserIdentity
 ) : CryptoNonCustodialAccount(payloadManager, CryptoCurrency.BCH, custodialWalletManager, identity) {
 
-    private val hasFunds = AtomicBoolean(false)
+    private val hasFunds = AtomicReference<Boolean?>(null)
 
     override val label: String
         get() = internalAccount.label
@@ -56,7 +56,10 @@ internal class BchCryptoWalletAccount private constructor(
         get() = addressIndex == bchManager.getDefaultAccountPosition()
 
     override val isFunded: Boolean
-        get() = hasFunds.get()
+        get() = hasFunds.get() == true
+
+    override val isBalanceKnown: Boolean
+        get() = hasFunds.get() != null
 
     override val accountBalance: Single<Money>
         get() = Single.fromCallable { internalAccount.xpubs() }
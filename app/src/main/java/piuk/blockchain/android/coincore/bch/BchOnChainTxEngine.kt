@@ -32,6 +32,8 @@ import piuk.blockchain.android.coincore.copyAndPut
 import piuk.blockchain.android.coincore.impl.txEngine.BitPayClientEngine
 import piuk.blockchain.android.coincore.impl.txEngine.EngineTransaction
 import piuk.blockchain.android.coincore.impl.txEngine.OnChainTxEngineBase
+import piuk.blockchain.android.coincore.impl.txEngine.UnspentCoins
+import piuk.blockchain.android.coincore.impl.txEngine.UnspentOutputsSnapshot
 import piuk.blockchain.android.coincore.updateTxValidity
 import piuk.blockchain.android.ui.transactionflow.flow.FeeInfo
 import piuk.blockchain.androidcore.data.bitcoincash.BchDataManager
@@ -73,8 +75,20 @@ class BchOnChainTxEngine(
         check(sourceAsset == CryptoCurrency.BCH)
     }
 
+    private val snapshot = UnspentOutputsSnapshot(
+        localBalance = { bchDataManager.getAddressBalance(bchSource.xpubAddress) },
+        loadCoins = { balance ->
+            Singles.zip(
+                sourceAccount.accountBalance.map { it as CryptoValue },
+                getUnspentApiResponse(balance, bchSource.xpubAddress)
+            ) { total, coins -> UnspentCoins(total, coins) }
+        },
+        loadFeeOptions = { feeManager.bchFeeOptions.singleOrError() }
+    )
+
     override fun doInitialiseTx(): Single<PendingTx> =
-        Single.just(
+        Single.fromCallable {
+            snapshot.startSession()
             PendingTx(
                 amount = CryptoValue.zero(sourceAsset),
                 totalBalance = CryptoValue.zero(sourceAsset),
@@ -88,18 +102,24 @@ class BchOnChainTxEngine(
                 ),
                 selectedFiat = userFiat
             )
-        )
+        }
 
+    // The coins and fee options are loaded once per session, so only coin selection is re-run here
     override fun doUpdateAmount(amount: Money, pendingTx: PendingTx): Single<PendingTx> {
         require(amount is CryptoValue)
         require(amount.currency == sourceAsset)
 
         return Singles.zip(
-            sourceAccount.accountBalance.map { it as CryptoValue },
-            getUnspentApiResponse(bchSource.xpubAddress),
-            getDynamicFeePerKb()
-        ) { balance, coins, feePerKb ->
-            updatePendingTx(amount, balance, pendingTx, feePerKb, coins)
+            snapshot.coins(),
+            snapshot.feeOptions()
+        ) { unspent, feeOptions ->
+            updatePendingTx(
+                amount,
+                unspent.totalBalance,
+                pendingTx,
+                feeToCrypto(feeOptions.regularFee),
+                unspent.coins
+            )
         }.onErrorReturn {
             pendingTx.copy(
                 validationState = ValidationState.INSUFFICIENT_FUNDS
@@ -107,8 +127,12 @@ class BchOnChainTxEngine(
         }
     }
 
-    private fun getUnspentApiResponse(address: String): Single<List<Utxo>> =
-        if (bchDataManager.getAddressBalance(address) > CryptoValue.zero(sourceAsset)) {
+    override fun onFeeLevelChanged() {
+        snapshot.refreshFeeOptions()
+    }
+
+    private fun getUnspentApiResponse(balance: CryptoValue, address: String): Single<List<Utxo>> =
+        if (balance > CryptoValue.zero(sourceAsset)) {
             sendDataManager.getUnspentBchOutputs(address)
                 // If we get here, we should have balance and valid UTXOs. IF we don't, then, um... we'd best fail hard
                 .map { utxo ->
@@ -158,12 +182,6 @@ class BchOnChainTxEngine(
         )
     }
 
-    private fun getDynamicFeePerKb(): Single<CryptoValue> =
-        feeManager.bchFeeOptions
-            .map { feeOptions ->
-                feeToCrypto(feeOptions.regularFee)
-            }.singleOrError()
-
     private fun feeToCrypto(feePerKb: Long): CryptoValue =
         CryptoValue.fromMinor(sourceAsset, (feePerKb * 1000).toBigInteger())
 
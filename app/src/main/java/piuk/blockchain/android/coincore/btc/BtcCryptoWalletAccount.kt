@@ -30,7 +30,7 @@ import piuk.blockchain.androidcore.data.payload.PayloadDataManager
 import piuk.blockchain.androidcore.data.payments.SendDataManager
 import piuk.blockchain.androidcore.utils.extensions.mapList
 import piuk.blockchain.androidcore.utils.extensions.then
-import java.util.concurrent.atomic.AtomicBoolean
+import java.util.concurrent.atomic.AtomicReference
 
 internal class BtcCryptoWalletAccount(
     payloadManager: PayloadDataManager,
@@ -47,7 +47,7 @@ internal class BtcCryptoWalletAccount(
     identity: UserIdentity
 ) : CryptoNonCustodialAccount(payloadManager, CryptoCurrency.BTC, custodialWalletManager, identity) {
 
-    private val hasFunds = AtomicBoolean(false)
+    private val hasFunds = AtomicReference<Boolean?>(null)
 
     override val label: String
         get() = internalAccount.label
@@ -63,7 +63,10 @@ internal class BtcCryptoWalletAccount(
         get() = isHDAccount && payloadDataManager.defaultAccountIndex == hdAccountIndex
 
     override val isFunded: Boolean
-        get() = hasFunds.get()
+        get() = hasFunds.get() == true
+
+    override val isBalanceKnown: Boolean
+        get() = hasFunds.get() != null
 
     override val accountBalance: Single<Money>
         get() = getAccountBalance(false)
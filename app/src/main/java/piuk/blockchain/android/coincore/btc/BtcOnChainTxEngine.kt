@@ -35,6 +35,8 @@ import piuk.blockchain.android.coincore.copyAndPut
 import piuk.blockchain.android.coincore.impl.txEngine.BitPayClientEngine
 import piuk.blockchain.android.coincore.impl.txEngine.EngineTransaction
 import piuk.blockchain.android.coincore.impl.txEngine.OnChainTxEngineBase
+import piuk.blockchain.android.coincore.impl.txEngine.UnspentCoins
+import piuk.blockchain.android.coincore.impl.txEngine.UnspentOutputsSnapshot
 import piuk.blockchain.android.coincore.updateTxValidity
 import piuk.blockchain.android.ui.transactionflow.flow.FeeInfo
 import piuk.blockchain.androidcore.data.fees.FeeDataManager
@@ -89,8 +91,20 @@ class BtcOnChainTxEngine(
         sourceAccount as BtcCryptoWalletAccount
     }
 
+    private val snapshot = UnspentOutputsSnapshot(
+        localBalance = { btcDataManager.getAddressBalance(btcSource.xpubs) },
+        loadCoins = { balance ->
+            Singles.zip(
+                sourceAccount.accountBalance.map { it as CryptoValue },
+                getUnspentApiResponse(balance, btcSource.xpubs)
+            ) { total, coins -> UnspentCoins(total, coins) }
+        },
+        loadFeeOptions = { feeManager.btcFeeOptions.singleOrError() }
+    )
+
     override fun doInitialiseTx(): Single<PendingTx> =
-        Single.just(
+        Single.fromCallable {
+            snapshot.startSession()
             PendingTx(
                 amount = CryptoValue.zero(sourceAsset),
                 totalBalance = CryptoValue.zero(sourceAsset),
@@ -104,21 +118,21 @@ class BtcOnChainTxEngine(
                 ),
                 selectedFiat = userFiat
             )
-        )
+        }
 
+    // The coins and fee options are loaded once per session, so only coin selection is re-run here
     override fun doUpdateAmount(amount: Money, pendingTx: PendingTx): Single<PendingTx> =
         Singles.zip(
-            sourceAccount.accountBalance.map { it as CryptoValue },
-            getDynamicFeePerKb(pendingTx),
-            getUnspentApiResponse(btcSource.xpubs)
-        ) { total, optionsAndFeePerKb, coins ->
+            snapshot.coins(),
+            snapshot.feeOptions()
+        ) { unspent, feeOptions ->
             updatePendingTxFromAmount(
                 amount as CryptoValue,
-                total,
+                unspent.totalBalance,
                 pendingTx,
-                optionsAndFeePerKb.second,
-                optionsAndFeePerKb.first,
-                coins
+                getFeePerKb(pendingTx, feeOptions),
+                feeOptions,
+                unspent.coins
             )
         }.onErrorReturnItem(
             pendingTx.copy(
@@ -126,9 +140,12 @@ class BtcOnChainTxEngine(
             )
         )
 
-    private fun getUnspentApiResponse(xpubs: XPubs): Single<List<Utxo>> {
-        val balance = btcDataManager.getAddressBalance(xpubs)
-        return if (balance.isPositive) {
+    override fun onFeeLevelChanged() {
+        snapshot.refreshFeeOptions()
+    }
+
+    private fun getUnspentApiResponse(balance: CryptoValue, xpubs: XPubs): Single<List<Utxo>> =
+        if (balance.isPositive) {
             sendDataManager.getUnspentBtcOutputs(xpubs)
                 // If we get here, we should have balance...
                 // but if we have no UTXOs then we have a problem:
@@ -142,18 +159,14 @@ class BtcOnChainTxEngine(
         } else {
             Single.error(Throwable("No BTC funds"))
         }
-    }
 
-    private fun getDynamicFeePerKb(pendingTx: PendingTx): Single<Pair<FeeOptions, CryptoValue>> =
-        feeManager.btcFeeOptions
-            .map { feeOptions ->
-                when (pendingTx.feeSelection.selectedLevel) {
-                    FeeLevel.None -> Pair(feeOptions, CryptoValue.zero(sourceAsset))
-                    FeeLevel.Regular -> Pair(feeOptions, feeToCrypto(feeOptions.regularFee))
-                    FeeLevel.Priority -> Pair(feeOptions, feeToCrypto(feeOptions.priorityFee))
-                    FeeLevel.Custom -> Pair(feeOptions, feeToCrypto(pendingTx.feeSelection.customAmount))
-                }
-            }.singleOrError()
+    private fun getFeePerKb(pendingTx: PendingTx, feeOptions: FeeOptions): CryptoValue =
+        when (pendingTx.feeSelection.selectedLevel) {
+            FeeLevel.None -> CryptoValue.zero(sourceAsset)
+            FeeLevel.Regular -> feeToCrypto(feeOptions.regularFee)
+            FeeLevel.Priority -> feeToCrypto(feeOptions.priorityFee)
+            FeeLevel.Custom -> feeToCrypto(pendingTx.feeSelection.customAmount)
+        }
 
     private fun feeToCrypto(feePerKb: Long): CryptoValue =
         CryptoValue.fromMinor(sourceAsset, (feePerKb * 1000).toBigInteger())
@@ -21,7 +21,7 @@ import piuk.blockchain.androidcore.data.exchangerate.ExchangeRateDataManager
 import piuk.blockchain.androidcore.data.fees.FeeDataManager
 import piuk.blockchain.androidcore.data.payload.PayloadDataManager
 import piuk.blockchain.androidcore.utils.extensions.mapList
-import java.util.concurrent.atomic.AtomicBoolean
+import java.util.concurrent.atomic.AtomicReference
 
 class Erc20NonCustodialAccount(
     payloadManager: PayloadDataManager,
@@ -36,10 +36,13 @@ class Erc20NonCustodialAccount(
     identity: UserIdentity
 ) : CryptoNonCustodialAccount(payloadManager, asset, custodialWalletManager, identity) {
 
-    private val hasFunds = AtomicBoolean(false)
+    private val hasFunds = AtomicReference<Boolean?>(null)
 
     override val isFunded: Boolean
-        get() = hasFunds.get()
+        get() = hasFunds.get() == true
+
+    override val isBalanceKnown: Boolean
+        get() = hasFunds.get() != null
 
     override val isDefault: Boolean = true // Only one account, so always default
 
@@ -18,7 +18,7 @@ import piuk.blockchain.androidcore.data.ethereum.EthDataManager
 import piuk.blockchain.androidcore.data.exchangerate.ExchangeRateDataManager
 import piuk.blockchain.androidcore.data.fees.FeeDataManager
 import piuk.blockchain.androidcore.data.payload.PayloadDataManager
-import java.util.concurrent.atomic.AtomicBoolean
+import java.util.concurrent.atomic.AtomicReference
 
 internal class EthCryptoWalletAccount(
     payloadManager: PayloadDataManager,
@@ -36,10 +36,13 @@ internal class EthCryptoWalletAccount(
     override val label: String
         get() = jsonAccount.label
 
-    private val hasFunds = AtomicBoolean(false)
+    private val hasFunds = AtomicReference<Boolean?>(null)
 
     override val isFunded: Boolean
-        get() = hasFunds.get()
+        get() = hasFunds.get() == true
+
+    override val isBalanceKnown: Boolean
+        get() = hasFunds.get() != null
 
     override val accountBalance: Single<Money>
         get() = ethDataManager.fetchEthAddress()
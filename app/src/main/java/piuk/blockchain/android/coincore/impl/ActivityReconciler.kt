@@ -0,0 +1,111 @@
+package piuk.blockchain.android.coincore.impl
+
+import com.blockchain.nabu.datamanagers.TransactionType
+import info.blockchain.balance.CryptoValue
+import info.blockchain.balance.Money
+import info.blockchain.wallet.multiaddress.TransactionSummary
+import piuk.blockchain.android.coincore.ActivitySummaryItem
+import piuk.blockchain.android.coincore.CustodialInterestActivitySummaryItem
+import piuk.blockchain.android.coincore.CustodialTradingActivitySummaryItem
+import piuk.blockchain.android.coincore.CustodialTransferActivitySummaryItem
+import piuk.blockchain.android.coincore.FiatActivitySummaryItem
+import piuk.blockchain.android.coincore.InterestAccount
+import piuk.blockchain.android.coincore.NonCustodialActivitySummaryItem
+import piuk.blockchain.android.coincore.TradeActivitySummaryItem
+import piuk.blockchain.android.coincore.TradingAccount
+import java.math.BigInteger
+import java.util.Collections
+import java.util.IdentityHashMap
+import java.util.Locale
+
+/**
+ * Joins activity items that describe the same movement of funds from different sides - a swap and
+ * the on-chain send that funded it, a buy and the fiat deposit that paid for it, an interest
+ * transfer and the custodial transfer behind it. Items are indexed once by a normalised tx id and
+ * each custodial item is then matched with a single lookup.
+ */
+internal object ActivityReconciler {
+
+    class Result(
+        val activity: List<ActivitySummaryItem>,
+        val removed: List<ActivitySummaryItem>
+    )
+
+    /**
+     * Replaces each on-chain send that funded a swap with the swap itself, carrying over the network
+     * fee of the send. Swaps without a matching send are dropped.
+     */
+    fun reconcileSwaps(
+        tradeItems: List<TradeActivitySummaryItem>,
+        activity: List<ActivitySummaryItem>
+    ): List<ActivitySummaryItem> {
+        val sends = activity.index { it is NonCustodialActivitySummaryItem && it.isSend() }
+        val replacements = IdentityHashMap<ActivitySummaryItem, ActivitySummaryItem>()
+
+        tradeItems.forEach { swap ->
+            val hit = sends.take(swap.txId) { it !in replacements } as? NonCustodialActivitySummaryItem
+                ?: return@forEach
+            replacements[hit] = swap.copy(
+                depositNetworkFee = hit.fee.first(CryptoValue(hit.cryptoCurrency, BigInteger.ZERO))
+                    .map { it as Money }
+            )
+        }
+        return activity.map { replacements[it] ?: it }
+    }
+
+    /**
+     * Drops the fiat deposits that paid for custodial buys and the custodial transfers behind
+     * interest deposits and withdrawals, then sorts and de-duplicates what is left.
+     */
+    fun reconcileCustodial(activity: List<ActivitySummaryItem>): Result {
+        val fiatDeposits = activity.index { it is FiatActivitySummaryItem && it.type == TransactionType.DEPOSIT }
+        val transfers = activity.index {
+            it is CustodialTransferActivitySummaryItem &&
+                (it.type == TransactionType.DEPOSIT || it.type == TransactionType.WITHDRAWAL)
+        }
+        val removed = Collections.newSetFromMap(IdentityHashMap<ActivitySummaryItem, Boolean>())
+
+        activity.forEach { item ->
+            val matchingItem = when {
+                item is CustodialTradingActivitySummaryItem && item.account is TradingAccount ->
+                    fiatDeposits.take(item.depositPaymentId) { it !in removed }
+                item is CustodialInterestActivitySummaryItem && item.account is InterestAccount ->
+                    transfers.take(item.txId) { it !in removed }
+                else -> null
+            }
+            matchingItem?.let { removed.add(it) }
+        }
+
+        return Result(
+            activity = activity.filterNot { it in removed }.sorted().distinct(),
+            removed = removed.toList()
+        )
+    }
+
+    /**
+     * Tx ids from the custodial and on-chain sides differ in case, in the dashes of custodial ids
+     * and in the hex prefix of EVM hashes, so all of those are ignored when matching.
+     */
+    fun normaliseTxId(txId: String): String =
+        txId.replace("-", "")
+            .toLowerCase(Locale.ROOT)
+            .removePrefix("0x")
+
+    private fun List<ActivitySummaryItem>.index(
+        predicate: (ActivitySummaryItem) -> Boolean
+    ): Map<String, List<ActivitySummaryItem>> =
+        filter(predicate).groupBy { normaliseTxId(it.txId) }
+
+    private fun Map<String, List<ActivitySummaryItem>>.take(
+        txId: String,
+        available: (ActivitySummaryItem) -> Boolean
+    ): ActivitySummaryItem? =
+        if (txId.isBlank()) {
+            null
+        } else {
+            this[normaliseTxId(txId)]?.firstOrNull(available)
+        }
+
+    private fun NonCustodialActivitySummaryItem.isSend() =
+        transactionType == TransactionSummary.TransactionType.SENT
+}
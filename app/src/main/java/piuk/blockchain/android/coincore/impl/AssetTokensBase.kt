@@ -286,7 +286,7 @@ fun ExchangeRateDataManager.fetchExchangeRate(
     cryptoCurrency: CryptoCurrency,
     currencyName: String
 ): Single<BigDecimal> =
-    updateTickers()
+    updateTickers(setOf(cryptoCurrency), ExchangeRateDataManager.TICKER_MAX_AGE_MILLIS)
         .andThen(Single.defer { Single.just(getLastPrice(cryptoCurrency, currencyName)) })
 
 @VisibleForTesting(otherwise = VisibleForTesting.PRIVATE)
@@ -10,7 +10,6 @@ import info.blockchain.balance.ExchangeRates
 import info.blockchain.balance.FiatValue
 import info.blockchain.balance.Money
 import info.blockchain.balance.total
-import info.blockchain.wallet.multiaddress.TransactionSummary
 import io.reactivex.Completable
 import io.reactivex.Single
 import io.reactivex.rxkotlin.zipWith
@@ -22,7 +21,6 @@ import piuk.blockchain.android.coincore.AvailableActions
 import piuk.blockchain.android.coincore.BlockchainAccount
 import piuk.blockchain.android.coincore.CryptoAccount
 import piuk.blockchain.android.coincore.NonCustodialAccount
-import piuk.blockchain.android.coincore.NonCustodialActivitySummaryItem
 import piuk.blockchain.android.coincore.ReceiveAddress
 import piuk.blockchain.android.coincore.SingleAccountList
 import piuk.blockchain.android.coincore.TradeActivitySummaryItem
@@ -32,7 +30,6 @@ import piuk.blockchain.android.identity.Feature
 import piuk.blockchain.android.identity.UserIdentity
 import piuk.blockchain.androidcore.data.exchangerate.ExchangeRateDataManager
 import piuk.blockchain.androidcore.data.payload.PayloadDataManager
-import java.math.BigInteger
 
 internal const val transactionFetchCount = 50
 internal const val transactionFetchOffset = 0
@@ -206,24 +203,8 @@ abstract class CryptoNonCustodialAccount(
     override fun reconcileSwaps(
         tradeItems: List<TradeActivitySummaryItem>,
         activity: List<ActivitySummaryItem>
-    ): List<ActivitySummaryItem> {
-        val activityList = activity.toMutableList()
-        tradeItems.forEach { custodialItem ->
-            val hit = activityList.find {
-                it.txId.contains(custodialItem.txId, true)
-            } as? NonCustodialActivitySummaryItem
-
-            if (hit?.transactionType == TransactionSummary.TransactionType.SENT) {
-                activityList.remove(hit)
-                val updatedSwap = custodialItem.copy(
-                    depositNetworkFee = hit.fee.first((CryptoValue(hit.cryptoCurrency, BigInteger.ZERO)))
-                        .map { it as Money }
-                )
-                activityList.add(updatedSwap)
-            }
-        }
-        return activityList.toList()
-    }
+    ): List<ActivitySummaryItem> =
+        ActivityReconciler.reconcileSwaps(tradeItems, activity)
 
     // For editing etc
     open fun updateLabel(newLabel: String): Completable =
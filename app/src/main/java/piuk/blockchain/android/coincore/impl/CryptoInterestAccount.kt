@@ -25,7 +25,7 @@ import piuk.blockchain.android.coincore.TxResult
 import piuk.blockchain.android.coincore.TxSourceState
 import piuk.blockchain.androidcore.data.exchangerate.ExchangeRateDataManager
 import piuk.blockchain.androidcore.utils.extensions.mapList
-import java.util.concurrent.atomic.AtomicBoolean
+import java.util.concurrent.atomic.AtomicReference
 
 internal class CryptoInterestAccount(
     override val asset: CryptoCurrency,
@@ -35,7 +35,7 @@ internal class CryptoInterestAccount(
     private val features: InternalFeatureFlagApi
 ) : CryptoAccountBase(), InterestAccount {
 
-    private val hasFunds = AtomicBoolean(false)
+    private val hasFunds = AtomicReference<Boolean?>(null)
 
     override val receiveAddress: Single<ReceiveAddress>
         get() = custodialWalletManager.getInterestAccountAddress(asset).map {
@@ -123,7 +123,10 @@ internal class CryptoInterestAccount(
     ): List<ActivitySummaryItem> = activity
 
     override val isFunded: Boolean
-        get() = hasFunds.get()
+        get() = hasFunds.get() == true
+
+    override val isBalanceKnown: Boolean
+        get() = hasFunds.get() != null
 
     override val isDefault: Boolean = false // Default is, presently, only ever a non-custodial account.
 
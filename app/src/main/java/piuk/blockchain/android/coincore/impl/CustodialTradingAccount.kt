@@ -38,7 +38,7 @@ import piuk.blockchain.android.identity.UserIdentity
 import piuk.blockchain.androidcore.data.exchangerate.ExchangeRateDataManager
 import piuk.blockchain.androidcore.utils.extensions.mapList
 import timber.log.Timber
-import java.util.concurrent.atomic.AtomicBoolean
+import java.util.concurrent.atomic.AtomicReference
 
 open class CustodialTradingAccount(
     override val asset: CryptoCurrency,
@@ -51,7 +51,7 @@ open class CustodialTradingAccount(
     private val features: InternalFeatureFlagApi
 ) : CryptoAccountBase(), TradingAccount {
 
-    private val hasFunds = AtomicBoolean(false)
+    private val hasFunds = AtomicReference<Boolean?>(null)
 
     override val receiveAddress: Single<ReceiveAddress>
         get() = custodialWalletManager.getCustodialAccountAddress(asset).map {
@@ -124,7 +124,10 @@ open class CustodialTradingAccount(
             .onErrorReturn { emptyList() }
 
     override val isFunded: Boolean
-        get() = hasFunds.get()
+        get() = hasFunds.get() == true
+
+    override val isBalanceKnown: Boolean
+        get() = hasFunds.get() != null
 
     override val isDefault: Boolean =
         false // Default is, presently, only ever a non-custodial account.
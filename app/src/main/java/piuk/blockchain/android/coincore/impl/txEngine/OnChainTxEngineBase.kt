@@ -93,6 +93,7 @@ abstract class OnChainTxEngineBase(
         customFeeAmount: Long
     ): Single<PendingTx> {
         storeDefaultFeeLevel(cryptoCurrency, newFeeLevel)
+        onFeeLevelChanged()
 
         return doUpdateAmount(
             amount = pendingTx.amount,
@@ -105,6 +106,10 @@ abstract class OnChainTxEngineBase(
         )
     }
 
+    // Called before the amount is recalculated at the new fee level; engines holding on to fee
+    // options can reload them here
+    protected open fun onFeeLevelChanged() {}
+
     private fun PendingTx.hasFeeLevelChanged(newLevel: FeeLevel, newAmount: Long) =
         with(feeSelection) {
             selectedLevel != newLevel || (selectedLevel == FeeLevel.Custom && newAmount != customAmount)
@@ -0,0 +1,94 @@
+package piuk.blockchain.android.coincore.impl.txEngine
+
+import com.blockchain.rx.AsyncCache
+import com.blockchain.rx.get
+import info.blockchain.balance.CryptoValue
+import info.blockchain.wallet.api.data.FeeOptions
+import info.blockchain.wallet.payload.model.Utxo
+import io.reactivex.Completable
+import io.reactivex.Single
+import io.reactivex.schedulers.Schedulers
+
+data class UnspentCoins(
+    val totalBalance: CryptoValue,
+    val coins: List<Utxo>
+)
+
+/**
+ * The unspent outputs and fee options an on-chain send is built from, held for the length of one
+ * transaction session so that changing the amount only has to re-run coin selection.
+ *
+ * - Both are dropped after [lifetimeSeconds].
+ * - The coins are reloaded once the wallet's own record of the source balance moves, which is how a
+ *   transaction seen on the websocket shows up.
+ * - Fee options are reloaded by [refreshFeeOptions] when the user picks another fee level.
+ */
+class UnspentOutputsSnapshot(
+    private val localBalance: () -> CryptoValue,
+    private val loadCoins: (localBalance: CryptoValue) -> Single<UnspentCoins>,
+    loadFeeOptions: () -> Single<FeeOptions>,
+    lifetimeSeconds: Long = SESSION_LIFETIME,
+    clock: () -> Long = { System.currentTimeMillis() }
+) {
+    // The local balance the cached coins were loaded against
+    @Volatile
+    private var loadedAgainst: CryptoValue? = null
+
+    private val coinsCache = AsyncCache<Unit, UnspentCoins>(
+        cacheLifetimeSeconds = lifetimeSeconds,
+        clock = clock,
+        loader = {
+            val balance = localBalance()
+            loadCoins(balance).doOnSuccess { loadedAgainst = balance }
+        }
+    )
+
+    private val feeOptionsCache = AsyncCache<Unit, FeeOptions>(
+        cacheLifetimeSeconds = lifetimeSeconds,
+        clock = clock,
+        loader = { loadFeeOptions() }
+    )
+
+    fun coins(): Single<UnspentCoins> =
+        Single.defer {
+            val loaded = loadedAgainst
+            if (loaded != null && loaded != localBalance()) {
+                invalidateCoins()
+            }
+            coinsCache.get()
+        }
+
+    fun feeOptions(): Single<FeeOptions> =
+        feeOptionsCache.get()
+
+    fun refreshFeeOptions() {
+        feeOptionsCache.invalidate(Unit)
+    }
+
+    /**
+     * Starts a new session, and starts loading it in the background so the first amount entered
+     * can join that load rather than begin its own.
+     */
+    fun startSession() {
+        invalidateCoins()
+        feeOptionsCache.invalidate(Unit)
+        preload().subscribeOn(Schedulers.io())
+            .onErrorComplete()
+            .subscribe()
+    }
+
+    private fun invalidateCoins() {
+        loadedAgainst = null
+        coinsCache.invalidate(Unit)
+    }
+
+    private fun preload(): Completable =
+        Completable.mergeArrayDelayError(
+            coins().ignoreElement(),
+            feeOptions().ignoreElement()
+        )
+
+    companion object {
+        private const val SESSION_LIFETIME = 60L
+    }
+}
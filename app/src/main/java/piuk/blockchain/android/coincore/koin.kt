@@ -220,7 +220,9 @@ val coincoreModule = module {
         scoped {
             AssetActivityRepository(
                 coincore = get(),
-                rxBus = get()
+                rxBus = get(),
+                exchangeRates = get(),
+                prefs = get()
             )
         }
 
@@ -0,0 +1,69 @@
+package piuk.blockchain.android.data.coinswebsocket.models
+
+import com.blockchain.network.websocket.WebSocketMessageDecoder
+import com.google.gson.Gson
+import com.google.gson.JsonObject
+import com.google.gson.JsonParser
+
+sealed class CoinsSocketMessage {
+
+    /** Repeats of a message with the same key are ignored. Null means the message is never deduplicated */
+    abstract val dedupKey: String?
+
+    data class WalletChanged(val checksum: String?) : CoinsSocketMessage() {
+        override val dedupKey: String?
+            get() = checksum?.let { "$OP_ON_CHANGE:$it" }
+    }
+
+    data class BtcTransactionMessage(val transaction: BtcTransaction) : CoinsSocketMessage() {
+        override val dedupKey: String?
+            get() = transaction.hash?.let { "btc:$it" }
+    }
+
+    data class BchTransactionMessage(val transaction: BtcTransaction) : CoinsSocketMessage() {
+        override val dedupKey: String?
+            get() = transaction.hash?.let { "bch:$it" }
+    }
+
+    data class EthMessage(val response: EthResponse) : CoinsSocketMessage() {
+        // Pending and confirmed updates share a hash, so the state is part of the key
+        override val dedupKey: String?
+            get() = response.transaction?.let { "eth:${it.hash}:${it.state}" }
+                ?: response.tokenTransfer?.let { "erc20:${it.transactionHash}:${it.logIndex}" }
+    }
+
+    companion object {
+        const val OP_ON_CHANGE = "on_change"
+    }
+}
+
+/**
+ * Parses each frame once into a tree, peeks the `op` and `coin` fields and binds the tree
+ * straight to the matching model, rather than deserializing the whole string twice.
+ */
+class CoinsSocketMessageDecoder(private val gson: Gson) : WebSocketMessageDecoder<CoinsSocketMessage> {
+
+    private val parser = JsonParser()
+
+    override fun decode(frame: String): CoinsSocketMessage? {
+        val json = parser.parse(frame)
+        if (!json.isJsonObject) return null
+        val root = json.asJsonObject
+
+        if (root.stringField("op") == CoinsSocketMessage.OP_ON_CHANGE) {
+            return CoinsSocketMessage.WalletChanged(root.stringField("checksum"))
+        }
+
+        return when (gson.fromJson(root.get("coin"), Coin::class.java)) {
+            Coin.BTC -> gson.fromJson(root, BtcBchResponse::class.java).transaction
+                ?.let { CoinsSocketMessage.BtcTransactionMessage(it) }
+            Coin.BCH -> gson.fromJson(root, BtcBchResponse::class.java).transaction
+                ?.let { CoinsSocketMessage.BchTransactionMessage(it) }
+            Coin.ETH -> CoinsSocketMessage.EthMessage(gson.fromJson(root, EthResponse::class.java))
+            else -> null
+        }
+    }
+
+    private fun JsonObject.stringField(name: String): String? =
+        get(name)?.takeIf { it.isJsonPrimitive }?.asString
+}
@@ -0,0 +1,53 @@
+package piuk.blockchain.android.data.coinswebsocket.strategy
+
+import io.reactivex.Observable
+import io.reactivex.Scheduler
+import io.reactivex.schedulers.Schedulers
+import io.reactivex.subjects.PublishSubject
+import piuk.blockchain.android.data.coinswebsocket.models.Coin
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * Merges bursts of websocket transaction events into as few balance and history refreshes as possible.
+ *
+ * Each coin is throttled independently: the first event for a coin triggers a refresh straight away,
+ * any further events for that coin within [windowMillis] are absorbed into a single trailing refresh
+ * at the end of the window.
+ */
+class CoalescingRefreshScheduler(
+    private val windowMillis: Long = DEFAULT_WINDOW_MILLIS,
+    private val scheduler: Scheduler = Schedulers.computation()
+) {
+    private val requests = PublishSubject.create<Coin>().toSerialized()
+
+    private val received = AtomicLong()
+    private val triggered = AtomicLong()
+
+    /** Total number of refresh requests received */
+    val eventsReceived: Long
+        get() = received.get()
+
+    /** Number of refreshes actually emitted downstream */
+    val refreshesTriggered: Long
+        get() = triggered.get()
+
+    /** Number of requests that were merged into another refresh */
+    val eventsAbsorbed: Long
+        get() = (eventsReceived - refreshesTriggered).coerceAtLeast(0)
+
+    val refreshes: Observable<Coin> =
+        requests.groupBy { it }
+            .flatMap { it.throttleLatest(windowMillis, TimeUnit.MILLISECONDS, scheduler, true) }
+            .doOnNext { triggered.incrementAndGet() }
+            .share()
+
+    fun requestRefresh(coin: Coin) {
+        received.incrementAndGet()
+        requests.onNext(coin)
+    }
+
+    companion object {
+        const val DEFAULT_WINDOW_MILLIS = 3_000L
+    }
+}
@@ -2,6 +2,7 @@ package piuk.blockchain.android.data.coinswebsocket.strategy
 
 import com.blockchain.network.websocket.ConnectionEvent
 import com.blockchain.network.websocket.WebSocket
+import com.blockchain.network.websocket.toDecodedReceive
 import com.google.gson.Gson
 import info.blockchain.balance.CryptoCurrency
 import info.blockchain.balance.CryptoValue
@@ -17,8 +18,10 @@ import io.reactivex.schedulers.Schedulers
 import org.web3j.utils.Convert
 import piuk.blockchain.android.R
 import piuk.blockchain.android.coincore.AssetResources
-import piuk.blockchain.android.data.coinswebsocket.models.BtcBchResponse
+import piuk.blockchain.android.data.coinswebsocket.models.BtcTransaction
 import piuk.blockchain.android.data.coinswebsocket.models.Coin
+import piuk.blockchain.android.data.coinswebsocket.models.CoinsSocketMessage
+import piuk.blockchain.android.data.coinswebsocket.models.CoinsSocketMessageDecoder
 import piuk.blockchain.android.data.coinswebsocket.models.Entity
 import piuk.blockchain.android.data.coinswebsocket.models.EthResponse
 import piuk.blockchain.android.data.coinswebsocket.models.EthTransaction
@@ -26,7 +29,6 @@ import piuk.blockchain.android.data.coinswebsocket.models.Input
 import piuk.blockchain.android.data.coinswebsocket.models.Output
 import piuk.blockchain.android.data.coinswebsocket.models.Parameters
 import piuk.blockchain.android.data.coinswebsocket.models.SocketRequest
-import piuk.blockchain.android.data.coinswebsocket.models.SocketResponse
 import piuk.blockchain.android.data.coinswebsocket.models.TokenTransfer
 import piuk.blockchain.android.data.coinswebsocket.models.TransactionState
 import piuk.blockchain.android.data.coinswebsocket.service.MessagesSocketHandler
@@ -70,12 +72,14 @@ class CoinsWebSocketStrategy(
     private val appUtil: AppUtil,
     private val payloadDataManager: PayloadDataManager,
     private val bchDataManager: BchDataManager,
-    private val assetResources: AssetResources
+    private val assetResources: AssetResources,
+    private val refreshScheduler: CoalescingRefreshScheduler = CoalescingRefreshScheduler()
 ) {
 
     private var coinWebSocketInput: CoinWebSocketInput? = null
     private val compositeDisposable = CompositeDisposable()
     private var messagesSocketHandler: MessagesSocketHandler? = null
+    private val messageDecoder = CoinsSocketMessageDecoder(gson)
 
     fun setMessagesHandler(messagesSocketHandler: MessagesSocketHandler) {
         this.messagesSocketHandler = messagesSocketHandler
@@ -88,6 +92,15 @@ class CoinsWebSocketStrategy(
     }
 
     private fun subscribeToEvents() {
+        compositeDisposable += refreshScheduler.refreshes.subscribe { coin ->
+            when (coin) {
+                Coin.BTC -> updateBtcBalancesAndTransactions()
+                Coin.BCH -> updateBchBalancesAndTransactions()
+                else -> {
+                }
+            }
+        }
+
         compositeDisposable += coinsWebSocket.connectionEvents.subscribe {
             when (it) {
                 is ConnectionEvent.Connected -> run {
@@ -97,17 +110,14 @@ class CoinsWebSocketStrategy(
             }
         }
 
-        compositeDisposable += coinsWebSocket.responses.distinctUntilChanged()
-            .subscribe { response ->
-                val socketResponse = gson.fromJson(response, SocketResponse::class.java)
-                if (socketResponse.op == "on_change")
-                    checkForWalletChange(socketResponse.checksum)
-                when (socketResponse.coin) {
-                    Coin.ETH -> handleEthTransaction(response)
-                    Coin.BTC -> handleBtcTransaction(response)
-                    Coin.BCH -> handleBchTransaction(response)
-                    else -> {
-                    }
+        compositeDisposable += coinsWebSocket.toDecodedReceive(messageDecoder) { it.dedupKey }
+            .responses
+            .subscribe { message ->
+                when (message) {
+                    is CoinsSocketMessage.WalletChanged -> checkForWalletChange(message.checksum)
+                    is CoinsSocketMessage.EthMessage -> handleEthTransaction(message.response)
+                    is CoinsSocketMessage.BtcTransactionMessage -> handleBtcTransaction(message.transaction)
+                    is CoinsSocketMessage.BchTransactionMessage -> handleBchTransaction(message.transaction)
                 }
             }
     }
@@ -197,10 +207,7 @@ class CoinsWebSocketStrategy(
         return inAddr to totalValue
     }
 
-    private fun handleBtcTransaction(response: String) {
-        val btcResponse = gson.fromJson(response, BtcBchResponse::class.java)
-        val transaction = btcResponse.transaction ?: return
-
+    private fun handleBtcTransaction(transaction: BtcTransaction) {
         handleTransactionInputsAndOutputs(
             transaction.inputs,
             transaction.outputs,
@@ -209,13 +216,10 @@ class CoinsWebSocketStrategy(
             payloadDataManager.wallet?.containsImportedAddress(x)
         }
 
-        updateBtcBalancesAndTransactions()
+        refreshScheduler.requestRefresh(Coin.BTC)
     }
 
-    private fun handleBchTransaction(response: String) {
-        val bchResponse = gson.fromJson(response, BtcBchResponse::class.java)
-        val transaction = bchResponse.transaction ?: return
-
+    private fun handleBchTransaction(transaction: BtcTransaction) {
         val (inAddr, totalValue) =
             handleTransactionInputsAndOutputs(
                 transaction.inputs,
@@ -225,7 +229,7 @@ class CoinsWebSocketStrategy(
                 bchDataManager.getImportedAddressStringList().contains(x)
             }
 
-        updateBchBalancesAndTransactions()
+        refreshScheduler.requestRefresh(Coin.BCH)
 
         val title = stringUtils.getString(R.string.app_name)
 
@@ -258,8 +262,7 @@ class CoinsWebSocketStrategy(
             }
     }
 
-    private fun handleEthTransaction(response: String) {
-        val ethResponse = gson.fromJson(response, EthResponse::class.java)
+    private fun handleEthTransaction(ethResponse: EthResponse) {
         val title = stringUtils.getString(R.string.app_name)
 
         if (ethResponse.transaction != null && ethResponse.getTokenType() == CryptoCurrency.ETHER) {
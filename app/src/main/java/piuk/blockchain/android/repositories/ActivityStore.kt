@@ -0,0 +1,123 @@
+package piuk.blockchain.android.repositories
+
+import com.blockchain.nabu.datamanagers.CurrencyPair
+import piuk.blockchain.android.coincore.ActivitySummaryItem
+import piuk.blockchain.android.coincore.BlockchainAccount
+import piuk.blockchain.android.coincore.CryptoActivitySummaryItem
+import piuk.blockchain.android.coincore.FiatActivitySummaryItem
+import piuk.blockchain.android.coincore.TradeActivitySummaryItem
+
+/**
+ * Activity items indexed by tx id and by (asset, tx id), so that detail screens can find an item
+ * without scanning the whole list. Network results are merged in per account: an account in the
+ * results has its items replaced, while an account missing from them - for instance because its
+ * activity failed to load - keeps what it had, as long as it is still one of the wallet's accounts.
+ *
+ * The store itself is in memory. [AssetActivityRepository] writes a projection of it to disk, see
+ * [StoredActivityItem], and merges that back in on a cold start.
+ */
+internal class ActivityStore {
+
+    private data class ItemKey(
+        val type: Class<*>,
+        val account: BlockchainAccount,
+        val txId: String
+    )
+
+    private data class AssetKey(
+        val asset: String,
+        val txId: String
+    )
+
+    private val items = LinkedHashMap<ItemKey, ActivitySummaryItem>()
+    private val byTxId = HashMap<String, MutableList<ActivitySummaryItem>>()
+    private val byAssetAndTxId = HashMap<AssetKey, MutableList<ActivitySummaryItem>>()
+
+    @Synchronized
+    fun isEmpty() = items.isEmpty()
+
+    @Synchronized
+    fun snapshot(): List<ActivitySummaryItem> = items.values.toList()
+
+    /**
+     * Merges in [activity] from the network. [currentAccounts] are all of the wallet's accounts;
+     * items of any other account, such as one that has since been archived, are dropped.
+     */
+    @Synchronized
+    fun merge(activity: List<ActivitySummaryItem>, currentAccounts: Collection<BlockchainAccount>) {
+        val updated = activity.associateBy { it.key() }
+        val accounts = activity.mapTo(HashSet()) { it.account }
+        val current = currentAccounts.toHashSet()
+
+        // Drop what is no longer reported for the accounts we have results for, and everything
+        // belonging to accounts the wallet no longer has
+        val iterator = items.entries.iterator()
+        while (iterator.hasNext()) {
+            val (key, item) = iterator.next()
+            if (key.account !in current || (key.account in accounts && key !in updated)) {
+                iterator.remove()
+                unindex(item)
+            }
+        }
+
+        updated.forEach { (key, item) ->
+            items.put(key, item)?.let { unindex(it) }
+            index(item)
+        }
+    }
+
+    @Synchronized
+    fun remove(item: ActivitySummaryItem) {
+        items.remove(item.key())?.let { unindex(it) }
+    }
+
+    @Synchronized
+    fun clear() {
+        items.clear()
+        byTxId.clear()
+        byAssetAndTxId.clear()
+    }
+
+    @Synchronized
+    fun findById(txId: String): ActivitySummaryItem? =
+        byTxId[txId]?.firstOrNull()
+
+    @Synchronized
+    fun <T : ActivitySummaryItem> find(asset: String, txId: String, type: Class<T>): T? =
+        byAssetAndTxId[AssetKey(asset, txId)]?.firstOrNull { type.isInstance(it) }?.let { type.cast(it) }
+
+    private fun index(item: ActivitySummaryItem) {
+        byTxId.getOrPut(item.txId) { mutableListOf() }.add(item)
+        item.asset()?.let { asset ->
+            byAssetAndTxId.getOrPut(AssetKey(asset, item.txId)) { mutableListOf() }.add(item)
+        }
+    }
+
+    private fun unindex(item: ActivitySummaryItem) {
+        byTxId.removeFrom(item.txId, item)
+        item.asset()?.let { asset ->
+            byAssetAndTxId.removeFrom(AssetKey(asset, item.txId), item)
+        }
+    }
+
+    private fun <K> HashMap<K, MutableList<ActivitySummaryItem>>.removeFrom(key: K, item: ActivitySummaryItem) {
+        val list = this[key] ?: return
+        list.removeAll { it === item }
+        if (list.isEmpty()) {
+            remove(key)
+        }
+    }
+
+    private fun ActivitySummaryItem.key() = ItemKey(javaClass, account, txId)
+
+    private fun ActivitySummaryItem.asset(): String? =
+        when (this) {
+            is CryptoActivitySummaryItem -> cryptoCurrency.networkTicker
+            is TradeActivitySummaryItem -> when (val pair = currencyPair) {
+                is CurrencyPair.CryptoCurrencyPair -> pair.source.networkTicker
+                is CurrencyPair.CryptoToFiatCurrencyPair -> pair.source.networkTicker
+            }
+            is FiatActivitySummaryItem -> currency
+            else -> null
+        }
+}
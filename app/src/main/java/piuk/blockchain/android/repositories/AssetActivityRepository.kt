@@ -1,13 +1,15 @@
 package piuk.blockchain.android.repositories
 
-import com.blockchain.nabu.datamanagers.CurrencyPair
-import com.blockchain.nabu.datamanagers.TransactionType
 import com.blockchain.nabu.datamanagers.repositories.ExpiringRepository
+import com.blockchain.preferences.ActivityCachePrefs
 import info.blockchain.balance.CryptoCurrency
 import io.reactivex.Maybe
 import io.reactivex.Observable
 import io.reactivex.disposables.CompositeDisposable
 import io.reactivex.rxkotlin.plusAssign
+import kotlinx.serialization.decodeFromString
+import kotlinx.serialization.encodeToString
+import kotlinx.serialization.json.Json
 import piuk.blockchain.android.coincore.AccountGroup
 import piuk.blockchain.android.coincore.ActivitySummaryItem
 import piuk.blockchain.android.coincore.ActivitySummaryList
@@ -15,21 +17,22 @@ import piuk.blockchain.android.coincore.BlockchainAccount
 import piuk.blockchain.android.coincore.Coincore
 import piuk.blockchain.android.coincore.CryptoActivitySummaryItem
 import piuk.blockchain.android.coincore.CustodialInterestActivitySummaryItem
-import piuk.blockchain.android.coincore.CustodialTradingActivitySummaryItem
-import piuk.blockchain.android.coincore.CustodialTransferActivitySummaryItem
 import piuk.blockchain.android.coincore.FiatActivitySummaryItem
-import piuk.blockchain.android.coincore.InterestAccount
+import piuk.blockchain.android.coincore.NonCustodialActivitySummaryItem
 import piuk.blockchain.android.coincore.TradeActivitySummaryItem
-import piuk.blockchain.android.coincore.TradingAccount
+import piuk.blockchain.android.coincore.impl.ActivityReconciler
 import piuk.blockchain.android.coincore.impl.AllWalletsAccount
 import piuk.blockchain.android.coincore.impl.CryptoInterestAccount
 import piuk.blockchain.androidcore.data.access.AuthEvent
+import piuk.blockchain.androidcore.data.exchangerate.ExchangeRateDataManager
 import piuk.blockchain.androidcore.data.rxjava.RxBus
 import timber.log.Timber
 
 class AssetActivityRepository(
     private val coincore: Coincore,
-    private val rxBus: RxBus
+    private val rxBus: RxBus,
+    private val exchangeRates: ExchangeRateDataManager,
+    private val prefs: ActivityCachePrefs
 ) : ExpiringRepository<ActivitySummaryList>() {
     private val event = rxBus.register(AuthEvent.LOGOUT::class.java)
 
@@ -41,13 +44,22 @@ class AssetActivityRepository(
             }
     }
 
-    private val transactionCache = mutableListOf<ActivitySummaryItem>()
+    private val transactionCache = ActivityStore()
 
+    /**
+     * Emits the cached activity, if there is any, and then - if the cache has expired or a refresh
+     * was requested - the activity from the network. A refresh request skips the cached emission.
+     * On a cold start the cached activity is what was stored on disk by the previous session.
+     */
     fun fetch(
         account: BlockchainAccount,
         isRefreshRequested: Boolean
     ): Observable<ActivitySummaryList> {
-        val cacheMaybe = if (isRefreshRequested || isCacheExpired()) Maybe.empty() else getFromCache()
+        val cacheMaybe = when {
+            isRefreshRequested -> Maybe.empty()
+            transactionCache.isEmpty() -> getFromDisk()
+            else -> getFromCache()
+        }
         return Maybe.concat(
             cacheMaybe,
             requestNetwork(isRefreshRequested)
@@ -69,88 +81,32 @@ class AssetActivityRepository(
                 }
             }.map { filteredList ->
                 if (account is AllWalletsAccount) {
-                    reconcileTransfersAndBuys(filteredList)
+                    reconcile(filteredList)
                 } else {
-                    filteredList
-                }.sorted()
-            }.map { filteredList ->
-                if (account is AllWalletsAccount) {
-                    reconcileCustodialAndInterestTxs(filteredList)
-                } else {
-                    filteredList
-                }.sorted()
-            }.map { list ->
+                    filteredList.sorted().distinct()
+                }
+            }.doOnNext { list ->
                 Timber.d("Activity list size: ${list.size}")
-                val pruned = list.distinct()
-                Timber.d("Activity list pruned size: ${pruned.size}")
-                pruned
             }
     }
 
-    private fun reconcileTransfersAndBuys(list: ActivitySummaryList): List<ActivitySummaryItem> {
-        val custodialWalletActivity = list.filter {
-            it.account is TradingAccount && it is CustodialTradingActivitySummaryItem
-        }
-        val activityList = list.toMutableList()
-
-        custodialWalletActivity.forEach { custodialItem ->
-            val item = custodialItem as CustodialTradingActivitySummaryItem
-            val matchingItem = activityList.find { a ->
-                a.txId.contains(item.depositPaymentId)
-            } as? FiatActivitySummaryItem
-
-            if (matchingItem?.type == TransactionType.DEPOSIT) {
-                activityList.remove(matchingItem)
-                transactionCache.remove(matchingItem)
-            }
-        }
-
-        return activityList.toList().sorted()
-    }
-
-    private fun reconcileCustodialAndInterestTxs(list: ActivitySummaryList): List<ActivitySummaryItem> {
-        val interestWalletActivity = list.filter {
-            it.account is InterestAccount && it is CustodialInterestActivitySummaryItem
-        }
-        val activityList = list.toMutableList()
-
-        interestWalletActivity.forEach { interestItem ->
-            val matchingItem = activityList.find { a ->
-                a.txId.contains(interestItem.txId) && a is CustodialTransferActivitySummaryItem
-            } as? CustodialTransferActivitySummaryItem
-
-            if (matchingItem?.type == TransactionType.DEPOSIT || matchingItem?.type == TransactionType.WITHDRAWAL) {
-                activityList.remove(matchingItem)
-                transactionCache.remove(matchingItem)
-            }
-        }
-
-        return activityList.toList().sorted()
+    private fun reconcile(list: ActivitySummaryList): List<ActivitySummaryItem> {
+        val result = ActivityReconciler.reconcileCustodial(list)
+        result.removed.forEach { transactionCache.remove(it) }
+        return result.activity
     }
 
     fun findCachedItem(cryptoCurrency: CryptoCurrency, txHash: String): ActivitySummaryItem? =
-        transactionCache.filterIsInstance<CryptoActivitySummaryItem>().find {
-            it.cryptoCurrency == cryptoCurrency && it.txId == txHash
-        }
+        transactionCache.find(cryptoCurrency.networkTicker, txHash, CryptoActivitySummaryItem::class.java)
 
     fun findCachedTradeItem(cryptoCurrency: CryptoCurrency, txHash: String): TradeActivitySummaryItem? =
-        transactionCache.filterIsInstance<TradeActivitySummaryItem>().find {
-            when (it.currencyPair) {
-                is CurrencyPair.CryptoCurrencyPair -> it.currencyPair.source == cryptoCurrency && it.txId == txHash
-                is CurrencyPair.CryptoToFiatCurrencyPair ->
-                    it.currencyPair.source == cryptoCurrency && it.txId == txHash
-            }
-        }
+        transactionCache.find(cryptoCurrency.networkTicker, txHash, TradeActivitySummaryItem::class.java)
 
     fun findCachedItem(currency: String, txHash: String): FiatActivitySummaryItem? =
-        transactionCache.filterIsInstance<FiatActivitySummaryItem>().find {
-            it.currency == currency && it.txId == txHash
-        }
+        transactionCache.find(currency, txHash, FiatActivitySummaryItem::class.java)
 
     fun findCachedItemById(txHash: String): ActivitySummaryItem? =
-        transactionCache.find {
-            it.txId == txHash
-        }
+        transactionCache.findById(txHash)
 
     private fun requestNetwork(refreshRequested: Boolean): Maybe<ActivitySummaryList> {
         return if (refreshRequested || isCacheExpired()) {
@@ -162,29 +118,69 @@ class AssetActivityRepository(
 
     override fun getFromNetwork(): Maybe<ActivitySummaryList> =
         coincore.allWallets()
-            .flatMap { it.activity }
-            .doOnSuccess { activityList ->
-                // on error of activity returns onSuccess with empty list
-                if (activityList.isNotEmpty()) {
-                    transactionCache.clear()
-                    transactionCache.addAll(activityList)
-                }
+            .flatMap { wallets -> wallets.activity.map { it to wallets.accounts } }
+            .doOnSuccess { (activityList, accounts) ->
+                // on error of activity returns onSuccess with empty list. Merging rather than
+                // replacing means an asset that fails to load keeps its last known activity
+                transactionCache.merge(activityList, accounts)
                 lastUpdatedTimestamp = System.currentTimeMillis()
-            }.map { list ->
-                // if network comes empty, but we have cache, return cache instead
-                if (list.isEmpty() && transactionCache.isNotEmpty()) {
-                    transactionCache
-                } else {
-                    list
-                }
+                storeToDisk()
+            }.map {
+                transactionCache.snapshot()
             }.toMaybe()
 
     override fun getFromCache(): Maybe<ActivitySummaryList> {
-        return Maybe.just(transactionCache)
+        return Maybe.just(transactionCache.snapshot())
+    }
+
+    private fun getFromDisk(): Maybe<ActivitySummaryList> =
+        Maybe.defer {
+            val stored = loadFromDisk()
+            if (stored.isEmpty()) {
+                Maybe.empty()
+            } else {
+                coincore.allWallets()
+                    .map { wallets ->
+                        val restored = stored.mapNotNull { it.restore(wallets.accounts, exchangeRates) }
+                        // The network may have got there first
+                        if (transactionCache.isEmpty()) {
+                            transactionCache.merge(restored, wallets.accounts)
+                        }
+                        transactionCache.snapshot()
+                    }.filter { it.isNotEmpty() }
+                    .onErrorComplete()
+            }
+        }
+
+    // Only non-custodial activity is stored, as it's the slowest to load: each asset is fetched
+    // from its own chain. Custodial activity arrives with the network refresh.
+    private fun storeToDisk() {
+        val items = transactionCache.snapshot()
+            .filterIsInstance<NonCustodialActivitySummaryItem>()
+            .sorted()
+            .take(MAX_STORED_ITEMS)
+            .map { it.toStored() }
+        prefs.activityCacheData = json.encodeToString(StoredActivity(items))
     }
 
+    private fun loadFromDisk(): List<StoredActivityItem> =
+        prefs.activityCacheData?.let {
+            try {
+                json.decodeFromString<StoredActivity>(it).items
+            } catch (t: Throwable) {
+                prefs.activityCacheData = null
+                emptyList()
+            }
+        } ?: emptyList()
+
     private fun doOnLogout() {
         transactionCache.clear()
+        prefs.activityCacheData = null
         rxBus.unregister(AuthEvent::class.java, event)
     }
+
+    companion object {
+        private const val MAX_STORED_ITEMS = 100
+        private val json = Json { ignoreUnknownKeys = true }
+    }
 }
@@ -0,0 +1,94 @@
+package piuk.blockchain.android.repositories
+
+import info.blockchain.balance.CryptoCurrency
+import info.blockchain.balance.CryptoValue
+import info.blockchain.wallet.multiaddress.TransactionSummary
+import io.reactivex.Observable
+import kotlinx.serialization.Serializable
+import piuk.blockchain.android.coincore.BlockchainAccount
+import piuk.blockchain.android.coincore.CryptoAccount
+import piuk.blockchain.android.coincore.NonCustodialAccount
+import piuk.blockchain.android.coincore.NonCustodialActivitySummaryItem
+import piuk.blockchain.androidcore.data.exchangerate.ExchangeRateDataManager
+import java.math.BigInteger
+
+/**
+ * What is written to disk for a non-custodial activity item: enough to show it in the activity
+ * list on the next start, until the network refresh replaces it. The account is identified by its
+ * asset and label, and is resolved against the wallet's accounts when the item is read back.
+ */
+@Serializable
+internal data class StoredActivityItem(
+    val txId: String,
+    val asset: String,
+    val amount: String, // In the minor unit of the asset
+    val timeStampMs: Long,
+    val accountLabel: String,
+    val transactionType: String,
+    val confirmations: Int,
+    val isFeeTransaction: Boolean
+)
+
+@Serializable
+internal data class StoredActivity(
+    val items: List<StoredActivityItem>
+)
+
+internal fun NonCustodialActivitySummaryItem.toStored() =
+    StoredActivityItem(
+        txId = txId,
+        asset = cryptoCurrency.networkTicker,
+        amount = value.toBigInteger().toString(),
+        timeStampMs = timeStampMs,
+        accountLabel = account.label,
+        transactionType = transactionType.name,
+        confirmations = confirmations,
+        isFeeTransaction = isFeeTransaction
+    )
+
+/**
+ * Rebinds a stored item to the wallet account it belonged to, or returns null if that account,
+ * or the asset, is no longer there.
+ */
+internal fun StoredActivityItem.restore(
+    accounts: Collection<BlockchainAccount>,
+    exchangeRates: ExchangeRateDataManager
+): RestoredActivitySummaryItem? {
+    val currency = CryptoCurrency.fromNetworkTicker(asset) ?: return null
+    val account = accounts.firstOrNull {
+        it is CryptoAccount && it is NonCustodialAccount && it.asset == currency && it.label == accountLabel
+    } as? CryptoAccount ?: return null
+
+    return RestoredActivitySummaryItem(
+        exchangeRates = exchangeRates,
+        cryptoCurrency = currency,
+        transactionType = TransactionSummary.TransactionType.valueOf(transactionType),
+        timeStampMs = timeStampMs,
+        value = CryptoValue(currency, BigInteger(amount)),
+        txId = txId,
+        confirmations = confirmations,
+        isFeeTransaction = isFeeTransaction,
+        account = account
+    )
+}
+
+/**
+ * An item read back from disk. It has no fee, addresses or note, which are filled in when the
+ * network refresh replaces it with the asset's own item.
+ */
+internal class RestoredActivitySummaryItem(
+    override val exchangeRates: ExchangeRateDataManager,
+    override val cryptoCurrency: CryptoCurrency,
+    override val transactionType: TransactionSummary.TransactionType,
+    override val timeStampMs: Long,
+    override val value: CryptoValue,
+    override val txId: String,
+    override val confirmations: Int,
+    override val isFeeTransaction: Boolean,
+    override val account: CryptoAccount
+) : NonCustodialActivitySummaryItem() {
+    override val fee: Observable<CryptoValue> = Observable.empty()
+    override val inputsMap: Map<String, CryptoValue> = emptyMap()
+    override val outputsMap: Map<String, CryptoValue> = emptyMap()
+    override val description: String? = null
+}
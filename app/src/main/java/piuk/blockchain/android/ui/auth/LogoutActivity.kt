@@ -5,9 +5,14 @@ import android.os.Bundle
 import androidx.appcompat.app.AppCompatActivity
 import com.blockchain.koin.scopedInject
 import com.blockchain.nabu.datamanagers.NabuDataManager
+import com.blockchain.network.cache.HttpResponseCache
 import com.blockchain.notifications.analytics.Analytics
 import com.blockchain.notifications.analytics.AnalyticsEvent
 import com.blockchain.notifications.analytics.AnalyticsNames
+import info.blockchain.wallet.bip44.DerivedAddressCache
+import io.reactivex.Completable
+import io.reactivex.rxkotlin.subscribeBy
+import io.reactivex.schedulers.Schedulers
 import org.koin.android.ext.android.inject
 import piuk.blockchain.android.data.coinswebsocket.service.CoinsWebSocketService
 import piuk.blockchain.android.ui.transactionflow.engine.TransactionModel
@@ -16,8 +21,10 @@ import piuk.blockchain.android.util.OSUtil
 import piuk.blockchain.androidcore.data.access.AccessState
 import piuk.blockchain.androidcore.data.bitcoincash.BchDataManager
 import piuk.blockchain.androidcore.data.ethereum.EthDataManager
+import piuk.blockchain.androidcore.data.payload.PayloadDataManager
 import piuk.blockchain.androidcore.data.walletoptions.WalletOptionsState
 import piuk.blockchain.androidcore.utils.PersistentPrefs
+import timber.log.Timber
 import java.io.Serializable
 
 class LogoutActivity : AppCompatActivity() {
@@ -26,10 +33,12 @@ class LogoutActivity : AppCompatActivity() {
     private val bchDataManager: BchDataManager by scopedInject()
     private val walletOptionsState: WalletOptionsState by scopedInject()
     private val nabuDataManager: NabuDataManager by scopedInject()
+    private val payloadDataManager: PayloadDataManager by scopedInject()
     private val osUtil: OSUtil by inject()
     private val analytics: Analytics by inject()
     private val loginState: AccessState by inject()
     private val prefs: PersistentPrefs by inject()
+    private val httpResponseCache: HttpResponseCache by inject()
 
     override fun onCreate(savedInstanceState: Bundle?) {
         super.onCreate(savedInstanceState)
@@ -58,6 +67,12 @@ class LogoutActivity : AppCompatActivity() {
         resetTransaction()
 
         walletOptionsState.wipe()
+        payloadDataManager.masterSeed?.clear()
+        DerivedAddressCache.shared().clear()
+
+        Completable.fromAction { httpResponseCache.clear() }
+            .subscribeOn(Schedulers.io())
+            .subscribeBy(onError = { Timber.e(it) })
 
         loginState.isLoggedIn = false
         finishAffinity()
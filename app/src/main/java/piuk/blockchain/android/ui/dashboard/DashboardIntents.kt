@@ -1,5 +1,6 @@
 package piuk.blockchain.android.ui.dashboard
 
+import com.blockchain.nabu.datamanagers.repositories.CustodialBalances
 import com.blockchain.nabu.models.data.LinkBankTransfer
 import info.blockchain.balance.CryptoCurrency
 import info.blockchain.balance.CryptoValue
@@ -110,6 +111,19 @@ class CheckForCustodialBalanceIntent(
     }
 }
 
+class CustodialBalancesUpdate(
+    private val balances: CustodialBalances
+) : DashboardIntent() {
+    override fun reduce(oldState: DashboardState): DashboardState =
+        oldState.copy(
+            assets = AssetMap(
+                oldState.assets.mapValues { (currency, asset) ->
+                    asset.copy(hasCustodialBalance = balances.hasTradingBalance(currency))
+                }
+            )
+        )
+}
+
 class UpdateHasCustodialBalanceIntent(
     val cryptoCurrency: CryptoCurrency,
     private val hasCustodial: Boolean
@@ -3,6 +3,7 @@ package piuk.blockchain.android.ui.dashboard
 import com.blockchain.logging.CrashLogger
 import com.blockchain.nabu.datamanagers.CustodialWalletManager
 import com.blockchain.nabu.datamanagers.custodialwalletimpl.PaymentMethodType
+import com.blockchain.nabu.datamanagers.repositories.CustodialAssetWalletsBalancesRepository
 import com.blockchain.nabu.models.data.LinkBankTransfer
 import com.blockchain.notifications.analytics.Analytics
 import com.blockchain.preferences.CurrencyPrefs
@@ -52,6 +53,7 @@ class DashboardInteractor(
     private val exchangeRates: ExchangeRates,
     private val currencyPrefs: CurrencyPrefs,
     private val custodialWalletManager: CustodialWalletManager,
+    private val custodialBalances: CustodialAssetWalletsBalancesRepository,
     private val simpleBuyPrefs: SimpleBuyPrefs,
     private val analytics: Analytics,
     private val crashLogger: CrashLogger,
@@ -68,6 +70,10 @@ class DashboardInteractor(
     fun refreshBalances(model: DashboardModel, balanceFilter: AssetFilter, state: DashboardState): Disposable {
         val cd = CompositeDisposable()
 
+        // Custodial balances are otherwise only reloaded when the app changes them, so a refresh is
+        // what picks up deposits made elsewhere
+        custodialBalances.invalidateTrading()
+
         state.assetMapKeys
             .filter { !it.hasFeature(CryptoCurrency.IS_ERC20) }
             .forEach { asset ->
@@ -216,14 +222,26 @@ class DashboardInteractor(
             )
 
     fun checkForCustodialBalance(model: DashboardModel, crypto: CryptoCurrency): Disposable? {
-        return coincore[crypto].accountGroup(AssetFilter.Custodial)
-            .flatMapSingle { it.accountBalance }
+        return custodialBalances.snapshot()
+            .map { it.hasTradingBalance(crypto) }
             .subscribeBy(
-                onSuccess = { model.process(UpdateHasCustodialBalanceIntent(crypto, !it.isZero)) },
+                onSuccess = { model.process(UpdateHasCustodialBalanceIntent(crypto, it)) },
                 onError = { model.process(UpdateHasCustodialBalanceIntent(crypto, false)) }
             )
     }
 
+    /**
+     * Keeps every asset's custodial flag in step with the custodial balances snapshot, which is
+     * republished whenever an order, transfer or withdrawal changes it.
+     */
+    fun observeCustodialBalances(model: DashboardModel): Disposable =
+        custodialBalances.balances
+            .filter { it.isTradingLoaded }
+            .subscribeBy(
+                onNext = { model.process(CustodialBalancesUpdate(it)) },
+                onError = { Timber.e(it) }
+            )
+
     fun hasUserBackedUp(): Single<Boolean> = Single.just(payloadManager.isBackedUp)
 
     fun cancelSimpleBuyOrder(orderId: String): Disposable {
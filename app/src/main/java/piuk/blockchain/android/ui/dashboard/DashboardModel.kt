@@ -266,6 +266,7 @@ class DashboardModel(
                 process(RefreshPrices(intent.cryptoCurrency))
                 null
             }
+            is UpdateDashboardCurrencies -> interactor.observeCustodialBalances(this)
             is RefreshPrices -> interactor.refreshPrices(this, intent.cryptoCurrency)
             is PriceUpdate -> interactor.refreshPriceHistory(this, intent.cryptoCurrency)
             is CheckBackupStatus -> checkBackupStatus(intent.account, intent.action)
@@ -278,6 +279,7 @@ class DashboardModel(
             is LaunchBankTransferFlow -> processBankTransferFlow(intent)
             is LaunchSendFlow -> interactor.getSendFlow(this, intent.fromAccount, intent.action)
             is FiatBalanceUpdate,
+            is CustodialBalancesUpdate,
             is BalanceUpdateError,
             is PriceHistoryUpdate,
             is ClearAnnouncement,
@@ -289,7 +291,6 @@ class DashboardModel(
             is ClearBottomSheet,
             is UpdateSelectedCryptoAccount,
             is ShowBackupSheet,
-            is UpdateDashboardCurrencies,
             is LaunchBankLinkFlow,
             is ResetDashboardNavigation,
             is ShowLinkablePaymentMethodsSheet,
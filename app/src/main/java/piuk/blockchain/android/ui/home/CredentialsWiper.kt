@@ -1,6 +1,7 @@
 package piuk.blockchain.android.ui.home
 
 import com.blockchain.nabu.datamanagers.NabuDataManager
+import com.blockchain.network.cache.HttpResponseCache
 import info.blockchain.wallet.payload.PayloadManagerWiper
 import piuk.blockchain.android.ui.launcher.LauncherActivity
 import piuk.blockchain.android.util.AppUtil
@@ -18,7 +19,8 @@ class CredentialsWiper(
     private val bchDataManager: BchDataManager,
     private val metadataManager: MetadataManager,
     private val nabuDataManager: NabuDataManager,
-    private val walletOptionsState: WalletOptionsState
+    private val walletOptionsState: WalletOptionsState,
+    private val httpResponseCache: HttpResponseCache
 ) {
     fun wipe() {
         payloadManagerWiper.wipe()
@@ -31,5 +33,6 @@ class CredentialsWiper(
         nabuDataManager.clearAccessToken()
         metadataManager.reset()
         walletOptionsState.wipe()
+        httpResponseCache.clear()
     }
 }
\ No newline at end of file
@@ -18,6 +18,7 @@ import com.blockchain.notifications.analytics.AnalyticsEvents
 import com.blockchain.preferences.BankLinkingPrefs
 import com.blockchain.sunriver.XlmDataManager
 import com.google.gson.JsonSyntaxException
+import info.blockchain.balance.CryptoCurrency
 import info.blockchain.balance.FiatValue
 import info.blockchain.wallet.payload.PayloadManager
 import io.reactivex.android.schedulers.AndroidSchedulers
@@ -31,6 +32,8 @@ import piuk.blockchain.android.campaign.SunriverCampaignRegistration
 import piuk.blockchain.android.campaign.SunriverCardType
 import piuk.blockchain.android.coincore.AssetAction
 import piuk.blockchain.android.coincore.BlockchainAccount
+import piuk.blockchain.android.coincore.Coincore
+import piuk.blockchain.android.coincore.CryptoAccount
 import piuk.blockchain.android.coincore.CryptoTarget
 import piuk.blockchain.android.deeplink.DeepLinkProcessor
 import piuk.blockchain.android.deeplink.EmailVerifiedLinkState
@@ -101,6 +104,7 @@ class MainPresenter internal constructor(
     private val accessState: AccessState,
     private val payloadDataManager: PayloadDataManager,
     private val exchangeRateFactory: ExchangeRateDataManager,
+    private val coincore: Coincore,
     private val qrProcessor: QrScanResultProcessor,
     private val kycStatusHelper: KycStatusHelper,
     private val deepLinkProcessor: DeepLinkProcessor,
@@ -494,9 +498,22 @@ class MainPresenter internal constructor(
         credentialsWiper.wipe()
     }
 
+    /**
+     * Refreshes the tickers of the assets the user holds, counting an account whose balance hasn't
+     * loaded yet as held, so a cold start doesn't leave assets unpriced. Assets on screen fetch
+     * their own rate as they load, and fiat to fiat conversion is priced through BTC, so BTC is
+     * always included.
+     */
     internal fun updateTicker() {
         compositeDisposable +=
-            exchangeRateFactory.updateTickers()
+            coincore.allWallets()
+                .map { group ->
+                    group.accounts.filterIsInstance<CryptoAccount>()
+                        .filter { it.isFunded || !it.isBalanceKnown }
+                        .map { it.asset }
+                        .toSet() + CryptoCurrency.BTC
+                }
+                .flatMapCompletable { assets -> exchangeRateFactory.updateTickers(assets) }
                 .subscribeBy(onError = { it.printStackTrace() }, onComplete = {})
     }
 
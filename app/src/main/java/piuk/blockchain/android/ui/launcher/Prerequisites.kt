@@ -3,6 +3,7 @@ package piuk.blockchain.android.ui.launcher
 import com.blockchain.logging.CrashLogger
 import com.blockchain.operations.AppStartUpFlushable
 import info.blockchain.wallet.api.data.Settings
+import info.blockchain.wallet.bip44.MasterSeed
 import info.blockchain.wallet.exceptions.HDWalletException
 import info.blockchain.wallet.exceptions.InvalidCredentialsException
 import io.reactivex.Completable
@@ -17,6 +18,7 @@ import piuk.blockchain.androidcore.data.metadata.MetadataManager
 import piuk.blockchain.androidcore.data.rxjava.RxBus
 import piuk.blockchain.androidcore.data.settings.SettingsDataManager
 import piuk.blockchain.androidcore.utils.extensions.then
+import timber.log.Timber
 
 class Prerequisites(
     private val metadataManager: MetadataManager,
@@ -42,6 +44,7 @@ class Prerequisites(
             .then { walletCredentialsUpdater.checkAndUpdate().logAndCompleteOnError(WALLET_CREDENTIALS) }
             .doOnComplete {
                 rxBus.emitEvent(MetadataEvent::class.java, MetadataEvent.SETUP_COMPLETE)
+                Timber.d("Seed derivations at start up: %s", MasterSeed.stats())
             }.subscribeOn(Schedulers.io())
 
     private fun Completable.logOnError(tag: String): Completable =
@@ -2,15 +2,12 @@ package piuk.blockchain.android.ui.recover
 
 import com.blockchain.logging.CrashLogger
 import info.blockchain.wallet.bip44.HDWalletFactory
+import info.blockchain.wallet.bip44.MnemonicCodec
 import io.reactivex.Scheduler
 import io.reactivex.disposables.Disposable
 import io.reactivex.rxkotlin.subscribeBy
-import org.bitcoinj.crypto.MnemonicCode
-import org.bitcoinj.crypto.MnemonicException
 import piuk.blockchain.android.ui.base.mvi.MviModel
 import piuk.blockchain.androidcore.data.api.EnvironmentConfig
-import piuk.blockchain.androidcore.utils.helperfunctions.unsafeLazy
-import java.util.Locale
 
 class AccountRecoveryModel(
     initialState: AccountRecoveryState,
@@ -25,14 +22,9 @@ class AccountRecoveryModel(
     crashLogger
 ) {
 
-    private val mnemonicChecker: MnemonicCode by unsafeLazy {
-        // We only support US english mnemonics atm
-        val wis = HDWalletFactory::class.java.classLoader?.getResourceAsStream(
-            "wordlist/" + Locale("en", "US") + ".txt"
-        ) ?: throw MnemonicException.MnemonicWordException("cannot read BIP39 word list")
-
-        MnemonicCode(wis, null)
-    }
+    // We only support US english mnemonics atm
+    private val mnemonicChecker: MnemonicCodec
+        get() = MnemonicCodec.forLanguage(HDWalletFactory.Language.US)
 
     override fun performAction(previousState: AccountRecoveryState, intent: AccountRecoveryIntents): Disposable? {
         return when (intent) {
@@ -49,14 +41,14 @@ class AccountRecoveryModel(
             seedWords.size < 12 -> {
                 process(AccountRecoveryIntents.UpdateStatus(AccountRecoveryStatus.WORD_COUNT_ERROR))
             }
-            else -> try {
-                mnemonicChecker.check(seedWords)
+            mnemonicChecker.isValid(seedWords) -> {
                 process(
                     AccountRecoveryIntents.RecoverWalletCredentials(
                         seedPhrase = seedPhrase
                     )
                 )
-            } catch (e: MnemonicException) {
+            }
+            else -> {
                 process(AccountRecoveryIntents.UpdateStatus(AccountRecoveryStatus.INVALID_PHRASE))
             }
         }
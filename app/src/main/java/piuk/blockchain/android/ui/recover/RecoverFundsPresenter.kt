@@ -3,6 +3,7 @@ package piuk.blockchain.android.ui.recover
 import com.blockchain.notifications.analytics.Analytics
 import com.squareup.moshi.Moshi
 import info.blockchain.wallet.bip44.HDWalletFactory
+import info.blockchain.wallet.bip44.MnemonicCodec
 import info.blockchain.wallet.metadata.Metadata
 import info.blockchain.wallet.metadata.MetadataDerivation
 import info.blockchain.wallet.metadata.MetadataInteractor
@@ -11,15 +12,11 @@ import io.reactivex.android.schedulers.AndroidSchedulers
 import io.reactivex.rxkotlin.plusAssign
 import io.reactivex.rxkotlin.subscribeBy
 import io.reactivex.schedulers.Schedulers
-import org.bitcoinj.crypto.MnemonicCode
-import org.bitcoinj.crypto.MnemonicException
-import java.util.Locale
 import piuk.blockchain.android.R
 import piuk.blockchain.android.ui.createwallet.WalletCreationEvent
 import piuk.blockchain.androidcore.data.auth.metadata.WalletCredentialsMetadata
 import piuk.blockchain.androidcore.data.payload.PayloadDataManager
 import piuk.blockchain.androidcore.utils.PersistentPrefs
-import piuk.blockchain.androidcore.utils.helperfunctions.unsafeLazy
 import piuk.blockchain.androidcoreui.ui.base.BasePresenter
 import timber.log.Timber
 import java.util.NoSuchElementException
@@ -33,14 +30,9 @@ class RecoverFundsPresenter(
     private val analytics: Analytics
 ) : BasePresenter<RecoverFundsView>() {
 
-    private val mnemonicChecker: MnemonicCode by unsafeLazy {
-        // We only support US english mnemonics atm
-        val wis = HDWalletFactory::class.java.classLoader?.getResourceAsStream(
-            "wordlist/" + Locale("en", "US") + ".txt"
-        ) ?: throw MnemonicException.MnemonicWordException("cannot read BIP39 word list")
-
-        MnemonicCode(wis, null)
-    }
+    // We only support US english mnemonics atm
+    private val mnemonicChecker: MnemonicCodec
+        get() = MnemonicCodec.forLanguage(HDWalletFactory.Language.US)
 
     override fun onViewReady() {
         // No-op
@@ -61,13 +53,7 @@ class RecoverFundsPresenter(
 
     private fun isValidMnemonic(
         recoveryPhrase: String
-    ): Boolean = try {
-        val words = recoveryPhrase.trim().split("\\s+".toRegex())
-        mnemonicChecker.check(words)
-        true
-    } catch (e: MnemonicException) {
-        false
-    }
+    ): Boolean = mnemonicChecker.isValid(recoveryPhrase.trim().split("\\s+".toRegex()))
 
     private fun recoverCredentials(recoveryPhrase: String): Single<WalletCredentialsMetadata> {
         require(recoveryPhrase.isNotEmpty())
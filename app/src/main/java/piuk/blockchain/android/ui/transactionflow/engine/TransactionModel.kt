@@ -19,6 +19,7 @@ import piuk.blockchain.android.coincore.NeedsApprovalException
 import piuk.blockchain.android.coincore.NullAddress
 import piuk.blockchain.android.coincore.NullCryptoAccount
 import piuk.blockchain.android.coincore.PendingTx
+import piuk.blockchain.android.coincore.StalePendingTxException
 import piuk.blockchain.android.coincore.TransactionTarget
 import piuk.blockchain.android.coincore.TxConfirmationValue
 import piuk.blockchain.android.coincore.TxValidationFailure
@@ -412,9 +413,13 @@ class TransactionModel(
         interactor.updateTransactionAmount(amount)
             .subscribeBy(
                 onError = {
-                    Timber.e("!TRANSACTION!> Unable to get update available balance")
-                    errorLogger.log(TxFlowLogError.BalanceFail(it))
-                    process(TransactionIntent.FatalTransactionError(it))
+                    if (it is StalePendingTxException) {
+                        Timber.d("!TRANSACTION!> Amount update overtaken by newer updates")
+                    } else {
+                        Timber.e("!TRANSACTION!> Unable to get update available balance")
+                        errorLogger.log(TxFlowLogError.BalanceFail(it))
+                        process(TransactionIntent.FatalTransactionError(it))
+                    }
                 }
             )
 
@@ -422,9 +427,13 @@ class TransactionModel(
         interactor.updateTransactionFees(intent.feeLevel, intent.customFeeAmount)
             .subscribeBy(
                 onError = {
-                    Timber.e("!TRANSACTION!> Unable to set TX fee level")
-                    errorLogger.log(TxFlowLogError.FeesFail(it))
-                    process(TransactionIntent.FatalTransactionError(it))
+                    if (it is StalePendingTxException) {
+                        Timber.d("!TRANSACTION!> Fee level update overtaken by newer updates")
+                    } else {
+                        Timber.e("!TRANSACTION!> Unable to set TX fee level")
+                        errorLogger.log(TxFlowLogError.FeesFail(it))
+                        process(TransactionIntent.FatalTransactionError(it))
+                    }
                 }
             )
 
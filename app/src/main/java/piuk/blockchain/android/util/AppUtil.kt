@@ -2,6 +2,7 @@ package piuk.blockchain.android.util
 
 import android.content.Context
 import android.content.Intent
+import com.blockchain.network.cache.HttpResponseCache
 import com.blockchain.ui.ActivityIndicator
 import info.blockchain.wallet.payload.PayloadManagerWiper
 import piuk.blockchain.androidcore.data.access.AccessState
@@ -12,7 +13,8 @@ class AppUtil(
     private val context: Context,
     private var payloadManager: PayloadManagerWiper,
     private var accessState: AccessState,
-    private val prefs: PersistentPrefs
+    private val prefs: PersistentPrefs,
+    private val httpResponseCache: HttpResponseCache
 ) {
     val isSane: Boolean
         get() {
@@ -29,6 +31,7 @@ class AppUtil(
         payloadManager.wipe()
         prefs.clear()
         accessState.forgetWallet()
+        httpResponseCache.clear()
     }
 
     fun clearCredentialsAndRestart(launcherActivity: Class<*>) {
@@ -0,0 +1,133 @@
+package piuk.blockchain.android.coincore
+
+import com.blockchain.testutils.bitcoin
+import com.nhaarman.mockito_kotlin.any
+import com.nhaarman.mockito_kotlin.mock
+import com.nhaarman.mockito_kotlin.whenever
+import info.blockchain.balance.CryptoCurrency
+import info.blockchain.balance.CryptoValue
+import info.blockchain.balance.Money
+import io.reactivex.Single
+import io.reactivex.schedulers.TestScheduler
+import org.amshove.kluent.`should equal`
+import org.junit.Before
+import org.junit.Test
+import java.util.concurrent.TimeUnit
+
+class TransactionProcessorTest {
+
+    private val scheduler = TestScheduler()
+
+    // How long the engine takes to work out each amount
+    private val latencies = mutableMapOf<Money, Long>()
+    private val failingAmounts = mutableSetOf<Money>()
+
+    private val engine: TxEngine = mock()
+
+    private lateinit var subject: TransactionProcessor
+
+    @Before
+    fun setUp() {
+        whenever(engine.doInitialiseTx()).thenReturn(Single.just(INITIAL_TX))
+        whenever(engine.doUpdateAmount(any(), any())).thenAnswer {
+            val amount = it.arguments[0] as Money
+            val pendingTx = it.arguments[1] as PendingTx
+            if (amount in failingAmounts) {
+                Single.error(IllegalStateException("Failed"))
+            } else {
+                Single.just(pendingTx.copy(amount = amount))
+                    .delay(latencies[amount] ?: 0, TimeUnit.MILLISECONDS, scheduler)
+            }
+        }
+        whenever(engine.doUpdateFeeLevel(any(), any(), any())).thenAnswer {
+            val pendingTx = it.arguments[0] as PendingTx
+            Single.just(
+                pendingTx.copy(
+                    feeSelection = pendingTx.feeSelection.copy(selectedLevel = it.arguments[1] as FeeLevel)
+                )
+            )
+        }
+        whenever(engine.doValidateAmount(any())).thenAnswer {
+            Single.just(it.arguments[0] as PendingTx)
+        }
+
+        subject = TransactionProcessor(mock(), mock(), mock(), engine)
+    }
+
+    @Test
+    fun `a slow amount update is overtaken by a newer one`() {
+        latencies[1.bitcoin()] = 500
+        latencies[2.bitcoin()] = 100
+        val txs = subject.initialiseTx().test()
+
+        val first = subject.updateAmount(1.bitcoin()).test()
+        val second = subject.updateAmount(2.bitcoin()).test()
+        scheduler.advanceTimeBy(1, TimeUnit.SECONDS)
+
+        txs.values().map { it.amount } `should equal` listOf<Money>(CryptoValue.zero(ASSET), 2.bitcoin())
+        first.assertComplete()
+        second.assertComplete()
+    }
+
+    @Test
+    fun `published versions only ever increase`() {
+        latencies[1.bitcoin()] = 300
+        latencies[2.bitcoin()] = 50
+        latencies[3.bitcoin()] = 200
+        val txs = subject.initialiseTx().test()
+
+        subject.updateAmount(1.bitcoin()).test()
+        scheduler.advanceTimeBy(100, TimeUnit.MILLISECONDS)
+        subject.updateAmount(2.bitcoin()).test()
+        scheduler.advanceTimeBy(100, TimeUnit.MILLISECONDS)
+        subject.updateAmount(3.bitcoin()).test()
+        scheduler.advanceTimeBy(1, TimeUnit.SECONDS)
+
+        txs.values().map { it.version } `should equal` listOf(1L, 2L, 3L)
+        txs.values().map { it.amount } `should equal`
+            listOf<Money>(CryptoValue.zero(ASSET), 2.bitcoin(), 3.bitcoin())
+    }
+
+    @Test
+    fun `a fee level change keeps the amount still being worked out`() {
+        latencies[1.bitcoin()] = 500
+        val txs = subject.initialiseTx().test()
+
+        subject.updateAmount(1.bitcoin()).test()
+        subject.updateFeeLevel(FeeLevel.Priority, null).test()
+        scheduler.advanceTimeBy(1, TimeUnit.SECONDS)
+
+        txs.valueCount() `should equal` 2
+        txs.values().last().amount `should equal` 1.bitcoin()
+        txs.values().last().feeSelection.selectedLevel `should equal` FeeLevel.Priority
+    }
+
+    @Test
+    fun `a failed update is reported to its caller`() {
+        failingAmounts.add(3.bitcoin())
+        val txs = subject.initialiseTx().test()
+
+        subject.updateAmount(3.bitcoin()).test()
+            .assertErrorMessage("Failed")
+
+        txs.valueCount() `should equal` 1
+    }
+
+    companion object {
+        private val ASSET = CryptoCurrency.BTC
+
+        private val INITIAL_TX = PendingTx(
+            amount = CryptoValue.zero(ASSET),
+            totalBalance = CryptoValue.zero(ASSET),
+            availableBalance = CryptoValue.zero(ASSET),
+            feeForFullAvailable = CryptoValue.zero(ASSET),
+            feeAmount = CryptoValue.zero(ASSET),
+            feeSelection = FeeSelection(
+                selectedLevel = FeeLevel.Regular,
+                availableLevels = setOf(FeeLevel.Regular, FeeLevel.Priority),
+                asset = ASSET
+            ),
+            selectedFiat = "USD"
+        )
+    }
+}
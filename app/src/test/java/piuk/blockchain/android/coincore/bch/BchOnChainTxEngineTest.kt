@@ -9,6 +9,7 @@ import com.blockchain.testutils.satoshiCash
 import com.nhaarman.mockito_kotlin.atLeastOnce
 import com.nhaarman.mockito_kotlin.atMost
 import com.nhaarman.mockito_kotlin.mock
+import com.nhaarman.mockito_kotlin.times
 import com.nhaarman.mockito_kotlin.verify
 import com.nhaarman.mockito_kotlin.verifyNoMoreInteractions
 import com.nhaarman.mockito_kotlin.whenever
@@ -187,14 +188,14 @@ class BchOnChainTxEngineTest {
     @Test
     fun `PendingTx is correctly initialised`() {
         // Arrange
-        val sourceAccount: BchCryptoWalletAccount = mock {
-            on { asset } itReturns ASSET
-        }
+        val sourceAccount = fundedSourceAccount(CryptoValue.zero(ASSET), CryptoValue.zero(ASSET))
 
         val txTarget: CryptoAddress = mock {
             on { asset } itReturns ASSET
         }
 
+        whenever(bchDataManager.getAddressBalance(SOURCE_XPUB)).thenReturn(CryptoValue.zero(ASSET))
+
         subject.start(
             sourceAccount,
             txTarget,
@@ -222,6 +223,11 @@ class BchOnChainTxEngineTest {
 
         verify(currencyPrefs).selectedFiatCurrency
         verify(sourceAccount, atLeastOnce()).asset
+        // The session's coins and fee options start loading straight away
+        verify(sourceAccount, times(2)).xpubAddress
+        verify(sourceAccount).accountBalance
+        verify(bchDataManager).getAddressBalance(SOURCE_XPUB)
+        verify(feeManager).bchFeeOptions
 
         noMoreInteractions(sourceAccount, txTarget)
     }
@@ -317,7 +323,7 @@ class BchOnChainTxEngineTest {
 
         verify(txTarget, atMost(2)).address
         verify(sourceAccount, atLeastOnce()).asset
-        verify(sourceAccount).xpubAddress
+        verify(sourceAccount, times(2)).xpubAddress
         verify(sourceAccount).accountBalance
         verify(bchDataManager).getAddressBalance(SOURCE_XPUB)
         verify(feeManager).bchFeeOptions
@@ -11,6 +11,7 @@ import com.blockchain.testutils.satoshi
 import com.nhaarman.mockito_kotlin.atLeastOnce
 import com.nhaarman.mockito_kotlin.atMost
 import com.nhaarman.mockito_kotlin.mock
+import com.nhaarman.mockito_kotlin.times
 import com.nhaarman.mockito_kotlin.verify
 import com.nhaarman.mockito_kotlin.verifyNoMoreInteractions
 import com.nhaarman.mockito_kotlin.whenever
@@ -189,6 +190,8 @@ class BtcOnChainTxEngineTest {
             on { asset } itReturns ASSET
         }
 
+        whenever(btcDataManager.getAddressBalance(SOURCE_XPUBS)).thenReturn(CryptoValue.zero(ASSET))
+
         subject.start(
             sourceAccount,
             txTarget,
@@ -217,6 +220,11 @@ class BtcOnChainTxEngineTest {
         verify(sourceAccount, atLeastOnce()).asset
         verify(walletPreferences).getFeeTypeForAsset(ASSET)
         verify(currencyPrefs).selectedFiatCurrency
+        // The session's coins and fee options start loading straight away
+        verify(sourceAccount, times(2)).xpubs
+        verify(sourceAccount).accountBalance
+        verify(btcDataManager).getAddressBalance(SOURCE_XPUBS)
+        verify(feeManager).btcFeeOptions
 
         noMoreInteractions(sourceAccount, txTarget)
     }
@@ -308,7 +316,7 @@ class BtcOnChainTxEngineTest {
 
         verify(txTarget, atMost(2)).address
         verify(sourceAccount, atLeastOnce()).asset
-        verify(sourceAccount, atMost(2)).xpubs
+        verify(sourceAccount, atMost(3)).xpubs
         verify(sourceAccount).accountBalance
         verify(btcDataManager).getAddressBalance(SOURCE_XPUBS)
         verify(btcDataManager, atMost(2)).getAddressOutputType(TARGET_ADDRESS)
@@ -413,7 +421,7 @@ class BtcOnChainTxEngineTest {
 
         verify(txTarget, atMost(2)).address
         verify(sourceAccount, atLeastOnce()).asset
-        verify(sourceAccount, atMost(2)).xpubs
+        verify(sourceAccount, atMost(3)).xpubs
         verify(sourceAccount).accountBalance
         verify(btcDataManager).getAddressBalance(SOURCE_XPUBS)
         verify(btcDataManager, atMost(2)).getAddressOutputType(TARGET_ADDRESS)
@@ -522,7 +530,7 @@ class BtcOnChainTxEngineTest {
 
         verify(txTarget, atMost(2)).address
         verify(sourceAccount, atLeastOnce()).asset
-        verify(sourceAccount, atMost(2)).xpubs
+        verify(sourceAccount, atMost(3)).xpubs
         verify(sourceAccount).accountBalance
         verify(btcDataManager).getAddressBalance(SOURCE_XPUBS)
         verify(btcDataManager, atMost(2)).getAddressOutputType(TARGET_ADDRESS)
@@ -733,7 +741,7 @@ class BtcOnChainTxEngineTest {
 
         verify(txTarget, atMost(2)).address
         verify(sourceAccount, atLeastOnce()).asset
-        verify(sourceAccount, atMost(2)).xpubs
+        verify(sourceAccount, atMost(3)).xpubs
         verify(sourceAccount).accountBalance
         verify(btcDataManager).getAddressBalance(SOURCE_XPUBS)
         verify(btcDataManager, atMost(2)).getAddressOutputType(TARGET_ADDRESS)
@@ -849,7 +857,7 @@ class BtcOnChainTxEngineTest {
 
         verify(txTarget, atMost(2)).address
         verify(sourceAccount, atLeastOnce()).asset
-        verify(sourceAccount, atMost(2)).xpubs
+        verify(sourceAccount, atMost(3)).xpubs
         verify(sourceAccount).accountBalance
         verify(btcDataManager).getAddressBalance(SOURCE_XPUBS)
         verify(btcDataManager, atMost(2)).getAddressOutputType(TARGET_ADDRESS)
@@ -0,0 +1,222 @@
+package piuk.blockchain.android.coincore.impl
+
+import com.blockchain.nabu.datamanagers.CurrencyPair
+import com.blockchain.nabu.datamanagers.CustodialOrderState
+import com.blockchain.nabu.datamanagers.InterestState
+import com.blockchain.nabu.datamanagers.OrderState
+import com.blockchain.nabu.datamanagers.TransactionState
+import com.blockchain.nabu.datamanagers.TransactionType
+import com.blockchain.nabu.datamanagers.TransferDirection
+import com.blockchain.nabu.datamanagers.custodialwalletimpl.OrderType
+import com.blockchain.nabu.datamanagers.custodialwalletimpl.PaymentMethodType
+import com.nhaarman.mockito_kotlin.mock
+import info.blockchain.balance.CryptoCurrency
+import info.blockchain.balance.CryptoValue
+import info.blockchain.balance.FiatValue
+import info.blockchain.balance.Money
+import info.blockchain.wallet.multiaddress.TransactionSummary
+import io.reactivex.Observable
+import io.reactivex.Single
+import org.amshove.kluent.`should be`
+import org.amshove.kluent.`should equal`
+import org.junit.Test
+import piuk.blockchain.android.coincore.ActivitySummaryItem
+import piuk.blockchain.android.coincore.CryptoAccount
+import piuk.blockchain.android.coincore.CustodialInterestActivitySummaryItem
+import piuk.blockchain.android.coincore.CustodialTradingActivitySummaryItem
+import piuk.blockchain.android.coincore.CustodialTransferActivitySummaryItem
+import piuk.blockchain.android.coincore.FiatAccount
+import piuk.blockchain.android.coincore.FiatActivitySummaryItem
+import piuk.blockchain.android.coincore.InterestAccount
+import piuk.blockchain.android.coincore.TestNonCustodialSummaryItem
+import piuk.blockchain.android.coincore.TradeActivitySummaryItem
+import piuk.blockchain.android.coincore.TradingAccount
+
+class ActivityReconcilerTest {
+
+    interface TestTradingAccount : CryptoAccount, TradingAccount
+    interface TestInterestAccount : CryptoAccount, InterestAccount
+
+    private val nonCustodialAccount: CryptoAccount = mock()
+    private val tradingAccount: TestTradingAccount = mock()
+    private val interestAccount: TestInterestAccount = mock()
+    private val fiatAccount: FiatAccount = mock()
+
+    @Test
+    fun `a swap replaces the send that funded it`() {
+        val send = onChain("0xABCDEF", TransactionSummary.TransactionType.SENT, fee = 5)
+        val receive = onChain("123456", TransactionSummary.TransactionType.RECEIVED)
+
+        val result = ActivityReconciler.reconcileSwaps(
+            listOf(swap("abcdef")),
+            listOf(send, receive)
+        )
+
+        result.size `should equal` 2
+        (result[0] as TradeActivitySummaryItem).txId `should equal` "abcdef"
+        (result[0] as TradeActivitySummaryItem).depositNetworkFee.test()
+            .assertValue(CryptoValue.fromMinor(CryptoCurrency.ETHER, 5.toBigInteger()))
+        result[1] `should be` receive
+    }
+
+    @Test
+    fun `a swap is only joined onto a send`() {
+        val receive = onChain("abcdef", TransactionSummary.TransactionType.RECEIVED)
+
+        ActivityReconciler.reconcileSwaps(listOf(swap("abcdef")), listOf(receive)) `should equal` listOf(receive)
+    }
+
+    @Test
+    fun `each send funds at most one swap`() {
+        val send = onChain("abcdef", TransactionSummary.TransactionType.SENT)
+
+        val result = ActivityReconciler.reconcileSwaps(
+            listOf(swap("abcdef", timeStampMs = 1), swap("abc-def", timeStampMs = 2)),
+            listOf(send)
+        )
+
+        result.size `should equal` 1
+        result[0].timeStampMs `should equal` 1L
+    }
+
+    @Test
+    fun `the fiat deposit paying for a buy is removed`() {
+        val buy = buy("buy", depositPaymentId = "payment-1", timeStampMs = 2)
+        val deposit = fiat("payment1", TransactionType.DEPOSIT, timeStampMs = 1)
+        val withdrawal = fiat("payment-2", TransactionType.WITHDRAWAL, timeStampMs = 3)
+
+        val result = ActivityReconciler.reconcileCustodial(listOf(deposit, buy, withdrawal))
+
+        result.activity `should equal` listOf(withdrawal, buy)
+        result.removed `should equal` listOf<ActivitySummaryItem>(deposit)
+    }
+
+    @Test
+    fun `a buy without a deposit payment id matches nothing`() {
+        val buy = buy("buy", depositPaymentId = "", timeStampMs = 2)
+        val deposit = fiat("payment", TransactionType.DEPOSIT, timeStampMs = 1)
+
+        val result = ActivityReconciler.reconcileCustodial(listOf(deposit, buy))
+
+        result.activity `should equal` listOf(buy, deposit)
+        result.removed `should equal` emptyList<ActivitySummaryItem>()
+    }
+
+    @Test
+    fun `the transfer behind an interest deposit or withdrawal is removed`() {
+        val interestDeposit = interest("tx-1", timeStampMs = 4)
+        val interestWithdrawal = interest("tx-2", timeStampMs = 3)
+        val depositTransfer = transfer("tx1", TransactionType.DEPOSIT, timeStampMs = 2)
+        val withdrawalTransfer = transfer("tx2", TransactionType.WITHDRAWAL, timeStampMs = 1)
+        val unrelated = transfer("tx3", TransactionType.DEPOSIT, timeStampMs = 5)
+
+        val result = ActivityReconciler.reconcileCustodial(
+            listOf(depositTransfer, interestDeposit, withdrawalTransfer, unrelated, interestWithdrawal)
+        )
+
+        result.activity `should equal` listOf(unrelated, interestDeposit, interestWithdrawal)
+        result.removed.toSet() `should equal` setOf<ActivitySummaryItem>(depositTransfer, withdrawalTransfer)
+    }
+
+    @Test
+    fun `reconciled activity is sorted newest first and de-duplicated`() {
+        val older = onChain("a", TransactionSummary.TransactionType.RECEIVED, timeStampMs = 1)
+        val newer = onChain("b", TransactionSummary.TransactionType.RECEIVED, timeStampMs = 2)
+
+        ActivityReconciler.reconcileCustodial(listOf(older, newer, older)).activity `should equal`
+            listOf(newer, older)
+    }
+
+    private fun onChain(
+        txId: String,
+        type: TransactionSummary.TransactionType,
+        fee: Int = 0,
+        timeStampMs: Long = 0
+    ) = TestNonCustodialSummaryItem(
+        txId = txId,
+        transactionType = type,
+        timeStampMs = timeStampMs,
+        cryptoCurrency = CryptoCurrency.ETHER,
+        fee = Observable.just(CryptoValue.fromMinor(CryptoCurrency.ETHER, fee.toBigInteger())),
+        account = nonCustodialAccount
+    )
+
+    private fun swap(txId: String, timeStampMs: Long = 0) =
+        TradeActivitySummaryItem(
+            exchangeRates = mock(),
+            txId = txId,
+            timeStampMs = timeStampMs,
+            sendingValue = CryptoValue.zero(CryptoCurrency.ETHER),
+            sendingAccount = nonCustodialAccount,
+            sendingAddress = null,
+            receivingAddress = null,
+            state = CustodialOrderState.FINISHED,
+            direction = TransferDirection.ON_CHAIN,
+            receivingValue = CryptoValue.zero(CryptoCurrency.BTC),
+            depositNetworkFee = Single.just(CryptoValue.zero(CryptoCurrency.ETHER) as Money),
+            withdrawalNetworkFee = CryptoValue.zero(CryptoCurrency.BTC),
+            currencyPair = CurrencyPair.CryptoCurrencyPair(CryptoCurrency.ETHER, CryptoCurrency.BTC),
+            fiatValue = FiatValue.zero("USD"),
+            fiatCurrency = "USD"
+        )
+
+    private fun buy(txId: String, depositPaymentId: String, timeStampMs: Long) =
+        CustodialTradingActivitySummaryItem(
+            exchangeRates = mock(),
+            cryptoCurrency = CryptoCurrency.BTC,
+            txId = txId,
+            timeStampMs = timeStampMs,
+            value = CryptoValue.zero(CryptoCurrency.BTC),
+            account = tradingAccount,
+            fundedFiat = FiatValue.zero("USD"),
+            status = OrderState.FINISHED,
+            type = OrderType.BUY,
+            fee = FiatValue.zero("USD"),
+            paymentMethodId = "",
+            paymentMethodType = PaymentMethodType.BANK_TRANSFER,
+            depositPaymentId = depositPaymentId
+        )
+
+    private fun fiat(txId: String, type: TransactionType, timeStampMs: Long) =
+        FiatActivitySummaryItem(
+            currency = "USD",
+            exchangeRates = mock(),
+            txId = txId,
+            timeStampMs = timeStampMs,
+            value = FiatValue.zero("USD"),
+            account = fiatAccount,
+            type = type,
+            state = TransactionState.COMPLETED
+        )
+
+    private fun interest(txId: String, timeStampMs: Long) =
+        CustodialInterestActivitySummaryItem(
+            exchangeRates = mock(),
+            cryptoCurrency = CryptoCurrency.BTC,
+            txId = txId,
+            timeStampMs = timeStampMs,
+            value = CryptoValue.zero(CryptoCurrency.BTC),
+            account = interestAccount,
+            status = InterestState.COMPLETE,
+            type = TransactionSummary.TransactionType.DEPOSIT,
+            confirmations = 0,
+            accountRef = "",
+            recipientAddress = ""
+        )
+
+    private fun transfer(txId: String, type: TransactionType, timeStampMs: Long) =
+        CustodialTransferActivitySummaryItem(
+            cryptoCurrency = CryptoCurrency.BTC,
+            exchangeRates = mock(),
+            txId = txId,
+            timeStampMs = timeStampMs,
+            value = CryptoValue.zero(CryptoCurrency.BTC),
+            account = tradingAccount,
+            fee = CryptoValue.zero(CryptoCurrency.BTC),
+            recipientAddress = "",
+            txHash = txId,
+            state = TransactionState.COMPLETED,
+            fiatValue = FiatValue.zero("USD"),
+            type = type
+        )
+}
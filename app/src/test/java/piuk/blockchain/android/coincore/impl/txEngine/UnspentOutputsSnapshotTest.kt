@@ -0,0 +1,96 @@
+package piuk.blockchain.android.coincore.impl.txEngine
+
+import com.blockchain.android.testutils.rxInit
+import com.blockchain.testutils.bitcoin
+import com.nhaarman.mockito_kotlin.mock
+import info.blockchain.balance.CryptoValue
+import info.blockchain.wallet.api.data.FeeOptions
+import info.blockchain.wallet.payload.model.Utxo
+import io.reactivex.Single
+import org.amshove.kluent.`should equal`
+import org.junit.Rule
+import org.junit.Test
+
+class UnspentOutputsSnapshotTest {
+
+    @get:Rule
+    val rx = rxInit {
+        ioTrampoline()
+    }
+
+    private var now = 0L
+    private var localBalance: CryptoValue = 1.bitcoin()
+    private var coinLoads = 0
+    private var feeLoads = 0
+
+    private val coins = listOf<Utxo>(mock(), mock())
+    private val feeOptions: FeeOptions = mock()
+
+    private val subject = UnspentOutputsSnapshot(
+        localBalance = { localBalance },
+        loadCoins = { balance ->
+            Single.fromCallable {
+                coinLoads++
+                UnspentCoins(balance, coins)
+            }
+        },
+        loadFeeOptions = {
+            Single.fromCallable {
+                feeLoads++
+                feeOptions
+            }
+        },
+        lifetimeSeconds = 60,
+        clock = { now }
+    )
+
+    @Test
+    fun `a new session loads coins and fee options once`() {
+        subject.startSession()
+
+        repeat(5) {
+            subject.coins().test().assertValue(UnspentCoins(localBalance, coins))
+            subject.feeOptions().test().assertValue(feeOptions)
+        }
+
+        coinLoads `should equal` 1
+        feeLoads `should equal` 1
+    }
+
+    @Test
+    fun `coins are reloaded once the local balance moves`() {
+        subject.coins().test()
+        localBalance = 2.bitcoin()
+
+        subject.coins().test().assertValue { it.totalBalance == localBalance }
+        subject.coins().test()
+
+        coinLoads `should equal` 2
+    }
+
+    @Test
+    fun `refreshing fee options leaves the coins alone`() {
+        subject.coins().test()
+        subject.feeOptions().test()
+
+        subject.refreshFeeOptions()
+        subject.coins().test()
+        subject.feeOptions().test()
+
+        coinLoads `should equal` 1
+        feeLoads `should equal` 2
+    }
+
+    @Test
+    fun `the snapshot is reloaded once its lifetime has passed`() {
+        subject.coins().test()
+        subject.feeOptions().test()
+
+        now = 60_000
+        subject.coins().test()
+        subject.feeOptions().test()
+
+        coinLoads `should equal` 2
+        feeLoads `should equal` 2
+    }
+}
@@ -7,6 +7,7 @@ import com.google.gson.Gson
 import com.nhaarman.mockito_kotlin.any
 import com.nhaarman.mockito_kotlin.mock
 import com.nhaarman.mockito_kotlin.never
+import com.nhaarman.mockito_kotlin.times
 import com.nhaarman.mockito_kotlin.verify
 import info.blockchain.balance.CryptoCurrency
 import info.blockchain.wallet.ethereum.Erc20TokenData
@@ -15,16 +16,19 @@ import info.blockchain.wallet.ethereum.data.EthAddressResponseMap
 import info.blockchain.wallet.payload.data.Wallet
 import io.reactivex.Completable
 import io.reactivex.Observable
+import io.reactivex.schedulers.TestScheduler
 import io.reactivex.subjects.PublishSubject
 import org.amshove.kluent.`it returns`
 import org.amshove.kluent.itReturns
 import org.amshove.kluent.mock
+import org.junit.Assert.assertEquals
 import org.junit.Before
 import org.junit.Rule
 import org.junit.Test
 import piuk.blockchain.android.R
 import piuk.blockchain.android.coincore.AssetResources
 import piuk.blockchain.android.data.coinswebsocket.service.MessagesSocketHandler
+import piuk.blockchain.android.data.coinswebsocket.strategy.CoalescingRefreshScheduler
 import piuk.blockchain.android.data.coinswebsocket.strategy.CoinsWebSocketStrategy
 import piuk.blockchain.android.util.StringUtils
 import piuk.blockchain.androidcore.data.bitcoincash.BchDataManager
@@ -33,6 +37,7 @@ import piuk.blockchain.androidcore.data.ethereum.models.CombinedEthModel
 import piuk.blockchain.androidcore.data.payload.PayloadDataManager
 import piuk.blockchain.androidcore.data.rxjava.RxBus
 import piuk.blockchain.androidcore.utils.PersistentPrefs
+import java.util.concurrent.TimeUnit
 
 class CoinsWebSocketStrategyTest {
 
@@ -227,6 +232,46 @@ class CoinsWebSocketStrategyTest {
         verify(messagesSocketHandler).showToast(R.string.wallet_updated)
     }
 
+    @Test
+    fun `bursts of btc and bch transactions are coalesced into one refresh per window`() {
+        val testScheduler = TestScheduler()
+        val refreshScheduler = CoalescingRefreshScheduler(1_000, testScheduler)
+        val coalescingWebSocket = FakeWebSocket(mockWebSocket)
+        val coalescingStrategy = CoinsWebSocketStrategy(
+            coinsWebSocket = coalescingWebSocket,
+            ethDataManager = ethDataManager,
+            stringUtils = stringUtils,
+            gson = Gson(),
+            bchDataManager = bchDataManager,
+            payloadDataManager = payloadDataManager,
+            accessState = mock(),
+            appUtil = mock(),
+            prefs = prefs,
+            rxBus = rxBus,
+            assetResources = assetResources,
+            refreshScheduler = refreshScheduler
+        )
+        coalescingStrategy.setMessagesHandler(messagesSocketHandler)
+        coalescingStrategy.open()
+
+        coalescingWebSocket.send(btcTransaction)
+        coalescingWebSocket.send(bchTransaction)
+        coalescingWebSocket.send(btcTransaction)
+        coalescingWebSocket.send(bchTransaction)
+        coalescingWebSocket.send(btcTransaction)
+
+        verify(payloadDataManager, times(1)).updateAllBalances()
+        verify(bchDataManager, times(1)).updateAllBalances()
+
+        testScheduler.advanceTimeBy(1, TimeUnit.SECONDS)
+
+        verify(payloadDataManager, times(2)).updateAllBalances()
+        verify(bchDataManager, times(2)).updateAllBalances()
+        assertEquals(5, refreshScheduler.eventsReceived)
+        assertEquals(4, refreshScheduler.refreshesTriggered)
+        assertEquals(1, refreshScheduler.eventsAbsorbed)
+    }
+
     private class FakeWebSocket(mock: WebSocket<String, String>) : WebSocket<String, String> by mock {
         private val _sendSubject = PublishSubject.create<String>()
 
@@ -3,7 +3,10 @@ package piuk.blockchain.android.data.websocket
 import com.google.gson.Gson
 import junit.framework.Assert.assertEquals
 import org.junit.Test
+import piuk.blockchain.android.data.coinswebsocket.models.BtcTransaction
 import piuk.blockchain.android.data.coinswebsocket.models.Coin
+import piuk.blockchain.android.data.coinswebsocket.models.CoinsSocketMessage
+import piuk.blockchain.android.data.coinswebsocket.models.CoinsSocketMessageDecoder
 import piuk.blockchain.android.data.coinswebsocket.models.Entity
 import piuk.blockchain.android.data.coinswebsocket.models.EthBlock
 import piuk.blockchain.android.data.coinswebsocket.models.SocketResponse
@@ -72,4 +75,31 @@ class ResponseDecodingTest {
                 )
             ), gson.fromJson(errorMessage, SocketResponse::class.java))
     }
-}
\ No newline at end of file
+
+    @Test
+    fun `wallet change message decodes to wallet changed`() {
+        val message = "{\"checksum\":\"741cd20c\",\"op\":\"on_change\",\"guid\":\"9e2751de\"}"
+        assertEquals(
+            CoinsSocketMessage.WalletChanged("741cd20c"),
+            CoinsSocketMessageDecoder(gson).decode(message)
+        )
+    }
+
+    @Test
+    fun `btc transaction message decodes with its hash as key`() {
+        val message = "{\"coin\":\"btc\",\"entity\":\"xpub\",\"transaction\":" +
+                "{\"hash\":\"abcd\",\"inputs\":[],\"out\":[]}}"
+        val decoded = CoinsSocketMessageDecoder(gson).decode(message)
+        assertEquals(
+            CoinsSocketMessage.BtcTransactionMessage(BtcTransaction(hash = "abcd")),
+            decoded
+        )
+        assertEquals("btc:abcd", decoded?.dedupKey)
+    }
+
+    @Test
+    fun `pong message is dropped`() {
+        val pongMessage = " {\"success\": true, \"entity\":\"none\", \"coin\":\"none\", \"message\": \"pong\"}"
+        assertEquals(null, CoinsSocketMessageDecoder(gson).decode(pongMessage))
+    }
+}
@@ -0,0 +1,92 @@
+package piuk.blockchain.android.repositories
+
+import com.nhaarman.mockito_kotlin.mock
+import info.blockchain.balance.CryptoCurrency
+import org.amshove.kluent.`should be`
+import org.amshove.kluent.`should equal`
+import org.junit.Test
+import piuk.blockchain.android.coincore.CryptoAccount
+import piuk.blockchain.android.coincore.CryptoActivitySummaryItem
+import piuk.blockchain.android.coincore.TestNonCustodialSummaryItem
+
+class ActivityStoreTest {
+
+    private val btcAccount: CryptoAccount = mock()
+    private val ethAccount: CryptoAccount = mock()
+
+    private val accounts = listOf(btcAccount, ethAccount)
+
+    private val subject = ActivityStore()
+
+    @Test
+    fun `items are found by id and by asset and id`() {
+        val btc = item("a", btcAccount, CryptoCurrency.BTC)
+        val eth = item("b", ethAccount, CryptoCurrency.ETHER)
+        subject.merge(listOf(btc, eth), accounts)
+
+        subject.findById("a") `should be` btc
+        subject.find("ETH", "b", CryptoActivitySummaryItem::class.java) `should be` eth
+        subject.find("BTC", "b", CryptoActivitySummaryItem::class.java) `should be` null
+    }
+
+    @Test
+    fun `merging replaces items with the same key`() {
+        val pending = item("a", btcAccount, CryptoCurrency.BTC, confirmations = 0)
+        val confirmed = item("a", btcAccount, CryptoCurrency.BTC, confirmations = 3)
+        subject.merge(listOf(pending), accounts)
+        subject.merge(listOf(confirmed), accounts)
+
+        subject.snapshot() `should equal` listOf(confirmed)
+        subject.findById("a") `should be` confirmed
+    }
+
+    @Test
+    fun `accounts missing from a merge keep their items`() {
+        val btc = item("a", btcAccount, CryptoCurrency.BTC)
+        val eth = item("b", ethAccount, CryptoCurrency.ETHER)
+        subject.merge(listOf(btc, eth), accounts)
+
+        val newerEth = item("c", ethAccount, CryptoCurrency.ETHER)
+        subject.merge(listOf(newerEth), accounts)
+
+        subject.snapshot().toSet() `should equal` setOf(btc, newerEth)
+        subject.findById("b") `should be` null
+    }
+
+    @Test
+    fun `items of accounts the wallet no longer has are dropped`() {
+        val btc = item("a", btcAccount, CryptoCurrency.BTC)
+        val eth = item("b", ethAccount, CryptoCurrency.ETHER)
+        subject.merge(listOf(btc, eth), accounts)
+
+        // The ETH account has been archived, and its activity is no longer loaded
+        subject.merge(emptyList(), listOf(btcAccount))
+
+        subject.snapshot() `should equal` listOf(btc)
+        subject.findById("b") `should be` null
+    }
+
+    @Test
+    fun `removed items are no longer indexed`() {
+        val btc = item("a", btcAccount, CryptoCurrency.BTC)
+        subject.merge(listOf(btc), accounts)
+
+        subject.remove(btc)
+
+        subject.isEmpty() `should be` true
+        subject.findById("a") `should be` null
+        subject.find("BTC", "a", CryptoActivitySummaryItem::class.java) `should be` null
+    }
+
+    private fun item(
+        txId: String,
+        account: CryptoAccount,
+        currency: CryptoCurrency,
+        confirmations: Int = 0
+    ) = TestNonCustodialSummaryItem(
+        txId = txId,
+        account = account,
+        cryptoCurrency = currency,
+        confirmations = confirmations
+    )
+}
@@ -0,0 +1,82 @@
+package piuk.blockchain.android.repositories
+
+import com.nhaarman.mockito_kotlin.mock
+import info.blockchain.balance.CryptoCurrency
+import info.blockchain.balance.CryptoValue
+import info.blockchain.wallet.multiaddress.TransactionSummary
+import kotlinx.serialization.decodeFromString
+import kotlinx.serialization.encodeToString
+import kotlinx.serialization.json.Json
+import org.amshove.kluent.`should be`
+import org.amshove.kluent.`should equal`
+import org.amshove.kluent.itReturns
+import org.junit.Test
+import piuk.blockchain.android.coincore.CryptoAccount
+import piuk.blockchain.android.coincore.TestNonCustodialSummaryItem
+import piuk.blockchain.android.coincore.impl.CryptoNonCustodialAccount
+import piuk.blockchain.androidcore.data.exchangerate.ExchangeRateDataManager
+
+class StoredActivityItemTest {
+
+    private val exchangeRates: ExchangeRateDataManager = mock()
+
+    private val btcAccount = account(CryptoCurrency.BTC, "My Bitcoin Wallet")
+    private val otherBtcAccount = account(CryptoCurrency.BTC, "Savings")
+    private val ethAccount = account(CryptoCurrency.ETHER, "My Ether Wallet")
+
+    private val accounts = listOf(btcAccount, otherBtcAccount, ethAccount)
+
+    @Test
+    fun `a stored item is rebound to the account it belonged to`() {
+        val item = TestNonCustodialSummaryItem(
+            cryptoCurrency = CryptoCurrency.BTC,
+            transactionType = TransactionSummary.TransactionType.SENT,
+            timeStampMs = 1_600_000_000_000,
+            value = CryptoValue.fromMinor(CryptoCurrency.BTC, 12_345.toBigDecimal()),
+            txId = "a",
+            confirmations = 2,
+            isFeeTransaction = true,
+            account = otherBtcAccount
+        )
+
+        val restored = roundTrip(item.toStored()).restore(accounts, exchangeRates)!!
+
+        restored.account `should be` otherBtcAccount
+        restored.txId `should equal` "a"
+        restored.cryptoCurrency `should equal` CryptoCurrency.BTC
+        restored.value `should equal` item.value
+        restored.timeStampMs `should equal` item.timeStampMs
+        restored.transactionType `should equal` TransactionSummary.TransactionType.SENT
+        restored.confirmations `should equal` 2
+        restored.isFeeTransaction `should be` true
+    }
+
+    @Test
+    fun `an item whose account is gone is not restored`() {
+        val item = TestNonCustodialSummaryItem(
+            cryptoCurrency = CryptoCurrency.ETHER,
+            txId = "b",
+            account = ethAccount
+        )
+
+        item.toStored().restore(listOf(btcAccount), exchangeRates) `should be` null
+    }
+
+    @Test
+    fun `an item of an unknown asset is not restored`() {
+        val stored = TestNonCustodialSummaryItem(txId = "c", account = btcAccount)
+            .toStored()
+            .copy(asset = "UNKNOWN")
+
+        stored.restore(accounts, exchangeRates) `should be` null
+    }
+
+    private fun roundTrip(item: StoredActivityItem): StoredActivityItem =
+        Json.decodeFromString<StoredActivity>(Json.encodeToString(StoredActivity(listOf(item)))).items.single()
+
+    private fun account(currency: CryptoCurrency, name: String): CryptoAccount =
+        mock<CryptoNonCustodialAccount> {
+            on { asset } itReturns currency
+            on { label } itReturns name
+        }
+}
@@ -49,6 +49,7 @@ class DashboardInteractorTest {
             exchangeRates = mock(),
             currencyPrefs = mock(),
             custodialWalletManager = custodialWalletManager,
+            custodialBalances = mock(),
             linkedBanksFactory = linkedBanksFactory,
             assetOrdering = mock(),
             crashLogger = mock(),
@@ -0,0 +1,181 @@
+package piuk.blockchain.android.ui.transactionflow.engine
+
+import com.blockchain.android.testutils.rxInit
+import com.blockchain.testutils.bitcoin
+import com.nhaarman.mockito_kotlin.any
+import com.nhaarman.mockito_kotlin.mock
+import com.nhaarman.mockito_kotlin.never
+import com.nhaarman.mockito_kotlin.verify
+import com.nhaarman.mockito_kotlin.whenever
+import info.blockchain.balance.CryptoCurrency
+import info.blockchain.balance.CryptoValue
+import info.blockchain.balance.Money
+import io.reactivex.Observable
+import io.reactivex.Single
+import io.reactivex.schedulers.Schedulers
+import io.reactivex.schedulers.TestScheduler
+import org.amshove.kluent.`it returns`
+import org.amshove.kluent.`should be`
+import org.amshove.kluent.`should equal`
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import piuk.blockchain.android.coincore.AssetAction
+import piuk.blockchain.android.coincore.CryptoAccount
+import piuk.blockchain.android.coincore.FeeLevel
+import piuk.blockchain.android.coincore.FeeSelection
+import piuk.blockchain.android.coincore.PendingTx
+import piuk.blockchain.android.coincore.TransactionProcessor
+import piuk.blockchain.android.coincore.TransactionTarget
+import piuk.blockchain.android.coincore.TxConfirmationValue
+import piuk.blockchain.android.coincore.TxEngine
+import piuk.blockchain.androidcore.data.api.EnvironmentConfig
+import java.util.concurrent.TimeUnit
+
+class TransactionModelTest {
+
+    private lateinit var model: TransactionModel
+
+    private val scheduler = TestScheduler()
+
+    // How long the engine takes to work out each amount
+    private val latencies = mutableMapOf<Money, Long>()
+    // Amounts whose update is always overtaken by an option change
+    private val racedAmounts = mutableSetOf<Money>()
+
+    private val engine: TxEngine = mock()
+    private lateinit var processor: TransactionProcessor
+
+    private val interactor: TransactionInteractor = mock()
+    private val errorLogger: TxFlowErrorReporting = mock()
+
+    private val environmentConfig: EnvironmentConfig = mock {
+        on { isRunningInDebugMode() } `it returns` false
+    }
+
+    private val sourceAccount: CryptoAccount = mock {
+        on { asset } `it returns` ASSET
+    }
+    private val target: TransactionTarget = mock()
+
+    @get:Rule
+    val rx = rxInit {
+        ioTrampoline()
+        computationTrampoline()
+    }
+
+    @Before
+    fun setUp() {
+        whenever(engine.doInitialiseTx()).thenReturn(Single.just(INITIAL_TX))
+        whenever(engine.doUpdateAmount(any(), any())).thenAnswer {
+            val amount = it.arguments[0] as Money
+            val pendingTx = it.arguments[1] as PendingTx
+            if (amount in racedAmounts) {
+                processor.setOption(TxConfirmationValue.Description("raced")).subscribe()
+            }
+            Single.just(pendingTx.copy(amount = amount))
+                .delay(latencies[amount] ?: 0, TimeUnit.MILLISECONDS, scheduler)
+        }
+        whenever(engine.doValidateAmount(any())).thenAnswer {
+            Single.just(it.arguments[0] as PendingTx)
+        }
+        whenever(engine.doOptionUpdateRequest(any(), any())).thenAnswer {
+            val pendingTx = it.arguments[0] as PendingTx
+            Single.just(pendingTx.copy(confirmations = listOf(it.arguments[1] as TxConfirmationValue)))
+        }
+        whenever(engine.doValidateAll(any())).thenAnswer {
+            Single.just(it.arguments[0] as PendingTx)
+        }
+
+        processor = TransactionProcessor(mock(), mock(), mock(), engine)
+
+        whenever(interactor.initialiseTransaction(any(), any(), any()))
+            .thenReturn(Observable.defer { processor.initialiseTx() })
+        whenever(interactor.canTransactFiat).thenReturn(false)
+        whenever(interactor.startFiatRateFetch()).thenReturn(Observable.empty())
+        whenever(interactor.startTargetRateFetch()).thenReturn(Observable.empty())
+        whenever(interactor.updateTransactionAmount(any())).thenAnswer {
+            processor.updateAmount(it.arguments[0] as Money)
+        }
+        whenever(interactor.modifyOptionValue(any())).thenAnswer {
+            processor.setOption(it.arguments[0] as TxConfirmationValue)
+        }
+
+        model = TransactionModel(
+            initialState = TransactionState(),
+            mainScheduler = Schedulers.io(),
+            interactor = interactor,
+            errorLogger = errorLogger,
+            environmentConfig = environmentConfig,
+            crashLogger = mock()
+        )
+    }
+
+    @Test
+    fun `fast amount changes end on the latest amount, rebased onto the latest pending tx`() {
+        latencies[1.bitcoin()] = 500
+        latencies[2.bitcoin()] = 300
+        val testState = model.state.test()
+        model.process(
+            TransactionIntent.InitialiseWithSourceAndTargetAccount(AssetAction.Send, sourceAccount, target, false)
+        )
+
+        model.process(TransactionIntent.AmountChanged(1.bitcoin()))
+        model.process(TransactionIntent.AmountChanged(2.bitcoin()))
+        scheduler.advanceTimeBy(100, TimeUnit.MILLISECONDS)
+        // Published while the amount is still being worked out
+        model.process(TransactionIntent.ModifyTxOption(TxConfirmationValue.Description("note")))
+        scheduler.advanceTimeBy(1, TimeUnit.SECONDS)
+
+        val states = testState.values()
+        val pendingTx = states.last().pendingTx!!
+        pendingTx.amount `should equal` 2.bitcoin()
+        pendingTx.confirmations `should equal` listOf<TxConfirmationValue>(TxConfirmationValue.Description("note"))
+
+        // Neither the overtaken 1 BTC nor the stale 2 BTC result was ever shown
+        states.mapNotNull { it.pendingTx?.amount }.distinct() `should equal`
+            listOf<Money>(CryptoValue.zero(ASSET), 2.bitcoin())
+        val versions = states.mapNotNull { it.pendingTx?.version }
+        versions `should equal` versions.sorted()
+        states.none { it.executionStatus is TxExecutionStatus.Error } `should be` true
+    }
+
+    @Test
+    fun `an amount change that keeps being overtaken is not shown as an error`() {
+        racedAmounts.add(5.bitcoin())
+        val testState = model.state.test()
+        model.process(
+            TransactionIntent.InitialiseWithSourceAndTargetAccount(AssetAction.Send, sourceAccount, target, false)
+        )
+        scheduler.triggerActions()
+
+        model.process(TransactionIntent.AmountChanged(5.bitcoin()))
+        scheduler.triggerActions()
+
+        val states = testState.values()
+        states.none { it.executionStatus is TxExecutionStatus.Error } `should be` true
+        states.last().currentStep `should equal` TransactionStep.ENTER_AMOUNT
+        states.last().pendingTx!!.confirmations `should equal`
+            listOf<TxConfirmationValue>(TxConfirmationValue.Description("raced"))
+        verify(errorLogger, never()).log(any())
+    }
+
+    companion object {
+        private val ASSET = CryptoCurrency.BTC
+
+        private val INITIAL_TX = PendingTx(
+            amount = CryptoValue.zero(ASSET),
+            totalBalance = CryptoValue.zero(ASSET),
+            availableBalance = CryptoValue.zero(ASSET),
+            feeForFullAvailable = CryptoValue.zero(ASSET),
+            feeAmount = CryptoValue.zero(ASSET),
+            feeSelection = FeeSelection(
+                selectedLevel = FeeLevel.Regular,
+                availableLevels = setOf(FeeLevel.Regular, FeeLevel.Priority),
+                asset = ASSET
+            ),
+            selectedFiat = "USD",
+            confirmations = listOf(TxConfirmationValue.Description())
+        )
+    }
+}
@@ -112,6 +112,34 @@ class NonCustodialBitcoinService internal constructor(
         )
     }
 
+    /**
+     * As [getMultiAddress], but leaves the body unread so that it can be decoded as it arrives
+     * with [com.blockchain.api.bitcoin.MultiAddressStreamDecoder]. The caller must close the body.
+     */
+    fun getMultiAddressStream(
+        coin: String,
+        addressListLegacy: List<String>,
+        addressListBech32: List<String>,
+        context: String?,
+        filter: BalanceFilter,
+        limit: Int,
+        offset: Int
+    ): Call<ResponseBody> {
+        val legacyAddresses = addressListLegacy.joinToString("|")
+        val bech32Addresses = addressListBech32.joinToString("|")
+
+        return api.getMultiAddressStream(
+            coin,
+            legacyAddresses,
+            bech32Addresses,
+            limit,
+            offset,
+            filter.filterInt,
+            context,
+            apiCode
+        )
+    }
+
     /**
      * Returns list of unspent outputs.
      *
@@ -12,6 +12,7 @@ import retrofit2.http.POST
 import retrofit2.http.GET
 import retrofit2.http.Path
 import retrofit2.http.Query
+import retrofit2.http.Streaming
 
 // TODO: Should be internal, but required for payload integration tests.
 // Once those are re-written, this can be changed back
@@ -29,6 +30,20 @@ import retrofit2.http.Query
         @Field("api_code") apiCode: String
     ): Call<MultiAddress>
 
+    @Streaming
+    @FormUrlEncoded
+    @POST("{coin}/multiaddr")
+    fun getMultiAddressStream(
+        @Path("coin") coin: String,
+        @Field("active") activeLegacy: String,
+        @Field("activeBech32") activeBech32: String,
+        @Field("n") limit: Int?,
+        @Field("offset") offset: Int?,
+        @Field("filter") filter: Int?,
+        @Field("onlyShow") context: String?,
+        @Field("api_code") apiCode: String
+    ): Call<ResponseBody>
+
     @GET("{coin}/unspent")
     fun getUnspent(
         @Path("coin") coin: String,
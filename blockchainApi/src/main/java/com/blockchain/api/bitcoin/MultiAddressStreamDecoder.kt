@@ -0,0 +1,331 @@
+package com.blockchain.api.bitcoin
+
+import com.blockchain.api.bitcoin.data.AddressSummary
+import com.blockchain.api.bitcoin.data.Info
+import com.blockchain.api.bitcoin.data.Input
+import com.blockchain.api.bitcoin.data.Output
+import com.blockchain.api.bitcoin.data.RawBlock
+import com.blockchain.api.bitcoin.data.Transaction
+import com.blockchain.api.bitcoin.data.XpubDto
+import com.squareup.moshi.JsonDataException
+import com.squareup.moshi.JsonReader
+import okio.BufferedSource
+import java.math.BigInteger
+
+/**
+ * Receives the parts of a multiaddr response as they are read.
+ */
+interface MultiAddressVisitor {
+    fun onAddress(address: AddressSummary)
+    fun onTransaction(tx: Transaction)
+    fun onInfo(info: Info)
+}
+
+/**
+ * Reads a multiaddr response token by token, handing each address summary and transaction to a
+ * [MultiAddressVisitor] as soon as it has been read rather than building the whole
+ * [com.blockchain.api.bitcoin.data.MultiAddress] first. Only one transaction is held at a time.
+ *
+ * The objects produced are equal to those the kotlinx MultiAddress serializer would produce for
+ * the same body.
+ */
+object MultiAddressStreamDecoder {
+
+    fun decode(source: BufferedSource, visitor: MultiAddressVisitor) {
+        JsonReader.of(source).use { reader ->
+            reader.isLenient = true
+            reader.beginObject()
+            while (reader.hasNext()) {
+                when (reader.nextName()) {
+                    "addresses" -> reader.forEachInArray { visitor.onAddress(reader.readAddressSummary()) }
+                    "txs" -> reader.forEachInArray { visitor.onTransaction(reader.readTransaction()) }
+                    "info" -> if (reader.peek() != JsonReader.Token.NULL) {
+                        visitor.onInfo(reader.readInfo())
+                    } else {
+                        reader.skipValue()
+                    }
+                    else -> reader.skipValue()
+                }
+            }
+            reader.endObject()
+        }
+    }
+
+    private fun JsonReader.readAddressSummary(): AddressSummary {
+        var address: String? = null
+        var txCount = 0L
+        var totalReceived: BigInteger? = null
+        var totalSent: BigInteger? = null
+        var finalBalance: BigInteger? = null
+        var changeIndex = 0
+        var accountIndex = 0
+        var gapLimit = 0L
+
+        forEachField { name ->
+            when (name) {
+                "address" -> address = readStringOrNull()
+                "n_tx" -> txCount = nextLong()
+                "total_received" -> totalReceived = readBigIntegerOrNull()
+                "total_sent" -> totalSent = readBigIntegerOrNull()
+                "final_balance" -> finalBalance = readBigIntegerOrNull()
+                "change_index" -> changeIndex = nextInt()
+                "account_index" -> accountIndex = nextInt()
+                "gap_limit" -> gapLimit = nextLong()
+                else -> skipValue()
+            }
+        }
+
+        return AddressSummary(
+            address = address.required("address"),
+            txCount = txCount,
+            totalReceived = totalReceived.required("total_received"),
+            totalSent = totalSent.required("total_sent"),
+            finalBalance = finalBalance.required("final_balance"),
+            changeIndex = changeIndex,
+            accountIndex = accountIndex,
+            gapLimit = gapLimit
+        )
+    }
+
+    private fun JsonReader.readTransaction(): Transaction {
+        var hash: String? = null
+        var ver = 0L
+        var lockTime = 0L
+        var blockHeight: Long? = 0
+        var relayedBy: String? = null
+        var result: BigInteger? = null
+        var fee: BigInteger? = null
+        var size = 0L
+        var time = 0L
+        var txIndex = 0L
+        var vinSz = 0L
+        var voutSz = 0L
+        var isDoubleSpend = false
+        val inputs = ArrayList<Input>()
+        val out = ArrayList<Output>()
+
+        forEachField { name ->
+            when (name) {
+                "hash" -> hash = readStringOrNull()
+                "ver" -> ver = nextLong()
+                "lock_time" -> lockTime = nextLong()
+                "block_height" -> blockHeight = readLongOrNull()
+                "relayed_by" -> relayedBy = readStringOrNull()
+                "result" -> result = readBigIntegerOrNull()
+                "fee" -> fee = readBigIntegerOrNull()
+                "size" -> size = nextLong()
+                "time" -> time = nextLong()
+                "tx_index" -> txIndex = nextLong()
+                "vin_sz" -> vinSz = nextLong()
+                "vout_sz" -> voutSz = nextLong()
+                "double_spend" -> isDoubleSpend = nextBoolean()
+                "inputs" -> forEachInArray { inputs.add(readInput()) }
+                "out" -> forEachInArray { out.add(readOutput()) }
+                else -> skipValue()
+            }
+        }
+
+        return Transaction(
+            hash = hash,
+            ver = ver,
+            lockTime = lockTime,
+            blockHeight = blockHeight,
+            relayedBy = relayedBy,
+            result = result.required("result"),
+            fee = fee,
+            size = size,
+            time = time,
+            txIndex = txIndex,
+            vinSz = vinSz,
+            voutSz = voutSz,
+            isDoubleSpend = isDoubleSpend,
+            inputs = inputs,
+            out = out
+        )
+    }
+
+    private fun JsonReader.readInput(): Input {
+        var sequence = 0L
+        var prevOut: Output? = null
+        var script: String? = null
+
+        forEachField { name ->
+            when (name) {
+                "sequence" -> sequence = nextLong()
+                "prev_out" -> prevOut = if (peek() == JsonReader.Token.NULL) nextNull() else readOutput()
+                "script" -> script = readStringOrNull()
+                else -> skipValue()
+            }
+        }
+        return Input(sequence = sequence, prevOut = prevOut, script = script)
+    }
+
+    private fun JsonReader.readOutput(): Output {
+        var isSpent = false
+        var txIndex = 0L
+        var type = 0
+        var addr: String? = null
+        var value: BigInteger? = null
+        var count = 0L
+        var script: String? = null
+        var xpub: XpubDto? = null
+
+        forEachField { name ->
+            when (name) {
+                "spent" -> isSpent = nextBoolean()
+                "tx_index" -> txIndex = nextLong()
+                "type" -> type = nextInt()
+                "addr" -> addr = readStringOrNull()
+                "value" -> value = readBigIntegerOrNull()
+                "n" -> count = nextLong()
+                "script" -> script = readStringOrNull()
+                "xpub" -> xpub = if (peek() == JsonReader.Token.NULL) nextNull() else readXpub()
+                else -> skipValue()
+            }
+        }
+
+        return Output(
+            isSpent = isSpent,
+            txIndex = txIndex,
+            type = type,
+            addr = addr,
+            value = value.required("value"),
+            count = count,
+            script = script,
+            xpub = xpub
+        )
+    }
+
+    private fun JsonReader.readXpub(): XpubDto {
+        var address: String? = null
+        var derivationPath: String? = null
+
+        forEachField { name ->
+            when (name) {
+                "m" -> address = readStringOrNull()
+                "path" -> derivationPath = readStringOrNull()
+                else -> skipValue()
+            }
+        }
+        return XpubDto(address = address.required("m"), derivationPath = derivationPath.required("path"))
+    }
+
+    private fun JsonReader.readInfo(): Info {
+        var connectedCount = 0L
+        var conversion = 0.0
+        var latestBlock: RawBlock? = null
+
+        forEachField { name ->
+            when (name) {
+                "nconnected" -> connectedCount = nextLong()
+                "conversion" -> conversion = nextDouble()
+                "latest_block" -> latestBlock = readRawBlock()
+                else -> skipValue()
+            }
+        }
+        return Info(
+            connectedCount = connectedCount,
+            conversion = conversion,
+            latestBlock = latestBlock.required("latest_block")
+        )
+    }
+
+    private fun JsonReader.readRawBlock(): RawBlock {
+        var blockIndex = 0L
+        var hash: String? = null
+        var height = 0L
+        var time = 0L
+        var ver = 0L
+        var prevBlock: String? = null
+        var merkleRoot: String? = null
+        var bits = 0L
+        var fee = 0L
+        var nonce = 0L
+        var txCount = 0L
+        var size = 0L
+        var isMainChain = false
+        var receivedTime = 0L
+        var relayedBy: String? = null
+        var tx: ArrayList<Transaction>? = null
+
+        forEachField { name ->
+            when (name) {
+                "block_index" -> blockIndex = nextLong()
+                "hash" -> hash = readStringOrNull()
+                "height" -> height = nextLong()
+                "time" -> time = nextLong()
+                "ver" -> ver = nextLong()
+                "prev_block" -> prevBlock = readStringOrNull()
+                "mrkl_root" -> merkleRoot = readStringOrNull()
+                "bits" -> bits = nextLong()
+                "fee" -> fee = nextLong()
+                "nonce" -> nonce = nextLong()
+                "n_tx" -> txCount = nextLong()
+                "size" -> size = nextLong()
+                "main_chain" -> isMainChain = nextBoolean()
+                "received_time" -> receivedTime = nextLong()
+                "relayed_by" -> relayedBy = readStringOrNull()
+                "tx" -> if (peek() == JsonReader.Token.NULL) {
+                    skipValue()
+                } else {
+                    val list = ArrayList<Transaction>()
+                    forEachInArray { list.add(readTransaction()) }
+                    tx = list
+                }
+                else -> skipValue()
+            }
+        }
+
+        return RawBlock(
+            blockIndex = blockIndex,
+            hash = hash,
+            height = height,
+            time = time,
+            ver = ver,
+            prevBlock = prevBlock,
+            merkleRoot = merkleRoot,
+            bits = bits,
+            fee = fee,
+            nonce = nonce,
+            txCount = txCount,
+            size = size,
+            isMainChain = isMainChain,
+            receivedTime = receivedTime,
+            relayedBy = relayedBy,
+            tx = tx
+        )
+    }
+
+    private inline fun JsonReader.forEachField(block: (String) -> Unit) {
+        beginObject()
+        while (hasNext()) {
+            block(nextName())
+        }
+        endObject()
+    }
+
+    private inline fun JsonReader.forEachInArray(block: () -> Unit) {
+        if (peek() == JsonReader.Token.NULL) {
+            skipValue()
+            return
+        }
+        beginArray()
+        while (hasNext()) {
+            block()
+        }
+        endArray()
+    }
+
+    private fun JsonReader.readStringOrNull(): String? =
+        if (peek() == JsonReader.Token.NULL) nextNull() else nextString()
+
+    private fun JsonReader.readLongOrNull(): Long? =
+        if (peek() == JsonReader.Token.NULL) nextNull() else nextLong()
+
+    // Numbers are read as their literal text, so no precision is lost on large values
+    private fun JsonReader.readBigIntegerOrNull(): BigInteger? =
+        if (peek() == JsonReader.Token.NULL) nextNull() else BigInteger(nextString())
+
+    private fun <T> T?.required(name: String): T =
+        this ?: throw JsonDataException("Required field '$name' missing from multiaddr response")
+}
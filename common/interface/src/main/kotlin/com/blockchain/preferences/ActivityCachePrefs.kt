@@ -0,0 +1,5 @@
+package com.blockchain.preferences
+
+interface ActivityCachePrefs {
+    var activityCacheData: String?
+}
@@ -0,0 +1,6 @@
+package com.blockchain.preferences
+
+interface XlmHistoryPrefs {
+    fun getXlmHistory(accountId: String): String?
+    fun setXlmHistory(accountId: String, data: String?)
+}
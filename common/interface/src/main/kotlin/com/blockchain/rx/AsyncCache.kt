@@ -0,0 +1,113 @@
+package com.blockchain.rx
+
+import io.reactivex.Single
+
+data class CacheStats(
+    val hits: Long,
+    val misses: Long,
+    val evictions: Long,
+    val loads: Long,
+    val loadFailures: Long,
+    val totalLoadTimeMillis: Long
+) {
+    val averageLoadTimeMillis: Long
+        get() = if (loads == 0L) 0 else totalLoadTimeMillis / loads
+}
+
+/**
+ * A thread safe cache of asynchronously loaded values.
+ *
+ * - Values live for [cacheLifetimeSeconds] after they have loaded; expiry is checked on read, so no
+ *   timers are scheduled. With [NO_EXPIRY] they live until they are invalidated or evicted.
+ * - At most [maxSize] keys are held; the least recently used key is evicted to make room.
+ * - Concurrent requests for a key that is already loading share the one in-flight request.
+ * - Errors are never cached; the next request for that key loads again.
+ */
+class AsyncCache<KEY : Any, VALUE : Any>(
+    private val cacheLifetimeSeconds: Long,
+    private val maxSize: Int = DEFAULT_MAX_SIZE,
+    private val clock: () -> Long = { System.currentTimeMillis() },
+    private val loader: (KEY) -> Single<VALUE>
+) {
+    private class Entry<VALUE> {
+        lateinit var value: Single<VALUE>
+        // Null until the load completes successfully
+        var expiresAt: Long? = null
+    }
+
+    private val lock = Any()
+
+    private val entries = object : LinkedHashMap<KEY, Entry<VALUE>>(16, 0.75f, true) {
+        override fun removeEldestEntry(eldest: MutableMap.MutableEntry<KEY, Entry<VALUE>>): Boolean =
+            (size > maxSize).also { if (it) evictions++ }
+    }
+
+    private var hits = 0L
+    private var misses = 0L
+    private var evictions = 0L
+    private var loads = 0L
+    private var loadFailures = 0L
+    private var totalLoadTimeMillis = 0L
+
+    init {
+        require(maxSize > 0) { "maxSize must be positive" }
+    }
+
+    fun get(key: KEY): Single<VALUE> = Single.defer { lookup(key) }
+
+    private fun lookup(key: KEY): Single<VALUE> = synchronized(lock) {
+        val now = clock()
+        val existing = entries[key]
+        if (existing != null && existing.expiresAt.let { it == null || now < it }) {
+            hits++
+            return existing.value
+        }
+
+        misses++
+        val entry = Entry<VALUE>()
+        entry.value = loader(key)
+            .doOnSuccess {
+                synchronized(lock) {
+                    val loadedAt = clock()
+                    entry.expiresAt = if (cacheLifetimeSeconds == NO_EXPIRY) {
+                        Long.MAX_VALUE
+                    } else {
+                        loadedAt + cacheLifetimeSeconds * 1000
+                    }
+                    loads++
+                    totalLoadTimeMillis += loadedAt - now
+                }
+            }
+            .doOnError {
+                synchronized(lock) {
+                    loadFailures++
+                    if (entries[key] === entry) entries.remove(key)
+                }
+            }
+            .cache()
+        entries[key] = entry
+        entry.value
+    }
+
+    fun invalidate(key: KEY) {
+        synchronized(lock) { entries.remove(key) }
+    }
+
+    fun invalidateAll() {
+        synchronized(lock) { entries.clear() }
+    }
+
+    fun stats(): CacheStats = synchronized(lock) {
+        CacheStats(hits, misses, evictions, loads, loadFailures, totalLoadTimeMillis)
+    }
+
+    companion object {
+        const val DEFAULT_MAX_SIZE = 64
+        const val NO_EXPIRY = Long.MAX_VALUE
+    }
+}
+
+/**
+ * Returns the cached value of a cache that isn't keyed on anything.
+ */
+fun <VALUE : Any> AsyncCache<Unit, VALUE>.get(): Single<VALUE> = get(Unit)
@@ -0,0 +1,115 @@
+package com.blockchain.rx
+
+import io.reactivex.Single
+import io.reactivex.subjects.SingleSubject
+import org.amshove.kluent.`should equal`
+import org.junit.Test
+
+class AsyncCacheTest {
+
+    private var now = 0L
+    private val loaded = mutableListOf<String>()
+
+    private fun cache(maxSize: Int = 8, lifetime: Long = 10) = AsyncCache<String, String>(
+        cacheLifetimeSeconds = lifetime,
+        maxSize = maxSize,
+        clock = { now }
+    ) { key ->
+        Single.fromCallable {
+            loaded.add(key)
+            "$key-${loaded.size}"
+        }
+    }
+
+    @Test
+    fun `second request within lifetime is served from cache`() {
+        val subject = cache()
+
+        subject.get("a").test().assertValue("a-1")
+        subject.get("a").test().assertValue("a-1")
+
+        loaded `should equal` listOf("a")
+        subject.stats().hits `should equal` 1L
+        subject.stats().misses `should equal` 1L
+    }
+
+    @Test
+    fun `value is reloaded once its lifetime has passed`() {
+        val subject = cache()
+
+        subject.get("a").test().assertValue("a-1")
+        now = 10_000
+        subject.get("a").test().assertValue("a-2")
+
+        loaded `should equal` listOf("a", "a")
+    }
+
+    @Test
+    fun `values without expiry are only reloaded once invalidated`() {
+        val subject = cache(lifetime = AsyncCache.NO_EXPIRY)
+
+        subject.get("a").test().assertValue("a-1")
+        now = Long.MAX_VALUE - 1
+        subject.get("a").test().assertValue("a-1")
+        subject.invalidate("a")
+        subject.get("a").test().assertValue("a-2")
+
+        loaded `should equal` listOf("a", "a")
+    }
+
+    @Test
+    fun `least recently used key is evicted`() {
+        val subject = cache(maxSize = 2)
+
+        subject.get("a").test()
+        subject.get("b").test()
+        subject.get("a").test()
+        subject.get("c").test()
+        subject.get("a").test()
+        subject.get("b").test()
+
+        loaded `should equal` listOf("a", "b", "c", "b")
+        subject.stats().evictions `should equal` 2L
+    }
+
+    @Test
+    fun `concurrent requests share the in flight load`() {
+        var subscriptions = 0
+        val response = SingleSubject.create<Int>()
+        val subject = AsyncCache<Unit, Int>(cacheLifetimeSeconds = 10, clock = { now }) {
+            response.doOnSubscribe { subscriptions++ }
+        }
+
+        val first = subject.get().test()
+        val second = subject.get().test()
+        response.onSuccess(5)
+
+        first.assertValue(5)
+        second.assertValue(5)
+        subscriptions `should equal` 1
+    }
+
+    @Test
+    fun `errors are not cached`() {
+        var attempts = 0
+        val subject = AsyncCache<Unit, Int>(cacheLifetimeSeconds = 10, clock = { now }) {
+            Single.fromCallable {
+                if (attempts++ == 0) throw IllegalStateException("X")
+                attempts
+            }
+        }
+
+        subject.get().test().assertErrorMessage("X")
+        subject.get().test().assertValue(2)
+        subject.stats().loadFailures `should equal` 1L
+    }
+
+    @Test
+    fun `invalidated key is reloaded`() {
+        val subject = cache()
+
+        subject.get("a").test().assertValue("a-1")
+        subject.invalidate("a")
+        subject.get("a").test().assertValue("a-2")
+    }
+}
@@ -0,0 +1,53 @@
+package com.blockchain.network.cache
+
+import okhttp3.Request
+import java.io.File
+
+/**
+ * How long the responses of one endpoint may be served from the disk cache before they have to be
+ * revalidated with the server. Revalidation is conditional, so an unchanged response costs a 304
+ * rather than the full body.
+ *
+ * Requests carrying an Authorization header are only cached when [allowAuthenticated] is set,
+ * which should be reserved for endpoints whose responses don't depend on the user: entries are
+ * keyed by URL alone, so anything else would be served to the next user of the device.
+ */
+data class HttpCacheRule(
+    val path: Regex,
+    val maxAgeSeconds: Long,
+    val offlineFallback: Boolean = true,
+    val allowAuthenticated: Boolean = false
+)
+
+class HttpCacheConfig(
+    val directory: File,
+    val maxSizeBytes: Long = DEFAULT_MAX_SIZE_BYTES,
+    val rules: List<HttpCacheRule> = DEFAULT_RULES
+) {
+    internal fun ruleFor(request: Request): HttpCacheRule? =
+        if (request.method != "GET") {
+            null
+        } else {
+            val path = request.url.encodedPath
+            val authenticated = request.header(AUTHORIZATION) != null
+            rules.firstOrNull { it.path.containsMatchIn(path) && (!authenticated || it.allowAuthenticated) }
+        }
+
+    companion object {
+        private const val AUTHORIZATION = "Authorization"
+        private const val DEFAULT_MAX_SIZE_BYTES = 10L * 1024 * 1024
+
+        private const val MINUTE = 60L
+        private const val HOUR = 60 * MINUTE
+
+        val DEFAULT_RULES = listOf(
+            HttpCacheRule(Regex("/wallet-options\\.json$"), maxAgeSeconds = HOUR),
+            HttpCacheRule(Regex("/price/index-series$"), maxAgeSeconds = 5 * MINUTE),
+            HttpCacheRule(Regex("/simple-buy/pairs$"), maxAgeSeconds = HOUR, allowAuthenticated = true),
+            // Swap pairs and interest instruments depend on the user, so aren't cached while authenticated
+            HttpCacheRule(Regex("/custodial/trades/pairs$"), maxAgeSeconds = HOUR),
+            HttpCacheRule(Regex("/savings/instruments$"), maxAgeSeconds = HOUR),
+            HttpCacheRule(Regex("/savings/rates$"), maxAgeSeconds = 10 * MINUTE, allowAuthenticated = true)
+        )
+    }
+}
@@ -0,0 +1,126 @@
+package com.blockchain.network.cache
+
+import okhttp3.Cache
+import okhttp3.CacheControl
+import okhttp3.Interceptor
+import okhttp3.OkHttpClient
+import okhttp3.Response
+import java.io.IOException
+import java.net.HttpURLConnection
+import java.util.concurrent.atomic.AtomicLong
+
+data class HttpCacheStats(
+    val hits: Long,
+    val conditionalHits: Long,
+    val misses: Long,
+    val offlineFallbacks: Long,
+    val bytesSaved: Long
+)
+
+/**
+ * A disk cache for the responses of the endpoints listed in [HttpCacheConfig.rules].
+ *
+ * - Each matching response is stored with that rule's max-age, whatever the server asked for,
+ *   unless the server forbade storing it. ETag and Last-Modified validators are kept, so a stale
+ *   entry is revalidated with a conditional request.
+ * - If a matching request fails for want of a network, the stale cached response is returned
+ *   instead, where the rule allows it.
+ */
+class HttpResponseCache(private val config: HttpCacheConfig) {
+
+    private val cache = Cache(config.directory, config.maxSizeBytes)
+
+    private val hits = AtomicLong()
+    private val conditionalHits = AtomicLong()
+    private val misses = AtomicLong()
+    private val offlineFallbacks = AtomicLong()
+    private val bytesSaved = AtomicLong()
+
+    fun install(builder: OkHttpClient.Builder): OkHttpClient.Builder =
+        builder.cache(cache)
+            .addInterceptor(offlineFallbackInterceptor)
+            .addNetworkInterceptor(cachePolicyInterceptor)
+
+    fun stats(): HttpCacheStats =
+        HttpCacheStats(
+            hits = hits.get(),
+            conditionalHits = conditionalHits.get(),
+            misses = misses.get(),
+            offlineFallbacks = offlineFallbacks.get(),
+            bytesSaved = bytesSaved.get()
+        )
+
+    /**
+     * Drops every stored response. Called when the wallet is logged out or forgotten, so nothing
+     * cached for one user is left for the next.
+     */
+    fun clear() {
+        cache.evictAll()
+    }
+
+    private val cachePolicyInterceptor = Interceptor { chain ->
+        val request = chain.request()
+        val response = chain.proceed(request)
+        val rule = config.ruleFor(request)
+        val storable = response.isSuccessful || response.code == HttpURLConnection.HTTP_NOT_MODIFIED
+
+        if (rule != null && storable && !response.cacheControl.noStore) {
+            response.newBuilder()
+                .removeHeader("Pragma")
+                .header("Cache-Control", "max-age=${rule.maxAgeSeconds}")
+                .build()
+        } else {
+            response
+        }
+    }
+
+    private val offlineFallbackInterceptor = Interceptor { chain ->
+        val request = chain.request()
+        val rule = config.ruleFor(request)
+
+        if (rule == null) {
+            chain.proceed(request)
+        } else {
+            try {
+                chain.proceed(request).also { record(it) }
+            } catch (e: IOException) {
+                if (!rule.offlineFallback) throw e
+
+                val cached = chain.proceed(
+                    request.newBuilder()
+                        .cacheControl(CacheControl.FORCE_CACHE)
+                        .build()
+                )
+                if (cached.code == HttpURLConnection.HTTP_GATEWAY_TIMEOUT) {
+                    // Nothing cached to fall back on
+                    cached.close()
+                    throw e
+                }
+                offlineFallbacks.incrementAndGet()
+                addBytesSaved(cached)
+                cached
+            }
+        }
+    }
+
+    private fun record(response: Response) {
+        val network = response.networkResponse
+        when {
+            response.cacheResponse == null -> misses.incrementAndGet()
+            network == null -> {
+                hits.incrementAndGet()
+                addBytesSaved(response)
+            }
+            network.code == HttpURLConnection.HTTP_NOT_MODIFIED -> {
+                conditionalHits.incrementAndGet()
+                addBytesSaved(response)
+            }
+            else -> misses.incrementAndGet()
+        }
+    }
+
+    private fun addBytesSaved(response: Response) {
+        val length = response.body?.contentLength() ?: -1
+        if (length > 0) bytesSaved.addAndGet(length)
+    }
+}
@@ -1,6 +1,7 @@
 package com.blockchain.network.modules
 
 import com.blockchain.network.TLSSocketFactory
+import com.blockchain.network.cache.HttpResponseCache
 import okhttp3.ConnectionSpec
 import okhttp3.OkHttpClient
 import org.koin.dsl.module
@@ -23,6 +24,9 @@ val okHttpModule = module {
             builder.addInterceptor(it)
         }
 
+        // Optional, as only the app has somewhere to put it
+        getOrNull<HttpResponseCache>()?.install(builder)
+
         /*
           Enable TLS specific version V.1.2
           Issue Details : https://github.com/square/okhttp/issues/1934
@@ -0,0 +1,41 @@
+package com.blockchain.network.websocket
+
+import io.reactivex.Maybe
+import io.reactivex.Observable
+
+/**
+ * Turns a raw websocket frame into a typed message in a single parse.
+ */
+interface WebSocketMessageDecoder<out INCOMING : Any> {
+
+    /**
+     * @return the decoded message, or null if the frame is of no interest and should be dropped
+     */
+    fun decode(frame: String): INCOMING?
+}
+
+/**
+ * Decodes each frame exactly once with [decoder]. Consecutive messages sharing a non-null
+ * [dedupKey] are treated as repeats and dropped, so there is no need to compare full payloads.
+ */
+fun <INCOMING : Any> WebSocketReceive<String>.toDecodedReceive(
+    decoder: WebSocketMessageDecoder<INCOMING>,
+    dedupKey: (INCOMING) -> Any? = { null }
+): WebSocketReceive<INCOMING> {
+    return DecodingWebSocketReceiveDecorator(this, decoder, dedupKey)
+}
+
+class DecodingWebSocketReceiveDecorator<INCOMING : Any>(
+    private val inner: WebSocketReceive<String>,
+    private val decoder: WebSocketMessageDecoder<INCOMING>,
+    private val dedupKey: (INCOMING) -> Any?
+) : WebSocketReceive<INCOMING> {
+
+    override val responses: Observable<INCOMING>
+        get() = inner.responses
+            .flatMapMaybe { frame -> Maybe.fromCallable<INCOMING> { decoder.decode(frame) } }
+            .distinctUntilChanged { previous, current ->
+                val key = dedupKey(current)
+                key != null && key == dedupKey(previous)
+            }
+}
@@ -0,0 +1,142 @@
+package com.blockchain.network.cache
+
+import okhttp3.OkHttpClient
+import okhttp3.Request
+import okhttp3.mockwebserver.MockResponse
+import okhttp3.mockwebserver.MockWebServer
+import org.amshove.kluent.`should equal`
+import org.junit.After
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TemporaryFolder
+import java.net.HttpURLConnection
+
+class HttpResponseCacheTest {
+
+    @get:Rule
+    val folder = TemporaryFolder()
+
+    private val server = MockWebServer()
+
+    private lateinit var subject: HttpResponseCache
+    private lateinit var client: OkHttpClient
+
+    @Before
+    fun setUp() {
+        server.start()
+        givenRules(
+            HttpCacheRule(Regex("/fresh$"), maxAgeSeconds = 3600),
+            HttpCacheRule(Regex("/stale$"), maxAgeSeconds = 0),
+            HttpCacheRule(Regex("/public$"), maxAgeSeconds = 3600, allowAuthenticated = false)
+        )
+    }
+
+    @After
+    fun tearDown() {
+        server.shutdown()
+    }
+
+    @Test
+    fun `fresh responses are served from disk`() {
+        server.enqueue(MockResponse().setBody("options").addHeader("Cache-Control", "no-cache"))
+
+        get("/fresh") `should equal` "options"
+        get("/fresh") `should equal` "options"
+
+        server.requestCount `should equal` 1
+        subject.stats() `should equal` HttpCacheStats(
+            hits = 1,
+            conditionalHits = 0,
+            misses = 1,
+            offlineFallbacks = 0,
+            bytesSaved = "options".length.toLong()
+        )
+    }
+
+    @Test
+    fun `stale responses are revalidated with their etag`() {
+        server.enqueue(MockResponse().setBody("pairs").addHeader("ETag", "\"v1\""))
+        server.enqueue(MockResponse().setResponseCode(HttpURLConnection.HTTP_NOT_MODIFIED))
+
+        get("/stale") `should equal` "pairs"
+        get("/stale") `should equal` "pairs"
+
+        server.takeRequest()
+        server.takeRequest().getHeader("If-None-Match") `should equal` "\"v1\""
+        subject.stats().conditionalHits `should equal` 1L
+        subject.stats().bytesSaved `should equal` "pairs".length.toLong()
+    }
+
+    @Test
+    fun `stale responses are served when the network is unreachable`() {
+        server.enqueue(MockResponse().setBody("rates"))
+        get("/stale") `should equal` "rates"
+
+        server.shutdown()
+
+        get("/stale") `should equal` "rates"
+        subject.stats().offlineFallbacks `should equal` 1L
+    }
+
+    @Test
+    fun `responses of other endpoints are not cached`() {
+        server.enqueue(MockResponse().setBody("a"))
+        server.enqueue(MockResponse().setBody("b"))
+
+        get("/other") `should equal` "a"
+        get("/other") `should equal` "b"
+
+        subject.stats() `should equal` HttpCacheStats(0, 0, 0, 0, 0)
+    }
+
+    @Test
+    fun `authenticated requests are only cached where allowed`() {
+        server.enqueue(MockResponse().setBody("a").addHeader("Cache-Control", "no-cache"))
+        server.enqueue(MockResponse().setBody("b").addHeader("Cache-Control", "no-cache"))
+
+        get("/public", authorization = "Bearer token") `should equal` "a"
+        get("/public", authorization = "Bearer token") `should equal` "b"
+
+        server.requestCount `should equal` 2
+    }
+
+    @Test
+    fun `clearing drops every stored response`() {
+        server.enqueue(MockResponse().setBody("a").addHeader("Cache-Control", "no-cache"))
+        server.enqueue(MockResponse().setBody("b").addHeader("Cache-Control", "no-cache"))
+
+        get("/fresh") `should equal` "a"
+        subject.clear()
+        get("/fresh") `should equal` "b"
+
+        server.requestCount `should equal` 2
+    }
+
+    @Test
+    fun `per user endpoints are not cached while authenticated`() {
+        givenRules(*HttpCacheConfig.DEFAULT_RULES.toTypedArray())
+        server.enqueue(MockResponse().setBody("a"))
+        server.enqueue(MockResponse().setBody("b"))
+
+        get("/nabu-gateway/custodial/trades/pairs", authorization = "Bearer one") `should equal` "a"
+        get("/nabu-gateway/custodial/trades/pairs", authorization = "Bearer two") `should equal` "b"
+
+        server.requestCount `should equal` 2
+    }
+
+    private fun givenRules(vararg rules: HttpCacheRule) {
+        subject = HttpResponseCache(
+            HttpCacheConfig(directory = folder.newFolder(), rules = rules.toList())
+        )
+        client = subject.install(OkHttpClient.Builder()).build()
+    }
+
+    private fun get(path: String, authorization: String? = null): String =
+        client.newCall(
+            Request.Builder()
+                .url(server.url(path))
+                .apply { authorization?.let { header("Authorization", it) } }
+                .build()
+        ).execute().use { it.body!!.string() }
+}
@@ -0,0 +1,56 @@
+package com.blockchain.network.websocket
+
+import com.nhaarman.mockito_kotlin.mock
+import io.reactivex.Observable
+import org.amshove.kluent.`it returns`
+import org.amshove.kluent.`should equal`
+import org.junit.Test
+
+class DecodingWebSocketReceiveDecoratorTest {
+
+    data class Message(val hash: String?, val body: String)
+
+    private val decoder = object : WebSocketMessageDecoder<Message> {
+        override fun decode(frame: String): Message? {
+            if (frame.isEmpty()) return null
+            val parts = frame.split(":")
+            return Message(parts[0].takeIf { it.isNotEmpty() }, parts[1])
+        }
+    }
+
+    @Test
+    fun `frames are decoded and dropped frames are skipped`() {
+        val inner = mock<WebSocketReceive<String>> {
+            on { responses } `it returns` Observable.just("a:1", "", "b:2")
+        }
+        inner.toDecodedReceive(decoder)
+            .responses
+            .test()
+            .values() `should equal`
+            listOf(Message("a", "1"), Message("b", "2"))
+    }
+
+    @Test
+    fun `consecutive messages with the same key are dropped even if the payload differs`() {
+        val inner = mock<WebSocketReceive<String>> {
+            on { responses } `it returns` Observable.just("a:1", "a:2", "b:3", "a:4")
+        }
+        inner.toDecodedReceive(decoder) { it.hash }
+            .responses
+            .test()
+            .values() `should equal`
+            listOf(Message("a", "1"), Message("b", "3"), Message("a", "4"))
+    }
+
+    @Test
+    fun `messages without a key are never dropped`() {
+        val inner = mock<WebSocketReceive<String>> {
+            on { responses } `it returns` Observable.just(":1", ":1")
+        }
+        inner.toDecodedReceive(decoder) { it.hash }
+            .responses
+            .test()
+            .values() `should equal`
+            listOf(Message(null, "1"), Message(null, "1"))
+    }
+}
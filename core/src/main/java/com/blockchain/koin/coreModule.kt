@@ -8,6 +8,7 @@ import com.blockchain.logging.NullLogger
 import com.blockchain.logging.TimberLogger
 import com.blockchain.metadata.MetadataRepository
 import com.blockchain.payload.PayloadDecrypt
+import com.blockchain.preferences.ActivityCachePrefs
 import com.blockchain.preferences.AuthPrefs
 import com.blockchain.preferences.BankLinkingPrefs
 import com.blockchain.preferences.CurrencyPrefs
@@ -21,6 +22,7 @@ import com.blockchain.preferences.SecurityPrefs
 import com.blockchain.preferences.SimpleBuyPrefs
 import com.blockchain.preferences.ThePitLinkingPrefs
 import com.blockchain.preferences.WalletStatus
+import com.blockchain.preferences.XlmHistoryPrefs
 import com.blockchain.sunriver.XlmHorizonUrlFetcher
 import com.blockchain.sunriver.XlmTransactionTimeoutFetcher
 import com.blockchain.wallet.SeedAccess
@@ -251,10 +253,12 @@ val coreModule = module {
         .bind(WalletStatus::class)
         .bind(EncryptedPrefs::class)
         .bind(OfflineCachePrefs::class)
+        .bind(ActivityCachePrefs::class)
         .bind(AuthPrefs::class)
         .bind(BankLinkingPrefs::class)
         .bind(InternalFeatureFlagPrefs::class)
         .bind(SecureChannelPrefs::class)
+        .bind(XlmHistoryPrefs::class)
 
     factory {
         PaymentService(
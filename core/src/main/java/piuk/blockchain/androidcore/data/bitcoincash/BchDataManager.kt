@@ -183,12 +183,7 @@ class BchDataManager(
     @VisibleForTesting
     internal fun restoreBchWallet(walletMetadata: GenericMetadataWallet) {
         if (!payloadDataManager.isDoubleEncrypted) {
-            bchDataStore.bchWallet = BitcoinCashWallet.restore(
-                bitcoinApi,
-                BitcoinCashWallet.BITCOIN_COIN_PATH,
-                payloadDataManager.mnemonic,
-                ""
-            )
+            bchDataStore.bchWallet = restoreFromMnemonic(payloadDataManager.mnemonic)
 
             // BCH Metadata does not store xpub - get from btc wallet since PATH is the same
             payloadDataManager.accounts.forEachIndexed { i, account ->
@@ -254,12 +249,7 @@ class BchDataManager(
      */
     fun decryptWatchOnlyWallet(mnemonic: List<String>) {
 
-        bchDataStore.bchWallet = BitcoinCashWallet.restore(
-            bitcoinApi,
-            BitcoinCashWallet.BITCOIN_COIN_PATH,
-            mnemonic,
-            ""
-        )
+        bchDataStore.bchWallet = restoreFromMnemonic(mnemonic)
 
         payloadDataManager.accounts.forEachIndexed { i, account ->
             bchDataStore.bchWallet?.addAccount()
@@ -269,6 +259,22 @@ class BchDataManager(
         }
     }
 
+    /**
+     * BCH shares the BTC wallet's derivation path and has no passphrase, so where the BTC wallet's
+     * seed was derived from the same mnemonic, without one, the BCH wallet is built from that seed.
+     */
+    private fun restoreFromMnemonic(mnemonic: List<String>): BitcoinCashWallet {
+        val masterSeed = payloadDataManager.masterSeed?.takeIf {
+            !it.isCleared && it.passphrase.isEmpty() && it.mnemonic == mnemonic
+        }
+
+        return if (masterSeed != null) {
+            BitcoinCashWallet.restore(bitcoinApi, BitcoinCashWallet.BITCOIN_COIN_PATH, masterSeed)
+        } else {
+            BitcoinCashWallet.restore(bitcoinApi, BitcoinCashWallet.BITCOIN_COIN_PATH, mnemonic, "")
+        }
+    }
+
     /**
      * Adds a [GenericMetadataAccount] to the BCH wallet. The wallet will have to be saved at this
      * point. This assumes that a new [info.blockchain.wallet.payload.data.Account] has already
@@ -27,7 +27,18 @@ class ExchangeRateDataManager(
     private val rxPinning = RxPinning(rxBus)
 
     fun updateTickers(): Completable =
-        rxPinning.call { exchangeRateDataStore.updateExchangeRates() }
+        rxPinning.call { exchangeRateDataStore.updateExchangeRates(maxAgeMillis = TICKER_MAX_AGE_MILLIS) }
+            .subscribeOn(Schedulers.io())
+
+    /**
+     * Refreshes tickers for just the given assets, eg those the user holds or has on screen.
+     * Assets fetched within the last [maxAgeMillis] are skipped.
+     */
+    fun updateTickers(
+        assets: Collection<CryptoCurrency>,
+        maxAgeMillis: Long = TICKER_MAX_AGE_MILLIS
+    ): Completable =
+        rxPinning.call { exchangeRateDataStore.updateExchangeRates(assets, maxAgeMillis) }
             .subscribeOn(Schedulers.io())
 
     override fun getLastPrice(cryptoCurrency: CryptoCurrency, currencyName: String) =
@@ -49,6 +60,11 @@ class ExchangeRateDataManager(
             .subscribeOn(Schedulers.io())
 
     fun getCurrencyLabels() = exchangeRateDataStore.getCurrencyLabels()
+
+    companion object {
+        // Tickers fetched within this long are served from memory rather than fetched again
+        const val TICKER_MAX_AGE_MILLIS = 60_000L
+    }
 }
 
 fun FiatValue.toCrypto(exchangeRateDataManager: ExchangeRates, cryptoCurrency: CryptoCurrency) =
@@ -3,79 +3,114 @@ package piuk.blockchain.androidcore.data.exchangerate.datastore
 import info.blockchain.balance.CryptoCurrency
 import info.blockchain.wallet.prices.data.PriceDatum
 import io.reactivex.Completable
+import io.reactivex.Observable
 import io.reactivex.Single
+import io.reactivex.schedulers.Schedulers
 import piuk.blockchain.androidcore.data.exchangerate.ExchangeRateService
 import piuk.blockchain.androidcore.utils.PersistentPrefs
 import timber.log.Timber
 import java.math.BigDecimal
+import java.util.Collections
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.atomic.AtomicLongArray
+import java.util.concurrent.atomic.AtomicReference
 
 class ExchangeRateDataStore(
     private val exchangeRateService: ExchangeRateService,
     private val prefs: PersistentPrefs
 ) {
 
-    // Ticker data
-    private var btcTickerData: Map<String, PriceDatum>? = null
-    private var ethTickerData: Map<String, PriceDatum>? = null
-    private var bchTickerData: Map<String, PriceDatum>? = null
-    private var xlmTickerData: Map<String, PriceDatum>? = null
-    private var paxTickerData: Map<String, PriceDatum>? = null
-    private var algTickerData: Map<String, PriceDatum>? = null
-    private var usdtTickerData: Map<String, PriceDatum>? = null
-    private var dgldTickerData: Map<String, PriceDatum>? = null
-    private var aaveTickerData: Map<String, PriceDatum>? = null
-    private var yfiTickerData: Map<String, PriceDatum>? = null
-    private var dotTickerData: Map<String, PriceDatum>? = null
-
-    fun updateExchangeRates(): Completable = Single.merge(
-        listOf(
-            exchangeRateService.getExchangeRateMap(CryptoCurrency.BTC)
-                .doOnSuccess { btcTickerData = it.toMap() },
-            exchangeRateService.getExchangeRateMap(CryptoCurrency.BCH)
-                .doOnSuccess { bchTickerData = it.toMap() },
-            exchangeRateService.getExchangeRateMap(CryptoCurrency.ETHER)
-                .doOnSuccess { ethTickerData = it.toMap() },
-            exchangeRateService.getExchangeRateMap(CryptoCurrency.XLM)
-                .doOnSuccess { xlmTickerData = it.toMap() },
-            exchangeRateService.getExchangeRateMap(CryptoCurrency.PAX)
-                .doOnSuccess { paxTickerData = it.toMap() },
-            exchangeRateService.getExchangeRateMap(CryptoCurrency.ALGO)
-                .doOnSuccess { algTickerData = it.toMap() },
-            exchangeRateService.getExchangeRateMap(CryptoCurrency.USDT)
-                .doOnSuccess { usdtTickerData = it.toMap() },
-            exchangeRateService.getExchangeRateMap(CryptoCurrency.DGLD)
-                .doOnSuccess { dgldTickerData = it.toMap() },
-            exchangeRateService.getExchangeRateMap(CryptoCurrency.AAVE)
-                .doOnSuccess { aaveTickerData = it.toMap() },
-            exchangeRateService.getExchangeRateMap(CryptoCurrency.YFI)
-                .doOnSuccess { yfiTickerData = it.toMap() },
-            exchangeRateService.getExchangeRateMap(CryptoCurrency.DOT)
-                .doOnSuccess { dotTickerData = it.toMap() }
-        )
-    ).ignoreElements()
-
-    fun getCurrencyLabels(): Array<String> = btcTickerData!!.keys.toTypedArray()
+    private val snapshot = AtomicReference(PriceSnapshot.EMPTY)
 
-    fun getLastPrice(cryptoCurrency: CryptoCurrency, fiatCurrency: String): Double {
-        if (fiatCurrency.isEmpty()) {
-            throw IllegalArgumentException("No currency supplied")
+    // Last known prices read from prefs, so each (asset, fiat) pair is only read from disk once
+    private val lastKnownPrices = ConcurrentHashMap<String, Double>()
+
+    // Fiat currencies callers have asked for, whose prices are persisted after every update
+    private val requestedFiats: MutableSet<String> = Collections.newSetFromMap(ConcurrentHashMap())
+
+    // Wall clock time each asset's tickers were last fetched, indexed by asset ordinal
+    private val lastUpdated = AtomicLongArray(CryptoCurrency.values().size)
+
+    // Ticker fetches in flight, so overlapping refreshes of an asset share one request
+    private val inFlight = ConcurrentHashMap<CryptoCurrency, Completable>()
+
+    /**
+     * Fetches tickers for [assets], skipping any that have been fetched within the last [maxAgeMillis].
+     * At most [MAX_CONCURRENT_REQUESTS] requests are in flight at once, and an asset already being
+     * fetched joins that request rather than starting another.
+     */
+    fun updateExchangeRates(
+        assets: Collection<CryptoCurrency> = TICKER_ASSETS,
+        maxAgeMillis: Long = 0
+    ): Completable = Completable.defer {
+        val now = System.currentTimeMillis()
+        Observable.fromIterable(assets.filter { it in TICKER_ASSETS && isStale(it, now, maxAgeMillis) })
+            .flatMapCompletable(
+                { asset -> fetchTickers(asset) },
+                false,
+                MAX_CONCURRENT_REQUESTS
+            )
+            .doOnComplete { schedulePersistLastKnownPrices() }
+    }
+
+    private fun isStale(asset: CryptoCurrency, now: Long, maxAgeMillis: Long) =
+        now - lastUpdated.get(asset.ordinal) >= maxAgeMillis
+
+    private fun fetchTickers(asset: CryptoCurrency): Completable =
+        inFlight.getOrPut(asset) {
+            exchangeRateService.getExchangeRateMap(asset)
+                .doOnSuccess { tickers ->
+                    updateSnapshot(asset, tickers)
+                    lastUpdated.set(asset.ordinal, System.currentTimeMillis())
+                }
+                .ignoreElement()
+                .doFinally { inFlight.remove(asset) }
+                .cache()
         }
 
-        val tickerData = cryptoCurrency.tickerData()
+    private fun updateSnapshot(asset: CryptoCurrency, tickers: Map<String, PriceDatum>) {
+        while (true) {
+            val current = snapshot.get()
+            if (snapshot.compareAndSet(current, current.withPrices(asset, tickers))) return
+        }
+    }
 
-        val prefsKey = "LAST_KNOWN_${cryptoCurrency.networkTicker}_VALUE_FOR_CURRENCY_$fiatCurrency"
+    private fun schedulePersistLastKnownPrices() {
+        Schedulers.io().scheduleDirect { persistLastKnownPrices() }
+    }
 
-        val lastKnown = try {
-            prefs.getValue(prefsKey, "0.0").toDouble()
-        } catch (e: NumberFormatException) {
-            Timber.e(e)
-            prefs.setValue(prefsKey, "0.0")
-            0.0
+    private fun persistLastKnownPrices() {
+        val current = snapshot.get()
+        val values = HashMap<String, String>()
+        requestedFiats.forEach { fiat ->
+            TICKER_ASSETS.forEach { asset ->
+                current.price(asset, fiat)?.let { price ->
+                    val key = lastKnownPriceKey(asset, fiat)
+                    if (lastKnownPrices[key] != price) {
+                        lastKnownPrices[key] = price
+                        values[key] = price.toString()
+                    }
+                }
+            }
+        }
+        if (values.isNotEmpty()) {
+            prefs.setValues(values)
+        }
+    }
+
+    fun getCurrencyLabels(): Array<String> =
+        snapshot.get().fiatCurrencies(CryptoCurrency.BTC).toTypedArray()
+
+    fun getLastPrice(cryptoCurrency: CryptoCurrency, fiatCurrency: String): Double {
+        if (fiatCurrency.isEmpty()) {
+            throw IllegalArgumentException("No currency supplied")
         }
 
-        val price = tickerData?.get(fiatCurrency)?.price?.also {
-            prefs.setValue(prefsKey, it.toString())
-        } ?: lastKnown
+        if (requestedFiats.add(fiatCurrency)) {
+            schedulePersistLastKnownPrices()
+        }
+        val price = snapshot.get().price(cryptoCurrency, fiatCurrency)
+            ?: lastKnownPrice(cryptoCurrency, fiatCurrency)
 
         // adding this requirement ensures the app won't crash due to divide by 0
         // link to issue: https://tinyurl.com/rmf6um4h
@@ -84,30 +119,27 @@ class ExchangeRateDataStore(
         return price
     }
 
+    private fun lastKnownPrice(cryptoCurrency: CryptoCurrency, fiatCurrency: String): Double {
+        val prefsKey = lastKnownPriceKey(cryptoCurrency, fiatCurrency)
+        return lastKnownPrices[prefsKey] ?: try {
+            prefs.getValue(prefsKey, "0.0").toDouble()
+        } catch (e: NumberFormatException) {
+            Timber.e(e)
+            prefs.setValue(prefsKey, "0.0")
+            0.0
+        }.also { lastKnownPrices[prefsKey] = it }
+    }
+
+    private fun lastKnownPriceKey(cryptoCurrency: CryptoCurrency, fiatCurrency: String) =
+        "LAST_KNOWN_${cryptoCurrency.networkTicker}_VALUE_FOR_CURRENCY_$fiatCurrency"
+
     fun getFiatLastPrice(targetFiat: String, sourceFiat: String): Double {
-        val targetCurrencyPrice =
-            CryptoCurrency.BTC.tickerData()?.get(targetFiat)?.price ?: return 0.0
-        val sourceCurrencyPrice =
-            CryptoCurrency.BTC.tickerData()?.get(sourceFiat)?.price ?: return 0.0
+        val current = snapshot.get()
+        val targetCurrencyPrice = current.price(CryptoCurrency.BTC, targetFiat) ?: return 0.0
+        val sourceCurrencyPrice = current.price(CryptoCurrency.BTC, sourceFiat) ?: return 0.0
         return targetCurrencyPrice.div(sourceCurrencyPrice)
     }
 
-    private fun CryptoCurrency.tickerData() =
-        when (this) {
-            CryptoCurrency.BTC -> btcTickerData
-            CryptoCurrency.ETHER -> ethTickerData
-            CryptoCurrency.BCH -> bchTickerData
-            CryptoCurrency.XLM -> xlmTickerData
-            CryptoCurrency.PAX -> paxTickerData
-            CryptoCurrency.STX -> TODO("STUB: STX NOT IMPLEMENTED")
-            CryptoCurrency.ALGO -> algTickerData
-            CryptoCurrency.USDT -> usdtTickerData
-            CryptoCurrency.DGLD -> dgldTickerData
-            CryptoCurrency.AAVE -> aaveTickerData
-            CryptoCurrency.YFI -> yfiTickerData
-            CryptoCurrency.DOT -> dotTickerData
-        }
-
     fun getHistoricPrice(
         cryptoCurrency: CryptoCurrency,
         fiat: String,
@@ -115,4 +147,12 @@ class ExchangeRateDataStore(
     ): Single<BigDecimal> =
         exchangeRateService.getHistoricPrice(cryptoCurrency, fiat, timeInSeconds)
             .map { it.toBigDecimal() }
+
+    companion object {
+        private const val MAX_CONCURRENT_REQUESTS = 4
+
+        // Every asset the price service quotes
+        private val TICKER_ASSETS: Set<CryptoCurrency> =
+            CryptoCurrency.values().filterNot { it.hasFeature(CryptoCurrency.STUB_ASSET) }.toSet()
+    }
 }
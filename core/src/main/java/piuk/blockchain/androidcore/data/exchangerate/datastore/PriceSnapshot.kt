@@ -0,0 +1,55 @@
+package piuk.blockchain.androidcore.data.exchangerate.datastore
+
+import info.blockchain.balance.CryptoCurrency
+import info.blockchain.wallet.prices.data.PriceDatum
+
+/**
+ * An immutable table of the latest price of every asset in every fiat currency. Prices are held in a
+ * flat array indexed by asset ordinal and fiat column, so a lookup is one hash of the fiat ticker and
+ * one array read. Updates produce a new snapshot and never touch an existing one.
+ */
+internal class PriceSnapshot private constructor(
+    private val fiatColumns: Map<String, Int>,
+    private val prices: DoubleArray
+) {
+    fun fiatCurrencies(asset: CryptoCurrency): List<String> =
+        fiatColumns.filterValues { !prices[index(asset, it)].isNaN() }.keys.toList()
+
+    fun price(asset: CryptoCurrency, fiat: String): Double? {
+        val column = fiatColumns[fiat] ?: return null
+        val price = prices[index(asset, column)]
+        return if (price.isNaN()) null else price
+    }
+
+    /**
+     * @return a copy of this snapshot with the row for [asset] replaced by [tickers]
+     */
+    fun withPrices(asset: CryptoCurrency, tickers: Map<String, PriceDatum>): PriceSnapshot {
+        val columns = LinkedHashMap(fiatColumns)
+        tickers.keys.forEach { fiat ->
+            if (!columns.containsKey(fiat)) columns[fiat] = columns.size
+        }
+
+        val width = columns.size
+        val updated = DoubleArray(ASSET_COUNT * width) { Double.NaN }
+        for (row in 0 until ASSET_COUNT) {
+            if (row == asset.ordinal) continue
+            fiatColumns.values.forEach { column ->
+                updated[row * width + column] = prices[row * fiatColumns.size + column]
+            }
+        }
+        tickers.forEach { (fiat, datum) ->
+            datum.price?.let { updated[asset.ordinal * width + columns.getValue(fiat)] = it }
+        }
+        return PriceSnapshot(columns, updated)
+    }
+
+    private fun index(asset: CryptoCurrency, column: Int) =
+        asset.ordinal * fiatColumns.size + column
+
+    companion object {
+        private val ASSET_COUNT = CryptoCurrency.values().size
+
+        val EMPTY = PriceSnapshot(emptyMap(), DoubleArray(0))
+    }
+}
@@ -5,6 +5,7 @@ import com.blockchain.logging.CrashLogger
 import com.blockchain.api.NonCustodialBitcoinService
 import info.blockchain.balance.CryptoValue
 import info.blockchain.wallet.bip44.HDWalletFactory
+import info.blockchain.wallet.bip44.MasterSeed
 import info.blockchain.wallet.exceptions.DecryptionException
 import info.blockchain.wallet.exceptions.HDWalletException
 import info.blockchain.wallet.keys.MasterKey
@@ -125,6 +126,13 @@ class PayloadDataManager internal constructor(
     val mnemonic: List<String>
         get() = payloadManager.payload!!.walletBody?.mnemonic ?: throw NoSuchElementException()
 
+    /**
+     * The seed the wallet's HD accounts were derived from, for the other coins to derive from
+     * rather than deriving it again. Null until the wallet is decrypted.
+     */
+    val masterSeed: MasterSeed?
+        get() = payloadManager.payload?.walletBody?.masterSeed
+
     val guid: String
         get() = wallet!!.guid
 
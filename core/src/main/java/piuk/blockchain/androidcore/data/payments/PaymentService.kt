@@ -191,6 +191,7 @@ class PaymentService(
      * @param feePerKb The current fee per kB, as a [BigInteger]
      * @param includeReplayProtection Whether or not you intend on adding a dust input for replay protection. This is
      * an extra input and therefore affects the transaction fee.
+     * @param branchAndBoundTries How many steps to spend looking for a selection that needs no change output
      * @return An [SpendableUnspentOutputs] object, which wraps a list of spendable outputs
      * for the given inputs
      */
@@ -200,7 +201,8 @@ class PaymentService(
         changeOutputType: OutputType,
         paymentAmount: BigInteger,
         feePerKb: BigInteger,
-        includeReplayProtection: Boolean
+        includeReplayProtection: Boolean,
+        branchAndBoundTries: Int
     ): SpendableUnspentOutputs =
         payment.getSpendableCoins(
             unspentCoins,
@@ -208,7 +210,8 @@ class PaymentService(
             changeOutputType,
             paymentAmount,
             feePerKb,
-            includeReplayProtection
+            includeReplayProtection,
+            branchAndBoundTries
         )
 
     /**
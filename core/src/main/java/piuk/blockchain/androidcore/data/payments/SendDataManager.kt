@@ -189,7 +189,8 @@ class SendDataManager(
         changeOutputType,
         paymentAmount.toBigInteger(),
         feePerKb.toBigInteger(),
-        paymentAmount.currency == CryptoCurrency.BCH
+        paymentAmount.currency == CryptoCurrency.BCH,
+        BRANCH_AND_BOUND_TRIES
     )
 
     /**
@@ -268,4 +269,10 @@ class SendDataManager(
                 .onErrorComplete()
                 .andThen(Single.just(it))
         }
+
+    companion object {
+        // Steps spent looking for a coin selection that needs no change output before falling back
+        // to the greedy draw. Each step is a few array operations, so this stays within milliseconds.
+        private const val BRANCH_AND_BOUND_TRIES = 100_000
+    }
 }
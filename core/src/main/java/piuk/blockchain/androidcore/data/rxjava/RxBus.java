@@ -3,9 +3,7 @@ package piuk.blockchain.androidcore.data.rxjava;
 import androidx.annotation.NonNull;
 import androidx.annotation.VisibleForTesting;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 import io.reactivex.Observable;
 import io.reactivex.subjects.PublishSubject;
@@ -16,18 +14,21 @@ import timber.log.Timber;
  * A class that allows callers to register {@link PublishSubject} objects by passing in the class
  * type that you wish to emit as an event. It is intended to be instantiated as a Singleton via
  * DI.
+ * <p>
+ * Registering and unregistering are serialised on a lock, whereas emitting is lock-free: each
+ * type has a {@link Channel} holding a copy-on-write array of subjects, so an emit is one map
+ * lookup and an array walk, with no allocation and no chance of concurrent modification.
  */
 public class RxBus {
 
     private final Object lock1 = new Object();
 
     /**
-     * A map of lists of {@link PublishSubject} objects, where their type is used as the
-     * key for lookups. This holds weak references, in order to prevent potential memory leaks.
+     * A map of {@link Channel} objects, where their type is used as the key for lookups.
      */
     @SuppressWarnings("WeakerAccess")
     @VisibleForTesting
-    WeakHashMap<Object, List<Subject>> subjectsMap = new WeakHashMap<>();
+    ConcurrentHashMap<Object, Channel> subjectsMap = new ConcurrentHashMap<>();
 
     /**
      * Registers a new {@link PublishSubject} whose type matches the class {@code type} passed to
@@ -37,17 +38,17 @@ public class RxBus {
      * @param type The class type of the events you wish to emit
      * @return A {@link PublishSubject} with type {@code type}
      */
-    @SuppressWarnings("Java8MapApi")
     public <T> Observable<T> register(@NonNull Class<T> type) {
         synchronized (lock1) {
-            List<Subject> subjects = subjectsMap.get(type);
-            if (subjects == null) {
-                subjects = new ArrayList<>();
-                subjectsMap.put(type, subjects);
+            Channel channel = subjectsMap.get(type);
+            if (channel == null) {
+                channel = new Channel();
+                subjectsMap.put(type, channel);
             }
 
-            Subject<T> subject = PublishSubject.create();
-            subjects.add(subject);
+            // Events may be emitted from any thread, so serialise them per subscriber
+            Subject<T> subject = PublishSubject.<T>create().toSerialized();
+            channel.addSubject(subject);
 
             return subject;
         }
@@ -61,14 +62,13 @@ public class RxBus {
      * @param observable An {@link Observable} of type {@code type} which is currently subscribed to
      *                   it's associated {@link PublishSubject}
      */
-    @SuppressWarnings("SuspiciousMethodCalls")
     public void unregister(@NonNull Class type, @NonNull Observable observable) {
         synchronized (lock1) {
-            List<Subject> subjects = subjectsMap.get(type);
-            if (subjects != null) {
-                subjects.remove(observable);
+            Channel channel = subjectsMap.get(type);
+            if (channel != null) {
+                channel.removeSubject(observable);
 
-                if (subjects.isEmpty()) {
+                if (channel.isEmpty()) {
                     subjectsMap.remove(type);
                 }
             }
@@ -80,22 +80,66 @@ public class RxBus {
 
     /**
      * Emits an event of type {@code type} to any registered {@link PublishSubject} objects with a
-     * matching type.
+     * matching type. Events with no registered subscribers are silently dropped.
      *
      * @param type    The class type of object to be emitted and of the {@link PublishSubject} to be
      *                emitted from
      * @param content The actual object to be emitted
      */
-    @SuppressWarnings("unchecked")
     public void emitEvent(@NonNull Class type, @NonNull Object content) {
-        List<Subject> subjects = subjectsMap.get(type);
-        if (subjects != null && !subjects.isEmpty()) {
+        Channel channel = subjectsMap.get(type);
+        if (channel != null) {
+            channel.emit(content);
+        }
+    }
+
+    /**
+     * The subjects registered for a single event type. Writes replace the backing array, reads
+     * work on whichever array was current when they started.
+     */
+    @VisibleForTesting
+    static final class Channel {
+
+        private static final Subject[] EMPTY = new Subject[0];
+
+        private volatile Subject[] subjects = EMPTY;
+
+        // Only called while holding the bus lock
+        void addSubject(Subject subject) {
+            Subject[] current = subjects;
+            Subject[] updated = new Subject[current.length + 1];
+            System.arraycopy(current, 0, updated, 0, current.length);
+            updated[current.length] = subject;
+            subjects = updated;
+        }
+
+        // Only called while holding the bus lock
+        void removeSubject(Object subject) {
+            Subject[] current = subjects;
+            for (int i = 0; i < current.length; i++) {
+                if (current[i] == subject) {
+                    Subject[] updated = new Subject[current.length - 1];
+                    System.arraycopy(current, 0, updated, 0, i);
+                    System.arraycopy(current, i + 1, updated, i, current.length - i - 1);
+                    subjects = updated;
+                    return;
+                }
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        void emit(Object content) {
             for (Subject subject : subjects) {
                 subject.onNext(content);
             }
         }
-        else {
-            Timber.i("emitEvent of type " + type.getSimpleName() + " failed, as no PublishSubject was registered");
+
+        int size() {
+            return subjects.length;
+        }
+
+        boolean isEmpty() {
+            return subjects.length == 0;
         }
     }
 }
@@ -1,5 +1,6 @@
 package piuk.blockchain.androidcore.utils
 
+import com.blockchain.preferences.ActivityCachePrefs
 import com.blockchain.preferences.AuthPrefs
 import com.blockchain.preferences.BankLinkingPrefs
 import com.blockchain.preferences.CurrencyPrefs
@@ -13,6 +14,7 @@ import com.blockchain.preferences.SecurityPrefs
 import com.blockchain.preferences.SimpleBuyPrefs
 import com.blockchain.preferences.ThePitLinkingPrefs
 import com.blockchain.preferences.WalletStatus
+import com.blockchain.preferences.XlmHistoryPrefs
 
 interface PersistentPrefs :
     CurrencyPrefs,
@@ -25,10 +27,12 @@ interface PersistentPrefs :
     RatingPrefs,
     WalletStatus,
     OfflineCachePrefs,
+    ActivityCachePrefs,
     EncryptedPrefs,
     AuthPrefs,
     BankLinkingPrefs,
-    InternalFeatureFlagPrefs {
+    InternalFeatureFlagPrefs,
+    XlmHistoryPrefs {
 
     val isLoggedOut: Boolean
 
@@ -50,6 +54,9 @@ interface PersistentPrefs :
     fun setValue(name: String, value: Long)
     fun setValue(name: String, value: Boolean)
 
+    /** Writes all the given string values in a single commit */
+    fun setValues(values: Map<String, String>)
+
     fun has(name: String): Boolean
     fun removeValue(name: String)
 
@@ -400,6 +400,29 @@ class PrefsUtil(
         get() = getValue(KEY_SWIPE_TO_RECEIVE_ENABLED, true)
         set(value) = setValue(KEY_SWIPE_TO_RECEIVE_ENABLED, value)
 
+    // Activity
+    override var activityCacheData: String?
+        get() = getValue(KEY_ACTIVITY_CACHE)
+        set(value) {
+            if (value != null) {
+                setValue(KEY_ACTIVITY_CACHE, value)
+            } else {
+                removeValue(KEY_ACTIVITY_CACHE)
+            }
+        }
+
+    // XLM history
+    override fun getXlmHistory(accountId: String): String? =
+        getValue(KEY_XLM_HISTORY_PREFIX + accountId)
+
+    override fun setXlmHistory(accountId: String, data: String?) {
+        if (data != null) {
+            setValue(KEY_XLM_HISTORY_PREFIX + accountId, data)
+        } else {
+            removeValue(KEY_XLM_HISTORY_PREFIX + accountId)
+        }
+    }
+
     override var encodedPin: String
         get() = decodeFromBase64ToString(getValue(KEY_ENCRYPTED_PIN_CODE, ""))
         set(value) = setValue(KEY_ENCRYPTED_PIN_CODE, encodeToBase64(value))
@@ -508,6 +531,12 @@ class PrefsUtil(
         store.edit().putBoolean(name, value).apply()
     }
 
+    override fun setValues(values: Map<String, String>) {
+        store.edit().apply {
+            values.forEach { (name, value) -> putString(name, value) }
+        }.apply()
+    }
+
     override fun has(name: String): Boolean = store.contains(name)
 
     override fun removeValue(name: String) {
@@ -680,6 +709,10 @@ class PrefsUtil(
         // New key
         private const val OFFLINE_CACHE_KEY = "key_offline_address_cache"
 
+        // XLM history, per account id
+        private const val KEY_XLM_HISTORY_PREFIX = "key_xlm_history_"
+        private const val KEY_ACTIVITY_CACHE = "key_activity_cache"
+
         // Auth prefs
         private const val KEY_ENCRYPTED_PIN_CODE = "encrypted_pin_code"
         private const val KEY_FINGERPRINT_ENABLED = "fingerprint_enabled"
@@ -6,8 +6,11 @@ import com.blockchain.testutils.ether
 import com.blockchain.testutils.lumens
 import com.blockchain.testutils.rxInit
 import com.blockchain.testutils.usd
+import com.nhaarman.mockito_kotlin.any
+import com.nhaarman.mockito_kotlin.verify
 import com.nhaarman.mockito_kotlin.whenever
 import info.blockchain.balance.CryptoCurrency
+import io.reactivex.Completable
 import io.reactivex.Single
 import org.amshove.kluent.`should equal`
 import org.amshove.kluent.mock
@@ -37,6 +40,22 @@ class ExchangeRateDataManagerTest {
         )
     }
 
+    @Test
+    fun `tickers fetched recently are not fetched again`() {
+        whenever(exchangeRateDataStore.updateExchangeRates(any(), any())).thenReturn(Completable.complete())
+
+        subject.updateTickers().test().assertComplete()
+        subject.updateTickers(setOf(CryptoCurrency.ETHER)).test().assertComplete()
+
+        verify(exchangeRateDataStore).updateExchangeRates(
+            maxAgeMillis = ExchangeRateDataManager.TICKER_MAX_AGE_MILLIS
+        )
+        verify(exchangeRateDataStore).updateExchangeRates(
+            setOf(CryptoCurrency.ETHER),
+            ExchangeRateDataManager.TICKER_MAX_AGE_MILLIS
+        )
+    }
+
     @Test
     fun getHistoricPrice() {
         givenHistoricExchangeRate(CryptoCurrency.BTC, "USD", 100L, 8100.37.toBigDecimal())
@@ -0,0 +1,125 @@
+package piuk.blockchain.androidcore.data.exchangerate.datastore
+
+import com.blockchain.android.testutils.rxInit
+import com.nhaarman.mockito_kotlin.any
+import com.nhaarman.mockito_kotlin.mock
+import com.nhaarman.mockito_kotlin.never
+import com.nhaarman.mockito_kotlin.times
+import com.nhaarman.mockito_kotlin.verify
+import com.nhaarman.mockito_kotlin.whenever
+import info.blockchain.balance.CryptoCurrency
+import info.blockchain.wallet.prices.data.PriceDatum
+import io.reactivex.Single
+import io.reactivex.subjects.SingleSubject
+import org.amshove.kluent.`should equal`
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import piuk.blockchain.androidcore.data.exchangerate.ExchangeRateService
+import piuk.blockchain.androidcore.utils.PersistentPrefs
+
+class ExchangeRateDataStoreTest {
+
+    @get:Rule
+    val rxSchedulers = rxInit {
+        ioTrampoline()
+    }
+
+    private val exchangeRateService: ExchangeRateService = mock()
+    private val prefs: PersistentPrefs = mock()
+
+    private val subject = ExchangeRateDataStore(exchangeRateService, prefs)
+
+    @Before
+    fun setUp() {
+        whenever(exchangeRateService.getExchangeRateMap(any())).thenReturn(Single.just(emptyMap()))
+        whenever(exchangeRateService.getExchangeRateMap(CryptoCurrency.BTC)).thenReturn(
+            Single.just(mapOf("USD" to PriceDatum(price = 50000.0), "GBP" to PriceDatum(price = 40000.0)))
+        )
+        whenever(exchangeRateService.getExchangeRateMap(CryptoCurrency.ETHER)).thenReturn(
+            Single.just(mapOf("USD" to PriceDatum(price = 2000.0)))
+        )
+    }
+
+    @Test
+    fun `prices are served from memory after an update`() {
+        subject.updateExchangeRates().test().assertComplete()
+
+        subject.getLastPrice(CryptoCurrency.BTC, "USD") `should equal` 50000.0
+        subject.getLastPrice(CryptoCurrency.ETHER, "USD") `should equal` 2000.0
+        subject.getFiatLastPrice("GBP", "USD") `should equal` 0.8
+        subject.getCurrencyLabels().toList() `should equal` listOf("USD", "GBP")
+
+        verify(prefs, never()).getValue(any(), any<String>())
+    }
+
+    @Test
+    fun `last known price is read from prefs once when there is no ticker`() {
+        whenever(prefs.getValue("LAST_KNOWN_BCH_VALUE_FOR_CURRENCY_USD", "0.0")).thenReturn("300.0")
+
+        subject.getLastPrice(CryptoCurrency.BCH, "USD") `should equal` 300.0
+        subject.getLastPrice(CryptoCurrency.BCH, "USD") `should equal` 300.0
+
+        verify(prefs, times(1)).getValue("LAST_KNOWN_BCH_VALUE_FOR_CURRENCY_USD", "0.0")
+    }
+
+    @Test
+    fun `prices of requested fiat currencies are persisted in one batch per update`() {
+        subject.updateExchangeRates().test().assertComplete()
+        subject.getLastPrice(CryptoCurrency.BTC, "USD")
+
+        verify(prefs).setValues(
+            mapOf(
+                "LAST_KNOWN_BTC_VALUE_FOR_CURRENCY_USD" to "50000.0",
+                "LAST_KNOWN_ETH_VALUE_FOR_CURRENCY_USD" to "2000.0"
+            )
+        )
+        verify(prefs, never()).setValue(any(), any<String>())
+    }
+
+    @Test
+    fun `update fetches every supported asset except stubs`() {
+        subject.updateExchangeRates().test().assertComplete()
+
+        verify(exchangeRateService, times(11)).getExchangeRateMap(any())
+        verify(exchangeRateService, never()).getExchangeRateMap(CryptoCurrency.STX)
+    }
+
+    @Test
+    fun `update only fetches the requested assets`() {
+        subject.updateExchangeRates(setOf(CryptoCurrency.ETHER)).test().assertComplete()
+
+        verify(exchangeRateService).getExchangeRateMap(CryptoCurrency.ETHER)
+        verify(exchangeRateService, never()).getExchangeRateMap(CryptoCurrency.BTC)
+        subject.getLastPrice(CryptoCurrency.ETHER, "USD") `should equal` 2000.0
+    }
+
+    @Test
+    fun `assets fetched recently are not fetched again`() {
+        subject.updateExchangeRates(setOf(CryptoCurrency.BTC)).test().assertComplete()
+        subject.updateExchangeRates(setOf(CryptoCurrency.BTC, CryptoCurrency.ETHER), maxAgeMillis = 60_000)
+            .test()
+            .assertComplete()
+
+        verify(exchangeRateService, times(1)).getExchangeRateMap(CryptoCurrency.BTC)
+        verify(exchangeRateService, times(1)).getExchangeRateMap(CryptoCurrency.ETHER)
+    }
+
+    @Test
+    fun `overlapping updates share one request per asset`() {
+        val response = SingleSubject.create<Map<String, PriceDatum>>()
+        whenever(exchangeRateService.getExchangeRateMap(CryptoCurrency.BTC)).thenReturn(response)
+
+        val first = subject.updateExchangeRates(setOf(CryptoCurrency.BTC)).test()
+        val second = subject.updateExchangeRates(setOf(CryptoCurrency.BTC)).test()
+        response.onSuccess(mapOf("USD" to PriceDatum(price = 50000.0)))
+
+        first.assertComplete()
+        second.assertComplete()
+        verify(exchangeRateService, times(1)).getExchangeRateMap(CryptoCurrency.BTC)
+
+        subject.updateExchangeRates(setOf(CryptoCurrency.BTC)).test().assertComplete()
+
+        verify(exchangeRateService, times(2)).getExchangeRateMap(CryptoCurrency.BTC)
+    }
+}
@@ -301,18 +301,18 @@ class PaymentServiceTest {
         val mockOutputs: SpendableUnspentOutputs = mock()
         whenever(
             payment.getSpendableCoins(
-                mockUnspent, targetOutputType, changeOutputType, mockPayment, mockFee, false
+                mockUnspent, targetOutputType, changeOutputType, mockPayment, mockFee, false, 1000
             )
         )
             .thenReturn(mockOutputs)
         // Act
         val result = subject.getSpendableCoins(
-            mockUnspent, targetOutputType, changeOutputType, mockPayment, mockFee, false
+            mockUnspent, targetOutputType, changeOutputType, mockPayment, mockFee, false, 1000
         )
         // Assert
         assertEquals(mockOutputs, result)
         verify(payment).getSpendableCoins(
-            mockUnspent, targetOutputType, changeOutputType, mockPayment, mockFee, false
+            mockUnspent, targetOutputType, changeOutputType, mockPayment, mockFee, false, 1000
         )
         verifyNoMoreInteractions(payment)
     }
@@ -331,7 +331,8 @@ class SendDataManagerTest {
                 changeOutputType,
                 payment.toBigInteger(),
                 fee,
-                false
+                false,
+                100_000
             )
         ).thenReturn(outputs)
         // Act
@@ -339,8 +340,9 @@ class SendDataManagerTest {
             .getSpendableCoins(unspent, targetOutputType, changeOutputType, payment, fee.satoshi())
         // Assert
         result shouldEqual outputs
-        verify(mockPaymentService)
-            .getSpendableCoins(unspent, targetOutputType, changeOutputType, payment.toBigInteger(), fee, false)
+        verify(mockPaymentService).getSpendableCoins(
+            unspent, targetOutputType, changeOutputType, payment.toBigInteger(), fee, false, 100_000
+        )
         verifyNoMoreInteractions(mockPaymentService)
     }
 
@@ -353,7 +355,7 @@ class SendDataManagerTest {
         val outputs = SpendableUnspentOutputs()
         whenever(
             mockPaymentService.getSpendableCoins(
-                unspent, targetOutputType, changeOutputType, payment.toBigInteger(), fee, true
+                unspent, targetOutputType, changeOutputType, payment.toBigInteger(), fee, true, 100_000
             )
         ).thenReturn(outputs)
         // Act
@@ -362,7 +364,7 @@ class SendDataManagerTest {
         // Assert
         result shouldEqual outputs
         verify(mockPaymentService).getSpendableCoins(
-            unspent, targetOutputType, changeOutputType, payment.toBigInteger(), fee, true
+            unspent, targetOutputType, changeOutputType, payment.toBigInteger(), fee, true, 100_000
         )
         verifyNoMoreInteractions(mockPaymentService)
     }
@@ -8,6 +8,11 @@ import org.amshove.kluent.shouldNotHaveKey
 import org.junit.Before
 import org.junit.Test
 import piuk.blockchain.android.testutils.RxTest
+import java.util.concurrent.CopyOnWriteArrayList
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
 
 class RxBusTest : RxTest() {
 
@@ -27,7 +32,7 @@ class RxBusTest : RxTest() {
         // Assert
         subject.subjectsMap shouldHaveKey type
         subject.subjectsMap.size shouldEqual 1
-        subject.subjectsMap[type]!!.size shouldEqual 1
+        subject.subjectsMap[type]!!.size() shouldEqual 1
     }
 
     @Test
@@ -41,7 +46,7 @@ class RxBusTest : RxTest() {
         // Assert
         subject.subjectsMap shouldHaveKey type
         subject.subjectsMap.size shouldEqual 1
-        subject.subjectsMap[type]!!.size shouldEqual 3
+        subject.subjectsMap[type]!!.size() shouldEqual 3
     }
 
     @Test
@@ -59,9 +64,9 @@ class RxBusTest : RxTest() {
         subject.subjectsMap shouldHaveKey type1
         subject.subjectsMap shouldHaveKey type2
         subject.subjectsMap.size shouldEqual 3
-        subject.subjectsMap[type0]!!.size shouldEqual 1
-        subject.subjectsMap[type1]!!.size shouldEqual 1
-        subject.subjectsMap[type2]!!.size shouldEqual 1
+        subject.subjectsMap[type0]!!.size() shouldEqual 1
+        subject.subjectsMap[type1]!!.size() shouldEqual 1
+        subject.subjectsMap[type2]!!.size() shouldEqual 1
     }
 
     @Test
@@ -83,12 +88,16 @@ class RxBusTest : RxTest() {
         // Act
         val observableToBeLeftRegistered = subject.register(type)
         val observableToBeUnregistered = subject.register(type)
+        val leftRegistered = observableToBeLeftRegistered.test()
+        val unregistered = observableToBeUnregistered.test()
         subject.unregister(type, observableToBeUnregistered)
+        subject.emitEvent(type, "VALUE")
         // Assert
         subject.subjectsMap shouldHaveKey type
         subject.subjectsMap.size shouldEqual 1
-        subject.subjectsMap[type]!!.size shouldEqual 1
-        subject.subjectsMap[type]!![0] shouldEqual observableToBeLeftRegistered
+        subject.subjectsMap[type]!!.size() shouldEqual 1
+        leftRegistered.assertValue("VALUE")
+        unregistered.assertNoValues()
     }
 
     @Test
@@ -130,4 +139,44 @@ class RxBusTest : RxTest() {
         testObserver.assertNoErrors()
         testObserver.assertNoValues()
     }
-}
\ No newline at end of file
+
+    @Test
+    fun concurrentRegisterEmitAndUnregister() {
+        // Arrange
+        val type = String::class.java
+        val threads = 8
+        val iterations = 2_000
+        val errors = CopyOnWriteArrayList<Throwable>()
+        val received = AtomicInteger()
+        val longLived = subject.register(type)
+            .doOnNext { received.incrementAndGet() }
+            .test()
+        val start = CountDownLatch(1)
+        val executor = Executors.newFixedThreadPool(threads)
+        // Act
+        repeat(threads) {
+            executor.execute {
+                try {
+                    start.await()
+                    repeat(iterations) {
+                        val observable = subject.register(type)
+                        val observer = observable.test()
+                        subject.emitEvent(type, "VALUE")
+                        subject.unregister(type, observable)
+                        observer.dispose()
+                    }
+                } catch (t: Throwable) {
+                    errors += t
+                }
+            }
+        }
+        start.countDown()
+        executor.shutdown()
+        executor.awaitTermination(30, TimeUnit.SECONDS) shouldEqual true
+        // Assert
+        errors shouldEqual emptyList<Throwable>()
+        longLived.assertNoErrors()
+        received.get() shouldEqual threads * iterations
+        subject.subjectsMap[type]!!.size() shouldEqual 1
+    }
+}
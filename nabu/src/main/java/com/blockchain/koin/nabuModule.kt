@@ -257,7 +257,10 @@ val nabuModule = module {
         }
 
         scoped {
-            CustodialAssetWalletsBalancesRepository(balancesProvider = get())
+            CustodialAssetWalletsBalancesRepository(
+                balancesProvider = get(),
+                interestBalancesProvider = get()
+            )
         }
 
         scoped {
@@ -272,7 +275,7 @@ val nabuModule = module {
                 interestAvailabilityProvider = get(),
                 interestEligibilityProvider = get(),
                 interestLimitsProvider = get(),
-                interestAccountBalancesProvider = get()
+                custodialBalancesRepository = get()
             )
         }
 
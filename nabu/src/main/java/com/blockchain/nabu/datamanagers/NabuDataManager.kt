@@ -336,7 +336,7 @@ internal class NabuDataManagerImpl(
         currentToken(offlineToken)
             .flatMap { tokenResponse ->
                 singleFunction(tokenResponse)
-                    .onErrorResumeNext { refreshOrReturnError(it, offlineToken, singleFunction) }
+                    .onErrorResumeNext { refreshOrReturnError(it, tokenResponse, offlineToken, singleFunction) }
             }
 
     override fun <T> authenticateMaybe(
@@ -346,7 +346,9 @@ internal class NabuDataManagerImpl(
         currentToken(offlineToken)
             .flatMapMaybe { tokenResponse ->
                 maybeFunction(tokenResponse)
-                    .onErrorResumeNext { e: Throwable -> refreshOrReturnError(e, offlineToken, maybeFunction) }
+                    .onErrorResumeNext { e: Throwable ->
+                        refreshOrReturnError(e, tokenResponse, offlineToken, maybeFunction)
+                    }
             }
 
     override fun invalidateToken() {
@@ -354,12 +356,14 @@ internal class NabuDataManagerImpl(
     }
 
     override fun currentToken(offlineToken: NabuOfflineTokenResponse): Single<NabuSessionTokenResponse> =
-        if (nabuTokenStore.requiresRefresh()) {
-            refreshToken(offlineToken)
-        } else {
-            nabuTokenStore.getAccessToken()
-                .map { (it as Optional.Some).element }
-                .singleOrError()
+        Single.defer {
+            if (nabuTokenStore.requiresRefresh()) {
+                refreshToken(offlineToken)
+            } else {
+                nabuTokenStore.getAccessToken()
+                    .map { (it as Optional.Some).element }
+                    .singleOrError()
+            }
         }
 
     override fun resetUserKyc(): Completable {
@@ -403,12 +407,12 @@ internal class NabuDataManagerImpl(
 
     private fun <T> refreshOrReturnError(
         throwable: Throwable,
+        rejectedToken: NabuSessionTokenResponse,
         offlineToken: NabuOfflineTokenResponse,
         singleFunction: (NabuSessionTokenResponse) -> Single<T>
     ): SingleSource<T> =
         if (unauthenticated(throwable)) {
-            refreshToken(offlineToken)
-                .doOnSubscribe { clearAccessToken() }
+            nabuTokenStore.refreshAfterRejection(rejectedToken, fetchSessionToken(offlineToken))
                 .flatMap { singleFunction(it) }
         } else {
             Single.error(throwable)
@@ -416,12 +420,12 @@ internal class NabuDataManagerImpl(
 
     private fun <T> refreshOrReturnError(
         throwable: Throwable,
+        rejectedToken: NabuSessionTokenResponse,
         offlineToken: NabuOfflineTokenResponse,
         maybeFunction: (NabuSessionTokenResponse) -> Maybe<T>
     ): MaybeSource<T> =
         if (unauthenticated(throwable)) {
-            refreshToken(offlineToken)
-                .doOnSubscribe { clearAccessToken() }
+            nabuTokenStore.refreshAfterRejection(rejectedToken, fetchSessionToken(offlineToken))
                 .flatMapMaybe { maybeFunction(it) }
         } else {
             Maybe.error(throwable)
@@ -442,14 +446,22 @@ internal class NabuDataManagerImpl(
     ): Single<NabuSessionTokenResponse> =
         requestJwt()
             .flatMapCompletable { nabuService.recoverUser(offlineToken, it) }
-            .andThen(refreshToken(offlineToken))
+            // Already part of the refresh in flight, so this mustn't go back through the store
+            .andThen(getSessionToken(offlineToken).subscribeOn(Schedulers.io()))
 
+    /**
+     * Shares any refresh already in flight, so that a burst of requests made without a valid token
+     * mints a single new one.
+     */
     private fun refreshToken(
         offlineToken: NabuOfflineTokenResponse
+    ): Single<NabuSessionTokenResponse> =
+        nabuTokenStore.refresh(fetchSessionToken(offlineToken))
+
+    private fun fetchSessionToken(
+        offlineToken: NabuOfflineTokenResponse
     ): Single<NabuSessionTokenResponse> =
         getSessionToken(offlineToken)
             .subscribeOn(Schedulers.io())
-            .flatMapObservable(nabuTokenStore::store)
-            .singleOrError()
             .onErrorResumeNext { recoverOrReturnError(it, offlineToken) }
 }
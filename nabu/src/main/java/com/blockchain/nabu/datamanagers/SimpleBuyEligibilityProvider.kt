@@ -3,7 +3,7 @@ package com.blockchain.nabu.datamanagers
 import com.blockchain.nabu.Authenticator
 import com.blockchain.nabu.service.NabuService
 import com.blockchain.preferences.CurrencyPrefs
-import com.blockchain.rx.ParameteredSingleTimedCacheRequest
+import com.blockchain.rx.AsyncCache
 import io.reactivex.Single
 
 interface SimpleBuyEligibilityProvider {
@@ -29,13 +29,13 @@ class NabuCachedEligibilityProvider(
         }
     }
 
-    private val cache = ParameteredSingleTimedCacheRequest(
+    private val cache = AsyncCache(
         cacheLifetimeSeconds = 20L,
-        refreshFn = refresh
+        loader = refresh
     )
 
     override fun isEligibleForSimpleBuy(currency: String, forceRefresh: Boolean): Single<Boolean> {
-        return if (!forceRefresh) cache.getCachedSingle(currency) else refresh(currency)
+        return if (!forceRefresh) cache.get(currency) else refresh(currency)
     }
 }
 
@@ -201,6 +201,8 @@ class LiveCustodialWalletManager(
                 currency = amount.currencyCode,
                 beneficiaryId = bankId
             )
+        }.doOnComplete {
+            custodialAssetWalletsBalancesRepository.invalidateTrading()
         }
 
     override fun fetchFiatWithdrawFeeAndMinLimit(
@@ -426,6 +428,12 @@ class LiveCustodialWalletManager(
         authenticator.authenticate {
             nabuService.getBuyOrder(it, orderId)
         }.map { it.toBuySellOrder() }
+            .doOnSuccess {
+                // Polling stops once the order settles, which is when the balances move
+                if (it.state in SETTLED_ORDER_STATES) {
+                    custodialAssetWalletsBalancesRepository.invalidateTrading()
+                }
+            }
 
     override fun deleteBuyOrder(orderId: String): Completable =
         authenticator.authenticateCompletable {
@@ -461,6 +469,8 @@ class LiveCustodialWalletManager(
                     amount = amount.toBigInteger().toString()
                 )
             )
+        }.doOnSuccess {
+            custodialAssetWalletsBalancesRepository.invalidateTrading()
         }
 
     override fun cancelAllPendingOrders(): Completable {
@@ -841,6 +851,8 @@ class LiveCustodialWalletManager(
             )
         }.map {
             it.toBuySellOrder()
+        }.doOnSuccess {
+            custodialAssetWalletsBalancesRepository.invalidateTrading()
         }
 
     override fun getInterestAccountRates(crypto: CryptoCurrency): Single<Double> =
@@ -1037,6 +1049,8 @@ class LiveCustodialWalletManager(
             }.map {
                 it.toCustodialOrder() ?: throw IllegalStateException("Invalid order created")
             }
+        }.doOnSuccess {
+            custodialAssetWalletsBalancesRepository.invalidateTrading()
         }
 
     override fun getProductTransferLimits(
@@ -1090,6 +1104,8 @@ class LiveCustodialWalletManager(
                 id = id,
                 success = success
             )
+        }.doOnComplete {
+            custodialAssetWalletsBalancesRepository.invalidateTrading()
         }
 
     override fun getLinkedBank(id: String): Single<LinkedBank> =
@@ -1166,6 +1182,9 @@ class LiveCustodialWalletManager(
                 product = product.toString()
 
             )
+        }.doOnComplete {
+            custodialAssetWalletsBalancesRepository.invalidateTrading()
+            custodialAssetWalletsBalancesRepository.invalidateInterest(crypto)
         }
 
     override fun startBankTransfer(
@@ -1188,6 +1207,8 @@ class LiveCustodialWalletManager(
             ).map {
                 it.paymentId
             }
+        }.doOnSuccess {
+            custodialAssetWalletsBalancesRepository.invalidateTrading()
         }
 
     override fun updateOpenBankingConsent(
@@ -1225,6 +1246,7 @@ class LiveCustodialWalletManager(
                     destination = destination.name
                 )
             ).doOnComplete {
+                custodialAssetWalletsBalancesRepository.invalidateTrading()
                 interestRepository.clearBalanceForAsset(amount.currencyCode)
             }
         }
@@ -1384,6 +1406,8 @@ class LiveCustodialWalletManager(
         private const val ACH_CURRENCY = "USD"
 
         private const val SDD_ELIGIBLE_TIER = 3
+
+        private val SETTLED_ORDER_STATES = setOf(OrderState.FINISHED, OrderState.CANCELED, OrderState.FAILED)
     }
 
     private fun String.isSupportedCurrency(): Boolean =
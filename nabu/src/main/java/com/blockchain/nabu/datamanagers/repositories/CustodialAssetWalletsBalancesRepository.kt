@@ -1,66 +1,139 @@
 package com.blockchain.nabu.datamanagers.repositories
 
 import com.blockchain.nabu.datamanagers.BalancesProvider
-import com.blockchain.rx.TimedCacheRequest
+import com.blockchain.nabu.datamanagers.InterestAccountDetails
+import com.blockchain.nabu.datamanagers.repositories.interest.InterestBalancesProvider
+import com.blockchain.nabu.models.responses.simplebuy.AllAssetBalancesResponse
+import com.blockchain.rx.AsyncCache
+import com.blockchain.rx.get
 import info.blockchain.balance.CryptoCurrency
 import info.blockchain.balance.CryptoValue
 import info.blockchain.balance.FiatValue
+import io.reactivex.Completable
 import io.reactivex.Maybe
+import io.reactivex.Observable
+import io.reactivex.Single
+import io.reactivex.schedulers.Schedulers
+import io.reactivex.subjects.BehaviorSubject
 import timber.log.Timber
 
-class CustodialAssetWalletsBalancesRepository(balancesProvider: BalancesProvider) {
+/**
+ * Owns the [CustodialBalances] snapshot and publishes it on [balances]. Balances don't expire; they
+ * are reloaded when something is known to have changed them - an order, transfer or withdrawal being
+ * accepted or an order settling - or when the user refreshes, which covers changes made elsewhere.
+ */
+class CustodialAssetWalletsBalancesRepository(
+    private val balancesProvider: BalancesProvider,
+    private val interestBalancesProvider: InterestBalancesProvider
+) {
+    private val lock = Any()
+    private var current = CustodialBalances.EMPTY
+    private val snapshots = BehaviorSubject.createDefault(CustodialBalances.EMPTY).toSerialized()
 
-    private val custodialBalancesCache = TimedCacheRequest(
-        cacheLifetimeSeconds = CACHE_LIFETIME,
-        refreshFn = {
+    private val tradingCache = AsyncCache<Unit, AllAssetBalancesResponse>(
+        cacheLifetimeSeconds = AsyncCache.NO_EXPIRY,
+        loader = {
             balancesProvider.getCustodialWalletBalanceForAllAssets()
-                .doOnSuccess { Timber.d("Custodial balance response: $it") }
+                .doOnSuccess {
+                    Timber.d("Custodial balance response: $it")
+                    publish { withTrading(it) }
+                }
         }
     )
 
+    private val interestCache = AsyncCache<CryptoCurrency, InterestAccountDetails>(
+        cacheLifetimeSeconds = AsyncCache.NO_EXPIRY,
+        loader = { ccy ->
+            interestBalancesProvider.getBalanceForAsset(ccy)
+                .doOnSuccess { publish { withInterest(ccy, it) } }
+        }
+    )
+
+    /**
+     * Emits the latest snapshot on subscription, and a new one whenever any balance is reloaded.
+     * Subscribing loads the trading balances if they haven't been loaded yet.
+     */
+    val balances: Observable<CustodialBalances>
+        get() = snapshots
+            .doOnSubscribe { loadInBackground(tradingCache.get().ignoreElement()) }
+            // Snapshots are published outside the lock, so one can overtake another
+            .scan { latest, next -> if (next.version > latest.version) next else latest }
+            .distinctUntilChanged { a, b -> a.version == b.version }
+
+    /**
+     * The latest snapshot, once the trading balances in it have loaded.
+     */
+    fun snapshot(): Single<CustodialBalances> =
+        tradingCache.get().map { synchronized(lock) { current } }
+
     fun getCustodialTotalBalanceForAsset(ccy: CryptoCurrency): Maybe<CryptoValue> =
-        custodialBalancesCache.getCachedSingle().flatMapMaybe {
-            it[ccy]?.let { response ->
-                Maybe.just(CryptoValue.fromMinor(ccy, response.total.toBigInteger()))
-            } ?: Maybe.empty()
-        }.onErrorResumeNext(Maybe.empty())
+        tradingBalances { it.tradingTotal(ccy) }
 
     fun getCustodialActionableBalanceForAsset(ccy: CryptoCurrency): Maybe<CryptoValue> =
-        custodialBalancesCache.getCachedSingle().flatMapMaybe {
-            it[ccy]?.let { response ->
-                Maybe.just(CryptoValue.fromMinor(ccy, response.actionable.toBigInteger()))
-            } ?: Maybe.empty()
-        }.onErrorResumeNext(Maybe.empty())
+        tradingBalances { it.tradingActionable(ccy) }
 
     fun getCustodialPendingBalanceForAsset(ccy: CryptoCurrency): Maybe<CryptoValue> =
-        custodialBalancesCache.getCachedSingle().flatMapMaybe {
-            it[ccy]?.let { response ->
-                Maybe.just(CryptoValue.fromMinor(ccy, response.pending.toBigInteger()))
-            } ?: Maybe.empty()
-        }.onErrorResumeNext(Maybe.empty())
+        tradingBalances { it.tradingPending(ccy) }
 
     fun getFiatTotalBalanceForAsset(fiat: String): Maybe<FiatValue> =
-        custodialBalancesCache.getCachedSingle().flatMapMaybe {
-            it[fiat]?.let { response ->
-                Maybe.just(FiatValue.fromMinor(fiat, response.total.toLong()))
-            } ?: Maybe.empty()
-        }.onErrorResumeNext(Maybe.empty())
+        tradingBalances { it.fiatTotal(fiat) }
 
     fun getFiatActionableBalanceForAsset(fiat: String): Maybe<FiatValue> =
-        custodialBalancesCache.getCachedSingle().flatMapMaybe {
-            it[fiat]?.let { response ->
-                Maybe.just(FiatValue.fromMinor(fiat, response.actionable.toLong()))
-            } ?: Maybe.empty()
-        }.onErrorResumeNext(Maybe.empty())
+        tradingBalances { it.fiatActionable(fiat) }
 
     fun getFiatPendingBalanceForAsset(fiat: String): Maybe<FiatValue> =
-        custodialBalancesCache.getCachedSingle().flatMapMaybe {
-            it[fiat]?.let { response ->
-                Maybe.just(FiatValue.fromMinor(fiat, response.pending.toLong()))
-            } ?: Maybe.empty()
-        }.onErrorResumeNext(Maybe.empty())
-
-    companion object {
-        private const val CACHE_LIFETIME = 10L
+        tradingBalances { it.fiatPending(fiat) }
+
+    fun getInterestDetailsForAsset(ccy: CryptoCurrency): Single<InterestAccountDetails> =
+        interestCache.get(ccy)
+
+    /**
+     * Reloads the trading and fiat balances. Should be called once an order, transfer or withdrawal
+     * affecting them has been accepted, and again once it settles.
+     */
+    fun invalidateTrading() {
+        tradingCache.invalidate(Unit)
+        reloadIfObserved(tradingCache.get().ignoreElement())
+    }
+
+    /**
+     * Reloads the interest balance of [ccy]. Should be called once a deposit to or a withdrawal
+     * from the interest account has been accepted.
+     */
+    fun invalidateInterest(ccy: CryptoCurrency) {
+        interestCache.invalidate(ccy)
+        reloadIfObserved(interestCache.get(ccy).ignoreElement())
+    }
+
+    fun invalidateInterest(ticker: String) {
+        CryptoCurrency.fromNetworkTicker(ticker)?.let { invalidateInterest(it) }
+    }
+
+    private fun <T : Any> tradingBalances(value: (CustodialBalances) -> T?): Maybe<T> =
+        snapshot()
+            .flatMapMaybe { balances ->
+                value(balances)?.let { Maybe.just(it) } ?: Maybe.empty()
+            }.onErrorResumeNext(Maybe.empty())
+
+    private fun publish(update: CustodialBalances.() -> CustodialBalances) {
+        val updated = synchronized(lock) {
+            current = current.update()
+            current
+        }
+        snapshots.onNext(updated)
+    }
+
+    // Only worth fetching straight away if something is rendering the balances; otherwise the next
+    // read will load them
+    private fun reloadIfObserved(load: Completable) {
+        if (snapshots.hasObservers()) {
+            loadInBackground(load)
+        }
+    }
+
+    private fun loadInBackground(load: Completable) {
+        load.subscribeOn(Schedulers.io())
+            .onErrorComplete()
+            .subscribe()
     }
 }
@@ -0,0 +1,54 @@
+package com.blockchain.nabu.datamanagers.repositories
+
+import com.blockchain.nabu.datamanagers.InterestAccountDetails
+import com.blockchain.nabu.models.responses.simplebuy.AllAssetBalancesResponse
+import info.blockchain.balance.CryptoCurrency
+import info.blockchain.balance.CryptoValue
+import info.blockchain.balance.FiatValue
+
+/**
+ * Every custodial balance - trading, fiat and interest - as it stood at one point in time. Each
+ * reload of any of them produces a new snapshot with a higher [version], so observers can tell
+ * whether what they rendered is still current.
+ */
+class CustodialBalances internal constructor(
+    val version: Long,
+    private val trading: AllAssetBalancesResponse?,
+    private val interest: Map<CryptoCurrency, InterestAccountDetails>
+) {
+    val isTradingLoaded: Boolean
+        get() = trading != null
+
+    fun tradingTotal(ccy: CryptoCurrency): CryptoValue? =
+        trading?.get(ccy)?.let { CryptoValue.fromMinor(ccy, it.total.toBigInteger()) }
+
+    fun hasTradingBalance(ccy: CryptoCurrency): Boolean =
+        tradingTotal(ccy)?.isPositive == true
+
+    fun tradingActionable(ccy: CryptoCurrency): CryptoValue? =
+        trading?.get(ccy)?.let { CryptoValue.fromMinor(ccy, it.actionable.toBigInteger()) }
+
+    fun tradingPending(ccy: CryptoCurrency): CryptoValue? =
+        trading?.get(ccy)?.let { CryptoValue.fromMinor(ccy, it.pending.toBigInteger()) }
+
+    fun fiatTotal(fiat: String): FiatValue? =
+        trading?.get(fiat)?.let { FiatValue.fromMinor(fiat, it.total.toLong()) }
+
+    fun fiatActionable(fiat: String): FiatValue? =
+        trading?.get(fiat)?.let { FiatValue.fromMinor(fiat, it.actionable.toLong()) }
+
+    fun fiatPending(fiat: String): FiatValue? =
+        trading?.get(fiat)?.let { FiatValue.fromMinor(fiat, it.pending.toLong()) }
+
+    fun interest(ccy: CryptoCurrency): InterestAccountDetails? = interest[ccy]
+
+    internal fun withTrading(balances: AllAssetBalancesResponse) =
+        CustodialBalances(version + 1, balances, interest)
+
+    internal fun withInterest(ccy: CryptoCurrency, details: InterestAccountDetails) =
+        CustodialBalances(version + 1, trading, interest + (ccy to details))
+
+    companion object {
+        internal val EMPTY = CustodialBalances(version = 0, trading = null, interest = emptyMap())
+    }
+}
@@ -1,19 +1,20 @@
 package com.blockchain.nabu.datamanagers.repositories
 
-import com.blockchain.rx.TimedCacheRequest
+import com.blockchain.rx.AsyncCache
+import com.blockchain.rx.get
 import com.blockchain.nabu.datamanagers.NabuDataUserProvider
 import com.blockchain.nabu.models.responses.nabu.NabuUser
 import io.reactivex.Single
 
 class NabuUserRepository(nabuDataUserProvider: NabuDataUserProvider) {
 
-    val cache = TimedCacheRequest(
+    val cache = AsyncCache<Unit, NabuUser>(
         cacheLifetimeSeconds = CACHE_LIFETIME,
-        refreshFn = { nabuDataUserProvider.getUser() }
+        loader = { nabuDataUserProvider.getUser() }
     )
 
     fun fetchUser(): Single<NabuUser> =
-        cache.getCachedSingle()
+        cache.get()
 
     companion object {
         private const val CACHE_LIFETIME: Long = 10
@@ -6,7 +6,8 @@ import com.blockchain.nabu.Authenticator
 import com.blockchain.nabu.datamanagers.custodialwalletimpl.PaymentMethodType
 import com.blockchain.nabu.models.responses.cards.PaymentMethodResponse
 import com.blockchain.nabu.service.NabuService
-import com.blockchain.rx.TimedCacheRequest
+import com.blockchain.rx.AsyncCache
+import com.blockchain.rx.get
 import io.reactivex.Single
 import timber.log.Timber
 
@@ -43,15 +44,15 @@ class RecurringBuyRepository(
     private val recurringBuyEligibilityProvider: RecurringBuyEligibilityProvider
 ) {
 
-    private val cache = TimedCacheRequest(
+    private val cache = AsyncCache<Unit, List<PaymentMethodType>>(
         cacheLifetimeSeconds = CACHE_LIFETIME,
-        refreshFn = {
+        loader = {
             recurringBuyEligibilityProvider.getRecurringBuyEligibility()
                 .doOnSuccess { Timber.d("Recurring buy eligibility response: $it") }
         }
     )
 
-    fun getRecurringBuyEligibleMethods() = cache.getCachedSingle()
+    fun getRecurringBuyEligibleMethods() = cache.get()
 
     companion object {
         private const val CACHE_LIFETIME = 7200L // 2 hours
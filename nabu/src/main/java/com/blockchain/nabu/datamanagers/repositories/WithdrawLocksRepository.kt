@@ -3,16 +3,16 @@ package com.blockchain.nabu.datamanagers.repositories
 import com.blockchain.nabu.datamanagers.CustodialWalletManager
 import com.blockchain.nabu.datamanagers.custodialwalletimpl.PaymentMethodType
 
-import com.blockchain.rx.ParameteredSingleTimedCacheRequest
+import com.blockchain.rx.AsyncCache
 import io.reactivex.Single
 import timber.log.Timber
 import java.math.BigInteger
 
 class WithdrawLocksRepository(custodialWalletManager: CustodialWalletManager) {
 
-    private val cache = ParameteredSingleTimedCacheRequest<WithdrawalData, BigInteger>(
+    private val cache = AsyncCache<WithdrawalData, BigInteger>(
         cacheLifetimeSeconds = 100L,
-        refreshFn = { data ->
+        loader = { data ->
             custodialWalletManager.fetchWithdrawLocksTime(
                 data.paymentMethodType, data.fiatCurrency, data.productType
             )
@@ -24,7 +24,7 @@ class WithdrawLocksRepository(custodialWalletManager: CustodialWalletManager) {
         paymentMethodType: PaymentMethodType,
         fiatCurrency: String
     ): Single<BigInteger> =
-        cache.getCachedSingle(
+        cache.get(
             WithdrawalData(paymentMethodType, fiatCurrency, "SIMPLEBUY")
         )
             .onErrorReturn { BigInteger.ZERO }
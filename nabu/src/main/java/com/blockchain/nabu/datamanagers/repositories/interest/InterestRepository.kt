@@ -1,6 +1,8 @@
 package com.blockchain.nabu.datamanagers.repositories.interest
 
-import com.blockchain.rx.TimedCacheRequest
+import com.blockchain.nabu.datamanagers.repositories.CustodialAssetWalletsBalancesRepository
+import com.blockchain.rx.AsyncCache
+import com.blockchain.rx.get
 import info.blockchain.balance.CryptoCurrency
 import info.blockchain.balance.CryptoValue
 import io.reactivex.Maybe
@@ -10,47 +12,47 @@ class InterestRepository(
     private val interestLimitsProvider: InterestLimitsProvider,
     private val interestAvailabilityProvider: InterestAvailabilityProvider,
     private val interestEligibilityProvider: InterestEligibilityProvider,
-    private val interestAccountBalancesProvider: InterestBalancesProvider
+    private val custodialBalancesRepository: CustodialAssetWalletsBalancesRepository
 ) {
-    private val limitsCache = TimedCacheRequest(
+    private val limitsCache = AsyncCache<Unit, InterestLimitsList>(
         cacheLifetimeSeconds = SHORT_LIFETIME,
-        refreshFn = { interestLimitsProvider.getLimitsForAllAssets() }
+        loader = { interestLimitsProvider.getLimitsForAllAssets() }
     )
 
-    private val availabilityCache = TimedCacheRequest(
+    private val availabilityCache = AsyncCache<Unit, List<CryptoCurrency>>(
         cacheLifetimeSeconds = LONG_LIFETIME,
-        refreshFn = { interestAvailabilityProvider.getEnabledStatusForAllAssets() }
+        loader = { interestAvailabilityProvider.getEnabledStatusForAllAssets() }
     )
 
-    private val eligibilityCache = TimedCacheRequest(
+    private val eligibilityCache = AsyncCache<Unit, List<AssetInterestEligibility>>(
         cacheLifetimeSeconds = LONG_LIFETIME,
-        refreshFn = { interestEligibilityProvider.getEligibilityForAllAssets() }
+        loader = { interestEligibilityProvider.getEligibilityForAllAssets() }
     )
 
     fun getInterestAccountBalance(asset: CryptoCurrency) =
-        interestAccountBalancesProvider.getBalanceForAsset(asset).map {
+        custodialBalancesRepository.getInterestDetailsForAsset(asset).map {
             it.balance
         }
 
     fun getInterestPendingBalance(asset: CryptoCurrency) =
-        interestAccountBalancesProvider.getBalanceForAsset(asset).map {
+        custodialBalancesRepository.getInterestDetailsForAsset(asset).map {
             it.pendingDeposit
         }
 
     fun getInterestActionableBalance(asset: CryptoCurrency) =
-        interestAccountBalancesProvider.getBalanceForAsset(asset).map {
+        custodialBalancesRepository.getInterestDetailsForAsset(asset).map {
             (it.balance - it.lockedBalance) as CryptoValue
         }
 
     fun getInterestAccountDetails(asset: CryptoCurrency) =
-        interestAccountBalancesProvider.getBalanceForAsset(asset)
+        custodialBalancesRepository.getInterestDetailsForAsset(asset)
 
-    fun clearBalanceForAsset(asset: CryptoCurrency) = interestAccountBalancesProvider.clearBalanceForAsset(asset)
+    fun clearBalanceForAsset(asset: CryptoCurrency) = custodialBalancesRepository.invalidateInterest(asset)
 
-    fun clearBalanceForAsset(ticker: String) = interestAccountBalancesProvider.clearBalanceForAsset(ticker)
+    fun clearBalanceForAsset(ticker: String) = custodialBalancesRepository.invalidateInterest(ticker)
 
     fun getLimitForAsset(ccy: CryptoCurrency): Maybe<InterestLimits> =
-        limitsCache.getCachedSingle().flatMapMaybe { limitsList ->
+        limitsCache.get().flatMapMaybe { limitsList ->
             val limitsForAsset = limitsList.list.find { it.cryptoCurrency == ccy }
             limitsForAsset?.let {
                 Maybe.just(it)
@@ -58,15 +60,15 @@ class InterestRepository(
         }.onErrorResumeNext(Maybe.empty())
 
     fun getAvailabilityForAsset(ccy: CryptoCurrency): Single<Boolean> =
-        availabilityCache.getCachedSingle().flatMap { enabledList ->
+        availabilityCache.get().flatMap { enabledList ->
             Single.just(enabledList.contains(ccy))
         }.onErrorResumeNext(Single.just(false))
 
     fun getAvailableAssets(): Single<List<CryptoCurrency>> =
-        availabilityCache.getCachedSingle()
+        availabilityCache.get()
 
     fun getEligibilityForAsset(ccy: CryptoCurrency): Single<Eligibility> =
-        eligibilityCache.getCachedSingle().map { eligibilityList ->
+        eligibilityCache.get().map { eligibilityList ->
             eligibilityList.find { it.cryptoCurrency == ccy }?.eligibility
                 ?: Eligibility.notEligible()
         }
@@ -1,35 +1,36 @@
 package com.blockchain.nabu.datamanagers.repositories.swap
 
-import com.blockchain.rx.TimedCacheRequest
 import com.blockchain.nabu.datamanagers.CurrencyPair
 import com.blockchain.nabu.datamanagers.TransferDirection
+import com.blockchain.rx.AsyncCache
+import com.blockchain.rx.get
 import info.blockchain.balance.CryptoCurrency
 import io.reactivex.Single
 
 class CustodialRepository(pairsProvider: TradingPairsProvider, activityProvider: SwapActivityProvider) {
 
-    private val pairsCache = TimedCacheRequest(
+    private val pairsCache = AsyncCache<Unit, List<CurrencyPair>>(
         cacheLifetimeSeconds = LONG_CACHE,
-        refreshFn = {
+        loader = {
             pairsProvider.getAvailablePairs()
         }
     )
 
-    private val swapActivityCache = TimedCacheRequest(
+    private val swapActivityCache = AsyncCache<Unit, List<TradeTransactionItem>>(
         cacheLifetimeSeconds = SHORT_CACHE,
-        refreshFn = {
+        loader = {
             activityProvider.getSwapActivity()
         }
     )
 
     fun getSwapAvailablePairs(): Single<List<CurrencyPair.CryptoCurrencyPair>> =
-        pairsCache.getCachedSingle().map { it.filterIsInstance<CurrencyPair.CryptoCurrencyPair>() }
+        pairsCache.get().map { it.filterIsInstance<CurrencyPair.CryptoCurrencyPair>() }
 
     fun getCustodialActivityForAsset(
         cryptoCurrency: CryptoCurrency,
         directions: Set<TransferDirection>
     ): Single<List<TradeTransactionItem>> =
-        swapActivityCache.getCachedSingle().map { list ->
+        swapActivityCache.get().map { list ->
             list.filter {
                 when (it.currencyPair) {
                     is CurrencyPair.CryptoCurrencyPair -> it.currencyPair.source == cryptoCurrency &&
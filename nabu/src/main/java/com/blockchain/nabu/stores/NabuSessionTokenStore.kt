@@ -4,27 +4,138 @@ import com.blockchain.data.datastores.PersistentStore
 import com.blockchain.nabu.models.responses.tokenresponse.NabuSessionTokenResponse
 import com.blockchain.utils.Optional
 import io.reactivex.Observable
+import io.reactivex.Single
+import java.text.ParseException
+import java.text.SimpleDateFormat
+import java.util.Locale
+import java.util.TimeZone
 
-class NabuSessionTokenStore : NabuTokenStore, PersistentStore<NabuSessionTokenResponse> {
+data class TokenRefreshStats(
+    val refreshes: Long,
+    val failures: Long,
+    val totalRefreshTimeMillis: Long
+) {
+    val averageRefreshTimeMillis: Long
+        get() = if (refreshes == 0L) 0 else totalRefreshTimeMillis / refreshes
+}
+
+/**
+ * Holds the current session token and makes sure only one refresh of it is ever in flight: callers
+ * that need a new token while one is being fetched share that fetch rather than starting their own.
+ * A token is treated as needing a refresh shortly before it expires, so that requests aren't sent
+ * with a token that is about to be rejected.
+ */
+class NabuSessionTokenStore(
+    private val clock: () -> Long = { System.currentTimeMillis() }
+) : NabuTokenStore, PersistentStore<NabuSessionTokenResponse> {
+
+    private val lock = Any()
 
     private var token: Optional<NabuSessionTokenResponse> = Optional.None
+    // Null if the token's expiry couldn't be read, in which case we wait for it to be rejected
+    private var expiresAtMillis: Long? = null
+    private var inFlight: Single<NabuSessionTokenResponse>? = null
+
+    private var refreshes = 0L
+    private var failures = 0L
+    private var totalRefreshTimeMillis = 0L
 
     override fun store(data: NabuSessionTokenResponse): Observable<NabuSessionTokenResponse> {
-        token = Optional.Some(data)
-        return Observable.just(getElement())
+        synchronized(lock) { setToken(data) }
+        return Observable.just(data)
     }
 
     override fun getAccessToken(): Observable<Optional<NabuSessionTokenResponse>> =
-        Observable.just(token)
+        Observable.just(synchronized(lock) { token })
 
     override fun invalidate() {
-        token = Optional.None
+        synchronized(lock) {
+            token = Optional.None
+            expiresAtMillis = null
+        }
     }
 
-    fun requiresRefresh(): Boolean = when (token) {
-        is Optional.None -> true
-        else -> false
+    fun requiresRefresh(): Boolean = synchronized(lock) {
+        when (token) {
+            is Optional.None -> true
+            else -> expiresAtMillis.let { it != null && clock() >= it - REFRESH_MARGIN_MILLIS }
+        }
+    }
+
+    /**
+     * Stores the token emitted by [fetch], or joins the refresh that is already in flight.
+     */
+    fun refresh(fetch: Single<NabuSessionTokenResponse>): Single<NabuSessionTokenResponse> =
+        Single.defer {
+            synchronized(lock) { inFlight ?: startRefresh(fetch) }
+        }
+
+    /**
+     * To be called when [rejected] has been refused by the server. Only starts a refresh if nobody
+     * else has already replaced the rejected token or is in the middle of doing so.
+     */
+    fun refreshAfterRejection(
+        rejected: NabuSessionTokenResponse,
+        fetch: Single<NabuSessionTokenResponse>
+    ): Single<NabuSessionTokenResponse> =
+        Single.defer {
+            synchronized(lock) {
+                val current = (token as? Optional.Some)?.element
+                inFlight ?: if (current != null && current != rejected) {
+                    Single.just(current)
+                } else {
+                    token = Optional.None
+                    startRefresh(fetch)
+                }
+            }
+        }
+
+    fun refreshStats(): TokenRefreshStats = synchronized(lock) {
+        TokenRefreshStats(refreshes, failures, totalRefreshTimeMillis)
     }
 
-    private fun getElement(): NabuSessionTokenResponse = (token as Optional.Some).element
-}
\ No newline at end of file
+    private fun startRefresh(fetch: Single<NabuSessionTokenResponse>): Single<NabuSessionTokenResponse> {
+        val startedAt = clock()
+        lateinit var refresh: Single<NabuSessionTokenResponse>
+        refresh = fetch
+            .doOnSuccess {
+                synchronized(lock) {
+                    setToken(it)
+                    refreshes++
+                    totalRefreshTimeMillis += clock() - startedAt
+                }
+            }
+            .doOnError {
+                synchronized(lock) { failures++ }
+            }
+            .doFinally {
+                synchronized(lock) {
+                    if (inFlight === refresh) inFlight = null
+                }
+            }
+            .cache()
+        inFlight = refresh
+        return refresh
+    }
+
+    private fun setToken(data: NabuSessionTokenResponse) {
+        token = Optional.Some(data)
+        expiresAtMillis = data.expiresAt.parseExpiry()
+    }
+
+    private fun String.parseExpiry(): Long? =
+        try {
+            // Parses the leading date and time, ignoring any fraction of a second and the zone marker
+            SimpleDateFormat(EXPIRY_FORMAT, Locale.US)
+                .apply { timeZone = TimeZone.getTimeZone("UTC") }
+                .parse(this)
+                ?.time
+        } catch (e: ParseException) {
+            null
+        }
+
+    companion object {
+        private const val EXPIRY_FORMAT = "yyyy-MM-dd'T'HH:mm:ss"
+        private const val REFRESH_MARGIN_MILLIS = 60_000L
+    }
+}
@@ -0,0 +1,114 @@
+package com.blockchain.nabu.datamanagers.repositories
+
+import com.blockchain.android.testutils.rxInit
+import com.blockchain.nabu.datamanagers.BalancesProvider
+import com.blockchain.nabu.datamanagers.InterestAccountDetails
+import com.blockchain.nabu.datamanagers.repositories.interest.InterestBalancesProvider
+import com.blockchain.nabu.models.responses.simplebuy.AllAssetBalancesResponse
+import com.blockchain.nabu.models.responses.simplebuy.SimpleBuyBalanceResponse
+import com.nhaarman.mockito_kotlin.mock
+import com.nhaarman.mockito_kotlin.times
+import com.nhaarman.mockito_kotlin.verify
+import com.nhaarman.mockito_kotlin.whenever
+import info.blockchain.balance.CryptoCurrency
+import info.blockchain.balance.CryptoValue
+import info.blockchain.balance.FiatValue
+import io.reactivex.Single
+import org.amshove.kluent.`should equal`
+import org.junit.Rule
+import org.junit.Test
+
+class CustodialAssetWalletsBalancesRepositoryTest {
+
+    @get:Rule
+    val rx = rxInit {
+        ioTrampoline()
+    }
+
+    private val balancesProvider: BalancesProvider = mock()
+    private val interestBalancesProvider: InterestBalancesProvider = mock()
+
+    private val subject = CustodialAssetWalletsBalancesRepository(balancesProvider, interestBalancesProvider)
+
+    @Test
+    fun `crypto and fiat balances are read from a single load`() {
+        whenever(balancesProvider.getCustodialWalletBalanceForAllAssets())
+            .thenReturn(Single.just(balances(btc = "100", eur = "250")))
+
+        subject.getCustodialTotalBalanceForAsset(CryptoCurrency.BTC).test()
+            .assertValue(CryptoValue.fromMinor(CryptoCurrency.BTC, 100.toBigInteger()))
+        subject.getFiatActionableBalanceForAsset("EUR").test()
+            .assertValue(FiatValue.fromMinor("EUR", 250))
+        subject.getCustodialTotalBalanceForAsset(CryptoCurrency.ETHER).test()
+            .assertComplete()
+            .assertNoValues()
+
+        verify(balancesProvider, times(1)).getCustodialWalletBalanceForAllAssets()
+    }
+
+    @Test
+    fun `invalidating trading balances reloads them on the next read`() {
+        whenever(balancesProvider.getCustodialWalletBalanceForAllAssets())
+            .thenReturn(Single.just(balances(btc = "100")))
+            .thenReturn(Single.just(balances(btc = "40")))
+
+        subject.getCustodialTotalBalanceForAsset(CryptoCurrency.BTC).test()
+        subject.invalidateTrading()
+        verify(balancesProvider, times(1)).getCustodialWalletBalanceForAllAssets()
+
+        subject.getCustodialTotalBalanceForAsset(CryptoCurrency.BTC).test()
+            .assertValue(CryptoValue.fromMinor(CryptoCurrency.BTC, 40.toBigInteger()))
+        subject.snapshot().test().values().single().version `should equal` 2L
+    }
+
+    @Test
+    fun `subscribing to balances loads them`() {
+        whenever(balancesProvider.getCustodialWalletBalanceForAllAssets())
+            .thenReturn(Single.just(balances(btc = "100")))
+
+        val observer = subject.balances.test()
+
+        observer.values().last().tradingTotal(CryptoCurrency.BTC) `should equal`
+            CryptoValue.fromMinor(CryptoCurrency.BTC, 100.toBigInteger())
+    }
+
+    @Test
+    fun `invalidating trading balances pushes a new snapshot to observers`() {
+        whenever(balancesProvider.getCustodialWalletBalanceForAllAssets())
+            .thenReturn(Single.just(balances(btc = "100")))
+            .thenReturn(Single.just(balances(btc = "40")))
+        val observer = subject.balances.test()
+
+        subject.invalidateTrading()
+
+        verify(balancesProvider, times(2)).getCustodialWalletBalanceForAllAssets()
+        observer.values().last().version `should equal` 2L
+        observer.values().last().tradingTotal(CryptoCurrency.BTC) `should equal`
+            CryptoValue.fromMinor(CryptoCurrency.BTC, 40.toBigInteger())
+    }
+
+    @Test
+    fun `interest balances are part of the snapshot`() {
+        val details = InterestAccountDetails(
+            balance = CryptoValue.fromMinor(CryptoCurrency.ETHER, 5.toBigInteger()),
+            pendingInterest = CryptoValue.zero(CryptoCurrency.ETHER),
+            pendingDeposit = CryptoValue.zero(CryptoCurrency.ETHER),
+            totalInterest = CryptoValue.zero(CryptoCurrency.ETHER),
+            lockedBalance = CryptoValue.zero(CryptoCurrency.ETHER)
+        )
+        whenever(interestBalancesProvider.getBalanceForAsset(CryptoCurrency.ETHER))
+            .thenReturn(Single.just(details))
+        whenever(balancesProvider.getCustodialWalletBalanceForAllAssets())
+            .thenReturn(Single.just(balances(btc = "100")))
+
+        subject.getInterestDetailsForAsset(CryptoCurrency.ETHER).test().assertValue(details)
+
+        subject.snapshot().test().values().single().interest(CryptoCurrency.ETHER) `should equal` details
+    }
+
+    private fun balances(btc: String? = null, eur: String? = null) =
+        AllAssetBalancesResponse(
+            BTC = btc?.let { SimpleBuyBalanceResponse(pending = "0", total = it, actionable = it) },
+            EUR = eur?.let { SimpleBuyBalanceResponse(pending = "0", total = it, actionable = it) }
+        )
+}
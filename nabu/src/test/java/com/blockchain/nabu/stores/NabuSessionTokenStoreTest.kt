@@ -0,0 +1,110 @@
+package com.blockchain.nabu.stores
+
+import com.blockchain.nabu.models.responses.tokenresponse.NabuSessionTokenResponse
+import com.blockchain.utils.Optional
+import io.reactivex.Single
+import io.reactivex.subjects.SingleSubject
+import org.amshove.kluent.`should be`
+import org.amshove.kluent.`should equal`
+import org.junit.Test
+
+class NabuSessionTokenStoreTest {
+
+    private var now = 0L
+    private val subject = NabuSessionTokenStore(clock = { now })
+
+    private var fetches = 0
+    private val pending = SingleSubject.create<NabuSessionTokenResponse>()
+    private val fetch: Single<NabuSessionTokenResponse> = pending.doOnSubscribe { fetches++ }
+
+    @Test
+    fun `concurrent refreshes share a single fetch`() {
+        val first = subject.refresh(fetch).test()
+        val second = subject.refresh(fetch).test()
+
+        now = 250
+        pending.onSuccess(token("A"))
+
+        first.assertValue(token("A"))
+        second.assertValue(token("A"))
+        fetches `should equal` 1
+        subject.refreshStats() `should equal` TokenRefreshStats(
+            refreshes = 1,
+            failures = 0,
+            totalRefreshTimeMillis = 250
+        )
+    }
+
+    @Test
+    fun `a finished refresh is not shared with the next one`() {
+        subject.refresh(fetch).test()
+        pending.onSuccess(token("A"))
+
+        subject.refresh(Single.just(token("B"))).test().assertValue(token("B"))
+        subject.getAccessToken().test().assertValue { (it as Optional.Some).element == token("B") }
+    }
+
+    @Test
+    fun `a token is refreshed shortly before it expires`() {
+        subject.store(token("A", expiresAt = "1970-01-01T00:10:00.000Z")).test()
+
+        now = 8 * 60 * 1000L
+        subject.requiresRefresh() `should be` false
+
+        now = 9 * 60 * 1000L + 1
+        subject.requiresRefresh() `should be` true
+    }
+
+    @Test
+    fun `a token with an unreadable expiry waits to be rejected`() {
+        subject.store(token("A", expiresAt = "EXPIRES_AT")).test()
+
+        now = Long.MAX_VALUE
+        subject.requiresRefresh() `should be` false
+    }
+
+    @Test
+    fun `a rejected token that has already been replaced is not refreshed again`() {
+        subject.store(token("B")).test()
+
+        subject.refreshAfterRejection(token("A"), fetch)
+            .test()
+            .assertValue(token("B"))
+        fetches `should equal` 0
+    }
+
+    @Test
+    fun `rejections of the same token share a single fetch`() {
+        subject.store(token("A")).test()
+
+        val first = subject.refreshAfterRejection(token("A"), fetch).test()
+        val second = subject.refreshAfterRejection(token("A"), fetch).test()
+        pending.onSuccess(token("B"))
+
+        first.assertValue(token("B"))
+        second.assertValue(token("B"))
+        fetches `should equal` 1
+    }
+
+    @Test
+    fun `a failed refresh is counted and not shared with the next one`() {
+        subject.refresh(fetch).test()
+        pending.onError(Throwable())
+
+        subject.requiresRefresh() `should be` true
+        subject.refresh(Single.just(token("A"))).test().assertValue(token("A"))
+        subject.refreshStats().failures `should equal` 1L
+        subject.refreshStats().refreshes `should equal` 1L
+    }
+
+    private fun token(value: String, expiresAt: String = "") =
+        NabuSessionTokenResponse(
+            id = "ID",
+            userId = "USER_ID",
+            token = value,
+            isActive = true,
+            expiresAt = expiresAt,
+            insertedAt = "",
+            updatedAt = ""
+        )
+}
@@ -22,6 +22,7 @@ val sunriverModule = module {
             xlmTimeoutFetcher = get(),
             lastTxUpdater = get(),
             eventLogger = get(),
+            xlmHistoryPrefs = get(),
             xlmHorizonUrlFetcher = get(),
             xlmHorizonDefUrl = getProperty("HorizonURL"))
         }
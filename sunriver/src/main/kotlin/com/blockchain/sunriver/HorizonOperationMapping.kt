@@ -9,71 +9,110 @@ import org.stellar.sdk.MemoHash
 import org.stellar.sdk.MemoId
 import org.stellar.sdk.MemoReturnHash
 import org.stellar.sdk.MemoText
+import org.stellar.sdk.responses.TransactionResponse
 import org.stellar.sdk.responses.operations.CreateAccountOperationResponse
 import org.stellar.sdk.responses.operations.OperationResponse
 import org.stellar.sdk.responses.operations.PaymentOperationResponse
 
-internal fun List<OperationResponse>.map(accountId: String, horizonProxy: HorizonProxy): List<XlmTransaction> =
+internal fun List<OperationResponse>.map(
+    accountId: String,
+    horizonProxy: HorizonProxy,
+    transactionDetails: TransactionDetailsCache = TransactionDetailsCache()
+): List<XlmTransaction> =
     filter { it is CreateAccountOperationResponse || it is PaymentOperationResponse }
         .map {
             mapOperationResponse(
                 it,
                 accountId,
-                horizonProxy
+                horizonProxy,
+                transactionDetails
             )
         }
 
 internal fun mapOperationResponse(
     operationResponse: OperationResponse,
     usersAccountId: String,
-    horizonProxy: HorizonProxy
+    horizonProxy: HorizonProxy,
+    transactionDetails: TransactionDetailsCache = TransactionDetailsCache()
 ): XlmTransaction =
     when (operationResponse) {
-        is CreateAccountOperationResponse -> operationResponse.mapCreate(usersAccountId, horizonProxy)
-        is PaymentOperationResponse -> operationResponse.mapPayment(usersAccountId, horizonProxy)
+        is CreateAccountOperationResponse -> operationResponse.mapCreate(
+            usersAccountId,
+            operationResponse.transactionDetails(horizonProxy, transactionDetails)
+        )
+        is PaymentOperationResponse -> operationResponse.mapPayment(
+            usersAccountId,
+            operationResponse.transactionDetails(horizonProxy, transactionDetails)
+        )
         else -> throw IllegalArgumentException("Unsupported operation type ${operationResponse.javaClass.simpleName}")
     }
 
-private fun CreateAccountOperationResponse.mapCreate(
-    usersAccountId: String,
-    horizonProxy: HorizonProxy
-): XlmTransaction {
+/**
+ * Finds the memo and fee of the transaction this operation belongs to. These come from the cache if
+ * we've seen the transaction before, otherwise from the transaction joined onto the operation, and
+ * only if neither is available do we make a request for it.
+ *
+ * Returns null if the transaction can't be read.
+ */
+private fun OperationResponse.transactionDetails(
+    horizonProxy: HorizonProxy,
+    cache: TransactionDetailsCache
+): TransactionDetails? =
+    transactionDetails(transactionHash, horizonProxy, cache) { joinedTransaction() }
+
+/**
+ * Finds the memo and fee of the transaction with [hash], from the cache, from [joined] or by
+ * requesting it. Returns null if the transaction can't be read.
+ */
+internal fun transactionDetails(
+    hash: String,
+    horizonProxy: HorizonProxy,
+    cache: TransactionDetailsCache,
+    joined: () -> TransactionResponse? = { null }
+): TransactionDetails? {
+    cache[hash]?.let { return it }
     return try {
-        val transactionResponse = horizonProxy.getTransaction(transactionHash)
-        val memo = transactionResponse.memo ?: Memo.none()
-        val fee = CryptoValue.fromMinor(CryptoCurrency.XLM, transactionResponse.feeCharged.toBigInteger())
-        toXlmTransaction(usersAccountId, startingBalance, memo, account, funder, fee)
+        val transactionResponse = joined() ?: horizonProxy.getTransaction(hash)
+        TransactionDetails(
+            memo = transactionResponse.memo ?: Memo.none(),
+            fee = CryptoValue.fromMinor(CryptoCurrency.XLM, transactionResponse.feeCharged.toBigInteger())
+        ).also { cache[hash] = it }
     } catch (e: Throwable) {
         // There's a bug in the xlm sdk (horizonProxy.getTransaction()) which throws a
         // NoSuchMethodError when parsing a int memo on pre jdk 1.8 devices
-        // In this case, we can't know the fee but everything else is known, so:
-        toXlmTransaction(
-            usersAccountId,
-            startingBalance,
-            Memo.none(),
-            account,
-            funder,
-            CryptoValue.zero(CryptoCurrency.XLM)
-        )
+        null
     }
 }
 
+private fun OperationResponse.joinedTransaction(): TransactionResponse? =
+    transaction?.let { if (it.isPresent) it.get() else null }
+
+private fun CreateAccountOperationResponse.mapCreate(
+    usersAccountId: String,
+    details: TransactionDetails?
+): XlmTransaction =
+    // If we couldn't read the transaction we can't know the memo or fee, but everything else is known
+    toXlmTransaction(
+        usersAccountId,
+        startingBalance,
+        details?.memo ?: Memo.none(),
+        account,
+        funder,
+        details?.fee ?: CryptoValue.zero(CryptoCurrency.XLM)
+    )
+
 private fun PaymentOperationResponse.mapPayment(
     usersAccountId: String,
-    horizonProxy: HorizonProxy
-): XlmTransaction {
-    return try {
-        val transactionResponse = horizonProxy.getTransaction(transactionHash)
-        val memo = transactionResponse.memo ?: Memo.none()
-        val fee = CryptoValue.fromMinor(CryptoCurrency.XLM, transactionResponse.feeCharged.toBigInteger())
-        toXlmTransaction(usersAccountId, amount, memo, to, from, fee)
-    } catch (e: Throwable) {
-        // There's a bug in the xlm sdk (horizonProxy.getTransaction()) which throws a
-        // NoSuchMethodError when parsing a int memo on pre jdk 1.8 devices
-        // In this case, we can't know the fee but everything else is known, so:
-        toXlmTransaction(usersAccountId, amount, Memo.none(), to, from, CryptoValue.zero(CryptoCurrency.XLM))
-    }
-}
+    details: TransactionDetails?
+): XlmTransaction =
+    toXlmTransaction(
+        usersAccountId,
+        amount,
+        details?.memo ?: Memo.none(),
+        to,
+        from,
+        details?.fee ?: CryptoValue.zero(CryptoCurrency.XLM)
+    )
 
 private fun OperationResponse.toXlmTransaction(
     usersAccountId: String,
@@ -107,7 +146,7 @@ private fun deltaValueForAccount(
     return CryptoValue.fromMajor(CryptoCurrency.XLM, deltaForThisAccount)
 }
 
-private fun mapMemo(memo: Memo): com.blockchain.sunriver.Memo =
+internal fun mapMemo(memo: Memo): com.blockchain.sunriver.Memo =
     when (memo) {
         is MemoId -> Memo(memo.id.toString(), "id")
         is MemoHash -> Memo(memo.hexValue, "hash")
@@ -61,10 +61,28 @@ internal class HorizonProxy {
         }
     }
 
-    fun getTransactionList(accountId: String): List<OperationResponse> = try {
+    /**
+     * The most recent operations for the account, each with its transaction joined on, so that
+     * mapping them doesn't need a request per operation.
+     */
+    fun getTransactionList(accountId: String): List<OperationResponse> =
+        getOperations(accountId, cursor = null, order = RequestBuilder.Order.DESC, limit = 50)
+
+    /**
+     * A page of operations for the account, starting after the operation with paging token [cursor] in
+     * the given [order]. Ascending from a cursor gives the operations newer than it, descending those older.
+     */
+    fun getOperations(
+        accountId: String,
+        cursor: String?,
+        order: RequestBuilder.Order,
+        limit: Int
+    ): List<OperationResponse> = try {
         server.operations()
-            .order(RequestBuilder.Order.DESC)
-            .limit(50)
+            .order(order)
+            .limit(limit)
+            .includeTransactions(true)
+            .apply { if (cursor != null) this.cursor(cursor) }
             .forAccount(accountId)
             .execute()
             .records
@@ -0,0 +1,39 @@
+package com.blockchain.sunriver
+
+import info.blockchain.balance.CryptoValue
+import org.stellar.sdk.Memo
+
+/**
+ * The parts of a Horizon transaction that operation mapping needs, but that aren't on the operation.
+ */
+internal class TransactionDetails(
+    val memo: Memo,
+    val fee: CryptoValue
+)
+
+/**
+ * LRU cache of [TransactionDetails] by transaction hash. Every transaction an operation points to
+ * has already been applied to a ledger and can never change, so entries never need invalidating.
+ */
+internal class TransactionDetailsCache(private val maxEntries: Int = DEFAULT_MAX_ENTRIES) {
+
+    private val details = object : LinkedHashMap<String, TransactionDetails>(16, 0.75f, true) {
+        override fun removeEldestEntry(eldest: MutableMap.MutableEntry<String, TransactionDetails>): Boolean =
+            size > maxEntries
+    }
+
+    @Synchronized
+    operator fun get(hash: String): TransactionDetails? = details[hash]
+
+    @Synchronized
+    operator fun set(hash: String, value: TransactionDetails) {
+        details[hash] = value
+    }
+
+    @Synchronized
+    fun size() = details.size
+
+    companion object {
+        private const val DEFAULT_MAX_ENTRIES = 500
+    }
+}
@@ -4,6 +4,7 @@ import com.blockchain.fees.FeeType
 import com.blockchain.logging.CustomEventBuilder
 import com.blockchain.logging.EventLogger
 import com.blockchain.logging.LastTxUpdater
+import com.blockchain.preferences.XlmHistoryPrefs
 import com.blockchain.sunriver.datamanager.XlmAccount
 import com.blockchain.sunriver.datamanager.XlmMetaData
 import com.blockchain.sunriver.datamanager.XlmMetaDataInitializer
@@ -38,6 +39,7 @@ class XlmDataManager internal constructor(
     private val xlmTimeoutFetcher: XlmTransactionTimeoutFetcher,
     private val lastTxUpdater: LastTxUpdater,
     private val eventLogger: EventLogger,
+    xlmHistoryPrefs: XlmHistoryPrefs,
     xlmHorizonUrlFetcher: XlmHorizonUrlFetcher,
     xlmHorizonDefUrl: String
 ) {
@@ -107,6 +109,11 @@ class XlmDataManager internal constructor(
 
     private fun <T> T.just(): Single<T> = Single.just(this)
 
+    // Shared across refreshes, so reopening the activity list doesn't re-read old transactions
+    private val transactionDetails = TransactionDetailsCache()
+
+    private val historySync = XlmHistorySync(horizonProxy, xlmHistoryPrefs, transactionDetails)
+
     private val wallet = Single.defer { metaDataInitializer.initWalletMaybePrompt.toSingle() }
     private val maybeWallet = Maybe.defer { metaDataInitializer.initWalletMaybe }
 
@@ -166,10 +173,22 @@ class XlmDataManager internal constructor(
     fun maybeDefaultAccount(): Maybe<XlmAccountReference> =
         maybeDefaultXlmAccount().map(XlmAccount::toReference)
 
+    /**
+     * The account's history, newest first. Only operations since the last call are fetched, the rest
+     * come from the locally stored history.
+     */
     fun getTransactionList(accountReference: XlmAccountReference): Single<List<XlmTransaction>> =
         Single.fromCallable {
-            horizonProxy.getTransactionList(accountReference.accountId)
-                .map(accountReference.accountId, horizonProxy)
+            historySync.refresh(accountReference.accountId)
+        }.ensureUrlUpdated()
+
+    /**
+     * Extends the account's history with the next page of older transactions and returns all of it,
+     * newest first.
+     */
+    fun getOlderTransactions(accountReference: XlmAccountReference): Single<List<XlmTransaction>> =
+        Single.fromCallable {
+            historySync.loadOlder(accountReference.accountId)
         }.ensureUrlUpdated()
 
     fun getTransactionList(): Single<List<XlmTransaction>> =
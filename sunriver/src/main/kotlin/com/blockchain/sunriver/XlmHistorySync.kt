@@ -0,0 +1,217 @@
+package com.blockchain.sunriver
+
+import com.blockchain.preferences.XlmHistoryPrefs
+import com.blockchain.serialization.JsonSerializable
+import com.blockchain.serialization.fromMoshiJson
+import com.blockchain.serialization.toMoshiJson
+import com.blockchain.sunriver.models.XlmTransaction
+import info.blockchain.balance.CryptoCurrency
+import info.blockchain.balance.CryptoValue
+import org.stellar.sdk.requests.RequestBuilder
+import org.stellar.sdk.responses.operations.CreateAccountOperationResponse
+import org.stellar.sdk.responses.operations.OperationResponse
+import org.stellar.sdk.responses.operations.PaymentOperationResponse
+import java.math.BigInteger
+
+/**
+ * Keeps a local copy of each account's mapped XLM history, along with the paging tokens of the
+ * newest and oldest operations it covers. A refresh then only asks Horizon for operations newer than
+ * the newest token, and older history is paged in backwards from the oldest token on request.
+ * Only the newest [MAX_STORED_TRANSACTIONS] are written to disk.
+ *
+ * Transactions whose memo and fee couldn't be read are kept, so the history has no gaps, but are
+ * marked so that later syncs try to read them again.
+ */
+internal class XlmHistorySync(
+    private val horizonProxy: HorizonProxy,
+    private val prefs: XlmHistoryPrefs,
+    private val transactionDetails: TransactionDetailsCache
+) {
+    private val histories = mutableMapOf<String, XlmHistory>()
+
+    /**
+     * Fetches any operations since the last sync and returns the whole known history, newest first.
+     */
+    @Synchronized
+    fun refresh(accountId: String): List<XlmTransaction> {
+        val history = load(accountId)
+        val updated = if (history?.newestCursor == null) {
+            val page = horizonProxy.getTransactionList(accountId)
+            XlmHistory(
+                newestCursor = page.firstOrNull()?.pagingToken,
+                oldestCursor = page.lastOrNull()?.pagingToken,
+                hasOlder = page.size >= PAGE_SIZE,
+                transactions = page.toStored(accountId)
+            )
+        } else {
+            history.withNewer(accountId).withDetailsRetried()
+        }
+        save(accountId, updated)
+        return updated.transactions.map { it.toXlmTransaction() }
+    }
+
+    /**
+     * Pages in the next [PAGE_SIZE] operations older than those already known, and returns the whole
+     * known history, newest first.
+     */
+    @Synchronized
+    fun loadOlder(accountId: String): List<XlmTransaction> {
+        val history = load(accountId) ?: return refresh(accountId)
+        if (!history.hasOlder || history.oldestCursor == null) {
+            return history.transactions.map { it.toXlmTransaction() }
+        }
+        val page = horizonProxy.getOperations(
+            accountId,
+            cursor = history.oldestCursor,
+            order = RequestBuilder.Order.DESC,
+            limit = PAGE_SIZE
+        )
+        val updated = history.copy(
+            oldestCursor = page.lastOrNull()?.pagingToken ?: history.oldestCursor,
+            hasOlder = page.size >= PAGE_SIZE,
+            transactions = history.transactions + page.toStored(accountId)
+        )
+        save(accountId, updated)
+        return updated.transactions.map { it.toXlmTransaction() }
+    }
+
+    private fun XlmHistory.withNewer(accountId: String): XlmHistory {
+        var cursor = newestCursor
+        val newer = mutableListOf<StoredXlmTransaction>()
+        do {
+            // Ascending from the watermark, so each page follows on from the last
+            val page = horizonProxy.getOperations(
+                accountId,
+                cursor = cursor,
+                order = RequestBuilder.Order.ASC,
+                limit = MAX_PAGE_SIZE
+            )
+            newer.addAll(page.toStored(accountId))
+            cursor = page.lastOrNull()?.pagingToken ?: cursor
+        } while (page.size >= MAX_PAGE_SIZE)
+
+        return if (newer.isEmpty()) {
+            this
+        } else {
+            copy(newestCursor = cursor, transactions = newer.asReversed() + transactions)
+        }
+    }
+
+    private fun XlmHistory.withDetailsRetried(): XlmHistory {
+        val missing = transactions.filter { it.detailsMissing }.take(MAX_DETAIL_RETRIES)
+        if (missing.isEmpty()) {
+            return this
+        }
+        val found = missing.mapNotNull { tx ->
+            transactionDetails(tx.hash, horizonProxy, transactionDetails)?.let { tx.hash to it }
+        }.toMap()
+        return copy(
+            transactions = transactions.map { tx -> found[tx.hash]?.let { tx.withDetails(it) } ?: tx }
+        )
+    }
+
+    // Written to disk without the oldest transactions, which are then paged in again if asked for
+    private fun XlmHistory.capped(): XlmHistory =
+        if (transactions.size > MAX_STORED_TRANSACTIONS) {
+            val kept = transactions.take(MAX_STORED_TRANSACTIONS)
+            copy(
+                oldestCursor = kept.last().pagingToken,
+                hasOlder = true,
+                transactions = kept
+            )
+        } else {
+            this
+        }
+
+    private fun List<OperationResponse>.toStored(accountId: String): List<StoredXlmTransaction> =
+        filter { it is CreateAccountOperationResponse || it is PaymentOperationResponse }
+            .map {
+                val tx = mapOperationResponse(it, accountId, horizonProxy, transactionDetails)
+                // Mapping caches the details whenever it could read them
+                tx.toStored(it.pagingToken, detailsMissing = transactionDetails[it.transactionHash] == null)
+            }
+
+    private fun load(accountId: String): XlmHistory? =
+        histories[accountId] ?: prefs.getXlmHistory(accountId)?.let {
+            try {
+                XlmHistory::class.fromMoshiJson(it).also { history ->
+                    // Moshi's reflective adapter doesn't enforce Kotlin nullability, so a blob
+                    // written by another build can decode with nulls in non-null fields. Mapping
+                    // every transaction here makes that fail now, rather than when it's read.
+                    history.transactions.forEach { tx -> tx.toXlmTransaction() }
+                }
+            } catch (e: Exception) {
+                // Unreadable, so start again from the latest page
+                prefs.setXlmHistory(accountId, null)
+                null
+            }
+        }?.also { histories[accountId] = it }
+
+    private fun save(accountId: String, history: XlmHistory) {
+        histories[accountId] = history
+        prefs.setXlmHistory(accountId, history.capped().toMoshiJson())
+    }
+
+    companion object {
+        private const val PAGE_SIZE = 50
+        // The most Horizon will return in a single page
+        private const val MAX_PAGE_SIZE = 200
+        private const val MAX_STORED_TRANSACTIONS = 500
+        private const val MAX_DETAIL_RETRIES = 20
+    }
+}
+
+internal data class XlmHistory(
+    val newestCursor: String?,
+    val oldestCursor: String?,
+    val hasOlder: Boolean,
+    val transactions: List<StoredXlmTransaction>
+) : JsonSerializable
+
+internal data class StoredXlmTransaction(
+    val pagingToken: String?,
+    val timeStamp: String,
+    val value: String,
+    val fee: String,
+    val hash: String,
+    val memoValue: String,
+    val memoType: String?,
+    val to: String,
+    val from: String,
+    val detailsMissing: Boolean
+) : JsonSerializable
+
+private fun XlmTransaction.toStored(pagingToken: String?, detailsMissing: Boolean) =
+    StoredXlmTransaction(
+        pagingToken = pagingToken,
+        timeStamp = timeStamp,
+        value = value.toBigInteger().toString(),
+        fee = fee.toBigInteger().toString(),
+        hash = hash,
+        memoValue = memo.value,
+        memoType = memo.type,
+        to = to.accountId,
+        from = from.accountId,
+        detailsMissing = detailsMissing
+    )
+
+private fun StoredXlmTransaction.withDetails(details: TransactionDetails): StoredXlmTransaction {
+    val memo = mapMemo(details.memo)
+    return copy(
+        fee = details.fee.toBigInteger().toString(),
+        memoValue = memo.value,
+        memoType = memo.type,
+        detailsMissing = false
+    )
+}
+
+private fun StoredXlmTransaction.toXlmTransaction() =
+    XlmTransaction(
+        timeStamp = timeStamp,
+        value = CryptoValue.fromMinor(CryptoCurrency.XLM, BigInteger(value)),
+        fee = CryptoValue.fromMinor(CryptoCurrency.XLM, BigInteger(fee)),
+        hash = hash,
+        memo = Memo(memoValue, memoType),
+        to = HorizonKeyPair.Public(to),
+        from = HorizonKeyPair.Public(from)
+    )
@@ -3,7 +3,10 @@ package com.blockchain.sunriver
 import com.blockchain.testutils.lumens
 import com.blockchain.testutils.stroops
 import com.nhaarman.mockito_kotlin.any
+import com.nhaarman.mockito_kotlin.doThrow
 import com.nhaarman.mockito_kotlin.mock
+import com.nhaarman.mockito_kotlin.times
+import com.nhaarman.mockito_kotlin.verify
 import org.amshove.kluent.`it returns`
 import org.amshove.kluent.`should equal`
 import org.amshove.kluent.`should throw`
@@ -115,6 +118,56 @@ class HorizonOperationMappingTest {
             }
     }
 
+    @Test
+    fun `transaction details are only fetched once per transaction`() {
+        val myAccount = "GDCERC7BR5N6NFK5B74XTTTA5OLC3YPWODQ5CHKRCRU6IVXFYP364JG7"
+        val otherAccount = "GBPF72LVHGENTAC6JCBDU6KG6GNTQIHTTIYZGURQQL3CWXEBVNSUVFPL"
+        val horizonProxy = givenHorizonProxy(100)
+        val cache = TransactionDetailsCache()
+        val operations = listOf(
+            mock<PaymentOperationResponse> {
+                on { from } `it returns` myAccount
+                on { to } `it returns` otherAccount
+                on { transactionHash } `it returns` "ABCD"
+                on { amount } `it returns` 50.lumens().toStringWithoutSymbol()
+            },
+            mock<CreateAccountOperationResponse> {
+                on { funder } `it returns` myAccount
+                on { account } `it returns` otherAccount
+                on { transactionHash } `it returns` "ABCD"
+                on { startingBalance } `it returns` 100.lumens().toStringWithoutSymbol()
+            }
+        )
+
+        operations.map(myAccount, horizonProxy, cache)
+            .map { it.fee } `should equal` listOf(100.stroops(), 100.stroops())
+        operations.map(myAccount, horizonProxy, cache)
+
+        verify(horizonProxy, times(1)).getTransaction("ABCD")
+        cache.size() `should equal` 1
+    }
+
+    @Test
+    fun `failed transaction reads map with no fee and are not cached`() {
+        val myAccount = "GDCERC7BR5N6NFK5B74XTTTA5OLC3YPWODQ5CHKRCRU6IVXFYP364JG7"
+        val otherAccount = "GBPF72LVHGENTAC6JCBDU6KG6GNTQIHTTIYZGURQQL3CWXEBVNSUVFPL"
+        val horizonProxy: HorizonProxy = mock {
+            on { getTransaction(any()) } doThrow NoSuchMethodError()
+        }
+        val cache = TransactionDetailsCache()
+        mapOperationResponse(mock<PaymentOperationResponse> {
+            on { from } `it returns` otherAccount
+            on { to } `it returns` myAccount
+            on { transactionHash } `it returns` "ABCD"
+            on { amount } `it returns` 50.lumens().toStringWithoutSymbol()
+        }, myAccount, horizonProxy, cache)
+            .apply {
+                fee `should equal` 0.stroops()
+                value `should equal` 50.lumens()
+            }
+        cache.size() `should equal` 0
+    }
+
     private fun givenHorizonProxy(fee: Long): HorizonProxy {
         val mockTx: TransactionResponse = mock {
             on { feeCharged } `it returns` fee
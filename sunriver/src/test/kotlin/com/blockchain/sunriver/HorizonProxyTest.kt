@@ -176,7 +176,7 @@ class HorizonProxyTest : AutoCloseKoinTest() {
     @Test
     fun `get xlm transaction history`() {
         server.expect().get().withPath(
-            "/accounts/GC7GSOOQCBBWNUOB6DIWNVM7537UKQ353H6LCU3DB54NUTVFR2T6OHF4/operations?order=desc&limit=50"
+            "/accounts/GC7GSOOQCBBWNUOB6DIWNVM7537UKQ353H6LCU3DB54NUTVFR2T6OHF4/operations?order=desc&limit=50&join=transactions"
         ).andReturn(
             200,
             getStringFromResource("transactions/transaction_list.json")
@@ -199,7 +199,7 @@ class HorizonProxyTest : AutoCloseKoinTest() {
     @Test
     fun `get xlm transaction history if not found`() {
         server.expect().get().withPath(
-            "/accounts/GC7GSOOQCBBWNUOB6DIWNVM7537UKQ353H6LCU3DB54NUTVFR2T6OHF4/operations?order=desc&limit=50"
+            "/accounts/GC7GSOOQCBBWNUOB6DIWNVM7537UKQ353H6LCU3DB54NUTVFR2T6OHF4/operations?order=desc&limit=50&join=transactions"
         ).andReturn(
             404,
             getStringFromResource("accounts/not_found.json")
@@ -219,7 +219,7 @@ class HorizonProxyTest : AutoCloseKoinTest() {
     @Test
     fun `get xlm transaction history, on any other kind of server error, bubble up exception`() {
         server.expect().get().withPath(
-            "/accounts/GC7GSOOQCBBWNUOB6DIWNVM7537UKQ353H6LCU3DB54NUTVFR2T6OHF4/operations?order=desc&limit=50"
+            "/accounts/GC7GSOOQCBBWNUOB6DIWNVM7537UKQ353H6LCU3DB54NUTVFR2T6OHF4/operations?order=desc&limit=50&join=transactions"
         ).andReturn(
             301,
             getStringFromResource("accounts/not_found.json")
@@ -0,0 +1,18 @@
+package com.blockchain.sunriver
+
+import com.blockchain.preferences.XlmHistoryPrefs
+
+internal class InMemoryXlmHistoryPrefs : XlmHistoryPrefs {
+
+    private val histories = mutableMapOf<String, String>()
+
+    override fun getXlmHistory(accountId: String): String? = histories[accountId]
+
+    override fun setXlmHistory(accountId: String, data: String?) {
+        if (data != null) {
+            histories[accountId] = data
+        } else {
+            histories.remove(accountId)
+        }
+    }
+}
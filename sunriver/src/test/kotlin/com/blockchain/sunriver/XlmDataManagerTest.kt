@@ -4,6 +4,7 @@ import com.blockchain.fees.FeeType
 import com.blockchain.logging.CustomEventBuilder
 import com.blockchain.logging.EventLogger
 import com.blockchain.logging.LastTxUpdater
+import com.blockchain.preferences.XlmHistoryPrefs
 import com.blockchain.sunriver.datamanager.XlmAccount
 import com.blockchain.sunriver.datamanager.XlmMetaData
 import com.blockchain.sunriver.datamanager.XlmMetaDataInitializer
@@ -1281,7 +1282,8 @@ private fun givenXlmDataManager(
     feesFetcher: XlmFeesFetcher = givenXlmFees(999.stroops()),
     timeoutFetcher: XlmTransactionTimeoutFetcher = givenTimeoutFetcher(10),
     lastTxUpdater: LastTxUpdater = givenLastTxUpdater(),
-    eventLogger: EventLogger = mock()
+    eventLogger: EventLogger = mock(),
+    historyPrefs: XlmHistoryPrefs = InMemoryXlmHistoryPrefs()
 ): XlmDataManager {
 
     return XlmDataManager(
@@ -1293,6 +1295,7 @@ private fun givenXlmDataManager(
         timeoutFetcher,
         lastTxUpdater,
         eventLogger,
+        historyPrefs,
         urlFetcher(),
         "")
 }
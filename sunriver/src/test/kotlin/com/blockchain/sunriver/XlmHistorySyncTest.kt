@@ -0,0 +1,167 @@
+package com.blockchain.sunriver
+
+import com.blockchain.testutils.lumens
+import com.blockchain.testutils.stroops
+import com.nhaarman.mockito_kotlin.any
+import com.nhaarman.mockito_kotlin.eq
+import com.nhaarman.mockito_kotlin.mock
+import com.nhaarman.mockito_kotlin.never
+import com.nhaarman.mockito_kotlin.times
+import com.nhaarman.mockito_kotlin.verify
+import com.nhaarman.mockito_kotlin.whenever
+import org.amshove.kluent.`it returns`
+import org.amshove.kluent.`should equal`
+import org.junit.Test
+import org.stellar.sdk.requests.RequestBuilder
+import org.stellar.sdk.responses.TransactionResponse
+import org.stellar.sdk.responses.operations.OperationResponse
+import org.stellar.sdk.responses.operations.PaymentOperationResponse
+
+class XlmHistorySyncTest {
+
+    private val myAccount = "GDCERC7BR5N6NFK5B74XTTTA5OLC3YPWODQ5CHKRCRU6IVXFYP364JG7"
+    private val otherAccount = "GBPF72LVHGENTAC6JCBDU6KG6GNTQIHTTIYZGURQQL3CWXEBVNSUVFPL"
+
+    private val mockTx: TransactionResponse = mock {
+        on { feeCharged } `it returns` 100L
+    }
+    private val horizonProxy: HorizonProxy = mock {
+        on { getTransaction(any()) } `it returns` mockTx
+    }
+    private val prefs = InMemoryXlmHistoryPrefs()
+
+    private fun givenSync() = XlmHistorySync(horizonProxy, prefs, TransactionDetailsCache())
+
+    @Test
+    fun `first refresh reads the latest page`() {
+        whenever(horizonProxy.getTransactionList(myAccount)) `it returns` listOf(payment("3", 3), payment("2", 2))
+
+        givenSync().refresh(myAccount).map { it.hash } `should equal` listOf("3", "2")
+    }
+
+    @Test
+    fun `later refreshes only ask for operations after the newest known`() {
+        whenever(horizonProxy.getTransactionList(myAccount)) `it returns` listOf(payment("2", 2))
+        whenever(
+            horizonProxy.getOperations(eq(myAccount), eq("2"), eq(RequestBuilder.Order.ASC), any())
+        ) `it returns` listOf(payment("3", 3), payment("4", 4))
+        val sync = givenSync()
+
+        sync.refresh(myAccount)
+        sync.refresh(myAccount).map { it.hash } `should equal` listOf("4", "3", "2")
+
+        verify(horizonProxy, times(1)).getTransactionList(myAccount)
+    }
+
+    @Test
+    fun `history survives a restart`() {
+        whenever(horizonProxy.getTransactionList(myAccount)) `it returns` listOf(payment("2", 2))
+        whenever(
+            horizonProxy.getOperations(eq(myAccount), eq("2"), eq(RequestBuilder.Order.ASC), any())
+        ) `it returns` emptyList()
+
+        givenSync().refresh(myAccount)
+        givenSync().refresh(myAccount)
+            .apply {
+                map { it.hash } `should equal` listOf("2")
+                first().value `should equal` (-2).lumens()
+                first().fee `should equal` 100.stroops()
+            }
+
+        verify(horizonProxy, times(1)).getTransactionList(myAccount)
+    }
+
+    @Test
+    fun `older history is paged in from the oldest known`() {
+        val latest = (60 downTo 11).map { payment("$it", it) }
+        whenever(horizonProxy.getTransactionList(myAccount)) `it returns` latest
+        whenever(
+            horizonProxy.getOperations(eq(myAccount), eq("11"), eq(RequestBuilder.Order.DESC), any())
+        ) `it returns` (10 downTo 1).map { payment("$it", it) }
+        val sync = givenSync()
+
+        sync.refresh(myAccount)
+        sync.loadOlder(myAccount).map { it.hash } `should equal` (60 downTo 1).map { "$it" }
+
+        // Last page was short, so there's nothing older to ask for
+        sync.loadOlder(myAccount).size `should equal` 60
+        verify(horizonProxy, times(1))
+            .getOperations(any(), any(), eq(RequestBuilder.Order.DESC), any())
+    }
+
+    @Test
+    fun `only the newest transactions are stored`() {
+        whenever(horizonProxy.getTransactionList(myAccount)) `it returns` listOf(payment("1", 1))
+        whenever(
+            horizonProxy.getOperations(eq(myAccount), eq("1"), eq(RequestBuilder.Order.ASC), any())
+        ) `it returns` (2..201).map { payment("$it", it) }
+        whenever(
+            horizonProxy.getOperations(eq(myAccount), eq("201"), eq(RequestBuilder.Order.ASC), any())
+        ) `it returns` (202..600).map { payment("$it", it) }
+        whenever(
+            horizonProxy.getOperations(eq(myAccount), eq("101"), eq(RequestBuilder.Order.DESC), any())
+        ) `it returns` (100 downTo 51).map { payment("$it", it) }
+        val sync = givenSync()
+
+        sync.refresh(myAccount)
+        sync.refresh(myAccount).size `should equal` 600
+
+        val restarted = givenSync()
+        restarted.refresh(myAccount)
+            .apply {
+                size `should equal` 500
+                first().hash `should equal` "600"
+            }
+        // What was left off the disk is paged in again from the oldest stored
+        restarted.loadOlder(myAccount).last().hash `should equal` "51"
+    }
+
+    @Test
+    fun `transactions whose details failed to load are fetched again`() {
+        whenever(horizonProxy.getTransactionList(myAccount)) `it returns` listOf(payment("2", 2))
+        whenever(horizonProxy.getTransaction("2"))
+            .thenThrow(RuntimeException())
+            .thenReturn(mockTx)
+        whenever(
+            horizonProxy.getOperations(eq(myAccount), eq("2"), eq(RequestBuilder.Order.ASC), any())
+        ) `it returns` emptyList()
+        val sync = givenSync()
+
+        sync.refresh(myAccount).first().fee `should equal` 0.stroops()
+        sync.refresh(myAccount).first().fee `should equal` 100.stroops()
+        sync.refresh(myAccount)
+
+        verify(horizonProxy, times(2)).getTransaction("2")
+        givenSync().refresh(myAccount).first().fee `should equal` 100.stroops()
+    }
+
+    @Test
+    fun `unreadable history starts again from the latest page`() {
+        prefs.setXlmHistory(myAccount, "not json")
+        whenever(horizonProxy.getTransactionList(myAccount)) `it returns` listOf(payment("1", 1))
+
+        givenSync().refresh(myAccount).map { it.hash } `should equal` listOf("1")
+
+        verify(horizonProxy, never()).getOperations(any(), any(), any(), any())
+    }
+
+    @Test
+    fun `history with missing fields starts again from the latest page`() {
+        prefs.setXlmHistory(myAccount, """{"newestCursor":"5","transactions":[{"hash":"5"}]}""")
+        whenever(horizonProxy.getTransactionList(myAccount)) `it returns` listOf(payment("1", 1))
+
+        givenSync().refresh(myAccount).map { it.hash } `should equal` listOf("1")
+
+        verify(horizonProxy, never()).getOperations(any(), any(), any(), any())
+    }
+
+    private fun payment(token: String, lumens: Int): OperationResponse =
+        mock<PaymentOperationResponse> {
+            on { pagingToken } `it returns` token
+            on { transactionHash } `it returns` token
+            on { createdAt } `it returns` "TIME"
+            on { from } `it returns` myAccount
+            on { to } `it returns` otherAccount
+            on { amount } `it returns` lumens.lumens().toStringWithoutSymbol()
+        }
+}
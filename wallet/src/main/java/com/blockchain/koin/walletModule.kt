@@ -3,6 +3,7 @@ package com.blockchain.koin
 import info.blockchain.wallet.api.dust.BchDustService
 import info.blockchain.wallet.api.dust.DustApi
 import info.blockchain.wallet.api.dust.DustService
+import info.blockchain.wallet.bip44.DerivedAddressCache
 import info.blockchain.wallet.metadata.MetadataService
 import info.blockchain.wallet.metadata.MetadataInteractor
 import info.blockchain.wallet.multiaddress.MultiAddressFactory
@@ -56,8 +57,10 @@ val walletModule = module {
         object : PayloadManagerWiper {
             override fun wipe() {
                 if (!payloadScope.closed) {
+                    payloadScope.getOrNull<PayloadManager>()?.payload?.walletBody?.masterSeed?.clear()
                     payloadScope.close()
                 }
+                DerivedAddressCache.shared().clear()
             }
         }
     }.bind(PayloadManagerWiper::class)
@@ -2,6 +2,7 @@ package info.blockchain.wallet
 
 import com.blockchain.api.NonCustodialBitcoinService
 import info.blockchain.wallet.bch.BchMainNetParams
+import info.blockchain.wallet.bip44.MasterSeed
 import info.blockchain.wallet.crypto.DeterministicAccount
 import info.blockchain.wallet.crypto.DeterministicWallet
 import info.blockchain.wallet.exceptions.HDWalletException
@@ -53,6 +54,15 @@ open class BitcoinCashWallet : DeterministicWallet {
         setupApi(bitcoinApi)
     }
 
+    private constructor(
+        bitcoinApi: NonCustodialBitcoinService,
+        params: NetworkParameters,
+        coinPath: String,
+        masterSeed: MasterSeed
+    ) : super(params, coinPath, masterSeed) {
+        setupApi(bitcoinApi)
+    }
+
     private constructor(bitcoinApi: NonCustodialBitcoinService, params: NetworkParameters) : super(params) {
         setupApi(bitcoinApi)
     }
@@ -324,6 +334,20 @@ open class BitcoinCashWallet : DeterministicWallet {
             return BitcoinCashWallet(bitcoinApi, params, coinPath, mnemonic, passphrase)
         }
 
+        /**
+         * Restores the wallet from a seed that has already been derived, rather than deriving it
+         * again from the mnemonic.
+         */
+        @Synchronized
+        fun restore(
+            bitcoinApi: NonCustodialBitcoinService,
+            coinPath: String,
+            masterSeed: MasterSeed
+        ): BitcoinCashWallet {
+            val params = BchMainNetParams.get()
+            return BitcoinCashWallet(bitcoinApi, params, coinPath, masterSeed)
+        }
+
         @Synchronized
         fun createWatchOnly(
             bitcoinApi: NonCustodialBitcoinService,
@@ -6,7 +6,7 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import info.blockchain.wallet.util.JsonMappers;
 import java.io.IOException;
 
 @JsonInclude(JsonInclude.Include.NON_NULL)
@@ -37,6 +37,6 @@ public class Fee {
 
     @JsonIgnore
     public static Fee fromJson(String json) throws IOException {
-        return new ObjectMapper().readValue(json, Fee.class);
+        return JsonMappers.fromJson(json, Fee.class);
     }
 }
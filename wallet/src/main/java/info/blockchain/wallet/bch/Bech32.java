@@ -1,16 +1,51 @@
 package info.blockchain.wallet.bch;
 
-import com.google.common.primitives.Bytes;
-
 import org.bitcoinj.core.AddressFormatException;
 
-import java.math.BigInteger;
-import java.util.ArrayList;
-
+/**
+ * CashAddr flavour of Bech32: a ':' separator and a 40 bit BCH checksum.
+ *
+ * The checksum is kept in a long and stepped with a table of the generator combinations, so
+ * encoding and decoding allocate nothing beyond the strings and arrays they return.
+ */
 public class Bech32 {
 
     private static final String CHARSET = "qpzry9x8gf2tvdw0s3jn54khce6mua7l";
     private static final int CSLEN = 8;
+    private static final int MAX_LENGTH = 90;
+
+    private static final long[] GENERATORS = {
+        0x98f2bc8e61L,
+        0x79b76d99e2L,
+        0xf33e5fb3c4L,
+        0xae2eabe2a8L,
+        0x1e4f43e470L
+    };
+
+    // POLYMOD_TABLE[b] is the xor of the generators selected by the five bits of b
+    private static final long[] POLYMOD_TABLE = new long[32];
+
+    // Each charset character's 5 bit value, or -1
+    private static final byte[] CHARSET_REV = new byte[128];
+
+    static {
+        for (int b = 0; b < POLYMOD_TABLE.length; b++) {
+            long v = 0;
+            for (int i = 0; i < GENERATORS.length; i++) {
+                if (((b >> i) & 1) != 0) {
+                    v ^= GENERATORS[i];
+                }
+            }
+            POLYMOD_TABLE[b] = v;
+        }
+
+        for (int i = 0; i < CHARSET_REV.length; i++) {
+            CHARSET_REV[i] = -1;
+        }
+        for (int i = 0; i < CHARSET.length(); i++) {
+            CHARSET_REV[CHARSET.charAt(i)] = (byte) i;
+        }
+    }
 
     public String prefix;
     public byte[] words;
@@ -20,173 +55,151 @@ public class Bech32 {
         this.words = words;
     }
 
-    private static BigInteger polymod (BigInteger pre) {
-        BigInteger b = pre.shiftRight(35);
-        BigInteger mask = new BigInteger("07ffffffff", 16);
-
-        BigInteger v = pre.and(mask).shiftLeft(5);
-
-        if (b.and(BigInteger.valueOf(1)).intValue() > 0) {
-            v = v.xor(new BigInteger("98f2bc8e61", 16));
-        }
-
-        if (b.and(BigInteger.valueOf(2)).intValue() > 0) {
-            v = v.xor(new BigInteger("79b76d99e2", 16));
-        }
-
-        if (b.and(BigInteger.valueOf(4)).intValue() > 0) {
-            v = v.xor(new BigInteger("f33e5fb3c4", 16));
-        }
-
-        if (b.and(BigInteger.valueOf(8)).intValue() > 0) {
-            v = v.xor(new BigInteger("ae2eabe2a8", 16));
-        }
-
-        if (b.and(BigInteger.valueOf(16)).intValue() > 0) {
-            v = v.xor(new BigInteger("1e4f43e470", 16));
-        }
-
-        return v;
+    private static long polymod(long pre) {
+        return ((pre & 0x07ffffffffL) << 5) ^ POLYMOD_TABLE[(int) (pre >>> 35)];
     }
 
     public static Bech32 decode(String str) {
         if (str.length() < 8) {
             throw new AddressFormatException("bech32 input too short");
         }
-        if (str.length() > 90) {
+        if (str.length() > MAX_LENGTH) {
             throw new AddressFormatException("bech32 input too long");
         }
 
-        String lowered = str.toLowerCase();
-        String uppered = str.toUpperCase();
-        if (!str.equals(lowered) && !str.equals(uppered)) {
+        boolean hasLower = false;
+        boolean hasUpper = false;
+        for (int i = 0; i < str.length(); i++) {
+            char c = str.charAt(i);
+            hasLower |= Character.isLowerCase(c);
+            hasUpper |= Character.isUpperCase(c);
+        }
+        if (hasLower && hasUpper) {
             throw new AddressFormatException("bech32 cannot mix upper and lower case");
         }
 
-        str = lowered;
+        if (hasUpper) {
+            str = str.toLowerCase();
+        }
 
-        int split = str.lastIndexOf(":");
+        int split = str.lastIndexOf(':');
         if (split < 1) {
             throw new AddressFormatException("bech32 missing separator");
         }
-        if (split == 0) {
-            throw new AddressFormatException("bech32 missing prefix");
-        }
-
-        String prefix = str.substring(0, split);
-        String wordChars = str.substring(split + 1);
 
-        if (wordChars.length() < 6) {
+        int dataLength = str.length() - split - 1;
+        if (dataLength < 6) {
             throw new AddressFormatException("bech32 data too short");
         }
 
-        BigInteger chk = prefixChk(prefix);
-        ArrayList<BigInteger> words = new ArrayList<>();
+        long chk = prefixChk(str, split);
+        byte[] words = new byte[Math.max(0, dataLength - CSLEN)];
 
-        for(int i = 0; i < wordChars.length(); i++) {
-
-            int c = wordChars.charAt(i);
-            byte v = (byte) CHARSET.indexOf(c);
-            if (CHARSET.indexOf(wordChars.charAt(v)) == -1) {
-                throw new AddressFormatException("bech32 characters  out of range");
+        for (int i = 0; i < dataLength; i++) {
+            char c = str.charAt(split + 1 + i);
+            byte v = c < CHARSET_REV.length ? CHARSET_REV[c] : -1;
+            if (v == -1) {
+                throw new AddressFormatException("bech32 characters out of range");
             }
 
-            chk = polymod(chk).xor(BigInteger.valueOf(v));
+            chk = polymod(chk) ^ v;
             // not in the checksum?
-            if (i + CSLEN >= wordChars.length()) {
-                continue;
+            if (i < words.length) {
+                words[i] = v;
             }
-
-            words.add(BigInteger.valueOf(v));
         }
 
-        if (chk.intValue() != 1) {
+        if (chk != 1) {
             throw new AddressFormatException("invalid bech32 checksum");
         }
 
-        return new Bech32(prefix, Bytes.toArray(words));
+        return new Bech32(str.substring(0, split), words);
     }
 
     public static String encode(String prefix, byte[] words) {
         // too long?
-        if ((prefix.length() + CSLEN + 1 + words.length) > 90) {
+        if ((prefix.length() + CSLEN + 1 + words.length) > MAX_LENGTH) {
             throw new AddressFormatException("Exceeds Base32 maximum length");
         }
 
         prefix = prefix.toLowerCase();
 
         // determine chk mod
-        BigInteger chk = prefixChk(prefix);
-        String result = prefix + ":";
+        long chk = prefixChk(prefix, prefix.length());
+        StringBuilder result = new StringBuilder(prefix.length() + 1 + words.length + CSLEN);
+        result.append(prefix).append(':');
 
-        for (int i = 0; i < words.length; i++) {
-            byte x = words[i];
+        for (byte x : words) {
             if ((x >> 5) != 0) {
                 throw new AddressFormatException("Non 5-bit word");
             }
 
-            chk = polymod(chk).xor(BigInteger.valueOf(x));
-            result += CHARSET.charAt(x);
+            chk = polymod(chk) ^ x;
+            result.append(CHARSET.charAt(x));
         }
 
-        for (int i = 0; i < CSLEN; i ++) {
+        for (int i = 0; i < CSLEN; i++) {
             chk = polymod(chk);
         }
-        chk = chk.xor(BigInteger.valueOf(1));
-        for (int i = 0; i < CSLEN; i ++) {
+        chk ^= 1;
+        for (int i = 0; i < CSLEN; i++) {
             int pos = 5 * (CSLEN - 1 - i);
-            BigInteger v2 = chk.shiftRight(pos).and(new BigInteger("1f", 16));
-            result += CHARSET.charAt(v2.intValue());
+            result.append(CHARSET.charAt((int) ((chk >>> pos) & 0x1f)));
         }
 
-        return result;
+        return result.toString();
     }
 
-    private static BigInteger prefixChk(String prefix) {
-        BigInteger chk = BigInteger.valueOf(1);
-        for (int i = 0; i < prefix.length(); i++) {
-            BigInteger c = BigInteger.valueOf(Character.codePointAt(prefix, i));
-            BigInteger mixwith = c.and(new BigInteger("1f", 16));
-            chk = polymod(chk).xor(mixwith);
+    /**
+     * Checksum state after the first {@code length} characters of {@code str}, the prefix.
+     */
+    private static long prefixChk(String str, int length) {
+        long chk = 1;
+        for (int i = 0; i < length; i++) {
+            chk = polymod(chk) ^ (str.charAt(i) & 0x1f);
         }
 
-        chk = polymod(chk);
-        return chk;
+        return polymod(chk);
     }
 
     public static byte[] convert(byte[] data, int inBits, int outBits, boolean pad) {
 
-        BigInteger value = BigInteger.valueOf(0);
+        long value = 0;
         int bits = 0;
-        BigInteger maxV = BigInteger.valueOf((1 << outBits) - 1);
-        ArrayList<Byte> result = new ArrayList<>();
+        int maxV = (1 << outBits) - 1;
+        // Only the bits still to be written out need to be kept
+        long maxAcc = (1L << (inBits + outBits - 1)) - 1;
+
+        int totalBits = data.length * inBits;
+        byte[] result = new byte[pad ? (totalBits + outBits - 1) / outBits : totalBits / outBits];
+        int length = 0;
 
-        for (int i = 0; i < data.length; i ++) {
+        for (byte b : data) {
 
-            int unsigned = data[i] & 0xFF;
+            int unsigned = b & 0xFF;
 
-            value = value.shiftLeft(inBits).or(BigInteger.valueOf(unsigned));
+            value = ((value << inBits) | unsigned) & maxAcc;
             bits += inBits;
             while (bits >= outBits) {
                 bits -= outBits;
-                result.add(value.shiftRight(bits).and(maxV).byteValue());
+                result[length++] = (byte) ((value >>> bits) & maxV);
             }
         }
 
         if (pad) {
             if (bits > 0) {
-                result.add(value.shiftLeft(outBits - bits).and(maxV).byteValue());
+                result[length++] = (byte) ((value << (outBits - bits)) & maxV);
             }
         } else {
             if (bits >= inBits) {
                 throw new AddressFormatException("Excess padding");
             }
-            if (value.shiftLeft(outBits - bits).and(maxV).intValue() > 0) {
+            if (((value << (outBits - bits)) & maxV) > 0) {
                 throw new AddressFormatException("Non-zero padding");
             }
         }
 
-        return Bytes.toArray(result);
+        return result;
     }
 
     public static byte[] toWords(byte[] bytes) {
@@ -196,4 +209,4 @@ public class Bech32 {
     public static byte[] fromWords(byte[] words) {
         return convert(words, 5, 8, false);
     }
-}
\ No newline at end of file
+}
@@ -1,7 +1,6 @@
 package info.blockchain.wallet.bch;
 
 import com.google.common.collect.ImmutableBiMap;
-import java.math.BigInteger;
 
 import org.bitcoinj.core.AddressFormatException;
 import org.bitcoinj.core.LegacyAddress;
@@ -13,22 +12,22 @@ public class CashAddress {
     public static final String P2SH = "scripthash";
     public static final String P2PKH = "pubkeyhash";
 
-    private static final ImmutableBiMap<Integer, BigInteger> hashBitMap =
-        new ImmutableBiMap.Builder<Integer, BigInteger>()
-            .put(160, BigInteger.valueOf(0))
-            .put(192, BigInteger.valueOf(1))
-            .put(224, BigInteger.valueOf(2))
-            .put(256, BigInteger.valueOf(3))
-            .put(320, BigInteger.valueOf(4))
-            .put(384, BigInteger.valueOf(5))
-            .put(448, BigInteger.valueOf(6))
-            .put(512, BigInteger.valueOf(7))
+    private static final ImmutableBiMap<Integer, Integer> hashBitMap =
+        new ImmutableBiMap.Builder<Integer, Integer>()
+            .put(160, 0)
+            .put(192, 1)
+            .put(224, 2)
+            .put(256, 3)
+            .put(320, 4)
+            .put(384, 5)
+            .put(448, 6)
+            .put(512, 7)
             .build();
 
-    private static final ImmutableBiMap<String, BigInteger> versionBitMap =
-        new ImmutableBiMap.Builder<String, BigInteger>()
-            .put(P2PKH, BigInteger.valueOf(0))
-            .put(P2SH, BigInteger.valueOf(1))
+    private static final ImmutableBiMap<String, Integer> versionBitMap =
+        new ImmutableBiMap.Builder<String, Integer>()
+            .put(P2PKH, 0)
+            .put(P2SH, 1)
             .build();
 
     public String scriptType;
@@ -41,39 +40,38 @@ public class CashAddress {
         this.hash = hash;
     }
 
-    private static BigInteger createVersion(String scriptType, int hashLengthBits) {
+    private static int createVersion(String scriptType, int hashLengthBits) {
         if ((scriptType.equals(P2PKH) || scriptType.equals(P2SH)) && hashLengthBits != 160) {
             throw new AddressFormatException("Invalid hash length for scriptType");
         }
 
-        return versionBitMap.get(scriptType).shiftLeft(3).or(hashBitMap.get(hashLengthBits));
+        return (versionBitMap.get(scriptType) << 3) | hashBitMap.get(hashLengthBits);
     }
 
     private static byte[] encodePayload(String scriptType, byte[] hash) {
         int hashLength = hash.length;
-        BigInteger version = createVersion(scriptType, hashLength * 8);
+        int version = createVersion(scriptType, hashLength * 8);
 
         byte[] payload = new byte[hash.length + 1];
-        payload[0] = version.byteValue();
+        payload[0] = (byte) version;
 
         System.arraycopy(hash, 0, payload, 1, payload.length - 1);
 
         return payload;
     }
 
-    private static CashAddress.VersionPayload decodeVersion(BigInteger version) {
-        BigInteger last = version.shiftRight(7);
-        if (last.and(BigInteger.ONE).intValue() > 0 || last.compareTo(BigInteger.ZERO) == 1) {
+    private static CashAddress.VersionPayload decodeVersion(int version) {
+        if ((version >> 7) != 0) {
             throw new AddressFormatException("Invalid version, most significant bit is reserved");
         }
 
-        BigInteger versionValue = version.shiftRight(3).and(new BigInteger("0f", 16));
+        int versionValue = (version >> 3) & 0x0f;
         String scriptType = versionBitMap.inverse().get(versionValue);
         if (scriptType == null) {
             throw new AddressFormatException("Invalid script type");
         }
         // all possible values return
-        BigInteger sizeBit = version.and(new BigInteger("07", 16));
+        int sizeBit = version & 0x07;
         Integer hashSize = hashBitMap.inverse().get(sizeBit);
         if ((scriptType.equals(P2PKH) || scriptType.equals(P2SH)) && hashSize != 160) {
             throw new AddressFormatException("Mismatch between script type and hash length");
@@ -100,7 +98,7 @@ public class CashAddress {
             throw new AddressFormatException("Empty payload in address");
         }
 
-        CashAddress.VersionPayload versionInfo = decodeVersion(BigInteger.valueOf(data[0]));
+        CashAddress.VersionPayload versionInfo = decodeVersion(data[0]);
 
         if ((1 + versionInfo.hashSize / 8) != data.length) {
             throw new AddressFormatException("Hash length does not match version");
@@ -0,0 +1,79 @@
+package info.blockchain.wallet.bip44;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.annotation.Nullable;
+
+/**
+ * DerivedAddressCache.java : formatted addresses already derived from a chain, keyed by
+ * (chain xpub, purpose, index). Only public data is held here, never keys.
+ */
+public final class DerivedAddressCache {
+
+    private static final int DEFAULT_MAX_ENTRIES = 4096;
+
+    private static final DerivedAddressCache SHARED = new DerivedAddressCache(DEFAULT_MAX_ENTRIES);
+
+    /**
+     * The cache shared by every {@link HDChain}, so that addresses survive the wallet body being
+     * rebuilt, eg after a second password decrypt. It is cleared when the wallet is wiped, so
+     * one wallet's addresses are never kept into the next session.
+     */
+    public static DerivedAddressCache shared() {
+        return SHARED;
+    }
+
+    private final Map<Key, String> addresses;
+
+    public DerivedAddressCache(final int maxEntries) {
+        addresses = new LinkedHashMap<Key, String>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, String> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    @Nullable
+    public synchronized String get(String xpub, int purpose, int index) {
+        return addresses.get(new Key(xpub, purpose, index));
+    }
+
+    public synchronized void put(String xpub, int purpose, int index, String address) {
+        addresses.put(new Key(xpub, purpose, index), address);
+    }
+
+    public synchronized int size() {
+        return addresses.size();
+    }
+
+    public synchronized void clear() {
+        addresses.clear();
+    }
+
+    private static final class Key {
+        private final String xpub;
+        private final int purpose;
+        private final int index;
+
+        Key(String xpub, int purpose, int index) {
+            this.xpub = xpub;
+            this.purpose = purpose;
+            this.index = index;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key other = (Key) o;
+            return index == other.index && purpose == other.purpose && xpub.equals(other.xpub);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * (31 * xpub.hashCode() + purpose) + index;
+        }
+    }
+}
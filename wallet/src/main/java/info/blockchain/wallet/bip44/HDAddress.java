@@ -85,10 +85,14 @@ public class HDAddress {
      * @return String
      */
     public String getFormattedAddress() {
+        return formatAddress(params, pubKeyHash, purpose);
+    }
+
+    static String formatAddress(NetworkParameters params, byte[] pubKeyHash, int purpose) {
         if (purpose == Derivation.SEGWIT_BECH32_PURPOSE) {
-            return SegwitAddress.fromHash(params, ecKey.getPubKeyHash()).toBech32();
+            return SegwitAddress.fromHash(params, pubKeyHash).toBech32();
         }
-        return LegacyAddress.fromKey(params, ecKey).toBase58();
+        return LegacyAddress.fromPubKeyHash(params, pubKeyHash).toBase58();
     }
 
     /**
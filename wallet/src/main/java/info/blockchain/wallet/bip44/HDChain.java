@@ -4,6 +4,11 @@ import org.bitcoinj.core.NetworkParameters;
 import org.bitcoinj.crypto.DeterministicKey;
 import org.bitcoinj.crypto.HDKeyDerivation;
 
+import java.util.ArrayList;
+import java.util.List;
+
+import info.blockchain.wallet.crypto.AddressDerivationService;
+
 /**
  * HDChain.java : a chain in a BIP44 wallet account
  */
@@ -17,9 +22,14 @@ public class HDChain {
     private final NetworkParameters params;
     private final String xPub;
 
+    private final DerivedAddressCache addressCache;
+    private final AddressDerivationService derivationService;
+
     public static final int RECEIVE_CHAIN = 0;
     public static final int CHANGE_CHAIN = 1;
 
+    private static final int LOOKUP_CHUNK_SIZE = 50;
+
     /**
      * Constructor for a chain.
      *
@@ -28,7 +38,19 @@ public class HDChain {
      * @param isReceive this is the receive chain
      */
     public HDChain(NetworkParameters params, DeterministicKey aKey, boolean isReceive) {
+        this(params, aKey, isReceive, DerivedAddressCache.shared(), AddressDerivationService.getShared());
+    }
+
+    HDChain(
+        NetworkParameters params,
+        DeterministicKey aKey,
+        boolean isReceive,
+        DerivedAddressCache addressCache,
+        AddressDerivationService derivationService
+    ) {
         this.params = params;
+        this.addressCache = addressCache;
+        this.derivationService = derivationService;
         this.isReceive = isReceive;
         int chain = isReceive ? RECEIVE_CHAIN : CHANGE_CHAIN;
         cKey = HDKeyDerivation.deriveChildKey(aKey, chain);
@@ -53,7 +75,98 @@ public class HDChain {
      * @return HDAddress
      */
     public HDAddress getAddressAt(int addrIdx, int purpose) {
-        return new HDAddress(params, cKey, addrIdx, purpose);
+        HDAddress address = new HDAddress(params, cKey, addrIdx, purpose);
+        addressCache.put(xPub, purpose, addrIdx, address.getFormattedAddress());
+        return address;
+    }
+
+    /**
+     * Return the formatted address at provided index into chain, deriving it only if it hasn't
+     * been derived before.
+     *
+     * @return String
+     */
+    public String getFormattedAddressAt(int addrIdx, int purpose) {
+        String address = addressCache.get(xPub, purpose, addrIdx);
+        if (address == null) {
+            address = getAddressAt(addrIdx, purpose).getFormattedAddress();
+        }
+        return address;
+    }
+
+    /**
+     * Return the formatted addresses from fromIdx until toIdx. Addresses that haven't been
+     * derived before are derived as one batch, spread across cores for large ranges.
+     *
+     * @return List of String
+     */
+    public List<String> getFormattedAddressesAt(int fromIdx, int toIdx, final int purpose) {
+        List<String> addresses = new ArrayList<>(toIdx - fromIdx);
+        int firstMissing = -1;
+        int lastMissing = -1;
+        for (int i = fromIdx; i < toIdx; i++) {
+            String address = addressCache.get(xPub, purpose, i);
+            if (address == null) {
+                if (firstMissing < 0) {
+                    firstMissing = i;
+                }
+                lastMissing = i;
+            }
+            addresses.add(address);
+        }
+
+        if (firstMissing >= 0) {
+            List<String> derived = derivationService.deriveRange(
+                cKey,
+                firstMissing,
+                lastMissing + 1,
+                (index, key) -> HDAddress.formatAddress(params, key.getPubKeyHash(), purpose)
+            );
+            for (int i = 0; i < derived.size(); i++) {
+                int index = firstMissing + i;
+                addresses.set(index - fromIdx, derived.get(i));
+                addressCache.put(xPub, purpose, index, derived.get(i));
+            }
+        }
+        return addresses;
+    }
+
+    /**
+     * Return the index of address among the first toIdx addresses of this chain, or -1 if it isn't
+     * one of them. Addresses that haven't been derived before are derived in chunks, and the chunks
+     * after the one the address is found in are cancelled.
+     *
+     * @return int
+     */
+    public int findAddressIndex(final String address, int toIdx, final int purpose) {
+        int firstMissing = -1;
+        for (int i = 0; i < toIdx; i++) {
+            String cached = addressCache.get(xPub, purpose, i);
+            if (address.equals(cached)) {
+                return i;
+            } else if (cached == null && firstMissing < 0) {
+                firstMissing = i;
+            }
+        }
+        if (firstMissing < 0) {
+            return -1;
+        }
+
+        return derivationService.deriveChunks(
+            cKey,
+            firstMissing,
+            toIdx,
+            LOOKUP_CHUNK_SIZE,
+            (index, key) -> {
+                String formatted = HDAddress.formatAddress(params, key.getPubKeyHash(), purpose);
+                addressCache.put(xPub, purpose, index, formatted);
+                return formatted.equals(address) ? index : -1;
+            }
+        )
+            .concatMapIterable(chunk -> chunk)
+            .filter(index -> index >= 0)
+            .first(-1)
+            .blockingGet();
     }
 
     /**
@@ -18,11 +18,11 @@ import info.blockchain.wallet.util.HexUtils;
  */
 public class HDWallet {
 
-    private byte[] seed = null;
+    // Read on use rather than copied, so that clearing it wipes the seed for every wallet sharing it
+    private MasterSeed masterSeed = null;
     private String strPassphrase = null;
     private List<String> wordList = null;
 
-    private final byte[] hd_seed;
     private DeterministicKey dkKey = null;
     private DeterministicKey dkRoot = null;
 
@@ -36,27 +36,42 @@ public class HDWallet {
     /**
      * Constructor for wallet.
      *
-     * @param mc         mnemonic code object
+     * @param codec      mnemonic codec for the wallet's language
      * @param seed       seed for this wallet
      * @param passphrase optional BIP39 passphrase
      * @param nbAccounts number of accounts to create
      * @param purpose    BIP43 purpose
      */
     public HDWallet(
-        MnemonicCode mc,
+        MnemonicCodec codec,
         NetworkParameters params,
         byte[] seed,
         String passphrase,
         int nbAccounts,
         int purpose
     ) throws MnemonicException.MnemonicLengthException {
+        this(MasterSeed.fromEntropy(codec, seed, passphrase), params, nbAccounts, purpose);
+    }
+
+    /**
+     * Constructor for wallet sharing a seed that has already been derived.
+     *
+     * @param masterSeed the wallet's BIP39 seed
+     * @param nbAccounts number of accounts to create
+     * @param purpose    BIP43 purpose
+     */
+    public HDWallet(
+        MasterSeed masterSeed,
+        NetworkParameters params,
+        int nbAccounts,
+        int purpose
+    ) {
         this.params = params;
-        this.seed = seed;
-        strPassphrase = passphrase;
+        this.masterSeed = masterSeed;
+        strPassphrase = masterSeed.getPassphrase();
 
-        wordList = mc.toMnemonic(seed);
-        hd_seed = MnemonicCode.toSeed(wordList, strPassphrase);
-        dkKey = HDKeyDerivation.createMasterPrivateKey(hd_seed);
+        wordList = masterSeed.getMnemonic();
+        dkKey = masterSeed.getMasterKey();
         DeterministicKey dKey = HDKeyDerivation.deriveChildKey(
             dkKey, purpose | ChildNumber.HARDENED_BIT
         );
@@ -91,8 +106,6 @@ public class HDWallet {
             accounts.add(new HDAccount(params, xpub, i));
             i++;
         }
-
-        hd_seed = null;
     }
 
     /**
@@ -101,7 +114,7 @@ public class HDWallet {
      * @return byte[]
      */
     public byte[] getSeed() {
-        return seed;
+        return masterSeed != null ? masterSeed.getEntropy() : null;
     }
 
     /**
@@ -110,7 +123,7 @@ public class HDWallet {
      * @return String
      */
     public String getSeedHex() {
-        return HexUtils.encodeHexString(seed);
+        return HexUtils.encodeHexString(getSeed());
     }
 
     public List<String> getMnemonic() {
@@ -172,6 +185,15 @@ public class HDWallet {
     }
 
     public byte[] getHdSeed() {
-        return hd_seed;
+        return masterSeed != null ? masterSeed.getHdSeed() : null;
+    }
+
+    /**
+     * Return the seed this wallet was derived from, or null for a watch-only wallet.
+     *
+     * @return MasterSeed
+     */
+    public MasterSeed getMasterSeed() {
+        return masterSeed;
     }
 }
@@ -1,11 +1,7 @@
 package info.blockchain.wallet.bip44
 
 import org.apache.commons.codec.binary.Hex
-import org.bitcoinj.crypto.MnemonicException.MnemonicWordException
-import org.bitcoinj.crypto.MnemonicCode
 import org.bitcoinj.params.MainNetParams
-import java.io.InputStream
-import java.util.Locale
 
 /**
  * WalletFactory.java : Class for creating/restoring/reading BIP44 HD wallet
@@ -28,14 +24,11 @@ object HDWalletFactory {
         nbAccounts: Int,
         purpose: Int,
         seed: ByteArray
-    ): HDWallet {
-        val networkParameters = MainNetParams.get()
-
-        getMnemonicWordList(language).use { wis ->
-            val mc = MnemonicCode(wis, null)
-            return HDWallet(mc, networkParameters, seed, passphrase, nbAccounts, purpose)
-        }
-    }
+    ): HDWallet = createWallet(
+        createMasterSeed(language, passphrase, seed),
+        nbAccounts,
+        purpose
+    )
 
     @JvmStatic
     fun restoreWallet(
@@ -44,48 +37,56 @@ object HDWalletFactory {
         passphrase: String,
         nbAccounts: Int,
         purpose: Int
-    ): HDWallet {
-        val networkParameters = MainNetParams.get()
+    ): HDWallet = createWallet(
+        createMasterSeed(language, passphrase, toEntropy(language, data)),
+        nbAccounts,
+        purpose
+    )
 
-        getMnemonicWordList(language).use { wis ->
-            val mc = MnemonicCode(wis, null)
-            val seed = if (data.length % 4 == 0 && !data.contains(" ")) {
-                // Hex seed
-                Hex.decodeHex(data.toCharArray())
-            } else {
-                // only use for BIP39 English
-                val words = data.replace("[^a-z]+".toRegex(), " ")
-                    .trim { it <= ' ' }
-                    .split("\\s+".toRegex())
-                mc.toEntropy(words)
-            }
-            return HDWallet(mc, networkParameters, seed, passphrase, nbAccounts, purpose)
-        }
-    }
+    /**
+     * Create a wallet for [purpose] from a seed that has already been derived, as the wallets for
+     * each purpose share one.
+     */
+    @JvmStatic
+    fun createWallet(
+        masterSeed: MasterSeed,
+        nbAccounts: Int,
+        purpose: Int
+    ): HDWallet = HDWallet(masterSeed, MainNetParams.get(), nbAccounts, purpose)
 
-    private fun getMnemonicWordList(
-        language: Language
-    ): InputStream {
-        val locale = getLocale(language)
-        return HDWalletFactory::class.java.classLoader
-            .getResourceAsStream("wordlist/$locale.txt") ?: throw MnemonicWordException("cannot read BIP39 word list")
-    }
+    /**
+     * Derive the BIP39 seed for [entropy]. This is the slow part of creating or restoring a wallet.
+     */
+    @JvmStatic
+    fun createMasterSeed(
+        language: Language,
+        passphrase: String,
+        entropy: ByteArray
+    ): MasterSeed = MasterSeed.fromEntropy(MnemonicCodec.forLanguage(language), entropy, passphrase)
+
+    /**
+     * The entropy encoded by [data], which is either a hex seed or a BIP39 English mnemonic.
+     */
+    @JvmStatic
+    fun toEntropy(
+        language: Language,
+        data: String
+    ): ByteArray =
+        if (data.length % 4 == 0 && !data.contains(" ")) {
+            // Hex seed
+            Hex.decodeHex(data.toCharArray())
+        } else {
+            // only use for BIP39 English
+            val words = data.replace("[^a-z]+".toRegex(), " ")
+                .trim { it <= ' ' }
+                .split("\\s+".toRegex())
+            MnemonicCodec.forLanguage(language).toEntropy(words)
+        }
 
     fun restoreWatchOnlyWallet(
         xpubList: List<String>
     ): HDWallet = HDWallet(MainNetParams.get(), xpubList)
 
-    private fun getLocale(language: Language): Locale {
-        return when (language) {
-            Language.US -> Locale("en", "US")
-            Language.ES -> Locale("es", "ES")
-            Language.FR -> Locale("fr", "FR")
-            Language.JP -> Locale("jp", "JP")
-            Language.CN -> Locale("zh", "CN")
-            Language.TW -> Locale("zh", "TW")
-        }
-    }
-
     enum class Language {
         US, ES, FR, JP, CN, TW
     }
@@ -0,0 +1,85 @@
+package info.blockchain.wallet.bip44
+
+import org.bitcoinj.crypto.DeterministicKey
+import org.bitcoinj.crypto.HDKeyDerivation
+import org.bitcoinj.crypto.MnemonicCode
+import org.bitcoinj.crypto.MnemonicException
+import java.util.concurrent.atomic.AtomicLong
+
+data class SeedDerivationStats(
+    val derivations: Long,
+    val totalDerivationTimeMillis: Long
+)
+
+/**
+ * The BIP39 seed of an HD wallet, and the BIP32 master key derived from it.
+ *
+ * Turning a mnemonic into a seed takes 2048 rounds of PBKDF2-HMAC-SHA512, so a wallet derives it
+ * once when it is decrypted and builds the keys of every coin, and the metadata nodes, from this.
+ * [clear] overwrites the entropy and seed on logout or when the wallet is wiped; the master key
+ * itself can't be wiped, and goes with the instance. Wallets built from the seed read it on use
+ * rather than copying it, so clearing it wipes the seed for all of them.
+ */
+class MasterSeed private constructor(
+    private val entropyBytes: ByteArray,
+    val mnemonic: List<String>,
+    val passphrase: String,
+    private val hdSeedBytes: ByteArray
+) {
+    val masterKey: DeterministicKey = HDKeyDerivation.createMasterPrivateKey(hdSeedBytes)
+
+    @Volatile
+    var isCleared = false
+        private set
+
+    /**
+     * The BIP39 entropy encoded by the mnemonic.
+     */
+    val entropy: ByteArray
+        get() = checkNotCleared(entropyBytes)
+
+    /**
+     * The 64 byte seed the master key is derived from.
+     */
+    val hdSeed: ByteArray
+        get() = checkNotCleared(hdSeedBytes)
+
+    fun matches(entropy: ByteArray, passphrase: String): Boolean =
+        !isCleared && this.passphrase == passphrase && entropyBytes.contentEquals(entropy)
+
+    fun clear() {
+        isCleared = true
+        entropyBytes.fill(0)
+        hdSeedBytes.fill(0)
+    }
+
+    private fun checkNotCleared(bytes: ByteArray): ByteArray {
+        check(!isCleared) { "Master seed has been cleared" }
+        return bytes
+    }
+
+    companion object {
+        private val derivations = AtomicLong()
+        private val totalDerivationTimeMillis = AtomicLong()
+
+        @JvmStatic
+        @Throws(MnemonicException.MnemonicLengthException::class)
+        fun fromEntropy(codec: MnemonicCodec, entropy: ByteArray, passphrase: String): MasterSeed {
+            val mnemonic = codec.toMnemonic(entropy)
+
+            val start = System.currentTimeMillis()
+            val hdSeed = MnemonicCode.toSeed(mnemonic, passphrase)
+            derivations.incrementAndGet()
+            totalDerivationTimeMillis.addAndGet(System.currentTimeMillis() - start)
+
+            return MasterSeed(entropy.copyOf(), mnemonic, passphrase, hdSeed)
+        }
+
+        /**
+         * How many seeds this process has derived, and how long that took.
+         */
+        @JvmStatic
+        fun stats(): SeedDerivationStats =
+            SeedDerivationStats(derivations.get(), totalDerivationTimeMillis.get())
+    }
+}
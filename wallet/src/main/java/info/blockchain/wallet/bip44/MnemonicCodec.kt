@@ -0,0 +1,105 @@
+package info.blockchain.wallet.bip44
+
+import info.blockchain.wallet.bip44.HDWalletFactory.Language
+import org.bitcoinj.core.Sha256Hash
+import org.bitcoinj.crypto.MnemonicException
+import org.bitcoinj.crypto.MnemonicException.MnemonicChecksumException
+import org.bitcoinj.crypto.MnemonicException.MnemonicLengthException
+import org.bitcoinj.crypto.MnemonicException.MnemonicWordException
+import java.util.EnumMap
+
+/**
+ * Converts between BIP39 entropy and mnemonics over a [MnemonicWordList], and checks mnemonics as
+ * they are typed. There is one per language; get it with [forLanguage].
+ *
+ * Words are looked up by hash rather than by searching the list, and nothing is read from
+ * resources after the first use, so checking a phrase costs one SHA-256 of its entropy.
+ */
+class MnemonicCodec private constructor(
+    val wordList: MnemonicWordList
+) {
+    @Throws(MnemonicLengthException::class)
+    fun toMnemonic(entropy: ByteArray): List<String> {
+        if (entropy.isEmpty()) {
+            throw MnemonicLengthException("Entropy is empty.")
+        }
+        if (entropy.size % 4 != 0) {
+            throw MnemonicLengthException("Entropy length not multiple of 32 bits.")
+        }
+
+        val hash = Sha256Hash.hash(entropy)
+        val entropyBits = entropy.size * 8
+        val wordCount = (entropyBits + entropyBits / 32) / BITS_PER_WORD
+
+        return (0 until wordCount).map { w ->
+            var index = 0
+            for (j in 0 until BITS_PER_WORD) {
+                val bit = w * BITS_PER_WORD + j
+                val source = if (bit < entropyBits) entropy.bitAt(bit) else hash.bitAt(bit - entropyBits)
+                index = (index shl 1) or source
+            }
+            wordList.wordAt(index)
+        }
+    }
+
+    @Throws(MnemonicException::class)
+    fun toEntropy(words: List<String>): ByteArray {
+        if (words.isEmpty() || words.size % 3 != 0) {
+            throw MnemonicLengthException("Word list size must be multiple of three words.")
+        }
+
+        val indices = IntArray(words.size) { i ->
+            wordList.indexOf(words[i]).also { if (it < 0) throw MnemonicWordException(words[i]) }
+        }
+
+        val totalBits = words.size * BITS_PER_WORD
+        val checksumBits = totalBits / 33
+        val entropyBits = totalBits - checksumBits
+
+        val entropy = ByteArray(entropyBits / 8)
+        for (bit in 0 until entropyBits) {
+            if (indices.bitAt(bit) == 1) {
+                entropy[bit / 8] = (entropy[bit / 8].toInt() or (0x80 ushr (bit % 8))).toByte()
+            }
+        }
+
+        val hash = Sha256Hash.hash(entropy)
+        for (bit in 0 until checksumBits) {
+            if (indices.bitAt(entropyBits + bit) != hash.bitAt(bit)) {
+                throw MnemonicChecksumException()
+            }
+        }
+        return entropy
+    }
+
+    @Throws(MnemonicException::class)
+    fun check(words: List<String>) {
+        toEntropy(words)
+    }
+
+    fun isValid(words: List<String>): Boolean =
+        try {
+            check(words)
+            true
+        } catch (e: MnemonicException) {
+            false
+        }
+
+    private fun ByteArray.bitAt(bit: Int): Int =
+        (this[bit / 8].toInt() ushr (7 - bit % 8)) and 1
+
+    private fun IntArray.bitAt(bit: Int): Int =
+        (this[bit / BITS_PER_WORD] ushr (BITS_PER_WORD - 1 - bit % BITS_PER_WORD)) and 1
+
+    companion object {
+        private const val BITS_PER_WORD = 11
+
+        private val codecs = EnumMap<Language, MnemonicCodec>(Language::class.java)
+
+        @JvmStatic
+        fun forLanguage(language: Language): MnemonicCodec =
+            synchronized(codecs) {
+                codecs.getOrPut(language) { MnemonicCodec(MnemonicWordList.forLanguage(language)) }
+            }
+    }
+}
@@ -0,0 +1,92 @@
+package info.blockchain.wallet.bip44
+
+import info.blockchain.wallet.bip44.HDWalletFactory.Language
+import org.bitcoinj.crypto.MnemonicException.MnemonicWordException
+import java.util.EnumMap
+import java.util.Locale
+
+/**
+ * The 2048 words of a BIP39 word list, read from resources the first time the language is used
+ * and kept for the life of the process.
+ */
+class MnemonicWordList private constructor(
+    val language: Language,
+    val words: List<String>
+) {
+    private val indices: Map<String, Int> = HashMap<String, Int>(words.size * 2).apply {
+        words.forEachIndexed { i, word -> put(word, i) }
+    }
+
+    // Not every word list is in code point order, and prefix lookup needs one that is
+    private val sortedWords: List<String> = words.sorted()
+
+    init {
+        check(words.size == WORD_COUNT) { "BIP39 word list must have $WORD_COUNT words" }
+    }
+
+    /**
+     * The index of [word], or -1 if it isn't in the list.
+     */
+    fun indexOf(word: String): Int = indices[word] ?: -1
+
+    operator fun contains(word: String): Boolean = indices.containsKey(word)
+
+    fun wordAt(index: Int): String = words[index]
+
+    /**
+     * The words starting with [prefix], in alphabetical order, for autocompleting a phrase as it is
+     * typed.
+     */
+    @JvmOverloads
+    fun wordsStartingWith(prefix: String, limit: Int = Int.MAX_VALUE): List<String> {
+        if (prefix.isEmpty() || limit <= 0) {
+            return emptyList()
+        }
+
+        val found = sortedWords.binarySearch(prefix)
+        val start = if (found >= 0) found else -(found + 1)
+
+        val matches = mutableListOf<String>()
+        var i = start
+        while (i < sortedWords.size && matches.size < limit && sortedWords[i].startsWith(prefix)) {
+            matches.add(sortedWords[i])
+            i++
+        }
+        return matches
+    }
+
+    companion object {
+        const val WORD_COUNT = 2048
+
+        private val loaded = EnumMap<Language, MnemonicWordList>(Language::class.java)
+
+        @JvmStatic
+        fun forLanguage(language: Language): MnemonicWordList =
+            synchronized(loaded) {
+                loaded.getOrPut(language) { MnemonicWordList(language, readWords(language)) }
+            }
+
+        private fun readWords(language: Language): List<String> {
+            val stream = MnemonicWordList::class.java.classLoader
+                ?.getResourceAsStream("wordlist/${getLocale(language)}.txt")
+                ?: throw MnemonicWordException("cannot read BIP39 word list")
+
+            return stream.bufferedReader(Charsets.UTF_8).useLines { lines ->
+                lines.map { it.trim() }
+                    .filter { it.isNotEmpty() }
+                    .toList()
+            }
+        }
+
+        private fun getLocale(language: Language): Locale {
+            return when (language) {
+                Language.US -> Locale("en", "US")
+                Language.ES -> Locale("es", "ES")
+                Language.FR -> Locale("fr", "FR")
+                Language.JP -> Locale("jp", "JP")
+                Language.CN -> Locale("zh", "CN")
+                Language.TW -> Locale("zh", "TW")
+            }
+        }
+    }
+}
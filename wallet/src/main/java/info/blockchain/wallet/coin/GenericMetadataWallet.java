@@ -6,13 +6,13 @@ import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
 import info.blockchain.wallet.payload.data.Account;
+import info.blockchain.wallet.util.JsonMappers;
 
 /**
  * <p> Generic coin data that can be stored in blockchain.info KV store. </p>
@@ -70,11 +70,11 @@ public class GenericMetadataWallet {
     }
 
     public String toJson() throws JsonProcessingException {
-        return new ObjectMapper().writeValueAsString(returnSafeClone());
+        return JsonMappers.toJson(returnSafeClone());
     }
 
     public static GenericMetadataWallet fromJson(String json) throws IOException {
-        return new ObjectMapper().readValue(json, GenericMetadataWallet.class);
+        return JsonMappers.fromJson(json, GenericMetadataWallet.class);
     }
 
     /**
@@ -0,0 +1,53 @@
+package info.blockchain.wallet.crypto;
+
+import info.blockchain.wallet.exceptions.DecryptionException;
+import java.util.HashMap;
+import java.util.Map;
+import javax.annotation.Nullable;
+import org.apache.commons.codec.binary.Base64;
+import org.spongycastle.crypto.InvalidCipherTextException;
+import org.spongycastle.crypto.paddings.BlockCipherPadding;
+
+/**
+ * One ciphertext and password, decrypted with as many iteration count, mode and padding
+ * combinations as it takes. The PBKDF2 key is derived once per iteration count and reused for
+ * every mode and padding tried with it. Not thread safe; use one per decrypt attempt.
+ */
+public class AESDecryptSession {
+
+    private static final int IV_LENGTH = 16;
+
+    private final String password;
+    private final byte[] iv;
+    private final byte[] input;
+
+    private final Map<Integer, byte[]> derivedKeys = new HashMap<>();
+
+    public AESDecryptSession(String ciphertext, String password) {
+        byte[] cipherdata = Base64.decodeBase64(ciphertext.getBytes());
+
+        this.password = password;
+        this.iv = new byte[IV_LENGTH];
+        this.input = new byte[Math.max(cipherdata.length - IV_LENGTH, 0)];
+        System.arraycopy(cipherdata, 0, iv, 0, Math.min(IV_LENGTH, cipherdata.length));
+        System.arraycopy(cipherdata, IV_LENGTH, input, 0, input.length);
+    }
+
+    public String decrypt(int iterations, int mode, @Nullable BlockCipherPadding padding)
+        throws InvalidCipherTextException, DecryptionException {
+        return AESUtil.decryptWithDerivedKey(keyFor(iterations), iv, input, mode, padding);
+    }
+
+    int derivedKeyCount() {
+        return derivedKeys.size();
+    }
+
+    private byte[] keyFor(int iterations) {
+        byte[] key = derivedKeys.get(iterations);
+        if (key == null) {
+            key = AESUtil.deriveKey(password, iv, iterations);
+            derivedKeys.put(iterations, key);
+        }
+        return key;
+    }
+}
@@ -62,11 +62,37 @@ public class AESUtil {
         byte[] iv = copyOfRange(cipherdata, 0, AESBlockSize * 4);
         byte[] input = copyOfRange(cipherdata, AESBlockSize * 4, cipherdata.length);
 
+        byte[] key = deriveKey(password, iv, iterations);
+        return decryptWithDerivedKey(key, iv, input, mode, padding);
+    }
+
+    /**
+     * Runs the PBKDF2 stretch for {@code password}. This is the expensive part of a decrypt, so
+     * callers that try several decryptions against the same key material should derive it once
+     * and use {@link #decryptWithDerivedKey}.
+     */
+    public static byte[] deriveKey(String password, byte[] salt, int iterations) {
         PBEParametersGenerator generator = new PKCS5S2ParametersGenerator();
-        generator.init(PBEParametersGenerator.PKCS5PasswordToUTF8Bytes(password.toCharArray()), iv, iterations);
-        KeyParameter keyParam = (KeyParameter) generator.generateDerivedParameters(256);
+        generator.init(PBEParametersGenerator.PKCS5PasswordToUTF8Bytes(password.toCharArray()), salt, iterations);
+        return ((KeyParameter) generator.generateDerivedParameters(KEY_BIT_LEN)).getKey();
+    }
 
-        CipherParameters params = new ParametersWithIV(keyParam, iv);
+    /**
+     * Decrypts {@code input} using a key that has already been through {@link #deriveKey}.
+     *
+     * @param key   The derived AES key
+     * @param iv    The 16 byte IV that was prepended to the cipher data
+     * @param input The cipher data, without the IV
+     */
+    public static String decryptWithDerivedKey(
+        byte[] key,
+        byte[] iv,
+        byte[] input,
+        int mode,
+        @Nullable BlockCipherPadding padding
+    ) throws InvalidCipherTextException, DecryptionException {
+
+        CipherParameters params = new ParametersWithIV(new KeyParameter(key), iv);
 
         BlockCipher cipherMode;
         if (mode == MODE_CBC) {
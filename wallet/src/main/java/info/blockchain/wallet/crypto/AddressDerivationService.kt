@@ -0,0 +1,112 @@
+package info.blockchain.wallet.crypto
+
+import io.reactivex.Observable
+import org.bitcoinj.crypto.ChildNumber
+import org.bitcoinj.crypto.DeterministicKey
+import org.bitcoinj.crypto.HDKeyDerivation
+import java.util.concurrent.Callable
+import java.util.concurrent.ForkJoinPool
+import java.util.concurrent.RecursiveAction
+
+/**
+ * Derives runs of non-hardened child keys from a chain key, splitting large ranges across a
+ * bounded fork-join pool. Only public keys are derived here - signing keys are still derived one
+ * at a time, where they are needed.
+ */
+class AddressDerivationService(
+    private val pool: ForkJoinPool = sharedPool,
+    private val serialThreshold: Int = SERIAL_THRESHOLD
+) {
+    /**
+     * Derives the children [fromIndex] until [toIndex] of [chainKey] and maps each through
+     * [transform], returning the results in index order.
+     */
+    fun <T> deriveRange(
+        chainKey: DeterministicKey,
+        fromIndex: Int,
+        toIndex: Int,
+        transform: (Int, DeterministicKey) -> T
+    ): List<T> {
+        require(fromIndex in 0..toIndex) { "Invalid range $fromIndex until $toIndex" }
+
+        val results = arrayOfNulls<Any>(toIndex - fromIndex)
+        val task = DeriveTask(chainKey.toPublic(), fromIndex, fromIndex, toIndex, results, transform)
+        if (results.size <= serialThreshold) {
+            task.deriveSerially()
+        } else {
+            pool.invoke(task)
+        }
+        @Suppress("UNCHECKED_CAST")
+        return results.asList() as List<T>
+    }
+
+    /**
+     * As [deriveRange], but emits the results in index ordered chunks of [chunkSize] as soon as
+     * each is ready, so that callers can start work before the whole range has been derived.
+     */
+    fun <T> deriveChunks(
+        chainKey: DeterministicKey,
+        fromIndex: Int,
+        toIndex: Int,
+        chunkSize: Int = DEFAULT_CHUNK_SIZE,
+        transform: (Int, DeterministicKey) -> T
+    ): Observable<List<T>> = Observable.defer {
+        require(chunkSize > 0) { "chunkSize must be positive" }
+        val publicKey = chainKey.toPublic()
+        val chunks = (fromIndex until toIndex step chunkSize).map { start ->
+            pool.submit(Callable {
+                deriveRange(publicKey, start, minOf(start + chunkSize, toIndex), transform)
+            })
+        }
+        Observable.fromIterable(chunks)
+            .map { it.get() }
+            .doOnDispose { chunks.forEach { it.cancel(false) } }
+    }
+
+    private inner class DeriveTask<T>(
+        private val chainKey: DeterministicKey,
+        private val offset: Int,
+        private val fromIndex: Int,
+        private val toIndex: Int,
+        private val results: Array<Any?>,
+        private val transform: (Int, DeterministicKey) -> T
+    ) : RecursiveAction() {
+
+        override fun compute() {
+            if (toIndex - fromIndex <= serialThreshold) {
+                deriveSerially()
+            } else {
+                val mid = (fromIndex + toIndex) ushr 1
+                invokeAll(
+                    DeriveTask(chainKey, offset, fromIndex, mid, results, transform),
+                    DeriveTask(chainKey, offset, mid, toIndex, results, transform)
+                )
+            }
+        }
+
+        fun deriveSerially() {
+            for (index in fromIndex until toIndex) {
+                val child = HDKeyDerivation.deriveChildKey(chainKey, ChildNumber(index, false))
+                results[index - offset] = transform(index, child)
+            }
+        }
+    }
+
+    companion object {
+        private const val SERIAL_THRESHOLD = 32
+        private const val DEFAULT_CHUNK_SIZE = 100
+        private const val MAX_PARALLELISM = 4
+
+        private val sharedPool: ForkJoinPool by lazy {
+            ForkJoinPool(
+                (Runtime.getRuntime().availableProcessors() - 1).coerceIn(1, MAX_PARALLELISM)
+            )
+        }
+
+        @JvmStatic
+        val shared: AddressDerivationService by lazy { AddressDerivationService() }
+
+        private fun DeterministicKey.toPublic(): DeterministicKey =
+            if (isPubKeyOnly) this else dropPrivateBytes()
+    }
+}
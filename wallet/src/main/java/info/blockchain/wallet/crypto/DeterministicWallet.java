@@ -2,6 +2,9 @@ package info.blockchain.wallet.crypto;
 
 import com.google.common.collect.ImmutableList;
 
+import info.blockchain.wallet.bip44.HDWalletFactory.Language;
+import info.blockchain.wallet.bip44.MasterSeed;
+import info.blockchain.wallet.bip44.MnemonicCodec;
 import info.blockchain.wallet.exceptions.DeterministicWalletException;
 import info.blockchain.wallet.util.HexUtils;
 import info.blockchain.wallet.bch.CashAddress;
@@ -17,14 +20,13 @@ import org.bitcoinj.crypto.DeterministicKey;
 import org.bitcoinj.crypto.HDKeyDerivation;
 import org.bitcoinj.crypto.HDUtils;
 import org.bitcoinj.crypto.LinuxSecureRandom;
-import org.bitcoinj.crypto.MnemonicCode;
 import org.bitcoinj.crypto.MnemonicException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.IOException;
 import java.security.SecureRandom;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -32,7 +34,7 @@ import java.util.List;
  * single root key. This implements part of the BIP 32 specification.</p>
  *
  * <p>The hierarchy is started from a single root key {@link #node} which can be calculated from a
- * {@link #masterSeed}</p>
+ * {@link #seed}</p>
  */
 public abstract class DeterministicWallet implements DeterministicNode {
 
@@ -49,8 +51,8 @@ public abstract class DeterministicWallet implements DeterministicNode {
 
     protected NetworkParameters params;
 
-    protected byte[] masterSeed;
-    protected byte[] entropy;
+    // Read on use rather than copied, so that clearing it wipes the seed for every wallet sharing it
+    protected MasterSeed seed;
     protected List<String> mnemonic;
     protected String passphrase;
 
@@ -65,8 +67,7 @@ public abstract class DeterministicWallet implements DeterministicNode {
      * @param passphrase
      */
     public DeterministicWallet(NetworkParameters params, String coinPath, int mnemonicLength, String passphrase) {
-        this.entropy = generateSecureRandomNumber(mnemonicLength);
-        init(params, coinPath, passphrase);
+        init(params, coinPath, generateSecureRandomNumber(mnemonicLength), passphrase);
     }
 
     /**
@@ -78,12 +79,13 @@ public abstract class DeterministicWallet implements DeterministicNode {
      */
     public DeterministicWallet(NetworkParameters params, String coinPath, String entropyHex, String passphrase) {
 
+        byte[] entropy;
         try {
-            this.entropy = Hex.decodeHex(entropyHex.toCharArray());
+            entropy = Hex.decodeHex(entropyHex.toCharArray());
         }catch (DecoderException e){
             throw new DeterministicWalletException("Illegal entropyHex supplied", e);
         }
-        init(params, coinPath, passphrase);
+        init(params, coinPath, entropy, passphrase);
     }
 
     /**
@@ -95,16 +97,24 @@ public abstract class DeterministicWallet implements DeterministicNode {
      */
     public DeterministicWallet(NetworkParameters params, String coinPath, List<String> mnemonic, String passphrase) {
 
+        byte[] entropy;
         try {
-            MnemonicCode mc = new MnemonicCode();
-
-            this.masterSeed = MnemonicCode.toSeed(mnemonic, passphrase);
-            this.entropy = mc.toEntropy(mnemonic);
-        } catch (IOException | MnemonicException e) {
+            entropy = MnemonicCodec.forLanguage(Language.US).toEntropy(mnemonic);
+        } catch (MnemonicException e) {
             throw new DeterministicWalletException("Unrecoverable mnemonic exception", e);
         }
 
-        init(params, coinPath, passphrase);
+        init(params, coinPath, entropy, passphrase);
+    }
+
+    /**
+     * Restores wallet from given coin type and a seed that has already been derived
+     *
+     * @param coinPath
+     * @param masterSeed
+     */
+    public DeterministicWallet(NetworkParameters params, String coinPath, MasterSeed masterSeed) {
+        init(params, coinPath, masterSeed);
     }
 
     /**
@@ -113,8 +123,7 @@ public abstract class DeterministicWallet implements DeterministicNode {
     public DeterministicWallet(NetworkParameters params) {
 
         this.params = params;
-        this.masterSeed = null;
-        this.entropy = null;
+        this.seed = null;
         this.mnemonic = null;
         this.passphrase = null;
         this.deterministicWalletKey = null;
@@ -137,23 +146,33 @@ public abstract class DeterministicWallet implements DeterministicNode {
         return seed;
     }
 
-    private void init(NetworkParameters params, String coinPath, String passphrase) {
-
-        this.params = params;
+    private void init(NetworkParameters params, String coinPath, byte[] entropy, String passphrase) {
 
+        MasterSeed seed;
         try {
-            MnemonicCode mc = new MnemonicCode();
-            this.mnemonic = mc.toMnemonic(entropy);
-            this.masterSeed = MnemonicCode.toSeed(mnemonic, passphrase);
-            this.passphrase = passphrase;
+            MnemonicCodec codec = MnemonicCodec.forLanguage(Language.US);
+            seed = MasterSeed.fromEntropy(codec, entropy, passphrase);
 
-            mc.check(this.mnemonic);
-        }catch (IOException|MnemonicException e) {
+            codec.check(seed.getMnemonic());
+        }catch (MnemonicException e) {
             throw new DeterministicWalletException("Unrecoverable mnemonic exception", e);
+        } finally {
+            // The seed keeps its own copy
+            Arrays.fill(entropy, (byte) 0);
         }
 
+        init(params, coinPath, seed);
+    }
+
+    private void init(NetworkParameters params, String coinPath, MasterSeed seed) {
+
+        this.params = params;
+        this.seed = seed;
+        this.mnemonic = seed.getMnemonic();
+        this.passphrase = seed.getPassphrase();
+
         this.accounts = new ArrayList<>();
-        this.node = HDKeyDerivation.createMasterPrivateKey(masterSeed);
+        this.node = seed.getMasterKey();
 
         ImmutableList<ChildNumber> rootPath = getRootPath(coinPath);
 
@@ -212,12 +231,16 @@ public abstract class DeterministicWallet implements DeterministicNode {
     }
 
     public String getSeedHex() {
-        return HexUtils.encodeHexString(masterSeed);
+        if (seed != null) {
+            return HexUtils.encodeHexString(seed.getHdSeed());
+        } else {
+            return null;
+        }
     }
 
     public String getEntropyHex() {
-        if (entropy != null) {
-            return HexUtils.encodeHexString(entropy);
+        if (seed != null) {
+            return HexUtils.encodeHexString(seed.getEntropy());
         } else {
             return null;
         }
@@ -2,7 +2,10 @@ package info.blockchain.wallet.multiaddress
 
 import com.blockchain.api.ApiException
 import com.blockchain.api.NonCustodialBitcoinService
-import com.blockchain.api.bitcoin.data.MultiAddress
+import com.blockchain.api.bitcoin.MultiAddressStreamDecoder
+import com.blockchain.api.bitcoin.MultiAddressVisitor
+import com.blockchain.api.bitcoin.data.AddressSummary
+import com.blockchain.api.bitcoin.data.Info
 import com.blockchain.api.bitcoin.data.Transaction
 import info.blockchain.wallet.bip44.HDChain
 import info.blockchain.wallet.payload.data.AddressLabel
@@ -11,10 +14,10 @@ import info.blockchain.wallet.payload.data.XPubs
 import info.blockchain.wallet.payload.data.allAddresses
 import info.blockchain.wallet.payload.data.legacyXpubAddresses
 import info.blockchain.wallet.payload.data.segwitXpubAddresses
+import okhttp3.ResponseBody
 import retrofit2.Call
 import java.math.BigInteger
 import java.util.Collections
-import kotlin.collections.Map.Entry
 
 open class MultiAddressFactory(
     internal val bitcoinApi: NonCustodialBitcoinService
@@ -29,31 +32,14 @@ open class MultiAddressFactory(
         return addressToXpubMap[address]
     }
 
-    private fun getMultiAddress(
-        xpubs: List<XPubs>,
-        onlyShow: List<String>?,
-        limit: Int,
-        offset: Int
-    ): MultiAddress? {
-
-        val call = getMultiAddress(xpubs, limit, offset, onlyShow)
-        val response = call.execute()
-
-        return if (response.isSuccessful) {
-            response.body()
-        } else {
-            throw ApiException(response.errorBody()!!.string())
-        }
-    }
-
-    protected open fun getMultiAddress(
+    protected open fun getMultiAddressStream(
         xpubs: List<XPubs>,
         limit: Int,
         offset: Int,
         context: List<String>?
-    ): Call<MultiAddress> {
+    ): Call<ResponseBody> {
         return bitcoinApi
-            .getMultiAddress(
+            .getMultiAddressStream(
                 NonCustodialBitcoinService.BITCOIN,
                 xpubs.legacyXpubAddresses(),
                 xpubs.segwitXpubAddresses(),
@@ -85,17 +71,16 @@ open class MultiAddressFactory(
         startingBlockHeight: Int
     ): List<TransactionSummary> {
 
-        val multiAddress = getMultiAddress(all, onlyShow, limit, offset)
-        return if (multiAddress?.txs == null) {
-            emptyList()
-        } else {
-            summarize(
-                all,
-                multiAddress,
-                activeImported,
-                startingBlockHeight
-            )
+        val response = getMultiAddressStream(all, limit, offset, onlyShow).execute()
+        if (!response.isSuccessful) {
+            throw ApiException(response.errorBody()!!.string())
         }
+        val body = response.body() ?: return emptyList()
+
+        // Summarise each transaction as it is read, rather than holding the whole response
+        val summarizer = TransactionSummarizer(all, activeImported, startingBlockHeight)
+        body.use { MultiAddressStreamDecoder.decode(it.source(), summarizer) }
+        return summarizer.summaries()
     }
 
     fun getNextChangeAddressIndex(xpub: String): Int =
@@ -156,264 +141,213 @@ open class MultiAddressFactory(
             t2.time.compareTo(t1.time)
     }
 
-    private fun summarize(
+    private inner class TransactionSummarizer(
         xpubs: List<XPubs>,
-        multiAddress: MultiAddress,
         imported: List<String>?,
-        startingBlockHeight: Int
-    ): List<TransactionSummary> {
-        val ownAddresses = xpubs.allAddresses().toMutableList()
-        val summaryList = ArrayList<TransactionSummary>()
-
-        // Set next address indexes
-        for (address in multiAddress.addresses) {
+        private val startingBlockHeight: Int
+    ) : MultiAddressVisitor {
+        // Hashed ownership index, built once per response and grown as the server
+        // reports more of our addresses via the xpub field of inputs and outputs
+        private val ownAddresses = HashSet<String>(xpubs.allAddresses())
+        private val importedAddresses = imported?.toHashSet()
+        private val summaryList = ArrayList<TransactionSummary>()
+        private val blockHeights = ArrayList<Long?>()
+        private var latestBlock = 0L
+
+        override fun onAddress(address: AddressSummary) {
+            // Set next address indexes
             nextReceiveAddressMap[address.address] = address.accountIndex
             nextChangeAddressMap[address.address] = address.changeIndex
         }
 
-        val txs = multiAddress.txs ?: return summaryList // Address might not contain transactions
-
-        for (tx in txs) {
+        override fun onTransaction(tx: Transaction) {
             val blockHeight = tx.blockHeight
             if (blockHeight != null && blockHeight != 0L && blockHeight < startingBlockHeight) {
                 // Filter out txs before blockHeight (mainly for BCH)
                 // Block height will be 0 until included in a block
-                continue
+                return
             }
 
-            var isImported = false
+            val txSummary = summarizeTransaction(tx, ownAddresses, importedAddresses) ?: return
 
-            val txSummary = TransactionSummary()
-            txSummary.inputsMap = HashMap()
-            txSummary.outputsMap = HashMap()
+            addressToXpubMap.putAll(txSummary.getInputsXpubMap())
+            addressToXpubMap.putAll(txSummary.getOutputsXpubMap())
 
-            // Map which address belongs to which xpub.
-            txSummary.inputsXpubMap = HashMap()
-            txSummary.outputsXpubMap = HashMap()
+            summaryList.add(txSummary)
+            blockHeights.add(blockHeight)
+        }
 
-            when {
-                tx.result.add(tx.fee).signum() == 0 -> {
-                    txSummary.transactionType = TransactionSummary.TransactionType.TRANSFERRED
-                }
-                tx.result.signum() > 0 -> {
-                    txSummary.transactionType = TransactionSummary.TransactionType.RECEIVED
-                }
-                else -> {
-                    txSummary.transactionType = TransactionSummary.TransactionType.SENT
-                }
-            }
+        override fun onInfo(info: Info) {
+            latestBlock = info.latestBlock.height
+        }
 
-            for (input in tx.inputs) {
-                val prevOut = input.prevOut
-                if (prevOut != null) {
-
-                    val inputAddr = prevOut.addr
-                    val inputValue = prevOut.value
-                    if (inputAddr != null) {
-
-                        // Transaction from HD account
-                        prevOut.xpub?.let {
-                            // xpubBody will only show if it belongs to our account
-                            // inputAddr belongs to our own account - add it, it's a transfer/send
-                            ownAddresses.add(inputAddr)
-                            txSummary.inputsXpubMap[inputAddr] = it.address
-                        }
-
-                        // Transaction from HD account
-                        val xpubBody = prevOut.xpub
-                        if (xpubBody != null) {
-                            // xpubBody will only show if it belongs to our account
-                            // inputAddr belongs to our own account - add it, it's a transfer/send
-                            ownAddresses.add(inputAddr)
-                            txSummary.inputsXpubMap[inputAddr] = xpubBody.address
-                        }
-
-                        // Flag as imported legacy address
-                        isImported = (imported?.contains(inputAddr) == true)
-
-                        // Keep track of inputs
-                        val existingBalance: BigInteger = txSummary.inputsMap[inputAddr] ?: BigInteger.ZERO
-
-                        txSummary.inputsMap[inputAddr] = existingBalance.add(inputValue)
+        /**
+         * Confirmations are only set here, once the whole response has been read, as the
+         * server is free to send info after the transactions.
+         */
+        fun summaries(): List<TransactionSummary> {
+            summaryList.forEachIndexed { index, txSummary ->
+                txSummary.confirmations = blockHeights[index]?.let {
+                    if (latestBlock > 0 && it > 0) {
+                        (latestBlock - it + 1).toInt()
                     } else {
-                        // No input address available
-                        txSummary.inputsMap[ADDRESS_DECODE_ERROR] = inputValue
+                        0
                     }
-                } else {
-                    // Newly generated coin
-                }
+                } ?: 0
             }
+            return summaryList
+        }
+    }
 
-            val changeMap = HashMap<String, BigInteger>()
-            var outputAddr: String?
-            var outputValue: BigInteger
-            for (output in tx.out) {
-
-                outputAddr = output.addr
-                outputValue = output.value
-                if (outputAddr != null) {
-                    val xpubBody = output.xpub
-                    if (xpubBody != null) {
-                        // inputAddr belongs to our own account - add it
-                        ownAddresses.add(outputAddr)
-                        if (xpubBody.derivationPath.startsWith("M/" + HDChain.RECEIVE_CHAIN + "/")) {
-                            val existingBalance = txSummary.outputsMap[outputAddr] ?: BigInteger.ZERO
-                            txSummary.outputsMap[outputAddr] = existingBalance.add(outputValue)
-                            txSummary.outputsXpubMap[outputAddr] = xpubBody.address
-                        } else {
-                            // Change
-                            changeMap[outputAddr] = outputValue
-                        }
-                    } else {
-                        // If we own this address and it's not change coming back, it's a transfer
-                        if (ownAddresses.contains(outputAddr) &&
-                            !txSummary.inputsMap.keys.contains(outputAddr)
-                        ) {
-
-                            if (txSummary.transactionType == TransactionSummary.TransactionType.SENT) {
-                                txSummary.transactionType = TransactionSummary.TransactionType.TRANSFERRED
-                            }
-
-                            // Don't add change coming back
-                            if (!txSummary.inputsMap.containsKey(outputAddr)) {
-                                val existingBalance =
-                                    txSummary.outputsMap[outputAddr] ?: BigInteger.ZERO
-
-                                txSummary.outputsMap[outputAddr] = existingBalance.add(outputValue)
-                            } else {
-                                changeMap[outputAddr] = outputValue
-                            }
-                        } else if (txSummary.inputsMap.keys.contains(outputAddr)) {
-                            // Our change
-                            changeMap[outputAddr] = outputValue
-                        } else {
-                            // Address does not belong to us
-                            val existingBalance =
-                                txSummary.outputsMap[outputAddr] ?: BigInteger.ZERO
-                            txSummary.outputsMap[outputAddr] = existingBalance.add(outputValue)
-                        }
-                    }
+    /**
+     * Folds the inputs, outputs and change of a single transaction into a [TransactionSummary].
+     * Returns null if we are filtering for imported addresses and this transaction doesn't touch any.
+     */
+    private fun summarizeTransaction(
+        tx: Transaction,
+        ownAddresses: MutableSet<String>,
+        imported: Set<String>?
+    ): TransactionSummary? {
+        var isImported = false
+
+        val inputsMap = HashMap<String, BigInteger>()
+        val outputsMap = HashMap<String, BigInteger>()
+        // Map which address belongs to which xpub.
+        val inputsXpubMap = HashMap<String, String>()
+        val outputsXpubMap = HashMap<String, String>()
+        val changeMap = HashMap<String, BigInteger>()
+
+        var txType = when {
+            tx.result.add(tx.fee).signum() == 0 -> TransactionSummary.TransactionType.TRANSFERRED
+            tx.result.signum() > 0 -> TransactionSummary.TransactionType.RECEIVED
+            else -> TransactionSummary.TransactionType.SENT
+        }
 
-                    // Flag as imported legacy address
-                    if (imported != null && imported.contains(outputAddr)) {
-                        isImported = true
-                    }
-                } else {
-                    // No output address available
-                    txSummary.outputsMap[ADDRESS_DECODE_ERROR] = outputValue
+        for (input in tx.inputs) {
+            // A null prevOut is a newly generated coin
+            val prevOut = input.prevOut ?: continue
+            val inputAddr = prevOut.addr
+            val inputValue = prevOut.value
+
+            if (inputAddr != null) {
+                // Transaction from HD account
+                prevOut.xpub?.let {
+                    // xpub will only show if it belongs to our account
+                    // inputAddr belongs to our own account - add it, it's a transfer/send
+                    ownAddresses.add(inputAddr)
+                    inputsXpubMap[inputAddr] = it.address
                 }
-            }
 
-            // If we are filtering for just legacy tx and this is not legacy, abort
-            if (imported != null && !isImported) {
-                continue
-            }
+                // Flag as imported legacy address
+                isImported = imported?.contains(inputAddr) == true
 
-            // Remove input addresses not ours
-            filterOwnedAddresses(
-                ownAddresses,
-                txSummary.inputsMap,
-                txSummary.outputsMap,
-                txSummary.transactionType
-            )
+                // Keep track of inputs
+                inputsMap.addValue(inputAddr, inputValue)
+            } else {
+                // No input address available
+                inputsMap[ADDRESS_DECODE_ERROR] = inputValue
+            }
+        }
 
-            txSummary.hash = tx.hash
-            txSummary.time = tx.time
-            txSummary.isDoubleSpend = tx.isDoubleSpend
-            txSummary.fee = tx.fee
+        for (output in tx.out) {
+            val outputAddr = output.addr
+            val outputValue = output.value
 
-            if (txSummary.transactionType == TransactionSummary.TransactionType.RECEIVED) {
-                val total = calculateTotalReceived(txSummary.outputsMap)
-                txSummary.total = total
-            } else {
-                val total = calculateTotalSent(
-                    inputsMap = txSummary.inputsMap,
-                    changeMap = changeMap,
-                    fee = tx.fee ?: BigInteger.ZERO,
-                    direction = txSummary.transactionType
-                )
-                txSummary.total = total
+            if (outputAddr == null) {
+                // No output address available
+                outputsMap[ADDRESS_DECODE_ERROR] = outputValue
+                continue
             }
 
-            // Set confirmations
-            val latestBlock = multiAddress.info.latestBlock.height
-            val txBlockHeight = tx.blockHeight
-            txBlockHeight?.let {
-                if (latestBlock > 0 && it > 0) {
-                    txSummary.confirmations = (latestBlock - it + 1).toInt()
+            val xpubBody = output.xpub
+            if (xpubBody != null) {
+                // outputAddr belongs to our own account - add it
+                ownAddresses.add(outputAddr)
+                if (xpubBody.derivationPath.startsWith(RECEIVE_PATH_PREFIX)) {
+                    outputsMap.addValue(outputAddr, outputValue)
+                    outputsXpubMap[outputAddr] = xpubBody.address
                 } else {
-                    txSummary.confirmations = 0
+                    // Change
+                    changeMap[outputAddr] = outputValue
                 }
-            } ?: kotlin.run { txSummary.confirmations = 0 }
-
-            addressToXpubMap.putAll(txSummary.getInputsXpubMap())
-            addressToXpubMap.putAll(txSummary.getOutputsXpubMap())
+            } else if (inputsMap.containsKey(outputAddr)) {
+                // Our change
+                changeMap[outputAddr] = outputValue
+            } else {
+                // If we own this address and it's not change coming back, it's a transfer
+                if (outputAddr in ownAddresses &&
+                    txType == TransactionSummary.TransactionType.SENT
+                ) {
+                    txType = TransactionSummary.TransactionType.TRANSFERRED
+                }
+                outputsMap.addValue(outputAddr, outputValue)
+            }
 
-            summaryList.add(txSummary)
+            // Flag as imported legacy address
+            if (imported?.contains(outputAddr) == true) {
+                isImported = true
+            }
         }
 
-        return summaryList
-    }
-
-    private fun filterOwnedAddresses(
-        ownAddresses: List<String>,
-        inputsMap: HashMap<String, BigInteger>,
-        outputsMap: HashMap<String, BigInteger>,
-        transactionType: TransactionSummary.TransactionType
-    ) {
-
-        var iterator: MutableIterator<Entry<String, BigInteger>> = inputsMap.entries.iterator()
-        while (iterator.hasNext()) {
-            val item = iterator.next()
-            if (!ownAddresses.contains(item.key) && transactionType == TransactionSummary.TransactionType.SENT) {
-                iterator.remove()
-            }
+        // If we are filtering for just legacy tx and this is not legacy, abort
+        if (imported != null && !isImported) {
+            return null
         }
 
-        iterator = outputsMap.entries.iterator()
-        while (iterator.hasNext()) {
-            val item = iterator.next()
-            if (!ownAddresses.contains(item.key) && transactionType == TransactionSummary.TransactionType.RECEIVED) {
-                iterator.remove()
+        // Remove addresses not ours and total up what is left in the same pass
+        val txTotal = if (txType == TransactionSummary.TransactionType.RECEIVED) {
+            outputsMap.retainOwnedAndSum(ownAddresses)
+        } else {
+            val inputsTotal = if (txType == TransactionSummary.TransactionType.SENT) {
+                inputsMap.retainOwnedAndSum(ownAddresses)
+            } else {
+                inputsMap.values.sumValues()
+            }
+            var sent = inputsTotal.subtract(changeMap.values.sumValues())
+            if (txType == TransactionSummary.TransactionType.TRANSFERRED) {
+                sent = sent.subtract(tx.fee ?: BigInteger.ZERO)
             }
+            sent
         }
-    }
-
-    private fun calculateTotalReceived(outputsMap: HashMap<String, BigInteger>): BigInteger {
-        var total = BigInteger.ZERO
 
-        for (output in outputsMap.values) {
-            total = total.add(output)
+        return TransactionSummary().apply {
+            transactionType = txType
+            this.inputsMap = inputsMap
+            this.outputsMap = outputsMap
+            this.inputsXpubMap = inputsXpubMap
+            this.outputsXpubMap = outputsXpubMap
+            hash = tx.hash
+            time = tx.time
+            isDoubleSpend = tx.isDoubleSpend
+            fee = tx.fee
+            total = txTotal
         }
-
-        return total
     }
 
-    private fun calculateTotalSent(
-        inputsMap: HashMap<String, BigInteger>,
-        changeMap: HashMap<String, BigInteger>,
-        fee: BigInteger,
-        direction: TransactionSummary.TransactionType
-    ): BigInteger {
+    private fun HashMap<String, BigInteger>.addValue(address: String, value: BigInteger) {
+        val existing = this[address]
+        this[address] = existing?.add(value) ?: value
+    }
 
+    private fun HashMap<String, BigInteger>.retainOwnedAndSum(ownAddresses: Set<String>): BigInteger {
         var total = BigInteger.ZERO
-
-        for (input in inputsMap.values) {
-            total = total.add(input)
-        }
-
-        for (change in changeMap.values) {
-            total = total.subtract(change)
-        }
-
-        if (direction == TransactionSummary.TransactionType.TRANSFERRED) {
-            total = total.subtract(fee)
+        val iterator = entries.iterator()
+        while (iterator.hasNext()) {
+            val item = iterator.next()
+            if (item.key in ownAddresses) {
+                total = total.add(item.value)
+            } else {
+                iterator.remove()
+            }
         }
-
         return total
     }
 
+    private fun Collection<BigInteger>.sumValues(): BigInteger =
+        fold(BigInteger.ZERO) { acc, value -> acc.add(value) }
+
     companion object {
         const val ADDRESS_DECODE_ERROR = "[--address_decode_error--]"
+        private val RECEIVE_PATH_PREFIX = "M/${HDChain.RECEIVE_CHAIN}/"
     }
 }
\ No newline at end of file
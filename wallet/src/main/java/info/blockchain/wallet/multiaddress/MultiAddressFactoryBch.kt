@@ -1,21 +1,21 @@
 package info.blockchain.wallet.multiaddress
 
 import com.blockchain.api.NonCustodialBitcoinService
-import com.blockchain.api.bitcoin.data.MultiAddress
 import info.blockchain.wallet.payload.data.XPubs
 import info.blockchain.wallet.payload.data.legacyXpubAddresses
+import okhttp3.ResponseBody
 
 import retrofit2.Call
 
 class MultiAddressFactoryBch(bitcoinApi: NonCustodialBitcoinService) : MultiAddressFactory(bitcoinApi) {
 
-    override fun getMultiAddress(
+    override fun getMultiAddressStream(
         xpubs: List<XPubs>,
         limit: Int,
         offset: Int,
         context: List<String>?
-    ): Call<MultiAddress> {
-        return bitcoinApi.getMultiAddress(
+    ): Call<ResponseBody> {
+        return bitcoinApi.getMultiAddressStream(
             NonCustodialBitcoinService.BITCOIN_CASH,
             xpubs.legacyXpubAddresses(),
             emptyList(),
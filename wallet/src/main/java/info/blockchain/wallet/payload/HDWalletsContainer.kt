@@ -3,6 +3,7 @@ package info.blockchain.wallet.payload
 import info.blockchain.wallet.bip44.HDAccount
 import info.blockchain.wallet.bip44.HDWallet
 import info.blockchain.wallet.bip44.HDWalletFactory
+import info.blockchain.wallet.bip44.MasterSeed
 import info.blockchain.wallet.exceptions.HDWalletException
 import info.blockchain.wallet.payload.data.Account
 import info.blockchain.wallet.payload.data.Derivation
@@ -34,6 +35,13 @@ class HDWalletsContainer {
     val mnemonic: List<String>?
         get() = legacy?.mnemonic
 
+    /**
+     * The seed the legacy and segwit wallets share, which the other coins and the metadata nodes
+     * are derived from too. Null for a watch-only wallet.
+     */
+    val masterSeed: MasterSeed?
+        get() = legacy?.masterSeed
+
     val isInstantiated
         get() = legacy != null
 
@@ -88,20 +96,7 @@ class HDWalletsContainer {
         val seed = ByteArray(len)
         random.nextBytes(seed)
 
-        legacy = HDWalletFactory.createWallet(
-            language,
-            passphrase,
-            nbAccounts,
-            Derivation.LEGACY_PURPOSE,
-            seed
-        )
-        segwitBech32 = HDWalletFactory.createWallet(
-            language,
-            passphrase,
-            nbAccounts,
-            Derivation.SEGWIT_BECH32_PURPOSE,
-            seed
-        )
+        createWallets(HDWalletFactory.createMasterSeed(language, passphrase, seed), nbAccounts)
     }
 
     fun restoreWallets(
@@ -110,20 +105,17 @@ class HDWalletsContainer {
         passphrase: String,
         nbAccounts: Int
     ) {
-        legacy = HDWalletFactory.restoreWallet(
-            language,
-            data,
-            passphrase,
-            nbAccounts,
-            Derivation.LEGACY_PURPOSE
-        )
-        segwitBech32 = HDWalletFactory.restoreWallet(
-            language,
-            data,
-            passphrase,
-            nbAccounts,
-            Derivation.SEGWIT_BECH32_PURPOSE
-        )
+        val entropy = HDWalletFactory.toEntropy(language, data)
+        // Restoring the same wallet again, with more accounts, doesn't need the seed derived again
+        val masterSeed = masterSeed?.takeIf { it.matches(entropy, passphrase) }
+            ?: HDWalletFactory.createMasterSeed(language, passphrase, entropy)
+
+        createWallets(masterSeed, nbAccounts)
+    }
+
+    private fun createWallets(masterSeed: MasterSeed, nbAccounts: Int) {
+        legacy = HDWalletFactory.createWallet(masterSeed, nbAccounts, Derivation.LEGACY_PURPOSE)
+        segwitBech32 = HDWalletFactory.createWallet(masterSeed, nbAccounts, Derivation.SEGWIT_BECH32_PURPOSE)
     }
 
     fun restoreWatchOnly(
@@ -32,6 +32,7 @@ import info.blockchain.balance.CryptoValue;
 import info.blockchain.wallet.BlockchainFramework;
 import info.blockchain.wallet.api.WalletApi;
 import info.blockchain.wallet.bip44.HDAccount;
+import info.blockchain.wallet.bip44.HDChain;
 import info.blockchain.wallet.exceptions.AccountLockedException;
 import info.blockchain.wallet.exceptions.DecryptionException;
 import info.blockchain.wallet.exceptions.EncryptionException;
@@ -70,6 +71,10 @@ public class PayloadManager {
 
     private static Logger log = LoggerFactory.getLogger(PayloadManager.class);
 
+    private static final int PUBKEY_SYNC_WINDOW = 20;
+    // How far past the next unused index an address is looked for on each chain
+    private static final int ADDRESS_LOOKUP_WINDOW = 20;
+
     private boolean isV4Enabled = false;
     private WalletBase walletBase;
     private String password;
@@ -83,6 +88,8 @@ public class PayloadManager {
     // Bitcoin Cash
     private final BalanceManagerBch balanceManagerBch;
 
+    private final PubKeySyncTracker pubKeySyncTracker = new PubKeySyncTracker();
+
     public PayloadManager(
         WalletApi walletApi,
         NonCustodialBitcoinService bitcoinApi,
@@ -135,6 +142,7 @@ public class PayloadManager {
         this.isV4Enabled = isPayloadV4Enabled;
         this.password = password;
         walletBase = new WalletBase();
+        pubKeySyncTracker.reset();
         walletBase.setWalletBody(
             new Wallet(
                 defaultAccountName,
@@ -165,6 +173,7 @@ public class PayloadManager {
         this.isV4Enabled = isPayloadV4Enabled;
         this.password = password;
         walletBase = new WalletBase();
+        pubKeySyncTracker.reset();
 
         Wallet wallet = new Wallet();
         WalletBody walletBody = WalletBody.recoverFromMnemonic(
@@ -314,6 +323,7 @@ public class PayloadManager {
 
             base.decryptPayload(this.password);
             walletBase = base;
+            pubKeySyncTracker.reset();
         } else {
             log.warn("Fetching wallet data failed with provided credentials");
             String errorMessage = exe.errorBody().string();
@@ -381,6 +391,7 @@ public class PayloadManager {
         try {
             walletBase = WalletBase.fromJson(payload);
             walletBase.decryptPayload(password);
+            pubKeySyncTracker.reset();
             setTempPassword(password);
 
             updateAllBalances();
@@ -479,9 +490,11 @@ public class PayloadManager {
         String oldPayloadChecksum = walletBase.getPayloadChecksum();
 
         // Save to server
+        PubKeySyncTracker.Pending pubKeySync = null;
         List<String> syncAddresses;
         if (walletBase.isSyncPubkeys() || forcePubKeySync) {
-            syncAddresses = makePubKeySyncList(getPayload().getWalletBody(), payloadVersion);
+            pubKeySync = makePubKeySyncList(getPayload().getWalletBody(), payloadVersion, forcePubKeySync);
+            syncAddresses = pubKeySync.getAddresses();
         } else {
             syncAddresses = new ArrayList<>();
         }
@@ -500,6 +513,9 @@ public class PayloadManager {
         if (exe.isSuccessful()) {
             //set new checksum
             walletBase.setPayloadChecksum(newPayloadChecksum);
+            if (pubKeySync != null) {
+                pubKeySync.commit();
+            }
             return true;
         }
         else {
@@ -508,10 +524,13 @@ public class PayloadManager {
         }
     }
 
-    private List<String> makePubKeySyncList(WalletBody walletBody, int payloadVersion)
-        throws HDWalletException {
+    private PubKeySyncTracker.Pending makePubKeySyncList(
+        WalletBody walletBody,
+        int payloadVersion,
+        boolean fullSync
+    ) throws HDWalletException {
 
-        final List<String> syncAddresses = new ArrayList<>();
+        final PubKeySyncTracker.Pending syncAddresses = pubKeySyncTracker.begin(fullSync);
 
         // This matches what iOS is doing, but it seems to be massive overkill for mobile
         // devices. I'm also filtering out archived accounts here because I don't see the point
@@ -522,26 +541,29 @@ public class PayloadManager {
 
         for (Account account : walletBody.getAccounts()) {
             if (!account.isArchived()) {
-                HDAccount hdAccount = walletBody.getHDAccountFromAccountBody(account).get(0);
+                HDChain receiveChain = walletBody.getHDAccountFromAccountBody(account).get(0).getReceive();
                 int nextIndex = getNextReceiveAddressIndexBtc(account);
-
-                syncAddresses.addAll(
-                    Tools.getReceiveAddressList(
-                        hdAccount,
-                        nextIndex,
-                        nextIndex + 20,
-                        derivationPurpose
-                    )
+                int endIndex = nextIndex + PUBKEY_SYNC_WINDOW;
+
+                // Only indices that weren't in the window at the last successful save are sent
+                int startIndex = syncAddresses.claimRange(
+                    receiveChain.getXpub(),
+                    derivationPurpose,
+                    nextIndex,
+                    endIndex
                 );
+                for (String address : receiveChain.getFormattedAddressesAt(startIndex, endIndex, derivationPurpose)) {
+                    syncAddresses.addAddress(address);
+                }
             }
         }
 
-        syncAddresses.addAll(
-            Tools.filterImportedAddress(
-                ImportedAddress.NORMAL_ADDRESS,
-                getPayload().getImportedAddressList()
-            )
-        );
+        for (String address : Tools.filterImportedAddress(
+            ImportedAddress.NORMAL_ADDRESS,
+            getPayload().getImportedAddressList()
+        )) {
+            syncAddresses.addImported(address);
+        }
 
         return syncAddresses;
     }
@@ -852,7 +874,7 @@ public class PayloadManager {
      * @return A boolean, true if the address belongs to an xPub
      */
     public boolean isOwnHDAddress(String address) {
-        return multiAddressFactory.isOwnHDAddress(address);
+        return getXpubFromAddress(address) != null;
     }
 
     /**
@@ -886,7 +908,47 @@ public class PayloadManager {
      */
     @Nullable
     public String getXpubFromAddress(String address) {
-        return multiAddressFactory.getXpubFromAddress(address);
+        String xpub = multiAddressFactory.getXpubFromAddress(address);
+        return xpub != null ? xpub : findXpubByDerivation(address);
+    }
+
+    /**
+     * Looks for an address that hasn't appeared in a transaction yet, such as a fresh receive
+     * address, among the addresses each account could have handed out so far.
+     */
+    @Nullable
+    private String findXpubByDerivation(String address) {
+        WalletBody walletBody = getPayload() != null ? getPayload().getWalletBody() : null;
+        if (walletBody == null) {
+            return null;
+        }
+
+        try {
+            for (Account account : walletBody.getAccounts()) {
+                if (account.isArchived()) {
+                    continue;
+                }
+                List<HDAccount> hdAccounts = walletBody.getHDAccountFromAccountBody(account);
+                for (int i = 0; i < hdAccounts.size(); i++) {
+                    HDAccount hdAccount = hdAccounts.get(i);
+                    if (hdAccount == null) {
+                        continue;
+                    }
+                    String derivationType = i == 0 ? Derivation.LEGACY_TYPE : Derivation.SEGWIT_BECH32_TYPE;
+                    int purpose = i == 0 ? Derivation.LEGACY_PURPOSE : Derivation.SEGWIT_BECH32_PURPOSE;
+                    int receiveEnd = getNextReceiveAddressIndexBtc(account) + ADDRESS_LOOKUP_WINDOW;
+                    int changeEnd = getNextChangeAddressIndexBtc(account, derivationType) + ADDRESS_LOOKUP_WINDOW;
+
+                    if (hdAccount.getReceive().findAddressIndex(address, receiveEnd, purpose) >= 0 ||
+                        hdAccount.getChange().findAddressIndex(address, changeEnd, purpose) >= 0) {
+                        return account.xpubForDerivation(derivationType);
+                    }
+                }
+            }
+        } catch (HDWalletException e) {
+            return null;
+        }
+        return null;
     }
 
     /**
@@ -973,10 +1035,10 @@ public class PayloadManager {
             .get(derivationType == Derivation.LEGACY_TYPE ? 0 : 1);
 
         return hdAccount.getReceive()
-            .getAddressAt(
+            .getFormattedAddressAt(
                 position,
                 derivationType == Derivation.LEGACY_TYPE ? Derivation.LEGACY_PURPOSE : Derivation.SEGWIT_BECH32_PURPOSE
-            ).getFormattedAddress();
+            );
     }
 
     private String getChangeAddress(Account account, int position, String derivationType) throws HDWalletException {
@@ -986,10 +1048,10 @@ public class PayloadManager {
             .get(derivationType == Derivation.LEGACY_TYPE ? 0 : 1);
 
         return hdAccount.getChange()
-            .getAddressAt(
+            .getFormattedAddressAt(
                 position,
                 derivationType == Derivation.LEGACY_TYPE ? Derivation.LEGACY_PURPOSE : Derivation.SEGWIT_BECH32_PURPOSE
-            ).getFormattedAddress();
+            );
     }
 
     /**
@@ -0,0 +1,103 @@
+package info.blockchain.wallet.payload;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Remembers which receive addresses have already been sent to the server for pubkey sync, so
+ * that a save only derives and uploads the indices that have come into the sync window since
+ * the last successful save.
+ */
+class PubKeySyncTracker {
+
+    // Synced range [start, end) per chain, keyed by chain xpub and purpose
+    private final Map<String, int[]> syncedRanges = new HashMap<>();
+    private final Set<String> syncedImported = new HashSet<>();
+
+    /**
+     * Starts collecting the addresses for one save. If {@code full} is set then everything in
+     * the window is collected, regardless of what has been synced before.
+     */
+    synchronized Pending begin(boolean full) {
+        return new Pending(full);
+    }
+
+    synchronized void reset() {
+        syncedRanges.clear();
+        syncedImported.clear();
+    }
+
+    private synchronized int firstUnsynced(String chainKey, int from) {
+        int[] range = syncedRanges.get(chainKey);
+        if (range != null && from >= range[0] && from <= range[1]) {
+            return range[1];
+        }
+        return from;
+    }
+
+    private synchronized boolean isImportedSynced(String address) {
+        return syncedImported.contains(address);
+    }
+
+    private synchronized void commit(Pending pending) {
+        for (Map.Entry<String, int[]> entry : pending.ranges.entrySet()) {
+            int[] update = entry.getValue();
+            int[] range = syncedRanges.get(entry.getKey());
+            if (range != null && update[0] >= range[0] && update[0] <= range[1]) {
+                range[1] = Math.max(range[1], update[1]);
+            } else {
+                syncedRanges.put(entry.getKey(), update);
+            }
+        }
+        syncedImported.addAll(pending.imported);
+    }
+
+    class Pending {
+
+        private final boolean full;
+        private final List<String> addresses = new ArrayList<>();
+        private final Map<String, int[]> ranges = new HashMap<>();
+        private final List<String> imported = new ArrayList<>();
+
+        private Pending(boolean full) {
+            this.full = full;
+        }
+
+        /**
+         * Returns the first index in [from, to) that still needs sending for this chain, and
+         * records that the range up to {@code to} will be synced by this save.
+         */
+        int claimRange(String xpub, int purpose, int from, int to) {
+            String chainKey = xpub + ":" + purpose;
+            int start = full ? from : Math.max(from, Math.min(firstUnsynced(chainKey, from), to));
+            ranges.put(chainKey, new int[]{from, to});
+            return start;
+        }
+
+        void addAddress(String address) {
+            addresses.add(address);
+        }
+
+        void addImported(String address) {
+            if (full || !isImportedSynced(address)) {
+                addresses.add(address);
+                imported.add(address);
+            }
+        }
+
+        List<String> getAddresses() {
+            return addresses;
+        }
+
+        /**
+         * Marks everything collected here as synced; call once the server has accepted the save.
+         */
+        void commit() {
+            PubKeySyncTracker.this.commit(this);
+        }
+    }
+}
@@ -6,8 +6,8 @@ import com.fasterxml.jackson.annotation.JsonIgnoreProperties
 import com.fasterxml.jackson.annotation.JsonInclude
 import com.fasterxml.jackson.annotation.JsonProperty
 import com.fasterxml.jackson.core.JsonProcessingException
-import com.fasterxml.jackson.databind.ObjectMapper
 import info.blockchain.wallet.bip44.HDAccount
+import info.blockchain.wallet.util.JsonMappers
 import java.io.IOException
 
 /*
@@ -28,14 +28,14 @@ data class AddressCache(
 ) {
     @Throws(JsonProcessingException::class)
     fun toJson(): String {
-        return ObjectMapper().writeValueAsString(this)
+        return JsonMappers.toJson(this)
     }
 
     companion object {
 
         @Throws(IOException::class)
         fun fromJson(json: String): AddressCache {
-            return ObjectMapper().readValue(json, AddressCache::class.java)
+            return JsonMappers.fromJson(json, AddressCache::class.java)
         }
 
         fun setCachedXPubs(account: HDAccount): AddressCache {
@@ -6,7 +6,7 @@ import com.fasterxml.jackson.annotation.JsonIgnoreProperties
 import com.fasterxml.jackson.annotation.JsonInclude
 import com.fasterxml.jackson.annotation.JsonProperty
 import com.fasterxml.jackson.core.JsonProcessingException
-import com.fasterxml.jackson.databind.ObjectMapper
+import info.blockchain.wallet.util.JsonMappers
 import java.io.IOException
 
 @JsonInclude(JsonInclude.Include.NON_NULL)
@@ -26,14 +26,14 @@ data class AddressLabel(
 ) {
     @Throws(JsonProcessingException::class)
     fun toJson(): String {
-        return ObjectMapper().writeValueAsString(this)
+        return JsonMappers.toJson(this)
     }
 
     companion object {
 
         @Throws(IOException::class)
         fun fromJson(json: String): AddressLabel {
-            return ObjectMapper().readValue(json, AddressLabel::class.java)
+            return JsonMappers.fromJson(json, AddressLabel::class.java)
         }
     }
 }
@@ -6,7 +6,6 @@ import com.fasterxml.jackson.annotation.JsonAutoDetect.Visibility;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.squareup.moshi.Json;
 
 import org.bitcoinj.core.Base58;
@@ -16,6 +15,7 @@ import org.bitcoinj.params.MainNetParams;
 import java.io.IOException;
 
 import info.blockchain.wallet.BlockchainFramework;
+import info.blockchain.wallet.util.JsonMappers;
 
 @JsonIgnoreProperties(ignoreUnknown = true)
 @JsonAutoDetect(fieldVisibility = Visibility.NONE,
@@ -129,11 +129,11 @@ public class ImportedAddress implements JsonSerializableAccount {
     }
 
     public static ImportedAddress fromJson(String json) throws IOException {
-        return new ObjectMapper().readValue(json, ImportedAddress.class);
+        return JsonMappers.fromJson(json, ImportedAddress.class);
     }
 
     public String toJson() throws JsonProcessingException {
-        return new ObjectMapper().writeValueAsString(this);
+        return JsonMappers.toJson(this);
     }
 
     public static ImportedAddress fromECKey(ECKey ecKey) {
@@ -9,7 +9,6 @@ import com.fasterxml.jackson.annotation.JsonInclude.Include;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.module.kotlin.KotlinModule;
 import com.google.common.annotations.VisibleForTesting;
 import info.blockchain.wallet.exceptions.DecryptionException;
 import info.blockchain.wallet.exceptions.EncryptionException;
@@ -18,6 +17,7 @@ import info.blockchain.wallet.exceptions.NoSuchAddressException;
 import info.blockchain.wallet.keys.SigningKey;
 import info.blockchain.wallet.util.DoubleEncryptionFactory;
 import info.blockchain.wallet.util.FormatsUtil;
+import info.blockchain.wallet.util.JsonMappers;
 import org.apache.commons.lang3.StringUtils;
 import org.bitcoinj.core.AddressFormatException;
 import org.bitcoinj.core.Base58;
@@ -214,26 +214,14 @@ public class Wallet {
 
     public static Wallet fromJson(String json)
         throws IOException, HDWalletException {
-        ObjectMapper mapper = new ObjectMapper();
-
-        mapper.setVisibility(mapper.getSerializationConfig().getDefaultVisibilityChecker()
-                                 .withFieldVisibility(JsonAutoDetect.Visibility.ANY)
-                                 .withGetterVisibility(JsonAutoDetect.Visibility.NONE)
-                                 .withSetterVisibility(JsonAutoDetect.Visibility.NONE)
-                                 .withCreatorVisibility(JsonAutoDetect.Visibility.NONE));
-
-        KotlinModule module = new KotlinModule();
-        module.addAbstractTypeMapping(Account.class, AccountV3.class);
-        mapper.registerModule(module);
-
-        return fromJson(json, mapper);
+        return fromJson(json, WalletWrapper.getMapperForVersion(WalletWrapper.V3));
     }
 
     public static Wallet fromJson(
         String json,
         ObjectMapper mapper
     ) throws IOException, HDWalletException {
-        Wallet wallet = mapper.readValue(json, Wallet.class);
+        Wallet wallet = JsonMappers.fromJson(mapper, json, Wallet.class);
 
         if (wallet.getWalletBodies() != null) {
             ArrayList<WalletBody> walletBodyList = new ArrayList<>();
@@ -254,7 +242,7 @@ public class Wallet {
     }
 
     public String toJson(ObjectMapper mapper) throws JsonProcessingException {
-        return mapper.writeValueAsString(this);
+        return JsonMappers.toJson(mapper, this);
     }
 
     void addHDWallet(WalletBody walletBody) {
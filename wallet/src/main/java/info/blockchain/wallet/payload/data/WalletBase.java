@@ -8,12 +8,14 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import info.blockchain.wallet.crypto.AESDecryptSession;
 import info.blockchain.wallet.crypto.AESUtil;
 import info.blockchain.wallet.exceptions.DecryptionException;
 import info.blockchain.wallet.exceptions.EncryptionException;
 import info.blockchain.wallet.exceptions.HDWalletException;
 import info.blockchain.wallet.exceptions.UnsupportedVersionException;
 import info.blockchain.wallet.util.FormatsUtil;
+import info.blockchain.wallet.util.JsonMappers;
 
 import java.io.IOException;
 import java.io.UnsupportedEncodingException;
@@ -88,6 +90,10 @@ public class WalletBase {
             UnsupportedVersionException,
             HDWalletException {
 
+        if (payload == null) {
+            throw new DecryptionException("Failed to decrypt");
+        }
+
         if (!isV1Wallet()) {
             walletBody = decryptV3OrV4Wallet(password);
         } else {
@@ -122,12 +128,15 @@ public class WalletBase {
                 null // NoPadding
         };
 
+        // Every variant for one iteration count shares the same PBKDF2 key
+        AESDecryptSession session = new AESDecryptSession(payload, password);
+
         outerloop:
         for (int iteration : iterations) {
             for (int mode : modes) {
                 for (BlockCipherPadding padding : paddings) {
                     try {
-                        decrypted = AESUtil.decryptWithSetMode(payload, password, iteration, mode, padding);
+                        decrypted = session.decrypt(iteration, mode, padding);
                         //Ensure it's parsable
                         new JSONObject(decrypted);
 
@@ -204,18 +213,11 @@ public class WalletBase {
 
     public static WalletBase fromJson(String json) throws IOException {
 
-        ObjectMapper mapper = new ObjectMapper();
-        mapper.setVisibility(mapper.getSerializationConfig().getDefaultVisibilityChecker()
-                .withFieldVisibility(JsonAutoDetect.Visibility.ANY)
-                .withGetterVisibility(JsonAutoDetect.Visibility.NONE)
-                .withSetterVisibility(JsonAutoDetect.Visibility.NONE)
-                .withCreatorVisibility(JsonAutoDetect.Visibility.NONE));
-
-        return mapper.readValue(json, WalletBase.class);
+        return JsonMappers.fromJson(JsonMappers.fieldsOnly(), json, WalletBase.class);
     }
 
     public String toJson(ObjectMapper mapper) throws JsonProcessingException {
-        return mapper.writeValueAsString(this);
+        return JsonMappers.toJson(mapper, this);
     }
 
     public Pair encryptAndWrapPayload(String password)
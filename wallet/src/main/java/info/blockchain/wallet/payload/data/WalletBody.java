@@ -18,6 +18,7 @@ import info.blockchain.wallet.bip44.HDAccount;
 import info.blockchain.wallet.bip44.HDAddress;
 import info.blockchain.wallet.bip44.HDWallet;
 import info.blockchain.wallet.bip44.HDWalletFactory.Language;
+import info.blockchain.wallet.bip44.MasterSeed;
 import info.blockchain.wallet.exceptions.DecryptionException;
 import info.blockchain.wallet.exceptions.HDWalletException;
 import info.blockchain.wallet.keys.MasterKey;
@@ -29,6 +30,7 @@ import info.blockchain.wallet.payload.model.Utxo;
 import info.blockchain.wallet.payment.SpendableUnspentOutputs;
 import info.blockchain.wallet.stx.STXAccount;
 import info.blockchain.wallet.util.DoubleEncryptionFactory;
+import info.blockchain.wallet.util.JsonMappers;
 import info.blockchain.wallet.util.PrivateKeyFactory;
 
 import org.spongycastle.crypto.InvalidCipherTextException;
@@ -232,14 +234,14 @@ public class WalletBody {
         String json,
         ObjectMapper mapper
     ) throws IOException, HDWalletException {
-        WalletBody walletBody = mapper.readValue(json, WalletBody.class);
+        WalletBody walletBody = JsonMappers.fromJson(mapper, json, WalletBody.class);
         walletBody.instantiateBip44Wallet();
 
         return walletBody;
     }
 
     public String toJson(ObjectMapper mapper) throws JsonProcessingException {
-        return mapper.writeValueAsString(this);
+        return JsonMappers.toJson(mapper, this);
     }
 
     public List<Account> upgradeAccountsToV4() throws HDWalletException {
@@ -614,6 +616,14 @@ public class WalletBody {
         return HD.getMnemonic();
     }
 
+    /**
+     * The seed every coin of this wallet is derived from, or null for a watch-only wallet.
+     */
+    @Nullable
+    public MasterSeed getMasterSeed() {
+        return HD.getMasterSeed();
+    }
+
     @Nullable
     public String getLabelFromXpub(String xpub) {
         List<Account> accounts = getAccounts();
@@ -13,6 +13,7 @@ import info.blockchain.wallet.crypto.AESUtil;
 import info.blockchain.wallet.exceptions.DecryptionException;
 import info.blockchain.wallet.exceptions.HDWalletException;
 import info.blockchain.wallet.exceptions.UnsupportedVersionException;
+import info.blockchain.wallet.util.JsonMappers;
 import org.json.JSONException;
 
 import java.io.IOException;
@@ -32,6 +33,9 @@ public class WalletWrapper {
 
     public static final int DEFAULT_PBKDF2_ITERATIONS_V2 = 5000;
 
+    private static final ObjectMapper MAPPER_V3 = createMapper(V3);
+    private static final ObjectMapper MAPPER_V4 = createMapper(V4);
+
     @JsonProperty("version")
     private int version;
 
@@ -66,11 +70,11 @@ public class WalletWrapper {
     }
 
     public static WalletWrapper fromJson(String json) throws IOException {
-        return new ObjectMapper().readValue(json, WalletWrapper.class);
+        return JsonMappers.fromJson(json, WalletWrapper.class);
     }
 
     public String toJson(ObjectMapper mapper) throws JsonProcessingException {
-        return mapper.writeValueAsString(this);
+        return JsonMappers.toJson(mapper, this);
     }
 
     private void validateVersion() throws UnsupportedVersionException {
@@ -119,7 +123,14 @@ public class WalletWrapper {
         }
     }
 
+    /**
+     * Returns the shared mapper for payloads of {@code version}. It must not be reconfigured.
+     */
     public static ObjectMapper getMapperForVersion(int version) {
+        return version == V4 ? MAPPER_V4 : MAPPER_V3;
+    }
+
+    private static ObjectMapper createMapper(int version) {
         ObjectMapper mapper = new ObjectMapper();
 
         mapper.setVisibility(
@@ -140,7 +151,7 @@ public class WalletWrapper {
 
         mapper.registerModule(module);
 
-        return mapper;
+        return JsonMappers.register(mapper);
     }
 
     public static WalletWrapper wrap(String encryptedPayload, int version, int iterations) {
@@ -11,29 +11,46 @@ class CoinSelection(
     private val coins: List<Utxo>,
     private val feePerByte: BigInteger
 ) {
+    /**
+     * Selects the coins needed to pay [outputAmount].
+     *
+     * @param branchAndBoundTries When greater than zero, first runs a bounded branch-and-bound search
+     * for a set of coins that pays the target without needing a change output, falling back to the
+     * greedy draw defined by [coinSortingMethod] if none is found within that many steps.
+     */
     fun select(
         outputAmount: BigInteger,
         targetOutputType: OutputType,
         changeOutputType: OutputType,
-        coinSortingMethod: CoinSortingMethod
+        coinSortingMethod: CoinSortingMethod,
+        branchAndBoundTries: Int = 0
     ): SpendableUnspentOutputs {
         val effectiveCoins = coinSortingMethod.sort(coins).effective(feePerByte)
 
-        val selected = mutableListOf<Utxo>()
-        var accumulatedValue = BigInteger.ZERO
+        if (branchAndBoundTries > 0) {
+            selectExactMatch(
+                effectiveCoins,
+                outputAmount,
+                targetOutputType,
+                changeOutputType,
+                branchAndBoundTries
+            )?.let { return it }
+        }
+
+        val selection = SelectionAccumulator(feePerByte)
         var accumulatedFee = BigInteger.ZERO
 
         for (coin in effectiveCoins) {
-            if (!coin.isForceInclude && accumulatedValue >= outputAmount + accumulatedFee) {
+            if (!coin.isForceInclude && selection.value >= outputAmount + accumulatedFee) {
                 continue
             }
-            selected += coin
-            accumulatedValue = selected.sum()
-            accumulatedFee = transactionBytes(selected, outputs = 1, targetOutputType) * feePerByte
+            selection.add(coin)
+            accumulatedFee = selection.fee(outputs = 1, outputType = targetOutputType)
         }
 
+        val selected = selection.coins
         val dust = dustThreshold(changeOutputType, feePerByte)
-        val remainingValue = accumulatedValue - (outputAmount + accumulatedFee)
+        val remainingValue = selection.value - (outputAmount + accumulatedFee)
         val isReplayProtected = selected.replayProtected
 
         return when {
@@ -43,7 +60,7 @@ class CoinSelection(
             }
             // Remaining value is worth keeping, add change output
             remainingValue >= dust -> {
-                accumulatedFee = transactionBytes(selected, outputs = 2, changeOutputType) * feePerByte
+                accumulatedFee = selection.fee(outputs = 2, outputType = changeOutputType)
                 SpendableUnspentOutputs(selected, accumulatedFee, isReplayProtected = isReplayProtected)
             }
             // Remaining value is not worth keeping, consume it as part of the fee
@@ -59,6 +76,89 @@ class CoinSelection(
         }
     }
 
+    /**
+     * Depth first search, largest coins first, for a subset whose effective value covers the target
+     * and overshoots it by less than the cost of creating and later spending a change output.
+     * Returns the match with the least overshoot found within [maxTries] steps, or null.
+     */
+    private fun selectExactMatch(
+        effectiveCoins: List<Utxo>,
+        outputAmount: BigInteger,
+        targetOutputType: OutputType,
+        changeOutputType: OutputType,
+        maxTries: Int
+    ): SpendableUnspentOutputs? {
+        // Forced coins (replay protection) have a fixed position in the selection
+        if (effectiveCoins.isEmpty() || effectiveCoins.any { it.isForceInclude }) {
+            return null
+        }
+
+        val candidates = effectiveCoins.sortedByDescending { effectiveValue(it, feePerByte) }
+        val values = LongArray(candidates.size) { effectiveValue(candidates[it], feePerByte).toLong() }
+        val target = (outputAmount + transactionBytes(0, 0, 1, targetOutputType) * feePerByte).toLong()
+        val costOfChange = dustThreshold(changeOutputType, feePerByte).toLong()
+
+        var available = values.sum()
+        if (available < target) {
+            return null
+        }
+
+        val inclusion = BooleanArray(values.size)
+        var best: BooleanArray? = null
+        var bestExcess = Long.MAX_VALUE
+        var currentValue = 0L
+        var depth = 0
+
+        var tries = 0
+        while (tries++ < maxTries) {
+            var backtrack = false
+            if (currentValue + available < target || currentValue > target + costOfChange) {
+                // This branch can't reach the target, or has overshot it
+                backtrack = true
+            } else if (currentValue >= target) {
+                val excess = currentValue - target
+                if (excess < bestExcess) {
+                    best = inclusion.copyOf()
+                    bestExcess = excess
+                    if (excess == 0L) break
+                }
+                backtrack = true
+            }
+
+            if (backtrack) {
+                // Walk back to the last included coin and try the branch without it
+                while (depth > 0 && !inclusion[depth - 1]) {
+                    depth--
+                    available += values[depth]
+                }
+                if (depth == 0) break
+                depth--
+                inclusion[depth] = false
+                currentValue -= values[depth]
+                depth++
+            } else {
+                available -= values[depth]
+                inclusion[depth] = true
+                currentValue += values[depth]
+                depth++
+            }
+        }
+
+        val match = best ?: return null
+        val selection = SelectionAccumulator(feePerByte)
+        candidates.forEachIndexed { index, coin ->
+            if (match[index]) selection.add(coin)
+        }
+        val excess = bestExcess.toBigInteger()
+
+        return SpendableUnspentOutputs(
+            selection.coins,
+            selection.fee(outputs = 1, outputType = targetOutputType) + excess,
+            excess,
+            selection.coins.replayProtected
+        )
+    }
+
     fun selectAll(
         targetOutputType: OutputType,
         coinSortingMethod: CoinSortingMethod? = null
@@ -75,11 +175,30 @@ class CoinSelection(
     }
 }
 
-fun List<Utxo>.sum(): BigInteger {
-    if (isEmpty()) {
-        return BigInteger.ZERO
+fun List<Utxo>.sum(): BigInteger =
+    fold(BigInteger.ZERO) { acc, utxo -> acc + utxo.value }
+
+/**
+ * Keeps the running value and input counts of a selection, so adding a coin and
+ * pricing the resulting transaction are both constant time.
+ */
+private class SelectionAccumulator(private val feePerByte: BigInteger) {
+    val coins = mutableListOf<Utxo>()
+
+    var value: BigInteger = BigInteger.ZERO
+        private set
+
+    private var legacyInputs = 0
+    private var segwitInputs = 0
+
+    fun add(coin: Utxo) {
+        coins += coin
+        value += coin.value
+        if (coin.isSegwit) segwitInputs++ else legacyInputs++
     }
-    return this.map { it.value }.reduce { value, acc -> value + acc }
+
+    fun fee(outputs: Int, outputType: OutputType): BigInteger =
+        transactionBytes(legacyInputs, segwitInputs, outputs, outputType) * feePerByte
 }
 
 private fun List<Utxo>.effective(feePerByte: BigInteger): List<Utxo> {
@@ -111,8 +230,15 @@ private fun transactionBytes(
     outputType: OutputType
 ): BigInteger {
     val segwitInputs = inputs.count { it.isSegwit }
-    val legacyInputs = inputs.size - segwitInputs
+    return transactionBytes(inputs.size - segwitInputs, segwitInputs, outputs, outputType)
+}
 
+private fun transactionBytes(
+    legacyInputs: Int,
+    segwitInputs: Int,
+    outputs: Int,
+    outputType: OutputType
+): BigInteger {
     return COST_BASE +
             COST_PER_INPUT_LEGACY.multiply(legacyInputs.toBigInteger()) +
             COST_PER_INPUT_SEGWIT.multiply(segwitInputs.toBigInteger()) +
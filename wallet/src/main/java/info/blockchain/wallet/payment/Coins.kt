@@ -53,6 +53,8 @@ internal object Coins {
      * @param paymentAmount the desired amount to send
      * @param feePerKb he fee per KB
      * @param addReplayProtection whether or no replay protection should be considered
+     * @param branchAndBoundTries search budget for a selection that needs no change output, see
+     * [CoinSelection.select]
      * @return a list of spendable coins
      */
     fun getMinimumCoinsForPayment(
@@ -61,7 +63,8 @@ internal object Coins {
         changeOutputType: OutputType,
         paymentAmount: BigInteger,
         feePerKb: BigInteger,
-        addReplayProtection: Boolean
+        addReplayProtection: Boolean,
+        branchAndBoundTries: Int = 0
     ): SpendableUnspentOutputs {
 
         val coinSortingMethod: CoinSortingMethod = if (addReplayProtection) {
@@ -71,7 +74,7 @@ internal object Coins {
         }
 
         return CoinSelection(utxoList, feePerKbToFeePerByte(feePerKb))
-            .select(paymentAmount, targetOutputType, changeOutputType, coinSortingMethod)
+            .select(paymentAmount, targetOutputType, changeOutputType, coinSortingMethod, branchAndBoundTries)
     }
 
     private fun feePerKbToFeePerByte(feePerKb: BigInteger): BigInteger {
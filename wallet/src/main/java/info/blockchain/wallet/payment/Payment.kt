@@ -74,13 +74,15 @@ class Payment(
         )
     }
 
+    @JvmOverloads
     fun getSpendableCoins(
         @NonNull unspentCoins: List<Utxo>,
         @NonNull targetOutputType: OutputType,
         @NonNull changeOutputType: OutputType,
         @NonNull paymentAmount: BigInteger,
         @NonNull feePerKb: BigInteger,
-        addReplayProtection: Boolean
+        addReplayProtection: Boolean,
+        branchAndBoundTries: Int = 0
     ): SpendableUnspentOutputs {
         return Coins.getMinimumCoinsForPayment(
             unspentCoins,
@@ -88,7 +90,8 @@ class Payment(
             changeOutputType,
             paymentAmount,
             feePerKb,
-            addReplayProtection
+            addReplayProtection,
+            branchAndBoundTries
         )
     }
 
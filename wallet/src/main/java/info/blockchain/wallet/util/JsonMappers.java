@@ -0,0 +1,127 @@
+package info.blockchain.wallet.util;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.introspect.VisibilityChecker;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Shared Jackson mappers for the wallet payload types. Jackson caches serializers and
+ * deserializers per mapper, so using these rather than a new {@link ObjectMapper} each time means
+ * each type is only introspected once. The readers and writers handed out are bound to their type
+ * up front and cached too.
+ * <p>
+ * Mappers are thread safe once configured. Those returned here are shared, so must not be
+ * reconfigured by callers.
+ */
+public final class JsonMappers {
+
+    private static final ConcurrentHashMap<ObjectMapper, Map<Class<?>, ObjectReader>> readers =
+        new ConcurrentHashMap<>();
+    private static final ConcurrentHashMap<ObjectMapper, Map<Class<?>, ObjectWriter>> writers =
+        new ConcurrentHashMap<>();
+
+    private static final ObjectMapper PLAIN = register(new ObjectMapper());
+
+    private static final ObjectMapper FIELDS_ONLY = register(fieldsOnly(
+        PLAIN.getSerializationConfig().getDefaultVisibilityChecker()
+    ));
+
+    private static final ObjectMapper FIELDS_ONLY_IGNORING_IS_GETTERS = register(fieldsOnly(
+        PLAIN.getSerializationConfig().getDefaultVisibilityChecker()
+            .withIsGetterVisibility(JsonAutoDetect.Visibility.NONE)
+    ));
+
+    private JsonMappers() {
+    }
+
+    /**
+     * A mapper with Jackson's default configuration; the equivalent of {@code new ObjectMapper()}.
+     */
+    public static ObjectMapper plain() {
+        return PLAIN;
+    }
+
+    /**
+     * A mapper that only sees fields, not getters, setters or creators.
+     */
+    public static ObjectMapper fieldsOnly() {
+        return FIELDS_ONLY;
+    }
+
+    /**
+     * As {@link #fieldsOnly()}, also ignoring {@code is} getters.
+     */
+    public static ObjectMapper fieldsOnlyIgnoringIsGetters() {
+        return FIELDS_ONLY_IGNORING_IS_GETTERS;
+    }
+
+    public static <T> T fromJson(String json, Class<T> type) throws IOException {
+        return fromJson(PLAIN, json, type);
+    }
+
+    public static <T> T fromJson(ObjectMapper mapper, String json, Class<T> type) throws IOException {
+        return readerFor(mapper, type).readValue(json);
+    }
+
+    public static String toJson(Object value) throws JsonProcessingException {
+        return toJson(PLAIN, value);
+    }
+
+    public static String toJson(ObjectMapper mapper, Object value) throws JsonProcessingException {
+        return writerFor(mapper, value.getClass()).writeValueAsString(value);
+    }
+
+    /**
+     * Makes {@code mapper} a shared mapper, whose readers and writers are cached. Only register
+     * mappers that live for the life of the process.
+     */
+    public static ObjectMapper register(ObjectMapper mapper) {
+        readers.putIfAbsent(mapper, new ConcurrentHashMap<Class<?>, ObjectReader>());
+        writers.putIfAbsent(mapper, new ConcurrentHashMap<Class<?>, ObjectWriter>());
+        return mapper;
+    }
+
+    public static ObjectReader readerFor(ObjectMapper mapper, Class<?> type) {
+        Map<Class<?>, ObjectReader> cache = readers.get(mapper);
+        if (cache == null) {
+            return mapper.readerFor(type);
+        }
+        ObjectReader reader = cache.get(type);
+        if (reader == null) {
+            reader = mapper.readerFor(type);
+            cache.put(type, reader);
+        }
+        return reader;
+    }
+
+    public static ObjectWriter writerFor(ObjectMapper mapper, Class<?> type) {
+        Map<Class<?>, ObjectWriter> cache = writers.get(mapper);
+        if (cache == null) {
+            return mapper.writerFor(type);
+        }
+        ObjectWriter writer = cache.get(type);
+        if (writer == null) {
+            writer = mapper.writerFor(type);
+            cache.put(type, writer);
+        }
+        return writer;
+    }
+
+    private static ObjectMapper fieldsOnly(VisibilityChecker<?> checker) {
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.setVisibility(
+            checker.withFieldVisibility(JsonAutoDetect.Visibility.ANY)
+                .withGetterVisibility(JsonAutoDetect.Visibility.NONE)
+                .withSetterVisibility(JsonAutoDetect.Visibility.NONE)
+                .withCreatorVisibility(JsonAutoDetect.Visibility.NONE)
+        );
+        return mapper;
+    }
+}
@@ -5,9 +5,11 @@ import com.blockchain.koin.walletModule
 import com.nhaarman.mockito_kotlin.mock
 import com.blockchain.api.NonCustodialBitcoinService
 import info.blockchain.wallet.api.WalletApi
+import info.blockchain.wallet.bip44.DerivedAddressCache
 import info.blockchain.wallet.payload.PayloadManager
 import info.blockchain.wallet.payload.PayloadManagerWiper
 import org.amshove.kluent.`should be`
+import org.amshove.kluent.`should equal`
 import org.amshove.kluent.`should not be`
 import org.junit.Test
 import org.koin.core.context.startKoin
@@ -41,4 +43,23 @@ class PayloadManagerWipingTest : AutoCloseKoinTest() {
 
         thirdPayloadManager `should not be` secondPayloadManager
     }
-}
\ No newline at end of file
+
+    @Test
+    fun `Wiping the payload manager clears the shared derived address cache`() {
+        startKoin {
+            modules(listOf(
+                walletModule,
+                module {
+                    single { mock<WalletApi>() }
+                    single { mock<NonCustodialBitcoinService>() }
+                }
+            ))
+        }
+        DerivedAddressCache.shared().put("xpub", 44, 0, "address")
+
+        val wiper: PayloadManagerWiper = payloadScope.get()
+        wiper.wipe()
+
+        DerivedAddressCache.shared().size() `should equal` 0
+    }
+}
@@ -2,10 +2,11 @@ package info.blockchain.wallet;
 
 import com.blockchain.api.NonCustodialBitcoinService;
 import com.blockchain.api.bitcoin.data.BalanceDto;
-import com.blockchain.api.bitcoin.data.MultiAddress;
 import info.blockchain.wallet.api.WalletApi;
 import info.blockchain.wallet.api.WalletExplorerEndpoints;
 import info.blockchain.wallet.util.LoaderUtilKt;
+import okhttp3.MediaType;
+import okhttp3.ResponseBody;
 import retrofit2.Call;
 import retrofit2.Response;
 
@@ -71,29 +72,27 @@ public abstract class WalletApiMockedResponseTest extends MockedResponseTest {
     }
 
     @SuppressWarnings("unchecked")
-    protected Call<MultiAddress> makeMultiAddressResponse(String body) throws IOException {
-        Response<MultiAddress> response = mock(Response.class);
-        MultiAddress data = LoaderUtilKt.parseMultiAddressResponse(body);
-        when(response.isSuccessful()).thenReturn(true);
-        when(response.body()).thenReturn(data);
-
-        Call<MultiAddress> call = mock(Call.class);
-        when(call.execute()).thenReturn(response);
+    protected Call<ResponseBody> makeMultiAddressResponse(final String body) throws IOException {
+        // A streamed body can only be read once, so hand out a fresh one for every execute
+        Call<ResponseBody> call = mock(Call.class);
+        when(call.execute()).thenAnswer(invocation ->
+            Response.success(ResponseBody.create(body, MediaType.parse("application/json")))
+        );
         return call;
     }
 
     protected void mockMultiAddress(NonCustodialBitcoinService bitcoinApi, String coin, String resourceFile) throws IOException {
         String multi = loadResourceContent(resourceFile);
-        Call<MultiAddress> bchMultiResponse = makeMultiAddressResponse(multi);
-        when(bitcoinApi.getMultiAddress(
+        Call<ResponseBody> bchMultiResponse = makeMultiAddressResponse(multi);
+        when(bitcoinApi.getMultiAddressStream(
             eq(coin), any(), any(), any(String.class), any(), any(Integer.class), any(Integer.class)
         )).thenReturn(bchMultiResponse);
     }
 
     protected void mockMultiAddress(NonCustodialBitcoinService bitcoinApi, String resourceFile) throws IOException {
         String multi = loadResourceContent(resourceFile);
-        Call<MultiAddress> bchMultiResponse = makeMultiAddressResponse(multi);
-        when(bitcoinApi.getMultiAddress(
+        Call<ResponseBody> bchMultiResponse = makeMultiAddressResponse(multi);
+        when(bitcoinApi.getMultiAddressStream(
             any(String.class), any(), any(), nullable(String.class), any(), any(Integer.class), any(Integer.class)
         )).thenReturn(bchMultiResponse);
     }
@@ -0,0 +1,98 @@
+package info.blockchain.wallet.bch
+
+import org.amshove.kluent.`should be`
+import org.amshove.kluent.`should equal`
+import org.bitcoinj.core.AddressFormatException
+import org.junit.Test
+import org.spongycastle.util.encoders.Hex
+import java.util.Random
+
+class Bech32Test {
+
+    private val random = Random(7)
+
+    @Test
+    fun `encodes the CashAddr test vector`() {
+        val hash = Hex.decode("76a04053bda0a88bda5177b86a15c3b29f559873")
+
+        CashAddress.encode("bitcoincash", CashAddress.P2PKH, hash) `should equal`
+            "bitcoincash:qpm2qsznhks23z7629mms6s4cwef74vcwvy22gdx6a"
+    }
+
+    @Test
+    fun `encodes like the BigInteger implementation`() {
+        repeat(VECTORS) {
+            val prefix = randomPrefix()
+            val words = Bech32.toWords(randomBytes(20 + random.nextInt(20)))
+
+            Bech32.encode(prefix, words) `should equal` BigIntegerBech32.encode(prefix, words)
+        }
+    }
+
+    @Test
+    fun `decodes like the BigInteger implementation`() {
+        repeat(VECTORS) {
+            val address = BigIntegerBech32.encode(randomPrefix(), Bech32.toWords(randomBytes(21)))
+                .let { if (random.nextBoolean()) it.toUpperCase() else it }
+
+            val expected = BigIntegerBech32.decode(address)
+            val actual = Bech32.decode(address)
+
+            actual.prefix `should equal` expected.prefix
+            actual.words.contentEquals(expected.words) `should be` true
+        }
+    }
+
+    @Test
+    fun `converts bits like the BigInteger implementation`() {
+        repeat(VECTORS) {
+            val bytes = randomBytes(random.nextInt(65))
+            val words = Bech32.toWords(bytes)
+
+            words.contentEquals(BigIntegerBech32.toWords(bytes)) `should be` true
+            Bech32.fromWords(words).contentEquals(BigIntegerBech32.fromWords(words)) `should be` true
+            Bech32.fromWords(words).contentEquals(bytes) `should be` true
+        }
+    }
+
+    @Test
+    fun `rejects a changed character like the BigInteger implementation`() {
+        repeat(VECTORS) {
+            val address = Bech32.encode("bitcoincash", Bech32.toWords(randomBytes(21)))
+            val i = "bitcoincash:".length + random.nextInt(address.length - "bitcoincash:".length)
+            val replacement = CHARSET.filter { it != address[i] }[random.nextInt(CHARSET.length - 1)]
+            val corrupted = address.substring(0, i) + replacement + address.substring(i + 1)
+
+            rejects { BigIntegerBech32.decode(corrupted) } `should be` true
+            rejects { Bech32.decode(corrupted) } `should be` true
+        }
+    }
+
+    @Test(expected = AddressFormatException::class)
+    fun `characters outside the charset are rejected`() {
+        Bech32.decode("bitcoincash:qpm2qsznhks23z7629mms6s4cwef74vcwvy22gdx6b!")
+    }
+
+    @Test(expected = AddressFormatException::class)
+    fun `mixed case is rejected`() {
+        Bech32.decode("bitcoincash:qpm2qsznhks23z7629mms6s4cwef74vcwvY22gdx6a")
+    }
+
+    private fun rejects(decode: () -> Unit): Boolean =
+        try {
+            decode()
+            false
+        } catch (e: AddressFormatException) {
+            true
+        }
+
+    private fun randomBytes(size: Int) = ByteArray(size).also { random.nextBytes(it) }
+
+    private fun randomPrefix(): String =
+        (1..1 + random.nextInt(15)).map { 'a' + random.nextInt(26) }.joinToString("")
+
+    companion object {
+        private const val VECTORS = 500
+        private const val CHARSET = "qpzry9x8gf2tvdw0s3jn54khce6mua7l"
+    }
+}
@@ -1,15 +1,25 @@
 package info.blockchain.wallet.bip44
 
+import info.blockchain.wallet.crypto.AddressDerivationService
 import info.blockchain.wallet.payload.data.Derivation
 import org.bitcoinj.crypto.HDKeyDerivation
 import org.bitcoinj.params.MainNetParams
+import org.junit.After
 import org.junit.Assert
 import org.junit.Test
+import java.util.concurrent.ForkJoinPool
 
 class HDChainTest {
     private val seed = "15e23aa73d25994f1921a1256f93f72c"
     private val key = HDKeyDerivation.createMasterPrivateKey(seed.toByteArray())
 
+    private val pool = ForkJoinPool(2)
+
+    @After
+    fun tearDown() {
+        pool.shutdown()
+    }
+
     @Test
     fun isReceive() {
         val chain1 = HDChain(MainNetParams.get(), key, true)
@@ -37,6 +47,86 @@ class HDChainTest {
         )
     }
 
+    @Test
+    fun getFormattedAddressAtMatchesDerivedAddress() {
+        val chain = HDChain(MainNetParams.get(), key, true, DerivedAddressCache(10), AddressDerivationService.shared)
+        Assert.assertEquals(
+            chain.getAddressAt(3, Derivation.SEGWIT_BECH32_PURPOSE).formattedAddress,
+            chain.getFormattedAddressAt(3, Derivation.SEGWIT_BECH32_PURPOSE)
+        )
+    }
+
+    @Test
+    fun getFormattedAddressAtUsesCache() {
+        val cache = DerivedAddressCache(10)
+        val chain = HDChain(MainNetParams.get(), key, true, cache, AddressDerivationService.shared)
+        cache.put(chain.xpub, Derivation.LEGACY_PURPOSE, 0, "cached")
+
+        Assert.assertEquals("cached", chain.getFormattedAddressAt(0, Derivation.LEGACY_PURPOSE))
+        Assert.assertEquals(
+            "1HxBEXhu5LPibpTAQ1EoNTJavDSbwajJTg",
+            HDChain(MainNetParams.get(), key, true, DerivedAddressCache(10), AddressDerivationService.shared)
+                .getFormattedAddressAt(0, Derivation.LEGACY_PURPOSE)
+        )
+    }
+
+    @Test
+    fun getFormattedAddressesAtMatchesSingleDerivation() {
+        val cache = DerivedAddressCache(100)
+        val chain = HDChain(
+            MainNetParams.get(),
+            key,
+            true,
+            cache,
+            AddressDerivationService(pool, 4)
+        )
+        chain.getFormattedAddressAt(5, Derivation.SEGWIT_BECH32_PURPOSE)
+
+        val batch = chain.getFormattedAddressesAt(0, 40, Derivation.SEGWIT_BECH32_PURPOSE)
+
+        val reference = HDChain(MainNetParams.get(), key, true, DerivedAddressCache(100), AddressDerivationService.shared)
+        Assert.assertEquals(
+            (0 until 40).map { reference.getAddressAt(it, Derivation.SEGWIT_BECH32_PURPOSE).formattedAddress },
+            batch
+        )
+        Assert.assertEquals(40, cache.size())
+    }
+
+    @Test
+    fun findAddressIndex() {
+        val cache = DerivedAddressCache(200)
+        val chain = HDChain(MainNetParams.get(), key, true, cache, AddressDerivationService(pool, 4))
+        val reference = HDChain(MainNetParams.get(), key, true, DerivedAddressCache(10), AddressDerivationService.shared)
+        val address = reference.getAddressAt(73, Derivation.SEGWIT_BECH32_PURPOSE).formattedAddress
+
+        Assert.assertEquals(73, chain.findAddressIndex(address, 120, Derivation.SEGWIT_BECH32_PURPOSE))
+        Assert.assertEquals(address, cache.get(chain.xpub, Derivation.SEGWIT_BECH32_PURPOSE, 73))
+        Assert.assertEquals(-1, chain.findAddressIndex(address, 73, Derivation.SEGWIT_BECH32_PURPOSE))
+    }
+
+    @Test
+    fun findAddressIndexUsesCache() {
+        val cache = DerivedAddressCache(10)
+        val chain = HDChain(MainNetParams.get(), key, true, cache, AddressDerivationService(pool, 4))
+        (0 until 3).forEach { cache.put(chain.xpub, Derivation.LEGACY_PURPOSE, it, "cached$it") }
+
+        Assert.assertEquals(2, chain.findAddressIndex("cached2", 3, Derivation.LEGACY_PURPOSE))
+        Assert.assertEquals(-1, chain.findAddressIndex("other", 3, Derivation.LEGACY_PURPOSE))
+    }
+
+    @Test
+    fun derivedAddressCacheEvictsLeastRecentlyUsed() {
+        val cache = DerivedAddressCache(2)
+        cache.put("xpub", 44, 0, "a")
+        cache.put("xpub", 44, 1, "b")
+        cache.get("xpub", 44, 0)
+        cache.put("xpub", 44, 2, "c")
+
+        Assert.assertEquals("a", cache.get("xpub", 44, 0))
+        Assert.assertNull(cache.get("xpub", 44, 1))
+        Assert.assertEquals(2, cache.size())
+    }
+
     @Test
     fun getPath() {
         val chain = HDChain(MainNetParams.get(), key, true)
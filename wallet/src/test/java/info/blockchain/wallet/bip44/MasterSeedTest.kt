@@ -0,0 +1,107 @@
+package info.blockchain.wallet.bip44
+
+import info.blockchain.wallet.bip44.HDWalletFactory.Language
+import info.blockchain.wallet.crypto.DeterministicWallet
+import info.blockchain.wallet.payload.HDWalletsContainer
+import info.blockchain.wallet.payload.data.Derivation
+import org.amshove.kluent.`should be`
+import org.amshove.kluent.`should equal`
+import org.bitcoinj.params.MainNetParams
+import org.junit.Test
+
+class MasterSeedTest {
+
+    @Test
+    fun `legacy and segwit wallets share one derivation`() {
+        val before = MasterSeed.stats().derivations
+
+        val container = HDWalletsContainer()
+        container.restoreWallets(Language.US, MNEMONIC, "", 1)
+
+        MasterSeed.stats().derivations - before `should equal` 1L
+        container.getHDWallet(Derivation.LEGACY_PURPOSE)!!.masterSeed `should be`
+            container.getHDWallet(Derivation.SEGWIT_BECH32_PURPOSE)!!.masterSeed
+    }
+
+    @Test
+    fun `restoring the same wallet again reuses its seed`() {
+        val container = HDWalletsContainer()
+        container.restoreWallets(Language.US, MNEMONIC, "", 1)
+        val seed = container.masterSeed
+        val before = MasterSeed.stats().derivations
+
+        container.restoreWallets(Language.US, MNEMONIC, "", 3)
+
+        MasterSeed.stats().derivations `should equal` before
+        container.masterSeed `should be` seed
+        container.getHDWallet(Derivation.LEGACY_PURPOSE)!!.accounts.size `should equal` 3
+    }
+
+    @Test
+    fun `a different passphrase derives a new seed`() {
+        val container = HDWalletsContainer()
+        container.restoreWallets(Language.US, MNEMONIC, "", 1)
+        val before = MasterSeed.stats().derivations
+
+        container.restoreWallets(Language.US, MNEMONIC, "passphrase", 1)
+
+        MasterSeed.stats().derivations - before `should equal` 1L
+        container.masterSeed!!.passphrase `should equal` "passphrase"
+    }
+
+    @Test
+    fun `clearing the seed zeroes it`() {
+        val seed = HDWalletFactory.createMasterSeed(
+            Language.US,
+            "",
+            HDWalletFactory.toEntropy(Language.US, MNEMONIC)
+        )
+        val hdSeed = seed.hdSeed
+
+        seed.clear()
+
+        seed.isCleared `should be` true
+        hdSeed.all { it == 0.toByte() } `should be` true
+        seed.matches(ByteArray(16), "") `should be` false
+    }
+
+    @Test
+    fun `clearing the seed wipes it for every wallet sharing it`() {
+        val container = HDWalletsContainer()
+        container.restoreWallets(Language.US, MNEMONIC, "", 1)
+        val legacySeed = container.getHDWallet(Derivation.LEGACY_PURPOSE)!!.hdSeed
+        val segwitSeed = container.getHDWallet(Derivation.SEGWIT_BECH32_PURPOSE)!!.hdSeed
+        val bchWallet = TestDeterministicWallet(container.masterSeed!!)
+
+        container.masterSeed!!.clear()
+
+        legacySeed.all { it == 0.toByte() } `should be` true
+        segwitSeed.all { it == 0.toByte() } `should be` true
+        rejects { bchWallet.seedHex } `should be` true
+        rejects { container.getHDWallet(Derivation.LEGACY_PURPOSE)!!.seedHex } `should be` true
+    }
+
+    @Test(expected = IllegalStateException::class)
+    fun `a cleared seed can't be read`() {
+        val seed = HDWalletFactory.createMasterSeed(Language.US, "", ByteArray(16))
+
+        seed.clear()
+
+        seed.hdSeed
+    }
+
+    private class TestDeterministicWallet(seed: MasterSeed) :
+        DeterministicWallet(MainNetParams.get(), "M/44H/145H", seed)
+
+    private fun rejects(read: () -> Unit): Boolean =
+        try {
+            read()
+            false
+        } catch (e: IllegalStateException) {
+            true
+        }
+
+    companion object {
+        private const val MNEMONIC = "all all all all all all all all all all all all"
+    }
+}
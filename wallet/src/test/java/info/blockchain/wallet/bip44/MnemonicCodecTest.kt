@@ -0,0 +1,77 @@
+package info.blockchain.wallet.bip44
+
+import info.blockchain.wallet.bip44.HDWalletFactory.Language
+import org.amshove.kluent.`should be`
+import org.amshove.kluent.`should equal`
+import org.bitcoinj.crypto.MnemonicCode
+import org.bitcoinj.crypto.MnemonicException
+import org.junit.Test
+import org.spongycastle.util.encoders.Hex
+import java.util.Random
+
+class MnemonicCodecTest {
+
+    private val subject = MnemonicCodec.forLanguage(Language.US)
+
+    @Test
+    fun `there is one codec and word list per language`() {
+        MnemonicCodec.forLanguage(Language.US) `should be` subject
+        MnemonicWordList.forLanguage(Language.US) `should be` subject.wordList
+    }
+
+    @Test
+    fun `matches the BIP39 test vector`() {
+        val entropy = Hex.decode("7f7f7f7f7f7f7f7f7f7f7f7f7f7f7f7f")
+        val mnemonic = "legal winner thank year wave sausage worth useful legal winner thank yellow".split(" ")
+
+        subject.toMnemonic(entropy) `should equal` mnemonic
+        subject.toEntropy(mnemonic).contentEquals(entropy) `should be` true
+    }
+
+    @Test
+    fun `agrees with bitcoinj for every entropy length`() {
+        val reference = MnemonicCode.INSTANCE
+        val random = Random(42)
+
+        listOf(16, 20, 24, 28, 32).forEach { size ->
+            repeat(20) {
+                val entropy = ByteArray(size).also { random.nextBytes(it) }
+                val mnemonic = reference.toMnemonic(entropy)
+
+                subject.toMnemonic(entropy) `should equal` mnemonic
+                subject.toEntropy(mnemonic).contentEquals(entropy) `should be` true
+            }
+        }
+    }
+
+    @Test
+    fun `a bad checksum is invalid`() {
+        val mnemonic = "all all all all all all all all all all all all".split(" ")
+        val swapped = mnemonic.dropLast(1) + "abandon"
+
+        subject.isValid(mnemonic) `should be` true
+        subject.isValid(swapped) `should be` false
+    }
+
+    @Test(expected = MnemonicException.MnemonicWordException::class)
+    fun `an unknown word is rejected`() {
+        subject.check("all all all all all all all all all all all alll".split(" "))
+    }
+
+    @Test(expected = MnemonicException.MnemonicLengthException::class)
+    fun `a phrase that isn't a multiple of three words is rejected`() {
+        subject.check("all all all all".split(" "))
+    }
+
+    @Test
+    fun `words are found by prefix`() {
+        val words = subject.wordList
+
+        words.wordsStartingWith("abo") `should equal` listOf("about", "above")
+        words.wordsStartingWith("zoo") `should equal` listOf("zoo")
+        words.wordsStartingWith("a", limit = 3) `should equal` listOf("abandon", "ability", "able")
+        words.wordsStartingWith("xyz") `should equal` emptyList()
+        words.indexOf("zoo") `should equal` 2047
+        ("alll" in words) `should be` false
+    }
+}
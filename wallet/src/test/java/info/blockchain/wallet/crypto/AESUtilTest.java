@@ -184,4 +184,39 @@ public class AESUtilTest {
 
         Assert.assertTrue("Decryption", decrypted.equals(data));
     }
+
+    @Test
+    public void decryptSession_matchesDecryptWithSetMode() throws Exception {
+        String encrypted = AESUtil.encryptWithSetMode(cleartext, pw, iterations, AESUtil.MODE_OFB, new ISO7816d4Padding());
+
+        AESDecryptSession session = new AESDecryptSession(encrypted, pw);
+
+        Assert.assertEquals(cleartext, session.decrypt(iterations, AESUtil.MODE_OFB, new ISO7816d4Padding()));
+        Assert.assertEquals(
+            AESUtil.decryptWithSetMode(encrypted, pw, iterations, AESUtil.MODE_OFB, new ISO7816d4Padding()),
+            session.decrypt(iterations, AESUtil.MODE_OFB, new ISO7816d4Padding())
+        );
+    }
+
+    @Test
+    public void decryptSession_derivesKeyOncePerIterationCount() throws Exception {
+        String encrypted = AESUtil.encryptWithSetMode(cleartext, pw, iterations, AESUtil.MODE_CBC, new ZeroBytePadding());
+
+        AESDecryptSession session = new AESDecryptSession(encrypted, pw);
+        for (int attempt : new int[]{iterations + 1, iterations}) {
+            try {
+                session.decrypt(attempt, AESUtil.MODE_OFB, new ISO10126d2Padding());
+            } catch (Exception e) {
+                // Expected, wrong variant
+            }
+            try {
+                session.decrypt(attempt, AESUtil.MODE_CBC, new ISO10126d2Padding());
+            } catch (Exception e) {
+                // Expected, wrong variant
+            }
+        }
+
+        Assert.assertEquals(cleartext, session.decrypt(iterations, AESUtil.MODE_CBC, new ZeroBytePadding()));
+        Assert.assertEquals(2, session.derivedKeyCount());
+    }
 }
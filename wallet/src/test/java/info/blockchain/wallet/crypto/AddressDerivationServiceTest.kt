@@ -0,0 +1,62 @@
+package info.blockchain.wallet.crypto
+
+import org.bitcoinj.crypto.ChildNumber
+import org.bitcoinj.crypto.HDKeyDerivation
+import org.junit.After
+import org.junit.Assert
+import org.junit.Test
+import java.util.concurrent.ForkJoinPool
+
+class AddressDerivationServiceTest {
+
+    private val accountKey = HDKeyDerivation.createMasterPrivateKey("15e23aa73d25994f1921a1256f93f72c".toByteArray())
+    private val chainKey = HDKeyDerivation.deriveChildKey(accountKey, 0)
+
+    private val pool = ForkJoinPool(3)
+
+    private val subject = AddressDerivationService(pool, 8)
+
+    @After
+    fun tearDown() {
+        pool.shutdown()
+    }
+
+    private fun serial(from: Int, to: Int) =
+        (from until to).map {
+            HDKeyDerivation.deriveChildKey(chainKey, ChildNumber(it, false)).pubKeyHash.toList()
+        }
+
+    @Test
+    fun deriveRangeMatchesSerialDerivation() {
+        val result = subject.deriveRange(chainKey, 3, 103) { _, key -> key.pubKeyHash.toList() }
+
+        Assert.assertEquals(serial(3, 103), result)
+    }
+
+    @Test
+    fun deriveRangePassesIndexes() {
+        val result = subject.deriveRange(chainKey, 10, 60) { index, _ -> index }
+
+        Assert.assertEquals((10 until 60).toList(), result)
+    }
+
+    @Test
+    fun emptyRange() {
+        Assert.assertEquals(emptyList<Int>(), subject.deriveRange(chainKey, 5, 5) { index, _ -> index })
+    }
+
+    @Test
+    fun derivedKeysArePublicOnly() {
+        subject.deriveRange(chainKey, 0, 20) { _, key -> key }.forEach {
+            Assert.assertTrue(it.isPubKeyOnly)
+        }
+    }
+
+    @Test
+    fun deriveChunksEmitsInOrder() {
+        subject.deriveChunks(chainKey, 0, 50, 20) { _, key -> key.pubKeyHash.toList() }
+            .test()
+            .assertValues(serial(0, 20), serial(20, 40), serial(40, 50))
+            .assertComplete()
+    }
+}
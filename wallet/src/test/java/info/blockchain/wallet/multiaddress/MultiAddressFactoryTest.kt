@@ -1,6 +1,7 @@
 package info.blockchain.wallet.multiaddress
 
 import com.nhaarman.mockito_kotlin.any
+import com.nhaarman.mockito_kotlin.doAnswer
 import com.nhaarman.mockito_kotlin.anyOrNull
 import com.nhaarman.mockito_kotlin.mock
 import com.nhaarman.mockito_kotlin.whenever
@@ -9,11 +10,12 @@ import info.blockchain.wallet.MockedResponseTest
 import info.blockchain.wallet.multiaddress.TransactionSummary.TransactionType
 import info.blockchain.wallet.payload.data.XPub
 import info.blockchain.wallet.payload.data.XPubs
-import info.blockchain.wallet.util.parseMultiAddressResponse
-import org.amshove.kluent.itReturns
 import org.junit.Assert.assertEquals
 import org.junit.Assert.assertFalse
 import org.junit.Assert.assertTrue
+import okhttp3.MediaType.Companion.toMediaType
+import okhttp3.ResponseBody
+import okhttp3.ResponseBody.Companion.toResponseBody
 import org.junit.Test
 import retrofit2.Call
 import retrofit2.Response
@@ -31,10 +33,8 @@ class MultiAddressFactoryTest : MockedResponseTest() {
     @Test
     fun getMultiAddress_legacyAddressOnly() {
         val resource = loadResourceContent("multiaddress/multi_address_1jH7K.txt")
-        val body = parseMultiAddressResponse(resource)
-
-        val mockResponse = mockApiResponse(body)
-        whenever(bitcoinApi.getMultiAddress(any(), any(), any(), any(), any(), any(), any()))
+        val mockResponse = mockApiResponse(resource)
+        whenever(bitcoinApi.getMultiAddressStream(any(), any(), any(), any(), any(), any(), any()))
             .thenReturn(mockResponse)
 
         val xpub = XPub(address = dormantAddress, derivation = XPub.Format.LEGACY)
@@ -63,10 +63,8 @@ class MultiAddressFactoryTest : MockedResponseTest() {
     @Test
     fun getMultiAddress_xpubOnly() {
         val resource = loadResourceContent("multiaddress/multi_address_xpub6CFg.txt")
-        val body = parseMultiAddressResponse(resource)
-
-        val mockResponse = mockApiResponse(body)
-        whenever(bitcoinApi.getMultiAddress(any(), any(), any(), any(), any(), any(), any()))
+        val mockResponse = mockApiResponse(resource)
+        whenever(bitcoinApi.getMultiAddressStream(any(), any(), any(), any(), any(), any(), any()))
             .thenReturn(mockResponse)
 
         val xpub = XPub(address = dormantAddress, derivation = XPub.Format.LEGACY)
@@ -106,10 +104,8 @@ class MultiAddressFactoryTest : MockedResponseTest() {
     @Test
     fun getMultiAddress_xpubAndLegacyAddress() {
         val resource = loadResourceContent("multiaddress/multi_address_all.txt")
-        val body = parseMultiAddressResponse(resource)
-
-        val mockResponse = mockApiResponse(body)
-        whenever(bitcoinApi.getMultiAddress(any(), any(), any(), anyOrNull(), any(), any(), any()))
+        val mockResponse = mockApiResponse(resource)
+        whenever(bitcoinApi.getMultiAddressStream(any(), any(), any(), anyOrNull(), any(), any(), any()))
             .thenReturn(mockResponse)
 
         val xpubs1 = XPubs(XPub(address = dormantAddress, derivation = XPub.Format.LEGACY))
@@ -157,10 +153,8 @@ class MultiAddressFactoryTest : MockedResponseTest() {
         val address = "1DtkXqBjvXWsboMpc72U1kfRrK8JTntBLQ"
 
         val resource = loadResourceContent("multiaddress/multi_address_1Dtk.txt")
-        val body = parseMultiAddressResponse(resource)
-
-        val mockResponse = mockApiResponse(body)
-        whenever(bitcoinApi.getMultiAddress(any(), any(), any(), anyOrNull(), any(), any(), any()))
+        val mockResponse = mockApiResponse(resource)
+        whenever(bitcoinApi.getMultiAddressStream(any(), any(), any(), anyOrNull(), any(), any(), any()))
             .thenReturn(mockResponse)
 
         val summary = subject.getAccountTransactions(
@@ -251,10 +245,8 @@ class MultiAddressFactoryTest : MockedResponseTest() {
         val address = "189iKJLruPtUorasDuxmc6fMRVxz6zxpPS"
 
         val resource = loadResourceContent("multiaddress/wallet_v3_6_m1.txt")
-        val body = parseMultiAddressResponse(resource)
-
-        val mockResponse = mockApiResponse(body)
-        whenever(bitcoinApi.getMultiAddress(any(), any(), any(), anyOrNull(), any(), any(), any()))
+        val mockResponse = mockApiResponse(resource)
+        whenever(bitcoinApi.getMultiAddressStream(any(), any(), any(), anyOrNull(), any(), any(), any()))
             .thenReturn(mockResponse)
 
         val transactionSummaries = subject.getAccountTransactions(
@@ -361,14 +353,10 @@ class MultiAddressFactoryTest : MockedResponseTest() {
         ) // My Bitcoin Wallet
     }
 
-    private fun <T> mockApiResponse(responseBody: T): Call<T> {
-        val response: Response<T> = mock {
-            on { body() } itReturns responseBody
-            on { isSuccessful } itReturns true
-        }
-
-        return mock {
-            on { execute() } itReturns response
+    private fun mockApiResponse(responseBody: String): Call<ResponseBody> =
+        mock {
+            on { execute() } doAnswer {
+                Response.success(responseBody.toResponseBody("application/json".toMediaType()))
+            }
         }
-    }
 }
\ No newline at end of file
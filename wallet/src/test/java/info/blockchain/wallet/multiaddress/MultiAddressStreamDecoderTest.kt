@@ -0,0 +1,101 @@
+package info.blockchain.wallet.multiaddress
+
+import com.blockchain.api.bitcoin.MultiAddressStreamDecoder
+import com.blockchain.api.bitcoin.MultiAddressVisitor
+import com.blockchain.api.bitcoin.data.AddressSummary
+import com.blockchain.api.bitcoin.data.Info
+import com.blockchain.api.bitcoin.data.Transaction
+import com.squareup.moshi.JsonDataException
+import info.blockchain.wallet.MockedResponseTest
+import info.blockchain.wallet.util.parseMultiAddressResponse
+import okio.Buffer
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertTrue
+import org.junit.Test
+
+class MultiAddressStreamDecoderTest : MockedResponseTest() {
+
+    private class Collector : MultiAddressVisitor {
+        val addresses = mutableListOf<AddressSummary>()
+        val txs = mutableListOf<Transaction>()
+        val infos = mutableListOf<Info>()
+
+        override fun onAddress(address: AddressSummary) {
+            addresses.add(address)
+        }
+
+        override fun onTransaction(tx: Transaction) {
+            txs.add(tx)
+        }
+
+        override fun onInfo(info: Info) {
+            infos.add(info)
+        }
+    }
+
+    private fun decode(json: String): Collector =
+        Collector().also { MultiAddressStreamDecoder.decode(Buffer().writeUtf8(json), it) }
+
+    @Test
+    fun `streamed fixtures match the serializer`() {
+        fixtures.forEach { name ->
+            val resource = loadResourceContent("multiaddress/$name")
+            val expected = parseMultiAddressResponse(resource)
+
+            val streamed = decode(resource)
+
+            assertEquals(name, expected.addresses, streamed.addresses)
+            assertEquals(name, expected.txs, streamed.txs)
+            assertEquals(name, listOf(expected.info), streamed.infos)
+        }
+    }
+
+    @Test
+    fun `info after txs and unknown fields are handled`() {
+        val streamed = decode(
+            """
+            {
+              "txs": [{"hash": "abc", "result": -5, "block_height": null, "unknown": {"a": [1, 2]},
+                       "out": [{"value": 5, "addr": "1abc", "xpub": {"m": "xpub1", "path": "M/1/2"}}]}],
+              "wallet": {"total_received": 0, "total_sent": 0, "final_balance": 0},
+              "info": {"latest_block": {"height": 100}},
+              "addresses": null
+            }
+            """.trimIndent()
+        )
+
+        assertEquals(1, streamed.txs.size)
+        assertEquals(null, streamed.txs[0].blockHeight)
+        assertEquals("M/1/2", streamed.txs[0].out[0].xpub!!.derivationPath)
+        assertEquals(100L, streamed.infos[0].latestBlock.height)
+        assertTrue(streamed.addresses.isEmpty())
+    }
+
+    @Test
+    fun `large amounts keep their precision`() {
+        val streamed = decode("""{"txs": [{"result": 123456789012345678901234567890}]}""")
+
+        assertEquals("123456789012345678901234567890", streamed.txs[0].result.toString())
+    }
+
+    @Test(expected = JsonDataException::class)
+    fun `missing result is rejected`() {
+        decode("""{"txs": [{"hash": "abc"}]}""")
+    }
+
+    companion object {
+        private val fixtures = listOf(
+            "multi_address_1Dtk.txt",
+            "multi_address_1jH7K.txt",
+            "multi_address_all.txt",
+            "multi_address_xpub6CFg.txt",
+            "wallet_v3_5_m1.txt",
+            "wallet_v3_5_m2.txt",
+            "wallet_v3_5_m3.txt",
+            "wallet_v3_5_m4.txt",
+            "wallet_v3_6_m1.txt",
+            "wallet_v3_6_m2.txt",
+            "wallet_v3_6_m3.txt"
+        )
+    }
+}
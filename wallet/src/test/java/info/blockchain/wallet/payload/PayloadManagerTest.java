@@ -2,7 +2,6 @@ package info.blockchain.wallet.payload;
 
 import com.blockchain.api.NonCustodialBitcoinService;
 import com.blockchain.api.bitcoin.data.BalanceDto;
-import com.blockchain.api.bitcoin.data.MultiAddress;
 import info.blockchain.wallet.ImportedAddressHelper;
 import info.blockchain.wallet.WalletApiMockedResponseTest;
 import info.blockchain.wallet.exceptions.HDWalletException;
@@ -19,6 +18,7 @@ import info.blockchain.wallet.payload.data.ImportedAddress;
 import info.blockchain.wallet.payload.data.Wallet;
 import info.blockchain.wallet.payload.data.XPub;
 import info.blockchain.wallet.payload.data.XPubs;
+import okhttp3.ResponseBody;
 import retrofit2.Call;
 
 import org.bitcoinj.core.Base58;
@@ -518,18 +518,18 @@ public final class PayloadManagerTest extends WalletApiMockedResponseTest {
         mockEmptyBalance(bitcoinApi);
 
         String multi1 = loadResourceContent("multiaddress/wallet_v3_5_m1.txt");
-        Call<MultiAddress> multiResponse1 = makeMultiAddressResponse(multi1);
+        Call<ResponseBody> multiResponse1 = makeMultiAddressResponse(multi1);
 
         String multi2 = loadResourceContent("multiaddress/wallet_v3_5_m2.txt");
-        Call<MultiAddress> multiResponse2 = makeMultiAddressResponse(multi2);
+        Call<ResponseBody> multiResponse2 = makeMultiAddressResponse(multi2);
 
         String multi3 = loadResourceContent("multiaddress/wallet_v3_5_m3.txt");
-        Call<MultiAddress> multiResponse3 = makeMultiAddressResponse(multi3);
+        Call<ResponseBody> multiResponse3 = makeMultiAddressResponse(multi3);
 
         String multi4 = loadResourceContent("multiaddress/wallet_v3_5_m4.txt");
-        Call<MultiAddress> multiResponse4 = makeMultiAddressResponse(multi4);
+        Call<ResponseBody> multiResponse4 = makeMultiAddressResponse(multi4);
 
-        when(bitcoinApi.getMultiAddress(
+        when(bitcoinApi.getMultiAddressStream(
             any(String.class), any(), any(), any(String.class), any(), any(Integer.class), any(Integer.class)
         )).thenReturn(multiResponse1)
             .thenReturn(multiResponse2)
@@ -0,0 +1,55 @@
+package info.blockchain.wallet.payload
+
+import org.amshove.kluent.`should equal`
+import org.junit.Test
+
+class PubKeySyncTrackerTest {
+
+    private val subject = PubKeySyncTracker()
+
+    @Test
+    fun `first save sends the whole window`() {
+        subject.begin(false).claimRange("xpub", 44, 5, 25) `should equal` 5
+    }
+
+    @Test
+    fun `later save only sends indices beyond the synced range`() {
+        subject.begin(false).apply { claimRange("xpub", 44, 5, 25) }.commit()
+
+        subject.begin(false).claimRange("xpub", 44, 7, 27) `should equal` 25
+        subject.begin(false).claimRange("xpub", 44, 5, 25) `should equal` 25
+    }
+
+    @Test
+    fun `uncommitted save is sent again`() {
+        subject.begin(false).claimRange("xpub", 44, 5, 25)
+
+        subject.begin(false).claimRange("xpub", 44, 5, 25) `should equal` 5
+    }
+
+    @Test
+    fun `full sync and other purposes are unaffected by the synced range`() {
+        subject.begin(false).apply { claimRange("xpub", 44, 0, 20) }.commit()
+
+        subject.begin(true).claimRange("xpub", 44, 0, 20) `should equal` 0
+        subject.begin(false).claimRange("xpub", 84, 0, 20) `should equal` 0
+    }
+
+    @Test
+    fun `imported addresses are only sent until synced`() {
+        subject.begin(false).apply { addImported("1abc") }.also {
+            it.addresses `should equal` listOf("1abc")
+        }.commit()
+
+        subject.begin(false).apply { addImported("1abc") }.addresses `should equal` emptyList()
+        subject.begin(true).apply { addImported("1abc") }.addresses `should equal` listOf("1abc")
+    }
+
+    @Test
+    fun `reset forgets synced ranges`() {
+        subject.begin(false).apply { claimRange("xpub", 44, 0, 20) }.commit()
+        subject.reset()
+
+        subject.begin(false).claimRange("xpub", 44, 0, 20) `should equal` 0
+    }
+}
@@ -3,6 +3,7 @@ package info.blockchain.wallet.payload.data;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import info.blockchain.wallet.MockedResponseTest;
+import info.blockchain.wallet.exceptions.DecryptionException;
 import org.apache.commons.lang3.tuple.Pair;
 import org.json.JSONObject;
 import org.junit.Assert;
@@ -148,6 +149,13 @@ public class WalletBaseTest extends MockedResponseTest {
         Assert.assertEquals("4077b6d9-73b3-4d22-96d4-9f8810fec435", walletBaseBody.getWalletBody().getGuid());
     }
 
+    @Test(expected = DecryptionException.class)
+    public void decryptPayload_noPayload() throws Exception {
+        WalletBase walletBaseBody = new WalletBase();
+
+        walletBaseBody.decryptPayload("mypassword");
+    }
+
     @Test
     public void encryptAndWrapPayload() throws Exception {
 
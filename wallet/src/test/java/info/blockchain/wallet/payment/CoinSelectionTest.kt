@@ -118,4 +118,41 @@ class CoinSelectionTest {
             it.consumedAmount `should equal` BigInteger.ZERO
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    fun `branch and bound finds a selection with no change output`() {
+        val coins = unspents(150000, 60000, 48195, 20000)
+        val selected = unspents(60000, 48195)
+        val outputAmount = 89385.toBigInteger()
+
+        CoinSelection(coins, feePerByte).select(
+            outputAmount = outputAmount,
+            targetOutputType = OutputType.P2PKH,
+            changeOutputType = OutputType.P2PKH,
+            coinSortingMethod = DescentDraw,
+            branchAndBoundTries = 1000
+        ).also {
+            it.spendableOutputs.values() `should equal` selected.values()
+            it.absoluteFee `should equal` 18810.toBigInteger()
+            it.consumedAmount `should equal` BigInteger.ZERO
+        }
+    }
+
+    @Test
+    fun `branch and bound falls back to the sorting method when there is no match`() {
+        val coins = unspents(1, 20000, 0, 0, 300000, 50000, 30000)
+        val outputAmount = 100000.toBigInteger()
+
+        CoinSelection(coins, feePerByte).select(
+            outputAmount = outputAmount,
+            targetOutputType = OutputType.P2PKH,
+            changeOutputType = OutputType.P2PKH,
+            coinSortingMethod = DescentDraw,
+            branchAndBoundTries = 1000
+        ).also {
+            it.spendableOutputs.values() `should equal` unspents(300000).values()
+            it.absoluteFee `should equal` 12485.toBigInteger()
+            it.consumedAmount `should equal` BigInteger.ZERO
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package info.blockchain.wallet.util
+
+import com.fasterxml.jackson.databind.ObjectMapper
+import info.blockchain.wallet.payload.data.AddressCache
+import info.blockchain.wallet.payload.data.WalletWrapper
+import org.amshove.kluent.`should be`
+import org.amshove.kluent.`should equal`
+import org.amshove.kluent.`should not be`
+import org.junit.Test
+
+class JsonMappersTest {
+
+    @Test
+    fun `readers and writers of shared mappers are cached`() {
+        JsonMappers.readerFor(JsonMappers.plain(), AddressCache::class.java) `should be`
+            JsonMappers.readerFor(JsonMappers.plain(), AddressCache::class.java)
+        JsonMappers.writerFor(JsonMappers.plain(), AddressCache::class.java) `should be`
+            JsonMappers.writerFor(JsonMappers.plain(), AddressCache::class.java)
+    }
+
+    @Test
+    fun `readers of unregistered mappers are not cached`() {
+        val mapper = ObjectMapper()
+        JsonMappers.readerFor(mapper, AddressCache::class.java) `should not be`
+            JsonMappers.readerFor(mapper, AddressCache::class.java)
+    }
+
+    @Test
+    fun `wrapper mappers are shared per version`() {
+        WalletWrapper.getMapperForVersion(WalletWrapper.V4) `should be`
+            WalletWrapper.getMapperForVersion(WalletWrapper.V4)
+        WalletWrapper.getMapperForVersion(WalletWrapper.V3) `should not be`
+            WalletWrapper.getMapperForVersion(WalletWrapper.V4)
+    }
+
+    @Test
+    fun `round trip matches a fresh mapper`() {
+        val cache = AddressCache("xpub1", "xpub2")
+        val json = JsonMappers.toJson(cache)
+
+        json `should equal` ObjectMapper().writeValueAsString(cache)
+        JsonMappers.fromJson(json, AddressCache::class.java) `should equal` cache
+    }
+}